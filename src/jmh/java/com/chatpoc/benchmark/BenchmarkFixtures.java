@@ -0,0 +1,52 @@
+package com.chatpoc.benchmark;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.infrastructure.persistence.ChatEntity;
+import com.chatpoc.infrastructure.persistence.ChatEntityMapper;
+import com.chatpoc.infrastructure.persistence.ParticipantIdentityEntity;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+final class BenchmarkFixtures {
+    
+    static final Instant START = Instant.parse("2024-01-01T10:00:00Z");
+    
+    private BenchmarkFixtures() {
+    }
+    
+    static Set<Participant> participants(int count) {
+        Set<Participant> participants = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            participants.add(Participant.of("User " + i, "user" + i + "@example.com"));
+        }
+        return participants;
+    }
+    
+    static List<Message> history(List<Participant> senders, int size) {
+        List<Message> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            messages.add(Message.reconstruct(
+                UUID.randomUUID(),
+                "Message numéro " + i + " envoyé pendant le benchmark",
+                senders.get(i % senders.size()),
+                START.plusNanos(i * 1_000_000L)
+            ));
+        }
+        return messages;
+    }
+    
+    static ChatEntity persisted(Chat chat) {
+        return ChatEntityMapper.merge(chat, new ChatEntity(chat.getId(), chat.getName(), chat.getCreatedAt()), senders());
+    }
+    
+    // Stands in for ParticipantIdentityRegistry: one identity per sender, shared by its messages
+    static Function<Participant, ParticipantIdentityEntity> senders() {
+        Map<String, ParticipantIdentityEntity> identities = new HashMap<>();
+        return participant -> identities.computeIfAbsent(participant.getEmail().value(),
+            email -> new ParticipantIdentityEntity(participant.getName().value(), email));
+    }
+}
@@ -0,0 +1,101 @@
+package com.chatpoc.benchmark;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.ThreadMXBean;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérifie que reconstruire et lire un gros chat n'alloue pas de déchets proportionnels à l'historique :
+ * chaque itération mesure les octets alloués par opération sur le thread du benchmark et échoue au-delà
+ * du budget. La reconstruction n'a droit qu'au tableau de références qui devient le stockage du chat,
+ * les lectures à un objet de vue au plus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatAllocationBenchmark {
+    
+    // Chat, participant set, event list and view objects, independent of the history size
+    private static final long FIXED_BUDGET_BYTES = 1024;
+    private static final long VIEW_BUDGET_BYTES = 64;
+    
+    @Param({"1000", "100000"})
+    private int historySize;
+    
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    private UUID chatId;
+    private Set<Participant> participants;
+    private List<Message> history;
+    private Chat loaded;
+    private long allocatedAtStart;
+    private long operations;
+    
+    @Setup
+    public void setUp() {
+        chatId = UUID.randomUUID();
+        participants = BenchmarkFixtures.participants(10);
+        history = BenchmarkFixtures.history(new ArrayList<>(participants), historySize);
+        loaded = Chat.reconstruct(chatId, "Benchmark Chat", participants, history, BenchmarkFixtures.START);
+    }
+    
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        operations = 0;
+        allocatedAtStart = threads.getCurrentThreadAllocatedBytes();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void checkAllocation(BenchmarkParams params) {
+        long perOperation = (threads.getCurrentThreadAllocatedBytes() - allocatedAtStart) / Math.max(1, operations);
+        String benchmark = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+        long budget = benchmark.equals("reconstruct")
+            ? FIXED_BUDGET_BYTES + referenceArrayBytes(historySize)
+            : VIEW_BUDGET_BYTES;
+        if (perOperation > budget) {
+            throw new IllegalStateException(benchmark + " allocated " + perOperation + " bytes per operation with "
+                + historySize + " messages, budget is " + budget);
+        }
+    }
+    
+    @Benchmark
+    public Chat reconstruct() {
+        operations++;
+        return Chat.reconstruct(chatId, "Benchmark Chat", participants, history, BenchmarkFixtures.START);
+    }
+    
+    @Benchmark
+    public List<Message> recentMessages() {
+        operations++;
+        return loaded.getRecentMessages(50);
+    }
+    
+    @Benchmark
+    public List<Message> allMessages() {
+        operations++;
+        return loaded.getMessages();
+    }
+    
+    @Benchmark
+    public Set<Participant> participants() {
+        operations++;
+        return loaded.getParticipants();
+    }
+    
+    private static long referenceArrayBytes(int length) {
+        HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        int referenceSize = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue()) ? 4 : 8;
+        return 16 + (long) length * referenceSize;
+    }
+}
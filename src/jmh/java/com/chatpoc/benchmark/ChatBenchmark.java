@@ -0,0 +1,65 @@
+package com.chatpoc.benchmark;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatBenchmark {
+    
+    @Param({"0", "1000", "100000"})
+    private int historySize;
+    
+    @Param({"1", "10", "50"})
+    private int participantCount;
+    
+    private UUID chatId;
+    private Set<Participant> participants;
+    private List<Message> history;
+    private Participant knownSender;
+    private Participant newSender;
+    
+    @Setup
+    public void setUp() {
+        chatId = UUID.randomUUID();
+        participants = BenchmarkFixtures.participants(participantCount);
+        List<Participant> senders = new ArrayList<>(participants);
+        history = BenchmarkFixtures.history(senders, historySize);
+        knownSender = senders.get(0);
+        // A full chat cannot accept a newcomer: fall back to the existing-participant path
+        newSender = participantCount < 50 ? Participant.of("Nouvel Arrivant", "nouveau@example.com") : knownSender;
+    }
+    
+    @Benchmark
+    public Chat reconstruct() {
+        return Chat.reconstruct(chatId, "Benchmark Chat", participants, history, BenchmarkFixtures.START);
+    }
+    
+    // A chat is rebuilt per request in ChatService, so the send path is measured from reconstruction
+    @Benchmark
+    public Message sendMessageFromParticipant() {
+        Chat chat = Chat.reconstruct(chatId, "Benchmark Chat", participants, history, BenchmarkFixtures.START);
+        return chat.sendMessage("Bonjour tout le monde !", knownSender);
+    }
+    
+    @Benchmark
+    public Message sendMessageFromNewParticipant() {
+        Chat chat = Chat.reconstruct(chatId, "Benchmark Chat", participants, history, BenchmarkFixtures.START);
+        return chat.sendMessage("Bonjour, je suis nouveau !", newSender);
+    }
+    
+    @Benchmark
+    public List<Message> getRecentMessages() {
+        Chat chat = Chat.reconstruct(chatId, "Benchmark Chat", participants, history, BenchmarkFixtures.START);
+        return chat.getRecentMessages(50);
+    }
+}
@@ -0,0 +1,65 @@
+package com.chatpoc.benchmark;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.infrastructure.persistence.ChatEntity;
+import com.chatpoc.infrastructure.persistence.ChatEntityMapper;
+import com.chatpoc.infrastructure.persistence.MessageEntity;
+import com.chatpoc.infrastructure.persistence.ParticipantIdentityEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatMappingBenchmark {
+    
+    @Param({"0", "1000", "100000"})
+    private int historySize;
+    
+    @Param({"1", "10", "50"})
+    private int participantCount;
+    
+    private Chat chat;
+    private ChatEntity persistedEntity;
+    private List<MessageEntity> messageEntities;
+    private Function<Participant, ParticipantIdentityEntity> senders;
+    
+    @Setup
+    public void setUp() {
+        Set<Participant> participants = BenchmarkFixtures.participants(participantCount);
+        List<Message> history = BenchmarkFixtures.history(new ArrayList<>(participants), historySize);
+        chat = Chat.reconstruct(UUID.randomUUID(), "Benchmark Chat", participants, history, BenchmarkFixtures.START);
+        persistedEntity = BenchmarkFixtures.persisted(chat);
+        messageEntities = new ArrayList<>(persistedEntity.getMessages());
+        senders = BenchmarkFixtures.senders();
+    }
+    
+    @Benchmark
+    public Chat toDomain() {
+        return ChatEntityMapper.toDomain(persistedEntity);
+    }
+    
+    @Benchmark
+    public List<Message> toMessages() {
+        return ChatEntityMapper.toMessages(messageEntities);
+    }
+    
+    @Benchmark
+    public ChatEntity toEntityNewChat() {
+        return ChatEntityMapper.merge(chat, new ChatEntity(chat.getId(), chat.getName(), chat.getCreatedAt()), senders);
+    }
+    
+    // Nothing new to insert: measures the cost of diffing against the persisted collections
+    @Benchmark
+    public ChatEntity toEntityPersistedChat() {
+        return ChatEntityMapper.merge(chat, persistedEntity, senders);
+    }
+}
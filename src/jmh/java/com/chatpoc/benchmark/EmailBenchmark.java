@@ -0,0 +1,43 @@
+package com.chatpoc.benchmark;
+
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.shared.Email;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailBenchmark {
+    
+    @Param({
+        "john@example.com",
+        "  Jean.Dupont+chat@Sous-Domaine.Example.FR  ",
+        "a.very.long.local.part.with.many.dots@a.rather.long.subdomain.example.com",
+        "not-an-email@",
+        "missing-tld@example"
+    })
+    private String email;
+    
+    @Benchmark
+    public Email validate() {
+        try {
+            return new Email(email);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    @Benchmark
+    public Participant participant() {
+        try {
+            return Participant.of("Jean Dupont", email);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.chatpoc.benchmark;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.infrastructure.web.MessageDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSerializationBenchmark {
+    
+    @Param({"0", "1000", "100000"})
+    private int historySize;
+    
+    @Param({"1", "10", "50"})
+    private int participantCount;
+    
+    private Message message;
+    private List<Message> history;
+    private List<MessageDTO> historyDtos;
+    private ObjectMapper objectMapper;
+    
+    @Setup
+    public void setUp() {
+        List<Participant> senders = new ArrayList<>(BenchmarkFixtures.participants(participantCount));
+        message = BenchmarkFixtures.history(senders, 1).get(0);
+        history = BenchmarkFixtures.history(senders, historySize);
+        historyDtos = history.stream().map(MessageDTO::fromDomain).collect(Collectors.toList());
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+    
+    @Benchmark
+    public MessageDTO fromDomain() {
+        return MessageDTO.fromDomain(message);
+    }
+    
+    @Benchmark
+    public List<MessageDTO> fromDomainHistory() {
+        return history.stream().map(MessageDTO::fromDomain).collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public byte[] serializeMessage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(MessageDTO.fromDomain(message));
+    }
+    
+    @Benchmark
+    public byte[] serializeHistory() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(historyDtos);
+    }
+}
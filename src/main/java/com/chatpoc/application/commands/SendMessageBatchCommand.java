@@ -0,0 +1,7 @@
+package com.chatpoc.application.commands;
+
+import java.util.List;
+
+public record SendMessageBatchCommand(
+    List<SendMessageCommand> messages
+) {}
@@ -0,0 +1,3 @@
+package com.chatpoc.application.queries;
+
+public record GetChatSummariesQuery(int page, int size) {}
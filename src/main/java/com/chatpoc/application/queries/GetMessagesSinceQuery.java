@@ -0,0 +1,5 @@
+package com.chatpoc.application.queries;
+
+import java.util.UUID;
+
+public record GetMessagesSinceQuery(UUID chatId, long sequence, int limit) {}
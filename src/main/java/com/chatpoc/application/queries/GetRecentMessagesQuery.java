@@ -2,4 +2,9 @@ package com.chatpoc.application.queries;
 
 import java.util.UUID;
 
-public record GetRecentMessagesQuery(UUID chatId, int limit) {}
\ No newline at end of file
+public record GetRecentMessagesQuery(UUID chatId, int limit, UUID before, UUID after) {
+    
+    public GetRecentMessagesQuery(UUID chatId, int limit) {
+        this(chatId, limit, null, null);
+    }
+}
\ No newline at end of file
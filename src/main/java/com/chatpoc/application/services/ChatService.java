@@ -1,24 +1,31 @@
 package com.chatpoc.application.services;
 
 import com.chatpoc.application.commands.CreateChatCommand;
+import com.chatpoc.application.commands.SendMessageBatchCommand;
 import com.chatpoc.application.commands.SendMessageCommand;
 import com.chatpoc.application.queries.GetChatQuery;
+import com.chatpoc.application.queries.GetChatSummariesQuery;
+import com.chatpoc.application.queries.GetMessagesSinceQuery;
 import com.chatpoc.application.queries.GetRecentMessagesQuery;
 import com.chatpoc.domain.chat.Chat;
 import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.MessageDraft;
 import com.chatpoc.domain.chat.Participant;
 import com.chatpoc.domain.chat.repository.ChatRepository;
+import com.chatpoc.domain.chat.repository.ChatSummary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 @Transactional
 public class ChatService {
     
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_EXPORT_SIZE = 10_000;
+    
     private final ChatRepository chatRepository;
     private final DomainEventPublisher eventPublisher;
     
@@ -43,38 +50,177 @@ public class ChatService {
     public Message sendMessage(SendMessageCommand command) {
         Objects.requireNonNull(command, "SendMessageCommand cannot be null");
         
-        Chat chat = chatRepository.findById(command.chatId())
+        Chat chat = chatRepository.findByIdWithParticipants(command.chatId())
             .orElseThrow(() -> new IllegalArgumentException("Chat not found with id: " + command.chatId()));
         
         Participant sender = Participant.of(command.senderName(), command.senderEmail());
+        boolean newParticipant = !chat.hasParticipant(sender);
+        chat.resumeSequenceAfter(chatRepository.lockLastSequence(chat.getId()));
         Message message = chat.sendMessage(command.content(), sender);
         
-        Chat savedChat = chatRepository.save(chat);
+        if (newParticipant) {
+            chatRepository.addParticipantIfAbsent(chat.getId(), sender);
+        }
+        chatRepository.appendMessage(chat.getId(), message);
         
-        publishDomainEvents(savedChat);
+        publishDomainEvents(chat);
         
         return message;
     }
     
+    public List<Message> sendMessages(SendMessageBatchCommand command) {
+        Objects.requireNonNull(command, "SendMessageBatchCommand cannot be null");
+        Objects.requireNonNull(command.messages(), "Messages cannot be null");
+        
+        if (command.messages().isEmpty()) {
+            throw new IllegalArgumentException("Messages cannot be empty");
+        }
+        
+        if (command.messages().size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot exceed " + MAX_BATCH_SIZE + " messages");
+        }
+        
+        Map<UUID, List<MessageDraft>> draftsByChat = new LinkedHashMap<>();
+        for (SendMessageCommand message : command.messages()) {
+            Objects.requireNonNull(message, "SendMessageCommand cannot be null");
+            draftsByChat.computeIfAbsent(message.chatId(), chatId -> new ArrayList<>())
+                .add(new MessageDraft(message.content(), Participant.of(message.senderName(), message.senderEmail())));
+        }
+        
+        // Sequences are locked in a fixed chat order so that concurrent multi-chat batches cannot deadlock
+        Map<UUID, Long> lastSequences = new HashMap<>();
+        draftsByChat.keySet().stream()
+            .sorted()
+            .forEach(chatId -> lastSequences.put(chatId, chatRepository.lockLastSequence(chatId)));
+        
+        // Every chat is loaded and every message validated before the first write
+        Map<UUID, Chat> chats = new LinkedHashMap<>();
+        Map<UUID, Set<Participant>> newcomersByChat = new HashMap<>();
+        Map<UUID, List<Message>> sentByChat = new HashMap<>();
+        draftsByChat.forEach((chatId, drafts) -> {
+            Chat chat = chatRepository.findByIdWithParticipants(chatId)
+                .orElseThrow(() -> new IllegalArgumentException("Chat not found with id: " + chatId));
+            
+            Set<Participant> newcomers = new LinkedHashSet<>();
+            drafts.stream()
+                .map(MessageDraft::sender)
+                .filter(sender -> !chat.hasParticipant(sender))
+                .forEach(newcomers::add);
+            
+            chat.resumeSequenceAfter(lastSequences.get(chatId));
+            chats.put(chatId, chat);
+            newcomersByChat.put(chatId, newcomers);
+            sentByChat.put(chatId, chat.sendMessages(drafts));
+        });
+        
+        chats.forEach((chatId, chat) -> {
+            newcomersByChat.get(chatId).forEach(participant -> chatRepository.addParticipantIfAbsent(chatId, participant));
+            chatRepository.appendMessages(chatId, sentByChat.get(chatId));
+        });
+        
+        chats.values().forEach(this::publishDomainEvents);
+        
+        Map<UUID, Iterator<Message>> remaining = new HashMap<>();
+        sentByChat.forEach((chatId, messages) -> remaining.put(chatId, messages.iterator()));
+        
+        List<Message> sent = new ArrayList<>(command.messages().size());
+        for (SendMessageCommand message : command.messages()) {
+            sent.add(remaining.get(message.chatId()).next());
+        }
+        return sent;
+    }
+    
     @Transactional(readOnly = true)
     public Optional<Chat> getChat(GetChatQuery query) {
         Objects.requireNonNull(query, "GetChatQuery cannot be null");
         return chatRepository.findById(query.chatId());
     }
     
+    @Transactional(readOnly = true)
+    public boolean chatExists(GetChatQuery query) {
+        Objects.requireNonNull(query, "GetChatQuery cannot be null");
+        return chatRepository.existsById(query.chatId());
+    }
+    
     @Transactional(readOnly = true)
     public List<Message> getRecentMessages(GetRecentMessagesQuery query) {
         Objects.requireNonNull(query, "GetRecentMessagesQuery cannot be null");
         
-        Chat chat = chatRepository.findById(query.chatId())
-            .orElseThrow(() -> new IllegalArgumentException("Chat not found with id: " + query.chatId()));
+        if (query.limit() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit cannot exceed " + MAX_PAGE_SIZE);
+        }
         
-        return chat.getRecentMessages(query.limit());
+        return findMessages(query);
     }
     
+    // Same pages as getRecentMessages, larger ones for the binary export
     @Transactional(readOnly = true)
-    public List<Chat> getAllChats() {
-        return chatRepository.findAll();
+    public List<Message> exportMessages(GetRecentMessagesQuery query) {
+        Objects.requireNonNull(query, "GetRecentMessagesQuery cannot be null");
+        
+        if (query.limit() > MAX_EXPORT_SIZE) {
+            throw new IllegalArgumentException("Export limit cannot exceed " + MAX_EXPORT_SIZE);
+        }
+        
+        return findMessages(query);
+    }
+    
+    private List<Message> findMessages(GetRecentMessagesQuery query) {
+        if (query.limit() <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        if (query.before() != null && query.after() != null) {
+            throw new IllegalArgumentException("Cannot combine before and after cursors");
+        }
+        
+        if (!chatRepository.existsById(query.chatId())) {
+            throw new IllegalArgumentException("Chat not found with id: " + query.chatId());
+        }
+        
+        if (query.before() != null) {
+            return chatRepository.findMessagesBefore(query.chatId(), query.before(), query.limit());
+        }
+        
+        if (query.after() != null) {
+            return chatRepository.findMessagesAfter(query.chatId(), query.after(), query.limit());
+        }
+        
+        return chatRepository.findRecentMessages(query.chatId(), query.limit());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Message> getMessagesSince(GetMessagesSinceQuery query) {
+        Objects.requireNonNull(query, "GetMessagesSinceQuery cannot be null");
+        
+        if (query.sequence() < 0) {
+            throw new IllegalArgumentException("Sequence cannot be negative");
+        }
+        
+        if (query.limit() <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        return chatRepository.findMessagesSince(query.chatId(), query.sequence(), query.limit());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ChatSummary> getChatSummaries(GetChatSummariesQuery query) {
+        Objects.requireNonNull(query, "GetChatSummariesQuery cannot be null");
+        
+        if (query.page() < 0) {
+            throw new IllegalArgumentException("Page cannot be negative");
+        }
+        
+        if (query.size() <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        
+        if (query.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size cannot exceed " + MAX_PAGE_SIZE);
+        }
+        
+        return chatRepository.findSummaries(query.page(), query.size());
     }
     
     private void publishDomainEvents(Chat chat) {
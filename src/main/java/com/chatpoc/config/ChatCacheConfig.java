@@ -0,0 +1,28 @@
+package com.chatpoc.config;
+
+import com.chatpoc.infrastructure.persistence.CachingChatRepository;
+import com.chatpoc.infrastructure.persistence.ChatRepositoryImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "chat.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ChatCacheConfig {
+    
+    @Bean
+    @Primary
+    public CachingChatRepository cachingChatRepository(
+            ChatRepositoryImpl chatRepositoryImpl,
+            MeterRegistry meterRegistry,
+            @Value("${chat.cache.max-chats:1000}") int maxChats,
+            @Value("${chat.cache.recent-messages:50}") int recentMessages,
+            @Value("${chat.cache.expire-after-access:10m}") Duration expireAfterAccess) {
+        return new CachingChatRepository(chatRepositoryImpl, maxChats, recentMessages, expireAfterAccess, meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.chatpoc.config;
+
+import com.chatpoc.domain.shared.DomainClock;
+import com.chatpoc.infrastructure.time.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ClockConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClockConfig.class);
+    
+    // Like the id generator, the clock is installed for the whole JVM; a zero tick reads the system clock on every call
+    @Bean
+    public Clock domainClock(@Value("${chat.clock.tick:1ms}") Duration tick) {
+        Clock clock = tick.isZero() ? Clock.systemUTC() : new CoarseClock(Clock.systemUTC(), tick);
+        DomainClock.use(clock);
+        logger.info("Horloge du domaine : {}", tick.isZero() ? "système" : "grossière, tic de " + tick.toMillis() + " ms");
+        return clock;
+    }
+}
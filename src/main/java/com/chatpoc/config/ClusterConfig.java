@@ -0,0 +1,73 @@
+package com.chatpoc.config;
+
+import com.chatpoc.infrastructure.broker.TopicBroker;
+import com.chatpoc.infrastructure.cluster.ClusterRelay;
+import com.chatpoc.infrastructure.cluster.ClusterTransport;
+import com.chatpoc.infrastructure.cluster.TcpClusterTransport;
+import com.chatpoc.infrastructure.web.MessageTopicPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+@Configuration
+@ConditionalOnProperty(name = "chat.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+    
+    // Messages written through another node never reach the hot-chat cache of this one: peers only receive the
+    // broadcasts of destinations they subscribe to, so a cached chat without local subscriber would serve stale
+    // history and empty resumes
+    public ClusterConfig(@Value("${chat.cache.enabled:true}") boolean cacheEnabled) {
+        if (cacheEnabled) {
+            throw new IllegalStateException("chat.cluster.enabled=true requires chat.cache.enabled=false");
+        }
+    }
+    
+    @Bean
+    public TcpClusterTransport clusterTransport(
+            MeterRegistry meterRegistry,
+            @Value("${chat.cluster.tcp.port:7800}") int port,
+            @Value("${chat.cluster.tcp.peers:}") String peers,
+            @Value("${chat.cluster.reconnect-interval:2s}") Duration reconnectInterval,
+            @Value("${chat.cluster.send-queue-capacity:10000}") int sendQueueCapacity) {
+        return new TcpClusterTransport(port, parsePeers(peers), reconnectInterval, sendQueueCapacity, meterRegistry);
+    }
+    
+    @Bean
+    public ClusterRelay clusterRelay(
+            TopicBroker topicBroker,
+            ClusterTransport clusterTransport,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${chat.cluster.node-id:}") String nodeId) {
+        String effectiveNodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        // Peers exchange JSON, binary subscribers get it re-encoded locally
+        return new ClusterRelay(effectiveNodeId, topicBroker, clusterTransport, meterRegistry,
+            (payload, contentType) -> MessageTopicPayload.fromJson(payload, contentType, objectMapper));
+    }
+    
+    static List<InetSocketAddress> parsePeers(String peers) {
+        return Arrays.stream(peers.split(","))
+            .map(String::trim)
+            .filter(StringUtils::hasText)
+            .map(ClusterConfig::parsePeer)
+            .toList();
+    }
+    
+    private static InetSocketAddress parsePeer(String peer) {
+        int separator = peer.lastIndexOf(':');
+        if (separator <= 0 || separator == peer.length() - 1) {
+            throw new IllegalArgumentException("Cluster peer must be host:port, got: " + peer);
+        }
+        return InetSocketAddress.createUnresolved(peer.substring(0, separator), Integer.parseInt(peer.substring(separator + 1)));
+    }
+}
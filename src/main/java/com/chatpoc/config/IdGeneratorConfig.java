@@ -0,0 +1,31 @@
+package com.chatpoc.config;
+
+import com.chatpoc.domain.shared.IdGenerator;
+import com.chatpoc.domain.shared.Identifiers;
+import com.chatpoc.domain.shared.TimeOrderedIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+@Configuration
+public class IdGeneratorConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorConfig.class);
+    
+    // The domain creates its ids through static factories: the generator is installed for the whole JVM
+    @Bean
+    public IdGenerator idGenerator(@Value("${chat.ids.generator:time-ordered}") String generator) {
+        IdGenerator idGenerator = switch (generator) {
+            case "time-ordered" -> new TimeOrderedIdGenerator();
+            case "random" -> UUID::randomUUID;
+            default -> throw new IllegalArgumentException("Unknown id generator: " + generator + " (time-ordered or random)");
+        };
+        Identifiers.use(idGenerator);
+        logger.info("Générateur d'identifiants : {}", generator);
+        return idGenerator;
+    }
+}
@@ -0,0 +1,73 @@
+package com.chatpoc.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+@ConditionalOnProperty(name = "chat.execution.mode", havingValue = "virtual")
+public class VirtualThreadConfig implements AsyncConfigurer, WebSocketMessageBrokerConfigurer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    
+    private final int channelConcurrency;
+    
+    public VirtualThreadConfig(@Value("${chat.execution.channel-concurrency:10000}") int channelConcurrency) {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("chat.execution.mode=virtual requires Java 21 or later, running on " + Runtime.version());
+        }
+        if (channelConcurrency <= 0) {
+            throw new IllegalArgumentException("Channel concurrency must be positive");
+        }
+        this.channelConcurrency = channelConcurrency;
+        logger.info("Mode d'exécution virtuel : requêtes HTTP, @Async et canaux STOMP sur threads virtuels");
+    }
+    
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        // Replaces the bounded Tomcat worker pool, server.tomcat.threads.max no longer applies
+        return protocolHandler -> protocolHandler.setExecutor(new VirtualThreadTaskExecutor("tomcat-handler-"));
+    }
+    
+    @Override
+    public Executor getAsyncExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+    
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("stomp-inbound-"));
+    }
+    
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("stomp-outbound-"));
+    }
+    
+    private ThreadPoolTaskExecutor channelExecutor(String threadNamePrefix) {
+        // Channels only accept a ThreadPoolTaskExecutor: every task below the bound starts a new virtual
+        // thread and idle ones expire after a second, so nothing is kept pooled
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(channelConcurrency);
+        executor.setMaxPoolSize(channelConcurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(1);
+        return executor;
+    }
+}
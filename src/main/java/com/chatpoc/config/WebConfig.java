@@ -1,13 +1,24 @@
 package com.chatpoc.config;
 
+import com.chatpoc.infrastructure.web.EpochMillisJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
+    private final ObjectMapper objectMapper;
+    
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         // Rediriger les routes frontend vers index.html pour Angular
@@ -30,4 +41,10 @@ public class WebConfig implements WebMvcConfigurer {
             .allowedHeaders("*")
             .allowCredentials(false);
     }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Dates en millisecondes depuis l'epoch pour les clients qui acceptent application/json;timestamps=epoch-millis
+        converters.add(0, new EpochMillisJsonHttpMessageConverter(objectMapper));
+    }
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.chatpoc.domain.chat;
 
 import com.chatpoc.domain.chat.events.ChatCreatedEvent;
 import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.chatpoc.domain.shared.DomainClock;
+import com.chatpoc.domain.shared.Identifiers;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.*;
 
 public class Chat {
@@ -11,34 +14,54 @@ public class Chat {
     private final UUID id;
     private final String name;
     private final Set<Participant> participants;
-    private final List<Message> messages;
-    private final LocalDateTime createdAt;
-    private final List<Object> domainEvents;
+    private final Set<Participant> participantsView;
+    private final MessageLog messages;
+    private final Instant createdAt;
+    private final List<Object> domainEvents = new ArrayList<>();
+    private long lastSequence;
+    
+    private Chat(UUID id, String name, Participant creator, Instant createdAt) {
+        this(id, name, Set.of(Objects.requireNonNull(creator, "Creator cannot be null")), MessageLog.empty(), createdAt, 0);
+        this.domainEvents.add(new ChatCreatedEvent(this.id, this.name, creator));
+    }
     
-    private Chat(UUID id, String name, Participant creator, LocalDateTime createdAt) {
+    // Reconstruction path: no creation event, the participants are copied once and the messages moved into the store
+    private Chat(UUID id, String name, Set<Participant> participants, MessageLog messages, Instant createdAt,
+                 long lastSequence) {
         this.id = Objects.requireNonNull(id, "Chat id cannot be null");
         this.name = validateName(name);
-        this.participants = new HashSet<>();
-        this.participants.add(Objects.requireNonNull(creator, "Creator cannot be null"));
-        this.messages = new ArrayList<>();
+        this.participants = new HashSet<>(participants);
+        this.participantsView = Collections.unmodifiableSet(this.participants);
+        this.messages = messages;
         this.createdAt = Objects.requireNonNull(createdAt, "Created date cannot be null");
-        this.domainEvents = new ArrayList<>();
-        
-        this.domainEvents.add(new ChatCreatedEvent(this.id, this.name, creator));
+        this.lastSequence = Math.max(lastSequence, messages.lastSequence());
     }
     
     public static Chat create(String name, Participant creator) {
-        return new Chat(UUID.randomUUID(), name, creator, LocalDateTime.now());
+        return new Chat(Identifiers.next(), name, creator, DomainClock.now());
     }
     
     public static Chat reconstruct(UUID id, String name, Set<Participant> participants, 
-                                 List<Message> messages, LocalDateTime createdAt) {
-        Chat chat = new Chat(id, name, participants.iterator().next(), createdAt);
-        chat.participants.clear();
-        chat.participants.addAll(participants);
-        chat.messages.addAll(messages);
-        chat.domainEvents.clear();
-        return chat;
+                                 List<Message> messages, Instant createdAt) {
+        return reconstruct(id, name, participants, messages, createdAt, 0);
+    }
+    
+    public static Chat reconstruct(UUID id, String name, Set<Participant> participants,
+                                 List<Message> messages, Instant createdAt, long lastSequence) {
+        Objects.requireNonNull(participants, "Participants cannot be null");
+        Objects.requireNonNull(messages, "Messages cannot be null");
+        if (participants.isEmpty()) {
+            throw new IllegalArgumentException("Chat must have at least one participant");
+        }
+        return new Chat(id, name, participants, MessageLog.of(messages), createdAt, lastSequence);
+    }
+    
+    // Continues numbering after the last sequence persisted for this chat, which may be ahead of the loaded state
+    public void resumeSequenceAfter(long persistedSequence) {
+        if (persistedSequence < lastSequence) {
+            throw new IllegalArgumentException("Chat sequence cannot go backwards");
+        }
+        this.lastSequence = persistedSequence;
     }
     
     public Message sendMessage(String content, Participant sender) {
@@ -46,14 +69,48 @@ public class Chat {
             addParticipant(sender);
         }
         
-        Message message = Message.create(content, sender);
-        messages.add(message);
+        Message message = Message.create(content, sender, lastSequence + 1);
+        messages.append(message);
+        lastSequence = message.getSequence();
         
         domainEvents.add(new MessageSentEvent(this.id, message));
         
         return message;
     }
     
+    public List<Message> sendMessages(List<MessageDraft> drafts) {
+        Objects.requireNonNull(drafts, "Messages cannot be null");
+        if (drafts.isEmpty()) {
+            throw new IllegalArgumentException("Messages cannot be empty");
+        }
+        
+        // Validate the whole batch before touching the aggregate; timestamps are spaced so that, like the
+        // sequences and the time-ordered ids, they follow the submission order
+        Instant now = DomainClock.now();
+        List<Message> sent = new ArrayList<>(drafts.size());
+        Set<Participant> newcomers = new LinkedHashSet<>();
+        for (int i = 0; i < drafts.size(); i++) {
+            MessageDraft draft = drafts.get(i);
+            sent.add(Message.reconstruct(Identifiers.next(), draft.content(), draft.sender(), now.plusNanos(i * 1_000L),
+                lastSequence + 1 + i));
+            if (!participants.contains(draft.sender())) {
+                newcomers.add(draft.sender());
+            }
+        }
+        
+        if (participants.size() + newcomers.size() > 50) {
+            throw new IllegalStateException("Chat cannot have more than 50 participants");
+        }
+        
+        participants.addAll(newcomers);
+        messages.appendAll(sent);
+        lastSequence += sent.size();
+        
+        domainEvents.add(new MessagesSentEvent(this.id, sent));
+        
+        return sent;
+    }
+    
     public void addParticipant(Participant participant) {
         Objects.requireNonNull(participant, "Participant cannot be null");
         
@@ -64,13 +121,13 @@ public class Chat {
         participants.add(participant);
     }
     
+    // Read-only view of the last messages, later sends do not change it
     public List<Message> getRecentMessages(int limit) {
         if (limit <= 0) {
             throw new IllegalArgumentException("Limit must be positive");
         }
         
-        int startIndex = Math.max(0, messages.size() - limit);
-        return new ArrayList<>(messages.subList(startIndex, messages.size()));
+        return messages.tail(limit);
     }
     
     public boolean hasParticipant(Participant participant) {
@@ -104,17 +161,22 @@ public class Chat {
     }
     
     public Set<Participant> getParticipants() {
-        return Collections.unmodifiableSet(participants);
+        return participantsView;
     }
     
+    // Read-only snapshot in sequence order, shared between calls until the next send
     public List<Message> getMessages() {
-        return Collections.unmodifiableList(messages);
+        return messages.all();
     }
     
-    public LocalDateTime getCreatedAt() {
+    public Instant getCreatedAt() {
         return createdAt;
     }
     
+    public long getLastSequence() {
+        return lastSequence;
+    }
+    
     public List<Object> getDomainEvents() {
         return Collections.unmodifiableList(domainEvents);
     }
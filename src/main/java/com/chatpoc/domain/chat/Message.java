@@ -1,6 +1,9 @@
 package com.chatpoc.domain.chat;
 
-import java.time.LocalDateTime;
+import com.chatpoc.domain.shared.DomainClock;
+import com.chatpoc.domain.shared.Identifiers;
+
+import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -9,26 +12,40 @@ public class Message {
     private final UUID id;
     private final String content;
     private final Participant sender;
-    private final LocalDateTime timestamp;
+    private final Instant timestamp;
+    private final long sequence;
     
-    private Message(UUID id, String content, Participant sender, LocalDateTime timestamp) {
+    private Message(UUID id, String content, Participant sender, Instant timestamp, long sequence) {
         this.id = Objects.requireNonNull(id, "Message id cannot be null");
         this.content = validateContent(content);
         this.sender = Objects.requireNonNull(sender, "Message sender cannot be null");
         this.timestamp = Objects.requireNonNull(timestamp, "Message timestamp cannot be null");
+        if (sequence < 0) {
+            throw new IllegalArgumentException("Message sequence cannot be negative");
+        }
+        this.sequence = sequence;
     }
     
     public static Message create(String content, Participant sender) {
+        return create(content, sender, 0);
+    }
+    
+    static Message create(String content, Participant sender, long sequence) {
         return new Message(
-            UUID.randomUUID(),
+            Identifiers.next(),
             content,
             sender,
-            LocalDateTime.now()
+            DomainClock.now(),
+            sequence
         );
     }
     
-    public static Message reconstruct(UUID id, String content, Participant sender, LocalDateTime timestamp) {
-        return new Message(id, content, sender, timestamp);
+    public static Message reconstruct(UUID id, String content, Participant sender, Instant timestamp) {
+        return new Message(id, content, sender, timestamp, 0);
+    }
+    
+    public static Message reconstruct(UUID id, String content, Participant sender, Instant timestamp, long sequence) {
+        return new Message(id, content, sender, timestamp, sequence);
     }
     
     private String validateContent(String content) {
@@ -57,10 +74,15 @@ public class Message {
         return sender;
     }
     
-    public LocalDateTime getTimestamp() {
+    public Instant getTimestamp() {
         return timestamp;
     }
     
+    // Position of the message in its chat, starting at 1; 0 for a message not sent through a chat
+    public long getSequence() {
+        return sequence;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -81,6 +103,7 @@ public class Message {
                 ", content='" + content + '\'' +
                 ", sender=" + sender +
                 ", timestamp=" + timestamp +
+                ", sequence=" + sequence +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.chatpoc.domain.chat;
+
+import java.util.Objects;
+
+public record MessageDraft(String content, Participant sender) {
+    
+    public MessageDraft {
+        Objects.requireNonNull(sender, "Message sender cannot be null");
+    }
+}
@@ -0,0 +1,119 @@
+package com.chatpoc.domain.chat;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+// Append-only message store of a chat, ordered by sequence. Slots below size are never written again,
+// so views over them stay valid snapshots without copying, even after the array grows
+final class MessageLog {
+    
+    private static final Message[] EMPTY = new Message[0];
+    private static final Comparator<Message> SEQUENCE_ORDER = Comparator.comparingLong(Message::getSequence)
+        .thenComparing(Message::getTimestamp);
+    
+    private Message[] elements;
+    private int size;
+    private List<Message> all;
+    
+    private MessageLog(Message[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+    
+    static MessageLog empty() {
+        return new MessageLog(EMPTY, 0);
+    }
+    
+    // A single copy that becomes the store; only sorted when the source is not already in sequence order
+    static MessageLog of(Collection<Message> messages) {
+        Message[] elements = messages.isEmpty() ? EMPTY : messages.toArray(EMPTY);
+        for (Message message : elements) {
+            Objects.requireNonNull(message, "Message cannot be null");
+        }
+        if (!isSorted(elements)) {
+            Arrays.sort(elements, SEQUENCE_ORDER);
+        }
+        return new MessageLog(elements, elements.length);
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    long lastSequence() {
+        return size == 0 ? 0 : elements[size - 1].getSequence();
+    }
+    
+    void append(Message message) {
+        ensureCapacity(size + 1);
+        elements[size++] = message;
+        all = null;
+    }
+    
+    void appendAll(List<Message> messages) {
+        ensureCapacity(size + messages.size());
+        for (Message message : messages) {
+            elements[size++] = message;
+        }
+        all = null;
+    }
+    
+    List<Message> all() {
+        if (all == null) {
+            all = new View(elements, 0, size);
+        }
+        return all;
+    }
+    
+    List<Message> tail(int limit) {
+        return limit >= size ? all() : new View(elements, size - limit, size);
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, Math.max(8, elements.length + (elements.length >> 1))));
+        }
+    }
+    
+    private static boolean isSorted(Message[] elements) {
+        for (int i = 1; i < elements.length; i++) {
+            if (SEQUENCE_ORDER.compare(elements[i - 1], elements[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static final class View extends AbstractList<Message> implements RandomAccess {
+        
+        private final Message[] elements;
+        private final int from;
+        private final int to;
+        
+        private View(Message[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        public Message get(int index) {
+            Objects.checkIndex(index, to - from);
+            return elements[from + index];
+        }
+        
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.chatpoc.domain.chat.events;
 
 import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.shared.DomainClock;
+import com.chatpoc.domain.shared.Identifiers;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -12,14 +14,23 @@ public class ChatCreatedEvent {
     private final UUID chatId;
     private final String chatName;
     private final Participant creator;
-    private final LocalDateTime occurredAt;
+    private final Instant occurredAt;
     
     public ChatCreatedEvent(UUID chatId, String chatName, Participant creator) {
-        this.eventId = UUID.randomUUID();
+        this(Identifiers.next(), chatId, chatName, creator, DomainClock.now());
+    }
+    
+    private ChatCreatedEvent(UUID eventId, UUID chatId, String chatName, Participant creator, Instant occurredAt) {
+        this.eventId = Objects.requireNonNull(eventId, "Event id cannot be null");
         this.chatId = Objects.requireNonNull(chatId, "Chat id cannot be null");
         this.chatName = Objects.requireNonNull(chatName, "Chat name cannot be null");
         this.creator = Objects.requireNonNull(creator, "Creator cannot be null");
-        this.occurredAt = LocalDateTime.now();
+        this.occurredAt = Objects.requireNonNull(occurredAt, "Occurred date cannot be null");
+    }
+    
+    public static ChatCreatedEvent reconstruct(UUID eventId, UUID chatId, String chatName, Participant creator,
+                                               Instant occurredAt) {
+        return new ChatCreatedEvent(eventId, chatId, chatName, creator, occurredAt);
     }
     
     public UUID getEventId() {
@@ -38,7 +49,7 @@ public class ChatCreatedEvent {
         return creator;
     }
     
-    public LocalDateTime getOccurredAt() {
+    public Instant getOccurredAt() {
         return occurredAt;
     }
     
@@ -1,8 +1,10 @@
 package com.chatpoc.domain.chat.events;
 
 import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.shared.DomainClock;
+import com.chatpoc.domain.shared.Identifiers;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -11,13 +13,21 @@ public class MessageSentEvent {
     private final UUID eventId;
     private final UUID chatId;
     private final Message message;
-    private final LocalDateTime occurredAt;
+    private final Instant occurredAt;
     
     public MessageSentEvent(UUID chatId, Message message) {
-        this.eventId = UUID.randomUUID();
+        this(Identifiers.next(), chatId, message, DomainClock.now());
+    }
+    
+    private MessageSentEvent(UUID eventId, UUID chatId, Message message, Instant occurredAt) {
+        this.eventId = Objects.requireNonNull(eventId, "Event id cannot be null");
         this.chatId = Objects.requireNonNull(chatId, "Chat id cannot be null");
         this.message = Objects.requireNonNull(message, "Message cannot be null");
-        this.occurredAt = LocalDateTime.now();
+        this.occurredAt = Objects.requireNonNull(occurredAt, "Occurred date cannot be null");
+    }
+    
+    public static MessageSentEvent reconstruct(UUID eventId, UUID chatId, Message message, Instant occurredAt) {
+        return new MessageSentEvent(eventId, chatId, message, occurredAt);
     }
     
     public UUID getEventId() {
@@ -32,7 +42,7 @@ public class MessageSentEvent {
         return message;
     }
     
-    public LocalDateTime getOccurredAt() {
+    public Instant getOccurredAt() {
         return occurredAt;
     }
     
@@ -0,0 +1,76 @@
+package com.chatpoc.domain.chat.events;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.shared.DomainClock;
+import com.chatpoc.domain.shared.Identifiers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+public class MessagesSentEvent {
+    
+    private final UUID eventId;
+    private final UUID chatId;
+    private final List<Message> messages;
+    private final Instant occurredAt;
+    
+    public MessagesSentEvent(UUID chatId, List<Message> messages) {
+        this(Identifiers.next(), chatId, messages, DomainClock.now());
+    }
+    
+    private MessagesSentEvent(UUID eventId, UUID chatId, List<Message> messages, Instant occurredAt) {
+        this.eventId = Objects.requireNonNull(eventId, "Event id cannot be null");
+        this.chatId = Objects.requireNonNull(chatId, "Chat id cannot be null");
+        this.messages = List.copyOf(Objects.requireNonNull(messages, "Messages cannot be null"));
+        this.occurredAt = Objects.requireNonNull(occurredAt, "Occurred date cannot be null");
+        
+        if (this.messages.isEmpty()) {
+            throw new IllegalArgumentException("Messages cannot be empty");
+        }
+    }
+    
+    public static MessagesSentEvent reconstruct(UUID eventId, UUID chatId, List<Message> messages, Instant occurredAt) {
+        return new MessagesSentEvent(eventId, chatId, messages, occurredAt);
+    }
+    
+    public UUID getEventId() {
+        return eventId;
+    }
+    
+    public UUID getChatId() {
+        return chatId;
+    }
+    
+    public List<Message> getMessages() {
+        return messages;
+    }
+    
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MessagesSentEvent that = (MessagesSentEvent) o;
+        return Objects.equals(eventId, that.eventId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(eventId);
+    }
+    
+    @Override
+    public String toString() {
+        return "MessagesSentEvent{" +
+                "eventId=" + eventId +
+                ", chatId=" + chatId +
+                ", messagesCount=" + messages.size() +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
@@ -1,6 +1,8 @@
 package com.chatpoc.domain.chat.repository;
 
 import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,9 +14,33 @@ public interface ChatRepository {
     
     Optional<Chat> findById(UUID id);
     
-    List<Chat> findAll();
+    Optional<Chat> findByIdWithParticipants(UUID id);
+    
+    List<ChatSummary> findSummaries(int page, int size);
+    
+    // Last sequence of the chats that have messages, in id order, starting after afterId or from the first chat
+    // when it is null
+    List<ChatSequence> findChatSequencesAfter(UUID afterId, int limit);
+    
+    List<Message> findRecentMessages(UUID chatId, int limit);
+    
+    List<Message> findMessagesBefore(UUID chatId, UUID messageId, int limit);
+    
+    List<Message> findMessagesAfter(UUID chatId, UUID messageId, int limit);
+    
+    // Oldest first, only messages numbered after the given sequence
+    List<Message> findMessagesSince(UUID chatId, long sequence, int limit);
+    
+    // Locks the chat's sequence until the end of the transaction and returns its last persisted value
+    long lockLastSequence(UUID chatId);
+    
+    void appendMessage(UUID chatId, Message message);
+    
+    void appendMessages(UUID chatId, List<Message> messages);
+    
+    boolean addParticipantIfAbsent(UUID chatId, Participant participant);
     
     void deleteById(UUID id);
     
     boolean existsById(UUID id);
-}
\ No newline at end of file
+}
@@ -0,0 +1,5 @@
+package com.chatpoc.domain.chat.repository;
+
+import java.util.UUID;
+
+public record ChatSequence(UUID chatId, long lastSequence) {}
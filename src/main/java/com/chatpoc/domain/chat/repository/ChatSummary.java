@@ -0,0 +1,13 @@
+package com.chatpoc.domain.chat.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ChatSummary(
+    UUID id,
+    String name,
+    long participantCount,
+    long messageCount,
+    String lastMessagePreview,
+    Instant lastActivityAt
+) {}
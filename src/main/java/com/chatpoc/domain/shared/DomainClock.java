@@ -0,0 +1,22 @@
+package com.chatpoc.domain.shared;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+
+// Source of the creation times of chats, messages and domain events; the system clock unless another one is installed
+public final class DomainClock {
+    
+    private static volatile Clock clock = Clock.systemUTC();
+    
+    private DomainClock() {
+    }
+    
+    public static Instant now() {
+        return clock.instant();
+    }
+    
+    public static void use(Clock source) {
+        clock = Objects.requireNonNull(source, "Clock cannot be null");
+    }
+}
@@ -1,26 +1,19 @@
 package com.chatpoc.domain.shared;
 
-import java.util.Objects;
-import java.util.regex.Pattern;
-
 public record Email(String value) {
     
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$"
-    );
-    
     public Email {
-        if (value == null || value.trim().isEmpty()) {
+        if (value == null || EmailFormat.isBlank(value)) {
             throw new IllegalArgumentException("Email cannot be null or empty");
         }
         
-        String trimmedValue = value.trim().toLowerCase();
+        String normalizedValue = EmailFormat.normalize(value);
         
-        if (!EMAIL_PATTERN.matcher(trimmedValue).matches()) {
+        if (normalizedValue == null) {
             throw new IllegalArgumentException("Invalid email format: " + value);
         }
         
-        value = trimmedValue;
+        value = normalizedValue;
     }
     
     @Override
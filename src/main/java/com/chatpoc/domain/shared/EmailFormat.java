@@ -0,0 +1,86 @@
+package com.chatpoc.domain.shared;
+
+// Single-pass equivalent of trim().toLowerCase() followed by ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$.
+// Values that are already trimmed, lower case and ASCII are validated in place without allocating
+final class EmailFormat {
+    
+    private EmailFormat() {
+    }
+    
+    // Same as value.trim().isEmpty()
+    static boolean isBlank(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Normalized address, or null when the format is invalid
+    static String normalize(String value) {
+        String normalized = isNormalized(value) ? value : value.trim().toLowerCase();
+        return isValid(normalized) ? normalized : null;
+    }
+    
+    private static boolean isNormalized(String value) {
+        int length = value.length();
+        if (length == 0 || value.charAt(0) <= ' ' || value.charAt(length - 1) <= ' ') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            // Non-ASCII characters go through toLowerCase, some of them lower-case to ASCII letters
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    static boolean isValid(String value) {
+        int length = value.length();
+        int at = -1;
+        int lastDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0) {
+                if (!isLocalChar(c)) {
+                    return false;
+                }
+            } else if (c == '.') {
+                lastDot = i;
+            } else if (!isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        
+        // The top-level domain can only follow the last dot, since dots are not letters
+        if (at < 1 || lastDot < at + 2 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isLocalChar(char c) {
+        return isLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+    
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+    
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,9 @@
+package com.chatpoc.domain.shared;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface IdGenerator {
+    
+    UUID nextId();
+}
@@ -0,0 +1,21 @@
+package com.chatpoc.domain.shared;
+
+import java.util.Objects;
+import java.util.UUID;
+
+// Source of the ids of chats, messages and domain events; time-ordered unless another generator is installed
+public final class Identifiers {
+    
+    private static volatile IdGenerator generator = new TimeOrderedIdGenerator();
+    
+    private Identifiers() {
+    }
+    
+    public static UUID next() {
+        return generator.nextId();
+    }
+    
+    public static void use(IdGenerator idGenerator) {
+        generator = Objects.requireNonNull(idGenerator, "Id generator cannot be null");
+    }
+}
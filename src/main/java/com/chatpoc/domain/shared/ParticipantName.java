@@ -3,12 +3,13 @@ package com.chatpoc.domain.shared;
 public record ParticipantName(String value) {
     
     public ParticipantName {
-        if (value == null || value.trim().isEmpty()) {
+        // trim() returns the same instance when there is nothing to strip
+        String trimmedValue = value == null ? "" : value.trim();
+        
+        if (trimmedValue.isEmpty()) {
             throw new IllegalArgumentException("Participant name cannot be null or empty");
         }
         
-        String trimmedValue = value.trim();
-        
         if (trimmedValue.length() < 2) {
             throw new IllegalArgumentException("Participant name must be at least 2 characters long");
         }
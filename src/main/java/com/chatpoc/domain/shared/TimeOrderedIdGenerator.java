@@ -0,0 +1,44 @@
+package com.chatpoc.domain.shared;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// UUID version 7 (RFC 9562): 48-bit Unix time in milliseconds, a 12-bit counter, then 62 random bits.
+// Time and counter advance together in a single word updated by compare-and-set, so ids increase in
+// generation order across threads, within a millisecond and when the clock steps back; an exhausted
+// counter borrows the next millisecond. The random bits come from the calling thread's ThreadLocalRandom.
+public final class TimeOrderedIdGenerator implements IdGenerator {
+    
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    
+    private final LongSupplier millisClock;
+    private final AtomicLong lastStamp = new AtomicLong();
+    
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+    
+    TimeOrderedIdGenerator(LongSupplier millisClock) {
+        this.millisClock = Objects.requireNonNull(millisClock);
+    }
+    
+    @Override
+    public UUID nextId() {
+        long stamp = nextStamp();
+        long mostSigBits = (stamp >>> COUNTER_BITS) << 16 | VERSION | (stamp & COUNTER_MASK);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() >>> 2 | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+    
+    // Milliseconds shifted above the counter, strictly increasing
+    private long nextStamp() {
+        long floor = millisClock.getAsLong() << COUNTER_BITS;
+        return lastStamp.accumulateAndGet(floor, (last, now) -> Math.max(now, last + 1));
+    }
+}
@@ -0,0 +1,10 @@
+package com.chatpoc.infrastructure.broker;
+
+public interface BroadcastRelay {
+    
+    void destinationActivated(String destination);
+    
+    void destinationDeactivated(String destination);
+    
+    void forward(String destination, TopicPayload payload);
+}
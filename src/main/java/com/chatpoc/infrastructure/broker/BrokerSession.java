@@ -0,0 +1,207 @@
+package com.chatpoc.infrastructure.broker;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BrokerSession extends WebSocketSessionDecorator {
+    
+    enum Offer {
+        QUEUED,
+        SCHEDULE,
+        DELAY,
+        FULL,
+        CLOSED
+    }
+    
+    private enum State {
+        IDLE,
+        // Waiting for the end of the batch window before being handed to the shard
+        DELAYED,
+        SCHEDULED
+    }
+    
+    private final Object sendLock = new Object();
+    private final ArrayDeque<OutboundFrame> pending = new ArrayDeque<>();
+    private final int bufferSize;
+    private final int shard;
+    private final boolean sharedWrites;
+    private volatile WireFormat preferredFormat = WireFormat.DEFAULT;
+    private volatile long batchWindowNanos;
+    private int batchMaxFrames = 1;
+    private State state = State.IDLE;
+    private boolean closing;
+    
+    BrokerSession(WebSocketSession delegate, int bufferSize, int shard) {
+        super(delegate);
+        this.bufferSize = bufferSize;
+        this.shard = shard;
+        // SockJS sessions add their own framing and cannot send partial messages
+        this.sharedWrites = delegate instanceof StandardWebSocketSession;
+    }
+    
+    // Frames sent by Spring (CONNECTED, /queue, heartbeats) must not interleave with broker writes
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        synchronized (sendLock) {
+            super.sendMessage(message);
+        }
+    }
+    
+    boolean supportsBinary() {
+        return sharedWrites;
+    }
+    
+    WireFormat getPreferredFormat() {
+        return preferredFormat;
+    }
+    
+    void setPreferredFormat(WireFormat preferredFormat) {
+        this.preferredFormat = preferredFormat;
+    }
+    
+    long getBatchWindowNanos() {
+        return batchWindowNanos;
+    }
+    
+    synchronized void enableBatching(long windowNanos, int maxFrames) {
+        this.batchMaxFrames = maxFrames;
+        this.batchWindowNanos = windowNanos;
+    }
+    
+    int shard() {
+        return shard;
+    }
+    
+    synchronized Offer offer(OutboundFrame frame) {
+        if (closing) {
+            return Offer.CLOSED;
+        }
+        if (pending.size() >= bufferSize) {
+            return Offer.FULL;
+        }
+        
+        pending.add(frame);
+        switch (state) {
+            case IDLE:
+                if (batchWindowNanos > 0) {
+                    state = State.DELAYED;
+                    return Offer.DELAY;
+                }
+                state = State.SCHEDULED;
+                return Offer.SCHEDULE;
+            case DELAYED:
+                // A full batch does not wait for the end of its window
+                if (pending.size() >= batchMaxFrames) {
+                    state = State.SCHEDULED;
+                    return Offer.SCHEDULE;
+                }
+                return Offer.QUEUED;
+            default:
+                return Offer.QUEUED;
+        }
+    }
+    
+    synchronized boolean promote() {
+        if (state != State.DELAYED) {
+            return false;
+        }
+        state = State.SCHEDULED;
+        return true;
+    }
+    
+    synchronized OutboundFrame poll() {
+        OutboundFrame frame = pending.poll();
+        if (frame == null) {
+            state = State.IDLE;
+        }
+        return frame;
+    }
+    
+    // Empty list when nothing is pending, the session then needs a new offer to be scheduled again
+    synchronized List<OutboundFrame> pollBatch() {
+        if (pending.isEmpty()) {
+            state = State.IDLE;
+            return List.of();
+        }
+        
+        List<OutboundFrame> batch = new ArrayList<>(Math.min(pending.size(), batchMaxFrames));
+        while (batch.size() < batchMaxFrames && !pending.isEmpty()) {
+            batch.add(pending.poll());
+        }
+        return batch;
+    }
+    
+    synchronized int pendingFrames() {
+        return pending.size();
+    }
+    
+    synchronized boolean markClosing() {
+        if (closing) {
+            return false;
+        }
+        closing = true;
+        pending.clear();
+        return true;
+    }
+    
+    synchronized boolean scheduleIfIdle() {
+        if (state == State.SCHEDULED) {
+            return false;
+        }
+        state = State.SCHEDULED;
+        return true;
+    }
+    
+    synchronized boolean isClosing() {
+        return closing;
+    }
+    
+    // Sends the shared frame bytes as the tail of a two-part binary message, without copying them
+    int write(OutboundFrame frame) throws IOException {
+        synchronized (sendLock) {
+            if (sharedWrites) {
+                getDelegate().sendMessage(new BinaryMessage(frame.subscriptionPrefix().duplicate(), false));
+                getDelegate().sendMessage(new BinaryMessage(frame.sharedFrame().duplicate(), true));
+            } else {
+                getDelegate().sendMessage(new TextMessage(frame.decode()));
+            }
+        }
+        return frame.size();
+    }
+    
+    // Coalesces the frames into a single WebSocket message, STOMP clients split them on their NUL terminators
+    int write(List<OutboundFrame> batch) throws IOException {
+        if (batch.size() == 1) {
+            return write(batch.get(0));
+        }
+        
+        int size = 0;
+        for (OutboundFrame frame : batch) {
+            size += frame.size();
+        }
+        synchronized (sendLock) {
+            if (sharedWrites) {
+                ByteBuffer buffer = ByteBuffer.allocate(size);
+                for (OutboundFrame frame : batch) {
+                    buffer.put(frame.subscriptionPrefix().duplicate()).put(frame.sharedFrame().duplicate());
+                }
+                getDelegate().sendMessage(new BinaryMessage(buffer.flip(), true));
+            } else {
+                StringBuilder text = new StringBuilder(size);
+                batch.forEach(frame -> text.append(frame.decode()));
+                getDelegate().sendMessage(new TextMessage(text));
+            }
+        }
+        return size;
+    }
+}
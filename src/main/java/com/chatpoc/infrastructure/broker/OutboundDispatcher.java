@@ -0,0 +1,286 @@
+package com.chatpoc.infrastructure.broker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class OutboundDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboundDispatcher.class);
+    
+    // Frames written for one session before yielding the shard thread to the next session
+    private static final int WRITE_QUANTUM = 64;
+    private static final String TOMCAT_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+    
+    private final ConcurrentHashMap<String, BrokerSession> sessions = new ConcurrentHashMap<>();
+    private final List<BlockingQueue<BrokerSession>> shards;
+    private final Thread[] workers;
+    private final int sessionBufferSize;
+    private final long sendTimeLimitMillis;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final Duration maxBatchWindow;
+    private final int maxBatchFrames;
+    private final ScheduledExecutorService batchTimer;
+    private volatile boolean running = true;
+    
+    private final Counter framesSent;
+    private final Counter batchesSent;
+    private final Counter bytesWritten;
+    private final Counter framesDropped;
+    private final Counter slowConsumersDisconnected;
+    
+    @SuppressWarnings("unchecked")
+    public OutboundDispatcher(
+            MeterRegistry meterRegistry,
+            @Value("${chat.broker.shards:0}") int shardCount,
+            @Value("${chat.broker.session-buffer-size:1024}") int sessionBufferSize,
+            @Value("${chat.broker.send-time-limit:10s}") Duration sendTimeLimit,
+            @Value("${chat.broker.slow-consumer-policy:DISCONNECT}") SlowConsumerPolicy slowConsumerPolicy,
+            @Value("${chat.broker.batch.max-window:20ms}") Duration maxBatchWindow,
+            @Value("${chat.broker.batch.max-frames:64}") int maxBatchFrames) {
+        if (shardCount < 0 || sessionBufferSize <= 0 || maxBatchFrames <= 0) {
+            throw new IllegalArgumentException("Broker sizes must be positive");
+        }
+        if (maxBatchWindow.isNegative()) {
+            throw new IllegalArgumentException("Batch window cannot be negative");
+        }
+        
+        int effectiveShards = shardCount == 0 ? Runtime.getRuntime().availableProcessors() : shardCount;
+        this.sessionBufferSize = sessionBufferSize;
+        this.sendTimeLimitMillis = sendTimeLimit.toMillis();
+        this.slowConsumerPolicy = Objects.requireNonNull(slowConsumerPolicy);
+        this.maxBatchWindow = maxBatchWindow;
+        this.maxBatchFrames = maxBatchFrames;
+        this.batchTimer = maxBatchWindow.isZero() ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "broker-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        this.framesSent = meterRegistry.counter("chat.broker.frames.sent");
+        this.batchesSent = Counter.builder("chat.broker.batches.sent")
+            .description("Messages WebSocket regroupant plusieurs trames")
+            .register(meterRegistry);
+        this.bytesWritten = Counter.builder("chat.broker.bytes.written")
+            .description("Octets de trames écrits vers les sessions")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.framesDropped = meterRegistry.counter("chat.broker.frames.dropped");
+        this.slowConsumersDisconnected = meterRegistry.counter("chat.broker.slow.disconnected");
+        Gauge.builder("chat.broker.sessions", sessions, ConcurrentHashMap::size)
+            .description("Sessions WebSocket connectées au broker")
+            .register(meterRegistry);
+        
+        // Each session is pinned to one shard: its frames are written in order by a single thread
+        List<BlockingQueue<BrokerSession>> queues = new ArrayList<>(effectiveShards);
+        this.workers = new Thread[effectiveShards];
+        for (int i = 0; i < effectiveShards; i++) {
+            BlockingQueue<BrokerSession> queue = new LinkedBlockingQueue<>();
+            queues.add(queue);
+            workers[i] = new Thread(() -> runShard(queue), "broker-outbound-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        this.shards = List.copyOf(queues);
+    }
+    
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(register(session));
+            }
+            
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+    
+    BrokerSession register(WebSocketSession session) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            Session standardSession = nativeSession.getNativeSession(Session.class);
+            if (standardSession != null) {
+                standardSession.getUserProperties().put(TOMCAT_SEND_TIMEOUT, sendTimeLimitMillis);
+            }
+        }
+        
+        BrokerSession brokerSession = new BrokerSession(session, sessionBufferSize,
+            Math.floorMod(session.getId().hashCode(), shards.size()));
+        sessions.put(session.getId(), brokerSession);
+        return brokerSession;
+    }
+    
+    BrokerSession session(String sessionId) {
+        return sessions.get(sessionId);
+    }
+    
+    // The client proposes a window, capped by chat.broker.batch.max-window; no batching when either is zero
+    void enableBatching(BrokerSession session, Duration requestedWindow) {
+        if (batchTimer == null || requestedWindow.isNegative() || requestedWindow.isZero()) {
+            return;
+        }
+        Duration window = requestedWindow.compareTo(maxBatchWindow) > 0 ? maxBatchWindow : requestedWindow;
+        session.enableBatching(window.toNanos(), maxBatchFrames);
+    }
+    
+    public int getSessionCount() {
+        return sessions.size();
+    }
+    
+    boolean enqueue(BrokerSession session, OutboundFrame frame) {
+        switch (session.offer(frame)) {
+            case QUEUED:
+                return true;
+            case SCHEDULE:
+                shards.get(session.shard()).offer(session);
+                return true;
+            case DELAY:
+                schedule(session);
+                return true;
+            case FULL:
+                framesDropped.increment();
+                if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT && session.markClosing()) {
+                    slowConsumersDisconnected.increment();
+                    logger.warn("Session {} trop lente ({} trames en attente), déconnexion", session.getId(), sessionBufferSize);
+                    if (session.scheduleIfIdle()) {
+                        shards.get(session.shard()).offer(session);
+                    }
+                }
+                return false;
+            default:
+                framesDropped.increment();
+                return false;
+        }
+    }
+    
+    private void schedule(BrokerSession session) {
+        try {
+            batchTimer.schedule(() -> {
+                if (session.promote()) {
+                    shards.get(session.shard()).offer(session);
+                }
+            }, session.getBatchWindowNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Dispatcher arrêté, lot de la session {} abandonné", session.getId());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (batchTimer != null) {
+            batchTimer.shutdownNow();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+    
+    private void runShard(BlockingQueue<BrokerSession> queue) {
+        while (running) {
+            try {
+                BrokerSession session = queue.take();
+                if (drain(session)) {
+                    queue.offer(session);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Erreur du dispatcher WebSocket", e);
+            }
+        }
+    }
+    
+    private boolean drain(BrokerSession session) {
+        if (session.getBatchWindowNanos() > 0) {
+            return drainBatches(session);
+        }
+        
+        for (int i = 0; i < WRITE_QUANTUM; i++) {
+            OutboundFrame frame = session.poll();
+            if (frame == null) {
+                if (session.isClosing()) {
+                    closeQuietly(session, CloseStatus.SESSION_NOT_RELIABLE);
+                }
+                return false;
+            }
+            
+            try {
+                bytesWritten.increment(session.write(frame));
+                framesSent.increment();
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Écriture impossible vers la session {}: {}", session.getId(), e.getMessage());
+                session.markClosing();
+                closeQuietly(session, CloseStatus.SESSION_NOT_RELIABLE);
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean drainBatches(BrokerSession session) {
+        int written = 0;
+        while (written < WRITE_QUANTUM) {
+            List<OutboundFrame> batch = session.pollBatch();
+            if (batch.isEmpty()) {
+                if (session.isClosing()) {
+                    closeQuietly(session, CloseStatus.SESSION_NOT_RELIABLE);
+                }
+                return false;
+            }
+            
+            try {
+                bytesWritten.increment(session.write(batch));
+                framesSent.increment(batch.size());
+                if (batch.size() > 1) {
+                    batchesSent.increment();
+                }
+                written += batch.size();
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Écriture impossible vers la session {}: {}", session.getId(), e.getMessage());
+                session.markClosing();
+                closeQuietly(session, CloseStatus.SESSION_NOT_RELIABLE);
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void closeQuietly(BrokerSession session, CloseStatus status) {
+        sessions.remove(session.getId(), session);
+        try {
+            session.close(status);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Fermeture de la session {} impossible: {}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.chatpoc.infrastructure.broker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Both buffers are read-only and shared: writers always work on duplicates
+record OutboundFrame(ByteBuffer subscriptionPrefix, ByteBuffer sharedFrame) {
+    
+    int size() {
+        return subscriptionPrefix.remaining() + sharedFrame.remaining();
+    }
+    
+    String decode() {
+        return StandardCharsets.UTF_8.decode(subscriptionPrefix.duplicate()).toString()
+            + StandardCharsets.UTF_8.decode(sharedFrame.duplicate());
+    }
+}
@@ -0,0 +1,45 @@
+package com.chatpoc.infrastructure.broker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Holds the live frames of a resuming subscription until its missed messages have been queued, then keeps
+// dropping the frames covered by the replay: the outbox relay may dispatch a message after the replay read it
+final class ReplayGate {
+    
+    private List<HeldFrame> held = new ArrayList<>();
+    private volatile boolean opened;
+    private volatile long lastReplayed;
+    
+    // True when the frame is held or was already replayed, false when it must be sent now
+    boolean intercept(long sequence, OutboundFrame frame) {
+        if (!opened) {
+            synchronized (this) {
+                if (held != null) {
+                    held.add(new HeldFrame(sequence, frame));
+                    return true;
+                }
+            }
+        }
+        return isReplayed(sequence);
+    }
+    
+    synchronized void open(long lastReplayed, Consumer<OutboundFrame> sink) {
+        this.lastReplayed = lastReplayed;
+        for (HeldFrame frame : held) {
+            if (!isReplayed(frame.sequence())) {
+                sink.accept(frame.frame());
+            }
+        }
+        held = null;
+        opened = true;
+    }
+    
+    // Frames with an unknown sequence are never covered by the replay
+    private boolean isReplayed(long sequence) {
+        return sequence > 0 && sequence <= lastReplayed;
+    }
+    
+    private record HeldFrame(long sequence, OutboundFrame frame) {}
+}
@@ -0,0 +1,6 @@
+package com.chatpoc.infrastructure.broker;
+
+public enum SlowConsumerPolicy {
+    DROP,
+    DISCONNECT
+}
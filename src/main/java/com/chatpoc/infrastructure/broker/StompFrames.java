@@ -0,0 +1,59 @@
+package com.chatpoc.infrastructure.broker;
+
+import org.springframework.util.MimeType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+final class StompFrames {
+    
+    private StompFrames() {
+    }
+    
+    static ByteBuffer subscriptionPrefix(String subscriptionId) {
+        byte[] prefix = ("MESSAGE\nsubscription:" + escape(subscriptionId) + "\n").getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.wrap(prefix).asReadOnlyBuffer();
+    }
+    
+    // Everything after the subscription header: identical for every subscriber of the destination
+    static ByteBuffer sharedFrame(String destination, String messageId, MimeType contentType, byte[] payload) {
+        StringBuilder headers = new StringBuilder(160)
+            .append("destination:").append(escape(destination)).append('\n')
+            .append("message-id:").append(escape(messageId)).append('\n');
+        if (contentType != null) {
+            headers.append("content-type:").append(escape(contentType.toString())).append('\n');
+        }
+        headers.append("content-length:").append(payload.length).append("\n\n");
+        
+        byte[] headerBytes = headers.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[headerBytes.length + payload.length + 1];
+        System.arraycopy(headerBytes, 0, frame, 0, headerBytes.length);
+        System.arraycopy(payload, 0, frame, headerBytes.length, payload.length);
+        return ByteBuffer.wrap(frame).asReadOnlyBuffer();
+    }
+    
+    static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case ':' -> "\\c";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                default -> null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
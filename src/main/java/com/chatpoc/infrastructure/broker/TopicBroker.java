@@ -0,0 +1,376 @@
+package com.chatpoc.infrastructure.broker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@ConditionalOnProperty(name = "chat.broker.enabled", havingValue = "true", matchIfMissing = true)
+public class TopicBroker implements MessageHandler, SmartLifecycle {
+    
+    public static final String TOPIC_PREFIX = "/topic/";
+    // CONNECT header, in milliseconds: the client accepts several frames coalesced into one WebSocket message
+    public static final String BATCH_WINDOW_HEADER = "x-batch-window";
+    // SUBSCRIBE header: last sequence received before a reconnect, missed messages are replayed first
+    public static final String SINCE_SEQUENCE_HEADER = "since-seq";
+    
+    private static final Logger logger = LoggerFactory.getLogger(TopicBroker.class);
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+    
+    private final SubscribableChannel clientInboundChannel;
+    private final SubscribableChannel brokerChannel;
+    private final OutboundDispatcher dispatcher;
+    
+    // Exact destination -> subscribers, replaced on every change so broadcasts iterate without locking
+    private final ConcurrentHashMap<String, Subscription[]> subscriptionsByDestination = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<String, String>> destinationsBySession = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final AtomicLong messageIds = new AtomicLong();
+    private volatile BroadcastRelay relay;
+    private volatile TopicReplay replay;
+    private volatile boolean running;
+    
+    private final Counter broadcasts;
+    private final Counter bytesEncoded;
+    private final Counter replayed;
+    
+    public TopicBroker(
+            @Qualifier("clientInboundChannel") SubscribableChannel clientInboundChannel,
+            @Qualifier("brokerChannel") SubscribableChannel brokerChannel,
+            OutboundDispatcher dispatcher,
+            MeterRegistry meterRegistry) {
+        this.clientInboundChannel = Objects.requireNonNull(clientInboundChannel);
+        this.brokerChannel = Objects.requireNonNull(brokerChannel);
+        this.dispatcher = Objects.requireNonNull(dispatcher);
+        
+        this.broadcasts = meterRegistry.counter("chat.broker.broadcasts");
+        this.bytesEncoded = Counter.builder("chat.broker.bytes.encoded")
+            .description("Octets de trames encodés, une fois par message diffusé")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.replayed = Counter.builder("chat.broker.replayed")
+            .description("Messages manqués renvoyés à la reprise d'un abonnement")
+            .register(meterRegistry);
+        Gauge.builder("chat.broker.destinations", subscriptionsByDestination, ConcurrentHashMap::size)
+            .description("Destinations /topic ayant au moins un abonné")
+            .register(meterRegistry);
+        Gauge.builder("chat.broker.subscriptions", subscriptionCount, AtomicInteger::get)
+            .description("Abonnements /topic actifs")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public void handleMessage(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        
+        if (SimpMessageType.MESSAGE.equals(type) && isTopic(destination)) {
+            broadcast(destination, message);
+        } else if (SimpMessageType.SUBSCRIBE.equals(type) && isTopic(destination)) {
+            subscribe(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(headers), destination,
+                contentType(headers.get(MessageHeaders.CONTENT_TYPE)),
+                SimpMessageHeaderAccessor.getFirstNativeHeader(SINCE_SEQUENCE_HEADER, headers));
+        } else if (SimpMessageType.CONNECT.equals(type)) {
+            negotiate(sessionId, contentType(headers.get(MessageHeaders.CONTENT_TYPE)),
+                SimpMessageHeaderAccessor.getFirstNativeHeader(BATCH_WINDOW_HEADER, headers));
+        } else if (SimpMessageType.UNSUBSCRIBE.equals(type)) {
+            unsubscribe(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(headers));
+        } else if (SimpMessageType.DISCONNECT.equals(type)) {
+            removeSession(sessionId);
+        }
+    }
+    
+    public void setRelay(BroadcastRelay relay) {
+        this.relay = relay;
+    }
+    
+    public void setReplay(TopicReplay replay) {
+        this.replay = replay;
+    }
+    
+    public Set<String> getActiveDestinations() {
+        return Set.copyOf(subscriptionsByDestination.keySet());
+    }
+    
+    public int broadcast(String destination, byte[] payload, MimeType contentType) {
+        return broadcast(destination, TopicPayload.of(payload, contentType));
+    }
+    
+    public int broadcast(String destination, TopicPayload payload) {
+        int delivered = deliver(destination, payload);
+        BroadcastRelay currentRelay = relay;
+        if (currentRelay != null) {
+            currentRelay.forward(destination, payload);
+        }
+        return delivered;
+    }
+    
+    // Local subscribers only: used for broadcasts relayed from other nodes
+    public int deliver(String destination, TopicPayload payload) {
+        Objects.requireNonNull(destination, "Destination cannot be null");
+        Objects.requireNonNull(payload, "Payload cannot be null");
+        
+        Subscription[] subscriptions = subscriptionsByDestination.get(destination);
+        if (subscriptions == null) {
+            return 0;
+        }
+        
+        // One read-only frame per wire format in use, shared by every subscriber: only the subscription header differs
+        String messageId = Long.toString(messageIds.incrementAndGet());
+        ByteBuffer[] sharedFrames = new ByteBuffer[WireFormat.values().length];
+        for (Subscription subscription : subscriptions) {
+            ByteBuffer sharedFrame = sharedFrames[subscription.format().ordinal()];
+            if (sharedFrame == null) {
+                sharedFrame = encode(destination, messageId, payload, subscription.format());
+                sharedFrames[subscription.format().ordinal()] = sharedFrame;
+            }
+            OutboundFrame frame = new OutboundFrame(subscription.framePrefix(), sharedFrame);
+            if (subscription.gate() == null || !subscription.gate().intercept(payload.sequence(), frame)) {
+                dispatcher.enqueue(subscription.session(), frame);
+            }
+        }
+        broadcasts.increment();
+        return subscriptions.length;
+    }
+    
+    private ByteBuffer encode(String destination, String messageId, TopicPayload payload, WireFormat format) {
+        byte[] body = payload.encode(format);
+        if (body == null) {
+            format = WireFormat.DEFAULT;
+            body = payload.encode(format);
+        }
+        ByteBuffer sharedFrame = StompFrames.sharedFrame(destination, messageId, payload.contentType(format), body);
+        bytesEncoded.increment(sharedFrame.remaining());
+        return sharedFrame;
+    }
+    
+    public int getSubscriberCount(String destination) {
+        return subscriptionsByDestination.getOrDefault(destination, NO_SUBSCRIPTIONS).length;
+    }
+    
+    void negotiate(String sessionId, MimeType requested, String batchWindow) {
+        BrokerSession session = sessionId == null ? null : dispatcher.session(sessionId);
+        if (session == null) {
+            return;
+        }
+        
+        session.setPreferredFormat(WireFormat.negotiate(requested, WireFormat.DEFAULT));
+        if (batchWindow != null) {
+            try {
+                dispatcher.enableBatching(session, Duration.ofMillis(Long.parseLong(batchWindow.trim())));
+            } catch (NumberFormatException e) {
+                logger.debug("En-tête {} invalide pour la session {}: {}", BATCH_WINDOW_HEADER, sessionId, batchWindow);
+            }
+        }
+    }
+    
+    void subscribe(String sessionId, String subscriptionId, String destination, MimeType requested) {
+        subscribe(sessionId, subscriptionId, destination, requested, null);
+    }
+    
+    void subscribe(String sessionId, String subscriptionId, String destination, MimeType requested, String sinceSequence) {
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        BrokerSession session = dispatcher.session(sessionId);
+        if (session == null) {
+            logger.debug("Abonnement {} ignoré : session {} inconnue", destination, sessionId);
+            return;
+        }
+        
+        Map<String, String> destinations = destinationsBySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>());
+        if (destinations.putIfAbsent(subscriptionId, destination) != null) {
+            return;
+        }
+        
+        WireFormat format = WireFormat.negotiate(requested, session.getPreferredFormat());
+        if (format == WireFormat.BINARY && !session.supportsBinary()) {
+            format = WireFormat.DEFAULT;
+        }
+        TopicReplay currentReplay = replay;
+        long resumeAfter = currentReplay == null ? -1 : parseSequence(sessionId, sinceSequence);
+        Subscription subscription = new Subscription(session, subscriptionId, format,
+            StompFrames.subscriptionPrefix(subscriptionId), resumeAfter < 0 ? null : new ReplayGate());
+        boolean[] activated = new boolean[1];
+        subscriptionsByDestination.compute(destination, (key, current) -> {
+            if (current == null) {
+                activated[0] = true;
+                return new Subscription[]{subscription};
+            }
+            Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscription;
+            return updated;
+        });
+        subscriptionCount.incrementAndGet();
+        
+        BroadcastRelay currentRelay = relay;
+        if (activated[0] && currentRelay != null) {
+            currentRelay.destinationActivated(destination);
+        }
+        
+        // Registered before reading the history: whatever is broadcast meanwhile is held by the gate, not lost
+        if (subscription.gate() != null) {
+            replay(subscription, destination, resumeAfter, currentReplay);
+        }
+    }
+    
+    private void replay(Subscription subscription, String destination, long sinceSequence, TopicReplay source) {
+        long lastReplayed = sinceSequence;
+        try {
+            for (TopicPayload payload : source.replay(destination, sinceSequence)) {
+                String messageId = Long.toString(messageIds.incrementAndGet());
+                dispatcher.enqueue(subscription.session(), new OutboundFrame(subscription.framePrefix(),
+                    encode(destination, messageId, payload, subscription.format())));
+                lastReplayed = Math.max(lastReplayed, payload.sequence());
+                replayed.increment();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Rejeu de {} après la séquence {} impossible: {}", destination, sinceSequence, e.getMessage());
+        } finally {
+            subscription.gate().open(lastReplayed, frame -> dispatcher.enqueue(subscription.session(), frame));
+        }
+    }
+    
+    private static long parseSequence(String sessionId, String sinceSequence) {
+        if (sinceSequence == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(sinceSequence.trim()));
+        } catch (NumberFormatException e) {
+            logger.debug("En-tête {} invalide pour la session {}: {}", SINCE_SEQUENCE_HEADER, sessionId, sinceSequence);
+            return -1;
+        }
+    }
+    
+    void unsubscribe(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        Map<String, String> destinations = destinationsBySession.get(sessionId);
+        String destination = destinations == null ? null : destinations.remove(subscriptionId);
+        if (destination != null) {
+            removeSubscription(destination, sessionId, subscriptionId);
+        }
+    }
+    
+    void removeSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Map<String, String> destinations = destinationsBySession.remove(sessionId);
+        if (destinations != null) {
+            destinations.forEach((subscriptionId, destination) -> removeSubscription(destination, sessionId, subscriptionId));
+        }
+    }
+    
+    private void removeSubscription(String destination, String sessionId, String subscriptionId) {
+        boolean[] deactivated = new boolean[1];
+        subscriptionsByDestination.computeIfPresent(destination, (key, current) -> {
+            for (int i = 0; i < current.length; i++) {
+                Subscription subscription = current[i];
+                if (subscription.session().getId().equals(sessionId) && subscription.subscriptionId().equals(subscriptionId)) {
+                    subscriptionCount.decrementAndGet();
+                    if (current.length == 1) {
+                        deactivated[0] = true;
+                        return null;
+                    }
+                    Subscription[] updated = new Subscription[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    return updated;
+                }
+            }
+            return current;
+        });
+        
+        BroadcastRelay currentRelay = relay;
+        if (deactivated[0] && currentRelay != null) {
+            currentRelay.destinationDeactivated(destination);
+        }
+    }
+    
+    private void broadcast(String destination, Message<?> message) {
+        byte[] payload = payloadBytes(message.getPayload());
+        if (payload == null) {
+            logger.warn("Message vers {} ignoré : payload de type {} non supporté", destination,
+                message.getPayload().getClass().getName());
+            return;
+        }
+        broadcast(destination, payload, contentType(message.getHeaders().get(MessageHeaders.CONTENT_TYPE)));
+    }
+    
+    private static byte[] payloadBytes(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (payload instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+    
+    private static MimeType contentType(Object header) {
+        if (header instanceof MimeType mimeType) {
+            return mimeType;
+        }
+        return header instanceof String text ? MimeType.valueOf(text) : null;
+    }
+    
+    private static boolean isTopic(String destination) {
+        return destination != null && destination.startsWith(TOPIC_PREFIX);
+    }
+    
+    @Override
+    public synchronized void start() {
+        if (!running) {
+            clientInboundChannel.subscribe(this);
+            brokerChannel.subscribe(this);
+            running = true;
+        }
+    }
+    
+    @Override
+    public synchronized void stop() {
+        if (running) {
+            clientInboundChannel.unsubscribe(this);
+            brokerChannel.unsubscribe(this);
+            running = false;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // gate is only set for a resuming subscription: it holds live frames during the replay and drops the replayed ones
+    private record Subscription(BrokerSession session, String subscriptionId, WireFormat format, ByteBuffer framePrefix,
+                                ReplayGate gate) {}
+}
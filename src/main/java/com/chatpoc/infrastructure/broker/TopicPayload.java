@@ -0,0 +1,39 @@
+package com.chatpoc.infrastructure.broker;
+
+import org.springframework.util.MimeType;
+
+import java.util.Objects;
+
+public interface TopicPayload {
+    
+    // Null when the payload cannot be produced in this format: subscribers then get the default encoding
+    byte[] encode(WireFormat format);
+    
+    MimeType contentType(WireFormat format);
+    
+    // Position in the destination's stream, used to skip duplicates when a subscription resumes; 0 when unknown
+    default long sequence() {
+        return 0;
+    }
+    
+    static TopicPayload of(byte[] payload, MimeType contentType) {
+        return new Raw(payload, contentType);
+    }
+    
+    record Raw(byte[] payload, MimeType contentType) implements TopicPayload {
+        
+        public Raw {
+            Objects.requireNonNull(payload, "Payload cannot be null");
+        }
+        
+        @Override
+        public byte[] encode(WireFormat format) {
+            return format == WireFormat.DEFAULT ? payload : null;
+        }
+        
+        @Override
+        public MimeType contentType(WireFormat format) {
+            return contentType;
+        }
+    }
+}
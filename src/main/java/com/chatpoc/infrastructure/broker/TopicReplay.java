@@ -0,0 +1,9 @@
+package com.chatpoc.infrastructure.broker;
+
+import java.util.List;
+
+public interface TopicReplay {
+    
+    // Payloads published to the destination after the sequence, oldest first
+    List<TopicPayload> replay(String destination, long sinceSequence);
+}
@@ -0,0 +1,39 @@
+package com.chatpoc.infrastructure.broker;
+
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+public enum WireFormat {
+    
+    // The payload's own encoding, JSON for chat messages
+    DEFAULT,
+    
+    // Compact chat message encoding, negotiated with the STOMP content-type header
+    BINARY,
+    
+    // JSON chat messages with their timestamp in epoch milliseconds, negotiated the same way
+    JSON_EPOCH_MILLIS;
+    
+    public static final MimeType BINARY_MESSAGE_TYPE = MimeType.valueOf("application/vnd.chatpoc.message.v1");
+    
+    public static final String TIMESTAMPS_PARAMETER = "timestamps";
+    public static final String EPOCH_MILLIS = "epoch-millis";
+    public static final MimeType EPOCH_MILLIS_JSON_TYPE =
+        new MimeType("application", "json", Map.of(TIMESTAMPS_PARAMETER, EPOCH_MILLIS));
+    
+    static WireFormat negotiate(MimeType requested, WireFormat fallback) {
+        if (requested == null) {
+            return fallback;
+        }
+        if (BINARY_MESSAGE_TYPE.equalsTypeAndSubtype(requested)) {
+            return BINARY;
+        }
+        return isEpochMillisJson(requested) ? JSON_EPOCH_MILLIS : DEFAULT;
+    }
+    
+    public static boolean isEpochMillisJson(MimeType type) {
+        return type != null && EPOCH_MILLIS_JSON_TYPE.equalsTypeAndSubtype(type)
+            && EPOCH_MILLIS.equalsIgnoreCase(type.getParameter(TIMESTAMPS_PARAMETER));
+    }
+}
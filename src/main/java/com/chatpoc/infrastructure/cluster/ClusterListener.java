@@ -0,0 +1,10 @@
+package com.chatpoc.infrastructure.cluster;
+
+public interface ClusterListener {
+    
+    void peerConnected(String nodeId);
+    
+    void peerDisconnected(String nodeId);
+    
+    void packetReceived(String nodeId, ClusterPacket packet);
+}
@@ -0,0 +1,32 @@
+package com.chatpoc.infrastructure.cluster;
+
+import java.util.Objects;
+
+public record ClusterPacket(Type type, String destination, String contentType, byte[] payload) {
+    
+    public enum Type {
+        INTEREST,
+        UNINTEREST,
+        PUBLISH
+    }
+    
+    private static final byte[] EMPTY = new byte[0];
+    
+    public ClusterPacket {
+        Objects.requireNonNull(type, "Packet type cannot be null");
+        Objects.requireNonNull(destination, "Destination cannot be null");
+        payload = payload == null ? EMPTY : payload;
+    }
+    
+    public static ClusterPacket interest(String destination) {
+        return new ClusterPacket(Type.INTEREST, destination, null, null);
+    }
+    
+    public static ClusterPacket uninterest(String destination) {
+        return new ClusterPacket(Type.UNINTEREST, destination, null, null);
+    }
+    
+    public static ClusterPacket publish(String destination, String contentType, byte[] payload) {
+        return new ClusterPacket(Type.PUBLISH, destination, contentType, payload);
+    }
+}
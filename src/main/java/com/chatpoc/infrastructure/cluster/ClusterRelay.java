@@ -0,0 +1,170 @@
+package com.chatpoc.infrastructure.cluster;
+
+import com.chatpoc.infrastructure.broker.BroadcastRelay;
+import com.chatpoc.infrastructure.broker.TopicBroker;
+import com.chatpoc.infrastructure.broker.TopicPayload;
+import com.chatpoc.infrastructure.broker.WireFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+public class ClusterRelay implements BroadcastRelay, ClusterListener, SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRelay.class);
+    
+    private final String nodeId;
+    private final TopicBroker topicBroker;
+    private final ClusterTransport transport;
+    private final BiFunction<byte[], MimeType, TopicPayload> payloadReader;
+    
+    private final Set<String> peers = ConcurrentHashMap.newKeySet();
+    // Destination -> peers having at least one subscriber for it
+    private final Map<String, Set<String>> interestedPeers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    
+    private final Counter forwarded;
+    private final Counter received;
+    private final Counter skipped;
+    
+    public ClusterRelay(String nodeId, TopicBroker topicBroker, ClusterTransport transport, MeterRegistry meterRegistry) {
+        this(nodeId, topicBroker, transport, meterRegistry, TopicPayload::of);
+    }
+    
+    // Peers exchange the default encoding, the reader lets relayed chat messages be re-encoded for binary subscribers
+    public ClusterRelay(String nodeId, TopicBroker topicBroker, ClusterTransport transport, MeterRegistry meterRegistry,
+                        BiFunction<byte[], MimeType, TopicPayload> payloadReader) {
+        this.nodeId = Objects.requireNonNull(nodeId, "Node id cannot be null");
+        this.topicBroker = Objects.requireNonNull(topicBroker);
+        this.transport = Objects.requireNonNull(transport);
+        this.payloadReader = Objects.requireNonNull(payloadReader);
+        
+        this.forwarded = meterRegistry.counter("chat.cluster.forwarded");
+        this.received = meterRegistry.counter("chat.cluster.received");
+        this.skipped = meterRegistry.counter("chat.cluster.skipped");
+        Gauge.builder("chat.cluster.peers", peers, Set::size)
+            .description("Nœuds du cluster connectés")
+            .register(meterRegistry);
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public Set<String> getPeers() {
+        return Set.copyOf(peers);
+    }
+    
+    public Set<String> getInterestedPeers(String destination) {
+        return Set.copyOf(interestedPeers.getOrDefault(destination, Set.of()));
+    }
+    
+    @Override
+    public void forward(String destination, TopicPayload payload) {
+        Set<String> targets = interestedPeers.get(destination);
+        if (targets == null || targets.isEmpty()) {
+            skipped.increment();
+            return;
+        }
+        
+        MimeType contentType = payload.contentType(WireFormat.DEFAULT);
+        ClusterPacket packet = ClusterPacket.publish(destination, contentType == null ? null : contentType.toString(),
+            payload.encode(WireFormat.DEFAULT));
+        for (String peer : targets) {
+            if (transport.send(peer, packet)) {
+                forwarded.increment();
+            }
+        }
+    }
+    
+    @Override
+    public void destinationActivated(String destination) {
+        announce(ClusterPacket.interest(destination));
+    }
+    
+    @Override
+    public void destinationDeactivated(String destination) {
+        announce(ClusterPacket.uninterest(destination));
+    }
+    
+    @Override
+    public void peerConnected(String peerId) {
+        if (peers.add(peerId)) {
+            logger.info("Nœud {} connecté au nœud {}", peerId, nodeId);
+        }
+        // A (re)connected peer learns every destination subscribed on this node
+        topicBroker.getActiveDestinations().forEach(destination -> transport.send(peerId, ClusterPacket.interest(destination)));
+    }
+    
+    @Override
+    public void peerDisconnected(String peerId) {
+        if (peers.remove(peerId)) {
+            logger.info("Nœud {} déconnecté du nœud {}", peerId, nodeId);
+        }
+        interestedPeers.keySet().forEach(destination -> removeInterest(destination, peerId));
+    }
+    
+    @Override
+    public void packetReceived(String peerId, ClusterPacket packet) {
+        switch (packet.type()) {
+            case INTEREST -> interestedPeers.compute(packet.destination(), (key, targets) -> {
+                Set<String> updated = targets == null ? ConcurrentHashMap.newKeySet() : targets;
+                updated.add(peerId);
+                return updated;
+            });
+            case UNINTEREST -> removeInterest(packet.destination(), peerId);
+            case PUBLISH -> {
+                received.increment();
+                MimeType contentType = packet.contentType() == null ? null : MimeType.valueOf(packet.contentType());
+                topicBroker.deliver(packet.destination(), payloadReader.apply(packet.payload(), contentType));
+            }
+        }
+    }
+    
+    private void removeInterest(String destination, String peerId) {
+        interestedPeers.computeIfPresent(destination, (key, targets) -> {
+            targets.remove(peerId);
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+    
+    private void announce(ClusterPacket packet) {
+        for (String peer : peers) {
+            transport.send(peer, packet);
+        }
+    }
+    
+    @Override
+    public synchronized void start() {
+        if (!running) {
+            topicBroker.setRelay(this);
+            transport.start(nodeId, this);
+            running = true;
+        }
+    }
+    
+    @Override
+    public synchronized void stop() {
+        if (running) {
+            topicBroker.setRelay(null);
+            transport.stop();
+            peers.clear();
+            interestedPeers.clear();
+            running = false;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,11 @@
+package com.chatpoc.infrastructure.cluster;
+
+public interface ClusterTransport {
+    
+    void start(String nodeId, ClusterListener listener);
+    
+    // Asynchronous and best effort: packets to an unknown or saturated peer are dropped
+    boolean send(String nodeId, ClusterPacket packet);
+    
+    void stop();
+}
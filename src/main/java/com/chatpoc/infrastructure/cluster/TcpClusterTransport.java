@@ -0,0 +1,293 @@
+package com.chatpoc.infrastructure.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+public class TcpClusterTransport implements ClusterTransport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TcpClusterTransport.class);
+    
+    private static final int PROTOCOL_VERSION = 1;
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+    private static final ClusterPacket CLOSE = ClusterPacket.uninterest("");
+    
+    private final int port;
+    private final List<InetSocketAddress> peerAddresses;
+    private final Duration reconnectInterval;
+    private final int sendQueueCapacity;
+    
+    // Each node may hold two connections to a peer (one dialled by each side), either one can carry traffic
+    private final Map<String, CopyOnWriteArrayList<Connection>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService threads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-tcp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter dropped;
+    
+    private volatile String nodeId;
+    private volatile ClusterListener listener;
+    private volatile ServerSocket serverSocket;
+    private volatile boolean running;
+    
+    public TcpClusterTransport(int port, List<InetSocketAddress> peerAddresses, Duration reconnectInterval,
+                               int sendQueueCapacity, MeterRegistry meterRegistry) {
+        if (sendQueueCapacity <= 0) {
+            throw new IllegalArgumentException("Send queue capacity must be positive");
+        }
+        
+        this.port = port;
+        this.peerAddresses = List.copyOf(peerAddresses);
+        this.reconnectInterval = Objects.requireNonNull(reconnectInterval);
+        this.sendQueueCapacity = sendQueueCapacity;
+        this.dropped = meterRegistry.counter("chat.cluster.dropped");
+    }
+    
+    @Override
+    public synchronized void start(String nodeId, ClusterListener listener) {
+        if (running) {
+            return;
+        }
+        this.nodeId = Objects.requireNonNull(nodeId, "Node id cannot be null");
+        this.listener = Objects.requireNonNull(listener);
+        
+        try {
+            serverSocket = new ServerSocket(port);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot listen for cluster peers on port " + port, e);
+        }
+        running = true;
+        logger.info("Nœud {} à l'écoute du cluster sur le port {}", nodeId, serverSocket.getLocalPort());
+        
+        threads.execute(this::acceptLoop);
+        peerAddresses.forEach(address -> threads.execute(() -> dialLoop(address)));
+    }
+    
+    public int getLocalPort() {
+        ServerSocket socket = serverSocket;
+        return socket == null ? -1 : socket.getLocalPort();
+    }
+    
+    @Override
+    public boolean send(String peerId, ClusterPacket packet) {
+        CopyOnWriteArrayList<Connection> peerConnections = connections.get(peerId);
+        if (peerConnections != null) {
+            for (Connection connection : peerConnections) {
+                if (connection.enqueue(packet)) {
+                    return true;
+                }
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+    
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeQuietly(serverSocket);
+        connections.values().forEach(peerConnections -> peerConnections.forEach(Connection::close));
+        threads.shutdownNow();
+    }
+    
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                threads.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Erreur d'acceptation d'un nœud du cluster : {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void dialLoop(InetSocketAddress address) {
+        while (running) {
+            try {
+                Socket socket = new Socket();
+                // Resolved on every attempt so that a restarted peer may come back under a new address
+                socket.connect(new InetSocketAddress(address.getHostString(), address.getPort()),
+                    (int) reconnectInterval.toMillis());
+                handle(socket);
+            } catch (IOException e) {
+                logger.debug("Nœud {} injoignable : {}", address, e.getMessage());
+            }
+            
+            try {
+                Thread.sleep(reconnectInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    // Runs until the connection drops: handshake, then reads packets while a sibling thread writes
+    private void handle(Socket socket) {
+        Connection connection = null;
+        try {
+            socket.setTcpNoDelay(true);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            
+            output.writeInt(PROTOCOL_VERSION);
+            output.writeUTF(nodeId);
+            output.flush();
+            if (input.readInt() != PROTOCOL_VERSION) {
+                throw new IOException("Unsupported cluster protocol version");
+            }
+            String peerId = input.readUTF();
+            if (peerId.equals(nodeId)) {
+                closeQuietly(socket);
+                return;
+            }
+            
+            connection = new Connection(peerId, socket, output);
+            Connection writer = connection;
+            threads.execute(writer::writeLoop);
+            register(connection);
+            
+            while (running) {
+                listener.packetReceived(peerId, read(input));
+            }
+        } catch (EOFException | SocketException e) {
+            logger.debug("Connexion au cluster fermée : {}", e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Erreur de connexion au cluster : {}", e.getMessage());
+        } finally {
+            if (connection != null) {
+                connection.close();
+                unregister(connection);
+            } else {
+                closeQuietly(socket);
+            }
+        }
+    }
+    
+    private void register(Connection connection) {
+        CopyOnWriteArrayList<Connection> peerConnections =
+            connections.computeIfAbsent(connection.peerId, id -> new CopyOnWriteArrayList<>());
+        peerConnections.add(connection);
+        listener.peerConnected(connection.peerId);
+    }
+    
+    private void unregister(Connection connection) {
+        boolean[] lastConnection = new boolean[1];
+        connections.computeIfPresent(connection.peerId, (id, peerConnections) -> {
+            peerConnections.remove(connection);
+            lastConnection[0] = peerConnections.isEmpty();
+            return lastConnection[0] ? null : peerConnections;
+        });
+        if (lastConnection[0] && running) {
+            listener.peerDisconnected(connection.peerId);
+        }
+    }
+    
+    static void write(DataOutputStream output, ClusterPacket packet) throws IOException {
+        output.writeByte(packet.type().ordinal());
+        output.writeUTF(packet.destination());
+        output.writeUTF(packet.contentType() == null ? "" : packet.contentType());
+        output.writeInt(packet.payload().length);
+        output.write(packet.payload());
+    }
+    
+    static ClusterPacket read(DataInputStream input) throws IOException {
+        ClusterPacket.Type[] types = ClusterPacket.Type.values();
+        int type = input.readUnsignedByte();
+        if (type >= types.length) {
+            throw new IOException("Unknown cluster packet type " + type);
+        }
+        String destination = input.readUTF();
+        String contentType = input.readUTF();
+        int length = input.readInt();
+        if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+            throw new IOException("Invalid cluster payload length " + length);
+        }
+        byte[] payload = new byte[length];
+        input.readFully(payload);
+        return new ClusterPacket(types[type], destination, contentType.isEmpty() ? null : contentType, payload);
+    }
+    
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+    
+    private final class Connection {
+        
+        private final String peerId;
+        private final Socket socket;
+        private final DataOutputStream output;
+        private final BlockingQueue<ClusterPacket> outbound;
+        private volatile boolean open = true;
+        
+        private Connection(String peerId, Socket socket, DataOutputStream output) {
+            this.peerId = peerId;
+            this.socket = socket;
+            this.output = output;
+            this.outbound = new ArrayBlockingQueue<>(sendQueueCapacity);
+        }
+        
+        private boolean enqueue(ClusterPacket packet) {
+            return open && outbound.offer(packet);
+        }
+        
+        private void writeLoop() {
+            try {
+                while (open) {
+                    ClusterPacket packet = outbound.take();
+                    if (packet == CLOSE) {
+                        return;
+                    }
+                    write(output, packet);
+                    // Batches whatever queued up meanwhile into the same flush
+                    ClusterPacket next;
+                    while ((next = outbound.poll()) != null && next != CLOSE) {
+                        write(output, next);
+                    }
+                    output.flush();
+                    if (next == CLOSE) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                logger.debug("Écriture impossible vers le nœud {} : {}", peerId, e.getMessage());
+                close();
+            }
+        }
+        
+        private void close() {
+            if (open) {
+                open = false;
+                outbound.clear();
+                outbound.offer(CLOSE);
+                closeQuietly(socket);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.chatpoc.infrastructure.messaging;
+
+import com.chatpoc.domain.chat.Message;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+public record EmailNotification(
+    UUID chatId,
+    UUID messageId,
+    String recipientName,
+    String recipientEmail,
+    String content,
+    Instant sentAt
+) {
+    public EmailNotification {
+        Objects.requireNonNull(recipientEmail, "Recipient email cannot be null");
+    }
+    
+    public static EmailNotification confirmationOf(UUID chatId, Message message) {
+        return new EmailNotification(
+            chatId,
+            message.getId(),
+            message.getSender().getName().value(),
+            message.getSender().getEmail().value(),
+            message.getContent(),
+            message.getTimestamp()
+        );
+    }
+}
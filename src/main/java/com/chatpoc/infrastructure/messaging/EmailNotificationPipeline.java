@@ -0,0 +1,298 @@
+package com.chatpoc.infrastructure.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Component
+public class EmailNotificationPipeline {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmailNotificationPipeline.class);
+    
+    private final JavaMailSender mailSender;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long digestIntervalNanos;
+    private final Duration retryBackoff;
+    
+    private final Map<String, PendingDigest> pendingByRecipient = new HashMap<>();
+    private final Map<String, Long> lastDispatchNanos = new HashMap<>();
+    private final DelayQueue<PendingDigest> dueDigests = new DelayQueue<>();
+    private final ExecutorService workers;
+    private int pendingNotifications;
+    private volatile boolean running = true;
+    
+    private final Counter dropped;
+    private final Counter coalesced;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter retries;
+    private final Timer latency;
+    private final Timer sendDuration;
+    
+    public EmailNotificationPipeline(
+            JavaMailSender mailSender,
+            MeterRegistry meterRegistry,
+            @Value("${chat.notifications.email.queue-capacity:10000}") int queueCapacity,
+            @Value("${chat.notifications.email.workers:2}") int workerCount,
+            @Value("${chat.notifications.email.digest-interval:30s}") Duration digestInterval,
+            @Value("${chat.notifications.email.batch-size:50}") int batchSize,
+            @Value("${chat.notifications.email.max-attempts:3}") int maxAttempts,
+            @Value("${chat.notifications.email.retry-backoff:1s}") Duration retryBackoff) {
+        if (queueCapacity <= 0 || workerCount <= 0 || batchSize <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Email pipeline sizes must be positive");
+        }
+        
+        this.mailSender = Objects.requireNonNull(mailSender);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.digestIntervalNanos = digestInterval.toNanos();
+        this.retryBackoff = Objects.requireNonNull(retryBackoff);
+        
+        Gauge.builder("chat.email.queue.depth", this, EmailNotificationPipeline::getPendingNotifications)
+            .description("Notifications en attente d'envoi")
+            .register(meterRegistry);
+        Gauge.builder("chat.email.queue.recipients", dueDigests, DelayQueue::size)
+            .description("Destinataires ayant un récapitulatif en attente")
+            .register(meterRegistry);
+        this.dropped = meterRegistry.counter("chat.email.dropped");
+        this.coalesced = meterRegistry.counter("chat.email.coalesced");
+        this.sent = meterRegistry.counter("chat.email.sent");
+        this.failed = meterRegistry.counter("chat.email.failed");
+        this.retries = meterRegistry.counter("chat.email.retries");
+        this.latency = Timer.builder("chat.email.latency")
+            .description("Délai entre la mise en file d'une notification et l'envoi de l'email")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.sendDuration = Timer.builder("chat.email.send.duration")
+            .description("Durée d'un envoi SMTP groupé")
+            .register(meterRegistry);
+        
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "email-notification-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+    
+    public boolean enqueue(EmailNotification notification) {
+        Objects.requireNonNull(notification, "EmailNotification cannot be null");
+        
+        synchronized (this) {
+            if (!running || pendingNotifications >= queueCapacity) {
+                dropped.increment();
+                logger.warn("File des emails pleine, notification du message {} abandonnée", notification.messageId());
+                return false;
+            }
+            
+            long now = System.nanoTime();
+            String recipient = notification.recipientEmail();
+            PendingDigest digest = pendingByRecipient.get(recipient);
+            if (digest == null) {
+                Long lastDispatch = lastDispatchNanos.get(recipient);
+                long dueAt = lastDispatch == null ? now : Math.max(now, lastDispatch + digestIntervalNanos);
+                digest = new PendingDigest(recipient, dueAt, now);
+                pendingByRecipient.put(recipient, digest);
+                dueDigests.add(digest);
+            } else {
+                coalesced.increment();
+            }
+            
+            digest.notifications.add(notification);
+            pendingNotifications++;
+            return true;
+        }
+    }
+    
+    public synchronized int getPendingNotifications() {
+        return pendingNotifications;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.shutdownNow();
+        int abandoned = getPendingNotifications();
+        if (abandoned > 0) {
+            logger.warn("Arrêt du pipeline email : {} notifications non envoyées", abandoned);
+        }
+    }
+    
+    private void runWorker() {
+        while (running) {
+            try {
+                List<PendingDigest> batch = new ArrayList<>(batchSize);
+                batch.add(dueDigests.take());
+                dueDigests.drainTo(batch, batchSize - 1);
+                deliver(dispatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Erreur inattendue dans le pipeline email: {}", e.getMessage(), e);
+            }
+        }
+    }
+    
+    private synchronized List<Dispatch> dispatch(List<PendingDigest> batch) {
+        long now = System.nanoTime();
+        List<Dispatch> dispatches = new ArrayList<>(batch.size());
+        for (PendingDigest digest : batch) {
+            pendingByRecipient.remove(digest.recipient, digest);
+            pendingNotifications -= digest.notifications.size();
+            // Recorded at dispatch so that messages arriving during the SMTP call wait for the next window
+            lastDispatchNanos.put(digest.recipient, now);
+            dispatches.add(new Dispatch(toMailMessage(digest.notifications), digest.firstEnqueuedNanos));
+        }
+        
+        if (lastDispatchNanos.size() > queueCapacity) {
+            lastDispatchNanos.values().removeIf(dispatchedAt -> now - dispatchedAt > digestIntervalNanos);
+        }
+        return dispatches;
+    }
+    
+    private void deliver(List<Dispatch> dispatches) throws InterruptedException {
+        List<Dispatch> remaining = dispatches;
+        for (int attempt = 1; attempt <= maxAttempts && !remaining.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                retries.increment(remaining.size());
+                Thread.sleep(retryBackoff.toMillis() * (attempt - 1));
+            }
+            remaining = send(remaining);
+        }
+        
+        if (!remaining.isEmpty()) {
+            failed.increment(remaining.size());
+            logger.error("Abandon de {} emails après {} tentatives", remaining.size(), maxAttempts);
+        }
+    }
+    
+    private List<Dispatch> send(List<Dispatch> dispatches) {
+        Timer.Sample sample = Timer.start();
+        try {
+            // A single send call delivers the whole batch over one SMTP connection
+            mailSender.send(dispatches.stream().map(Dispatch::message).toArray(SimpleMailMessage[]::new));
+            sample.stop(sendDuration);
+            completed(dispatches);
+            return List.of();
+        } catch (MailSendException e) {
+            sample.stop(sendDuration);
+            Set<Object> failedMessages = Collections.newSetFromMap(new IdentityHashMap<>());
+            failedMessages.addAll(e.getFailedMessages().keySet());
+            if (failedMessages.isEmpty()) {
+                logger.warn("Échec de l'envoi de {} emails: {}", dispatches.size(), e.getMessage());
+                return dispatches;
+            }
+            
+            List<Dispatch> failures = dispatches.stream()
+                .filter(dispatch -> failedMessages.contains(dispatch.message()))
+                .toList();
+            completed(dispatches.stream().filter(dispatch -> !failedMessages.contains(dispatch.message())).toList());
+            logger.warn("Échec de l'envoi de {} emails sur {}: {}", failures.size(), dispatches.size(), e.getMessage());
+            return failures;
+        } catch (MailException e) {
+            sample.stop(sendDuration);
+            logger.warn("Échec de l'envoi de {} emails: {}", dispatches.size(), e.getMessage());
+            return dispatches;
+        }
+    }
+    
+    private void completed(List<Dispatch> dispatches) {
+        long now = System.nanoTime();
+        for (Dispatch dispatch : dispatches) {
+            sent.increment();
+            latency.record(now - dispatch.firstEnqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private static SimpleMailMessage toMailMessage(List<EmailNotification> notifications) {
+        EmailNotification first = notifications.get(0);
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(first.recipientEmail());
+        
+        if (notifications.size() == 1) {
+            message.setSubject("Nouveau message dans le chat");
+            message.setText(String.format(
+                "Bonjour %s,\n\n" +
+                "Votre message a été envoyé avec succès dans le chat :\n\n" +
+                "\"%s\"\n\n" +
+                "Envoyé le : %s\n\n" +
+                "Cordialement,\nL'équipe Chat POC",
+                first.recipientName(),
+                first.content(),
+                localTime(first.sentAt())
+            ));
+            return message;
+        }
+        
+        message.setSubject("Nouveaux messages dans le chat");
+        message.setText(String.format(
+            "Bonjour %s,\n\n" +
+            "Vos %d messages ont été envoyés avec succès :\n\n" +
+            "%s\n\n" +
+            "Cordialement,\nL'équipe Chat POC",
+            first.recipientName(),
+            notifications.size(),
+            notifications.stream()
+                .map(notification -> "\"" + notification.content() + "\" (" + localTime(notification.sentAt()) + ")")
+                .collect(Collectors.joining("\n"))
+        ));
+        return message;
+    }
+    
+    // Mails show the server's local time, as before timestamps became instants
+    private static LocalDateTime localTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+    
+    private record Dispatch(SimpleMailMessage message, long firstEnqueuedNanos) {}
+    
+    private static final class PendingDigest implements Delayed {
+        
+        private final String recipient;
+        private final long dueAtNanos;
+        private final long firstEnqueuedNanos;
+        private final List<EmailNotification> notifications = new ArrayList<>();
+        
+        private PendingDigest(String recipient, long dueAtNanos, long firstEnqueuedNanos) {
+            this.recipient = recipient;
+            this.dueAtNanos = dueAtNanos;
+            this.firstEnqueuedNanos = firstEnqueuedNanos;
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtNanos, ((PendingDigest) other).dueAtNanos);
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.chatpoc.infrastructure.messaging;
 
 import com.chatpoc.application.services.DomainEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
 
 @Component
+@ConditionalOnProperty(name = "chat.outbox.enabled", havingValue = "false")
 public class SpringDomainEventPublisher implements DomainEventPublisher {
     
     private final ApplicationEventPublisher applicationEventPublisher;
@@ -0,0 +1,45 @@
+package com.chatpoc.infrastructure.outbox;
+
+import com.chatpoc.application.services.DomainEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+@Component
+@ConditionalOnProperty(name = "chat.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDomainEventPublisher implements DomainEventPublisher {
+    
+    private final OutboxRepository outboxRepository;
+    private final OutboxEventSerializer serializer;
+    private final OutboxRelay relay;
+    
+    public OutboxDomainEventPublisher(OutboxRepository outboxRepository, OutboxEventSerializer serializer, OutboxRelay relay) {
+        this.outboxRepository = Objects.requireNonNull(outboxRepository);
+        this.serializer = Objects.requireNonNull(serializer);
+        this.relay = Objects.requireNonNull(relay);
+    }
+    
+    @Override
+    public void publish(Object event) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        
+        OutboxEventSerializer.SerializedEvent serialized = serializer.serialize(event);
+        outboxRepository.append(serialized.eventId(), serialized.chatId(), serialized.type(),
+            serialized.payload(), serialized.occurredAt());
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            relay.wakeUp();
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
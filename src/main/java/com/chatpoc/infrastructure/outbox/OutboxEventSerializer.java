@@ -0,0 +1,158 @@
+package com.chatpoc.infrastructure.outbox;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.events.ChatCreatedEvent;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Component
+public class OutboxEventSerializer {
+    
+    static final String CHAT_CREATED = "ChatCreated";
+    static final String MESSAGE_SENT = "MessageSent";
+    static final String MESSAGES_SENT = "MessagesSent";
+    
+    private final ObjectMapper objectMapper;
+    
+    public OutboxEventSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+    }
+    
+    public SerializedEvent serialize(Object event) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        
+        if (event instanceof MessageSentEvent messageSent) {
+            return serialized(messageSent.getEventId(), messageSent.getChatId(), MESSAGE_SENT,
+                new MessageSentPayload(MessagePayload.of(messageSent.getMessage())), messageSent.getOccurredAt());
+        }
+        
+        if (event instanceof MessagesSentEvent messagesSent) {
+            List<MessagePayload> messages = messagesSent.getMessages().stream().map(MessagePayload::of).toList();
+            return serialized(messagesSent.getEventId(), messagesSent.getChatId(), MESSAGES_SENT,
+                new MessagesSentPayload(messages), messagesSent.getOccurredAt());
+        }
+        
+        if (event instanceof ChatCreatedEvent chatCreated) {
+            Participant creator = chatCreated.getCreator();
+            return serialized(chatCreated.getEventId(), chatCreated.getChatId(), CHAT_CREATED,
+                new ChatCreatedPayload(chatCreated.getChatName(), creator.getName().value(), creator.getEmail().value()),
+                chatCreated.getOccurredAt());
+        }
+        
+        throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+    }
+    
+    public Object deserialize(OutboxRecord record) {
+        Objects.requireNonNull(record, "OutboxRecord cannot be null");
+        
+        try {
+            return switch (record.eventType()) {
+                case MESSAGE_SENT -> {
+                    MessageSentPayload payload = objectMapper.readValue(record.payload(), MessageSentPayload.class);
+                    yield MessageSentEvent.reconstruct(record.eventId(), record.chatId(), payload.message().toDomain(), record.createdAt());
+                }
+                case MESSAGES_SENT -> {
+                    MessagesSentPayload payload = objectMapper.readValue(record.payload(), MessagesSentPayload.class);
+                    List<Message> messages = payload.messages().stream().map(MessagePayload::toDomain).toList();
+                    yield MessagesSentEvent.reconstruct(record.eventId(), record.chatId(), messages, record.createdAt());
+                }
+                case CHAT_CREATED -> {
+                    ChatCreatedPayload payload = objectMapper.readValue(record.payload(), ChatCreatedPayload.class);
+                    yield ChatCreatedEvent.reconstruct(record.eventId(), record.chatId(), payload.chatName(),
+                        Participant.of(payload.creatorName(), payload.creatorEmail()), record.createdAt());
+                }
+                default -> throw new IllegalArgumentException("Unsupported event type: " + record.eventType());
+            };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for event " + record.eventId(), e);
+        }
+    }
+    
+    private SerializedEvent serialized(UUID eventId, UUID chatId, String type, Object payload, Instant occurredAt) {
+        try {
+            return new SerializedEvent(eventId, chatId, type, objectMapper.writeValueAsString(payload), occurredAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event " + eventId, e);
+        }
+    }
+    
+    public record SerializedEvent(UUID eventId, UUID chatId, String type, String payload, Instant occurredAt) {}
+    
+    // sequence is absent from events written before message numbering and then reads as 0
+    record MessagePayload(UUID id, String content, String senderName, String senderEmail,
+                          @JsonFormat(shape = JsonFormat.Shape.STRING)
+                          @JsonDeserialize(using = InstantDeserializer.class) Instant timestamp,
+                          long sequence) {
+        
+        static MessagePayload of(Message message) {
+            return new MessagePayload(
+                message.getId(),
+                message.getContent(),
+                message.getSender().getName().value(),
+                message.getSender().getEmail().value(),
+                message.getTimestamp(),
+                message.getSequence()
+            );
+        }
+        
+        Message toDomain() {
+            return Message.reconstruct(id, content, Participant.of(senderName, senderEmail), timestamp, sequence);
+        }
+    }
+    
+    // Written as ISO-8601 whatever the mapper settings; events written before timestamps became instants hold a
+    // local date-time of the server, read in its zone
+    static final class InstantDeserializer extends StdDeserializer<Instant> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        InstantDeserializer() {
+            super(Instant.class);
+        }
+        
+        @Override
+        public Instant deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return Instant.ofEpochMilli(parser.getLongValue());
+            }
+            String text = parser.getValueAsString();
+            if (text == null) {
+                return (Instant) context.handleUnexpectedToken(Instant.class, parser);
+            }
+            try {
+                return Instant.parse(text);
+            } catch (DateTimeParseException e) {
+                try {
+                    return LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant();
+                } catch (DateTimeParseException legacy) {
+                    return (Instant) context.handleWeirdStringValue(Instant.class, text, "Not an instant: %s", text);
+                }
+            }
+        }
+    }
+    
+    record MessageSentPayload(MessagePayload message) {}
+    
+    record MessagesSentPayload(List<MessagePayload> messages) {}
+    
+    record ChatCreatedPayload(String chatName, String creatorName, String creatorEmail) {}
+}
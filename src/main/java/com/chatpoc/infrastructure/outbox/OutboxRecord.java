@@ -0,0 +1,14 @@
+package com.chatpoc.infrastructure.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record OutboxRecord(
+    long id,
+    UUID eventId,
+    UUID chatId,
+    String eventType,
+    String payload,
+    Instant createdAt,
+    int attempts
+) {}
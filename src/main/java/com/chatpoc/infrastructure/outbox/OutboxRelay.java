@@ -0,0 +1,191 @@
+package com.chatpoc.infrastructure.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "chat.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    private final OutboxRepository outboxRepository;
+    private final OutboxEventSerializer serializer;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+    // Identifies the rows claimed by this relay among the relays of the other nodes
+    private final String owner = UUID.randomUUID().toString();
+    
+    private final Semaphore wakeUps = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+    
+    private final Counter relayed;
+    private final Counter failures;
+    private final Counter dead;
+    private final Timer lag;
+    
+    public OutboxRelay(
+            OutboxRepository outboxRepository,
+            OutboxEventSerializer serializer,
+            ApplicationEventPublisher applicationEventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${chat.outbox.batch-size:200}") int batchSize,
+            @Value("${chat.outbox.poll-interval:500ms}") Duration pollInterval,
+            @Value("${chat.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${chat.outbox.claim-timeout:30s}") Duration claimTimeout) {
+        if (batchSize <= 0 || maxAttempts <= 0 || claimTimeout.isNegative() || claimTimeout.isZero()) {
+            throw new IllegalArgumentException("Outbox sizes must be positive");
+        }
+        
+        this.outboxRepository = Objects.requireNonNull(outboxRepository);
+        this.serializer = Objects.requireNonNull(serializer);
+        this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
+        this.batchSize = batchSize;
+        this.pollInterval = Objects.requireNonNull(pollInterval);
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+        
+        this.relayed = meterRegistry.counter("chat.outbox.relayed");
+        this.failures = meterRegistry.counter("chat.outbox.failures");
+        this.dead = meterRegistry.counter("chat.outbox.dead");
+        this.lag = Timer.builder("chat.outbox.relay.lag")
+            .description("Délai entre l'écriture d'un événement dans l'outbox et sa diffusion")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("chat.outbox.oldest.age", this, OutboxRelay::oldestPendingAgeSeconds)
+            .description("Âge en secondes du plus ancien événement non diffusé")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+    
+    public void wakeUp() {
+        wakeUps.release();
+    }
+    
+    public int relayPending() {
+        Instant now = Instant.now();
+        List<OutboxRecord> records = outboxRepository.claimOldest(owner, batchSize, now, now.plus(claimTimeout));
+        if (records.isEmpty()) {
+            return 0;
+        }
+        
+        List<Long> processed = new ArrayList<>(records.size());
+        List<Long> unprocessed = new ArrayList<>();
+        Set<UUID> blockedChats = new HashSet<>();
+        for (OutboxRecord record : records) {
+            // A failed event holds back the later events of its chat so that subscribers never see them out of order
+            if (blockedChats.contains(record.chatId())) {
+                unprocessed.add(record.id());
+                continue;
+            }
+            
+            try {
+                applicationEventPublisher.publishEvent(serializer.deserialize(record));
+                processed.add(record.id());
+                relayed.increment();
+                lag.record(Duration.between(record.createdAt(), Instant.now()));
+            } catch (RuntimeException e) {
+                failures.increment();
+                if (record.attempts() + 1 >= maxAttempts) {
+                    logger.error("Événement {} abandonné après {} tentatives", record.eventId(), maxAttempts, e);
+                    processed.add(record.id());
+                    dead.increment();
+                } else {
+                    logger.warn("Échec de diffusion de l'événement {}, nouvelle tentative", record.eventId(), e);
+                    outboxRepository.incrementAttempts(record.id());
+                    unprocessed.add(record.id());
+                    blockedChats.add(record.chatId());
+                }
+            }
+        }
+        
+        if (!processed.isEmpty()) {
+            outboxRepository.deleteAll(processed);
+        }
+        if (!unprocessed.isEmpty()) {
+            outboxRepository.releaseAll(owner, unprocessed);
+        }
+        return processed.size();
+    }
+    
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void run() {
+        while (running) {
+            try {
+                // A full batch means more rows are waiting: loop without sleeping
+                if (relayPending() < batchSize) {
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Erreur du relais outbox", e);
+                sleepQuietly();
+            }
+        }
+    }
+    
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+    
+    private double oldestPendingAgeSeconds() {
+        try {
+            return outboxRepository.findOldestCreatedAt()
+                .map(createdAt -> Duration.between(createdAt, Instant.now()).toMillis() / 1000.0)
+                .orElse(0.0);
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.chatpoc.infrastructure.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class OutboxRepository {
+    
+    // Oldest unclaimed rows whose chat has no earlier row claimed by a relay, so that a chat's events stay in order
+    private static final String CLAIMABLE_QUERY = """
+        SELECT id, event_id, chat_id, event_type, payload, created_at, attempts FROM outbox_events o
+        WHERE (o.claimed_until IS NULL OR o.claimed_until < ?)
+          AND NOT EXISTS (
+            SELECT 1 FROM outbox_events earlier
+            WHERE earlier.chat_id = o.chat_id AND earlier.id < o.id AND earlier.claimed_until >= ?)
+        ORDER BY o.id
+        LIMIT ?
+        """;
+    
+    private static final RowMapper<OutboxRecord> ROW_MAPPER = (resultSet, rowNum) -> new OutboxRecord(
+        resultSet.getLong("id"),
+        resultSet.getObject("event_id", UUID.class),
+        resultSet.getObject("chat_id", UUID.class),
+        resultSet.getString("event_type"),
+        resultSet.getString("payload"),
+        resultSet.getTimestamp("created_at").toInstant(),
+        resultSet.getInt("attempts")
+    );
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate claimTransaction;
+    
+    public OutboxRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    public void append(UUID eventId, UUID chatId, String eventType, String payload, Instant createdAt) {
+        jdbcTemplate.update(
+            "INSERT INTO outbox_events (event_id, chat_id, event_type, payload, created_at, attempts) VALUES (?, ?, ?, ?, ?, 0)",
+            eventId, chatId, eventType, payload, Timestamp.from(createdAt)
+        );
+    }
+    
+    // Claims are serialized on the outbox_claim_lock row: two relays never select the same rows
+    public List<OutboxRecord> claimOldest(String owner, int limit, Instant now, Instant claimedUntil) {
+        return claimTransaction.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT id FROM outbox_claim_lock WHERE id = 1 FOR UPDATE", Integer.class);
+            List<OutboxRecord> records = jdbcTemplate.query(CLAIMABLE_QUERY, ROW_MAPPER,
+                Timestamp.from(now), Timestamp.from(now), limit);
+            if (!records.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE outbox_events SET claimed_by = ?, claimed_until = ? WHERE id = ?",
+                    records, records.size(), (statement, record) -> {
+                        statement.setString(1, owner);
+                        statement.setTimestamp(2, Timestamp.from(claimedUntil));
+                        statement.setLong(3, record.id());
+                    });
+            }
+            return records;
+        });
+    }
+    
+    // Claims that expired in the meantime may belong to another relay, they are left alone
+    public void releaseAll(String owner, List<Long> ids) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE outbox_events SET claimed_by = NULL, claimed_until = NULL WHERE id = ? AND claimed_by = ?",
+            ids, ids.size(), (statement, id) -> {
+                statement.setLong(1, id);
+                statement.setString(2, owner);
+            });
+    }
+    
+    public Optional<Instant> findOldestCreatedAt() {
+        return jdbcTemplate.query(
+            "SELECT created_at FROM outbox_events ORDER BY id LIMIT 1",
+            (resultSet, rowNum) -> resultSet.getTimestamp("created_at").toInstant()
+        ).stream().findFirst();
+    }
+    
+    public void deleteAll(List<Long> ids) {
+        jdbcTemplate.batchUpdate("DELETE FROM outbox_events WHERE id = ?", ids, ids.size(),
+            (statement, id) -> statement.setLong(1, id));
+    }
+    
+    public void incrementAttempts(long id) {
+        jdbcTemplate.update("UPDATE outbox_events SET attempts = attempts + 1 WHERE id = ?", id);
+    }
+    
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,353 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.repository.ChatRepository;
+import com.chatpoc.domain.chat.repository.ChatSequence;
+import com.chatpoc.domain.chat.repository.ChatSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+public class CachingChatRepository implements ChatRepository {
+    
+    private static final int WRITE_STRIPES = 1024;
+    
+    private final ChatRepository delegate;
+    private final int maxChats;
+    private final int recentMessages;
+    private final long expireAfterAccessNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<UUID, HotChat> hotChats;
+    private final AtomicLongArray writeStamps = new AtomicLongArray(WRITE_STRIPES);
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    public CachingChatRepository(ChatRepository delegate, int maxChats, int recentMessages,
+                                 Duration expireAfterAccess, MeterRegistry meterRegistry) {
+        this(delegate, maxChats, recentMessages, expireAfterAccess, meterRegistry, System::nanoTime);
+    }
+    
+    CachingChatRepository(ChatRepository delegate, int maxChats, int recentMessages,
+                          Duration expireAfterAccess, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (maxChats <= 0 || recentMessages <= 0) {
+            throw new IllegalArgumentException("Cache sizes must be positive");
+        }
+        
+        this.delegate = Objects.requireNonNull(delegate);
+        this.maxChats = maxChats;
+        this.recentMessages = recentMessages;
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+        this.nanoClock = Objects.requireNonNull(nanoClock);
+        this.hotChats = new LinkedHashMap<>(16, 0.75f, true);
+        
+        FunctionCounter.builder("chat.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("chat.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("chat.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("chat.cache.size", this, CachingChatRepository::size).register(meterRegistry);
+    }
+    
+    @Override
+    public Chat save(Chat chat) {
+        Chat savedChat = delegate.save(chat);
+        invalidate(chat.getId());
+        return savedChat;
+    }
+    
+    @Override
+    public Optional<Chat> findById(UUID id) {
+        return delegate.findById(id);
+    }
+    
+    @Override
+    public Optional<Chat> findByIdWithParticipants(UUID id) {
+        return lookup(id).map(HotChat::toChat);
+    }
+    
+    @Override
+    public List<ChatSummary> findSummaries(int page, int size) {
+        return delegate.findSummaries(page, size);
+    }
+    
+    @Override
+    public List<ChatSequence> findChatSequencesAfter(UUID afterId, int limit) {
+        return delegate.findChatSequencesAfter(afterId, limit);
+    }
+    
+    @Override
+    public List<Message> findRecentMessages(UUID chatId, int limit) {
+        HotChat hotChat = getHotChat(chatId);
+        if (hotChat != null) {
+            Optional<List<Message>> recent = hotChat.recentMessages(limit);
+            if (recent.isPresent()) {
+                hits.incrementAndGet();
+                return recent.get();
+            }
+            misses.incrementAndGet();
+            return delegate.findRecentMessages(chatId, limit);
+        }
+        
+        misses.incrementAndGet();
+        if (limit > recentMessages) {
+            return delegate.findRecentMessages(chatId, limit);
+        }
+        
+        return load(chatId)
+            .flatMap(loaded -> loaded.recentMessages(limit))
+            .orElseGet(List::of);
+    }
+    
+    @Override
+    public List<Message> findMessagesBefore(UUID chatId, UUID messageId, int limit) {
+        return delegate.findMessagesBefore(chatId, messageId, limit);
+    }
+    
+    @Override
+    public List<Message> findMessagesAfter(UUID chatId, UUID messageId, int limit) {
+        return delegate.findMessagesAfter(chatId, messageId, limit);
+    }
+    
+    @Override
+    public List<Message> findMessagesSince(UUID chatId, long sequence, int limit) {
+        HotChat hotChat = getHotChat(chatId);
+        if (hotChat != null) {
+            Optional<List<Message>> missed = hotChat.messagesSince(sequence, limit);
+            if (missed.isPresent()) {
+                hits.incrementAndGet();
+                return missed.get();
+            }
+        }
+        misses.incrementAndGet();
+        return delegate.findMessagesSince(chatId, sequence, limit);
+    }
+    
+    @Override
+    public long lockLastSequence(UUID chatId) {
+        return delegate.lockLastSequence(chatId);
+    }
+    
+    @Override
+    public void appendMessage(UUID chatId, Message message) {
+        delegate.appendMessage(chatId, message);
+        afterCommit(() -> {
+            writeStamps.incrementAndGet(stripe(chatId));
+            HotChat hotChat = peek(chatId);
+            if (hotChat != null) {
+                hotChat.append(message);
+            }
+        });
+    }
+    
+    @Override
+    public void appendMessages(UUID chatId, List<Message> messages) {
+        delegate.appendMessages(chatId, messages);
+        afterCommit(() -> {
+            writeStamps.incrementAndGet(stripe(chatId));
+            HotChat hotChat = peek(chatId);
+            if (hotChat != null) {
+                messages.forEach(hotChat::append);
+            }
+        });
+    }
+    
+    @Override
+    public boolean addParticipantIfAbsent(UUID chatId, Participant participant) {
+        boolean added = delegate.addParticipantIfAbsent(chatId, participant);
+        afterCommit(() -> {
+            writeStamps.incrementAndGet(stripe(chatId));
+            HotChat hotChat = peek(chatId);
+            if (hotChat != null) {
+                hotChat.addParticipant(participant);
+            }
+        });
+        return added;
+    }
+    
+    @Override
+    public void deleteById(UUID id) {
+        delegate.deleteById(id);
+        invalidate(id);
+    }
+    
+    @Override
+    public boolean existsById(UUID id) {
+        if (getHotChat(id) != null) {
+            hits.incrementAndGet();
+            return true;
+        }
+        return delegate.existsById(id);
+    }
+    
+    public long getHitCount() {
+        return hits.get();
+    }
+    
+    public long getMissCount() {
+        return misses.get();
+    }
+    
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+    
+    public synchronized int size() {
+        return hotChats.size();
+    }
+    
+    private Optional<HotChat> lookup(UUID chatId) {
+        HotChat hotChat = getHotChat(chatId);
+        if (hotChat != null) {
+            hits.incrementAndGet();
+            return Optional.of(hotChat);
+        }
+        misses.incrementAndGet();
+        return load(chatId);
+    }
+    
+    private Optional<HotChat> load(UUID chatId) {
+        long writeStamp = writeStamps.get(stripe(chatId));
+        Optional<Chat> chat = delegate.findByIdWithParticipants(chatId);
+        if (chat.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        List<Message> messages = delegate.findRecentMessages(chatId, recentMessages);
+        HotChat hotChat = new HotChat(chat.get(), messages, recentMessages);
+        
+        synchronized (this) {
+            HotChat existing = hotChats.get(chatId);
+            if (existing != null) {
+                return Optional.of(existing);
+            }
+            // A write committed while loading may have missed this entry: serve it once, cache it next time
+            if (writeStamps.get(stripe(chatId)) == writeStamp) {
+                hotChats.put(chatId, hotChat);
+                evictOverflow();
+            }
+        }
+        return Optional.of(hotChat);
+    }
+    
+    private static int stripe(UUID chatId) {
+        return chatId.hashCode() & (WRITE_STRIPES - 1);
+    }
+    
+    private synchronized HotChat getHotChat(UUID chatId) {
+        HotChat hotChat = hotChats.get(chatId);
+        if (hotChat == null) {
+            return null;
+        }
+        
+        long now = nanoClock.getAsLong();
+        if (now - hotChat.lastAccessNanos > expireAfterAccessNanos) {
+            hotChats.remove(chatId);
+            evictions.incrementAndGet();
+            return null;
+        }
+        
+        hotChat.lastAccessNanos = now;
+        return hotChat;
+    }
+    
+    private synchronized HotChat peek(UUID chatId) {
+        return hotChats.get(chatId);
+    }
+    
+    private synchronized void invalidate(UUID chatId) {
+        hotChats.remove(chatId);
+    }
+    
+    private void evictOverflow() {
+        Iterator<HotChat> eldest = hotChats.values().iterator();
+        while (hotChats.size() > maxChats && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private final class HotChat {
+        
+        private final UUID id;
+        private final String name;
+        private final Instant createdAt;
+        private final Set<Participant> participants;
+        private final RecentMessageBuffer messages;
+        private boolean completeHistory;
+        private long lastSequence;
+        private volatile long lastAccessNanos;
+        
+        private HotChat(Chat chat, List<Message> recent, int capacity) {
+            this.id = chat.getId();
+            this.name = chat.getName();
+            this.createdAt = chat.getCreatedAt();
+            this.participants = new HashSet<>(chat.getParticipants());
+            this.messages = new RecentMessageBuffer(capacity);
+            recent.forEach(messages::add);
+            this.completeHistory = recent.size() < capacity;
+            this.lastSequence = chat.getLastSequence();
+            recent.forEach(message -> lastSequence = Math.max(lastSequence, message.getSequence()));
+            this.lastAccessNanos = nanoClock.getAsLong();
+        }
+        
+        private synchronized Optional<List<Message>> recentMessages(int limit) {
+            if (!completeHistory && limit > messages.size()) {
+                return Optional.empty();
+            }
+            return Optional.of(messages.tail(limit));
+        }
+        
+        // Served only when the window holds every message numbered after the sequence
+        private synchronized Optional<List<Message>> messagesSince(long sequence, int limit) {
+            if (sequence >= lastSequence) {
+                return Optional.of(List.of());
+            }
+            List<Message> missed = messages.since(sequence);
+            if (missed.size() != lastSequence - sequence) {
+                return Optional.empty();
+            }
+            return Optional.of(missed.size() > limit ? List.copyOf(missed.subList(0, limit)) : missed);
+        }
+        
+        private synchronized void append(Message message) {
+            if (messages.add(message)) {
+                completeHistory = false;
+            }
+            lastSequence = Math.max(lastSequence, message.getSequence());
+        }
+        
+        private synchronized void addParticipant(Participant participant) {
+            participants.add(participant);
+        }
+        
+        private synchronized Chat toChat() {
+            return Chat.reconstruct(id, name, participants, List.of(), createdAt, lastSequence);
+        }
+    }
+}
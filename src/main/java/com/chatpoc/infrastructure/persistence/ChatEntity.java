@@ -1,7 +1,7 @@
 package com.chatpoc.infrastructure.persistence;
 
 import jakarta.persistence.*;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -17,10 +17,15 @@ public class ChatEntity {
     @Column(name = "name", nullable = false, length = 100)
     private String name;
     
-    @Column(name = "created_at", nullable = false)
-    private LocalDateTime createdAt;
+    @Convert(converter = EpochMillisConverter.class)
+    @Column(name = "created_at_ms", nullable = false)
+    private Instant createdAt;
+    
+    @Column(name = "last_seq", nullable = false)
+    private long lastSequence;
     
     @OneToMany(mappedBy = "chat", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("sequence ASC")
     private Set<MessageEntity> messages = new HashSet<>();
     
     @OneToMany(mappedBy = "chat", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
@@ -28,7 +33,7 @@ public class ChatEntity {
     
     protected ChatEntity() {}
     
-    public ChatEntity(UUID id, String name, LocalDateTime createdAt) {
+    public ChatEntity(UUID id, String name, Instant createdAt) {
         this.id = id;
         this.name = name;
         this.createdAt = createdAt;
@@ -50,14 +55,22 @@ public class ChatEntity {
         this.name = name;
     }
     
-    public LocalDateTime getCreatedAt() {
+    public Instant getCreatedAt() {
         return createdAt;
     }
     
-    public void setCreatedAt(LocalDateTime createdAt) {
+    public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
     
+    public long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+    
     public Set<MessageEntity> getMessages() {
         return messages;
     }
@@ -0,0 +1,117 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public final class ChatEntityMapper {
+    
+    private ChatEntityMapper() {
+    }
+    
+    public static ChatEntity merge(Chat chat, ChatEntity chatEntity,
+                                   Function<Participant, ParticipantIdentityEntity> senders) {
+        chatEntity.setName(chat.getName());
+        chatEntity.setCreatedAt(chat.getCreatedAt());
+        chatEntity.setLastSequence(Math.max(chatEntity.getLastSequence(), chat.getLastSequence()));
+        
+        Set<String> persistedEmails = chatEntity.getParticipants().stream()
+            .map(ParticipantEntity::getEmail)
+            .collect(Collectors.toSet());
+        
+        chat.getParticipants().stream()
+            .filter(participant -> !persistedEmails.contains(participant.getEmail().value()))
+            .map(participant -> toEntity(participant, chatEntity))
+            .forEach(chatEntity.getParticipants()::add);
+        
+        Set<UUID> persistedMessageIds = chatEntity.getMessages().stream()
+            .map(MessageEntity::getId)
+            .collect(Collectors.toSet());
+        
+        chat.getMessages().stream()
+            .filter(message -> !persistedMessageIds.contains(message.getId()))
+            .map(message -> toEntity(message, chatEntity, senders.apply(message.getSender())))
+            .forEach(chatEntity.getMessages()::add);
+        
+        return chatEntity;
+    }
+    
+    public static ParticipantEntity toEntity(Participant participant, ChatEntity chatEntity) {
+        return new ParticipantEntity(
+            participant.getName().value(),
+            participant.getEmail().value(),
+            chatEntity
+        );
+    }
+    
+    public static MessageEntity toEntity(Message message, ChatEntity chatEntity, ParticipantIdentityEntity sender) {
+        return new MessageEntity(
+            message.getId(),
+            message.getContent(),
+            sender,
+            message.getTimestamp(),
+            message.getSequence(),
+            chatEntity
+        );
+    }
+    
+    public static Chat toDomain(ChatEntity chatEntity) {
+        // Loaded in sequence order (@OrderBy), Chat only sorts when the entities were added out of order
+        ParticipantInterner participants = new ParticipantInterner();
+        Set<MessageEntity> messageEntities = chatEntity.getMessages();
+        List<Message> messages = new ArrayList<>(messageEntities.size());
+        for (MessageEntity messageEntity : messageEntities) {
+            messages.add(toDomain(messageEntity, participants));
+        }
+        
+        return toDomain(chatEntity, messages, participants);
+    }
+    
+    public static Chat toDomain(ChatEntity chatEntity, List<Message> messages) {
+        return toDomain(chatEntity, messages, new ParticipantInterner());
+    }
+    
+    private static Chat toDomain(ChatEntity chatEntity, List<Message> messages, ParticipantInterner interner) {
+        Set<Participant> participants = new HashSet<>();
+        for (ParticipantEntity participantEntity : chatEntity.getParticipants()) {
+            participants.add(interner.intern(participantEntity.getName(), participantEntity.getEmail()));
+        }
+        
+        return Chat.reconstruct(
+            chatEntity.getId(),
+            chatEntity.getName(),
+            participants,
+            messages,
+            chatEntity.getCreatedAt(),
+            chatEntity.getLastSequence()
+        );
+    }
+    
+    public static List<Message> toMessages(List<MessageEntity> messageEntities) {
+        ParticipantInterner senders = new ParticipantInterner();
+        List<Message> messages = new ArrayList<>(messageEntities.size());
+        for (MessageEntity messageEntity : messageEntities) {
+            messages.add(toDomain(messageEntity, senders));
+        }
+        return messages;
+    }
+    
+    public static Message toDomain(MessageEntity messageEntity) {
+        return toDomain(messageEntity, new ParticipantInterner());
+    }
+    
+    private static Message toDomain(MessageEntity messageEntity, ParticipantInterner senders) {
+        ParticipantIdentityEntity sender = messageEntity.getSender();
+        return Message.reconstruct(
+            messageEntity.getId(),
+            messageEntity.getContent(),
+            senders.intern(sender.getName(), sender.getEmail()),
+            messageEntity.getTimestamp(),
+            messageEntity.getSequence()
+        );
+    }
+}
@@ -4,40 +4,126 @@ import com.chatpoc.domain.chat.Chat;
 import com.chatpoc.domain.chat.Message;
 import com.chatpoc.domain.chat.Participant;
 import com.chatpoc.domain.chat.repository.ChatRepository;
-import com.chatpoc.domain.shared.Email;
-import com.chatpoc.domain.shared.ParticipantName;
+import com.chatpoc.domain.chat.repository.ChatSequence;
+import com.chatpoc.domain.chat.repository.ChatSummary;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Component
 public class ChatRepositoryImpl implements ChatRepository {
     
     private final JpaChatRepository jpaChatRepository;
+    private final EntityManager entityManager;
+    private final ParticipantIdentityRegistry identityRegistry;
     
-    public ChatRepositoryImpl(JpaChatRepository jpaChatRepository) {
+    public ChatRepositoryImpl(JpaChatRepository jpaChatRepository, EntityManager entityManager,
+                              ParticipantIdentityRegistry identityRegistry) {
         this.jpaChatRepository = Objects.requireNonNull(jpaChatRepository);
+        this.entityManager = Objects.requireNonNull(entityManager);
+        this.identityRegistry = Objects.requireNonNull(identityRegistry);
     }
     
     @Override
     public Chat save(Chat chat) {
         ChatEntity chatEntity = toEntity(chat);
         ChatEntity savedEntity = jpaChatRepository.save(chatEntity);
-        return toDomain(savedEntity);
+        return ChatEntityMapper.toDomain(savedEntity);
     }
     
     @Override
     public Optional<Chat> findById(UUID id) {
         return jpaChatRepository.findByIdWithDetails(id)
-            .map(this::toDomain);
+            .map(ChatEntityMapper::toDomain);
     }
     
     @Override
-    public List<Chat> findAll() {
-        return jpaChatRepository.findAll().stream()
-            .map(this::toDomain)
-            .collect(Collectors.toList());
+    public Optional<Chat> findByIdWithParticipants(UUID id) {
+        return jpaChatRepository.findByIdWithParticipants(id)
+            .map(chatEntity -> ChatEntityMapper.toDomain(chatEntity, List.of()));
+    }
+    
+    @Override
+    public List<ChatSummary> findSummaries(int page, int size) {
+        return jpaChatRepository.findSummaries(PageRequest.of(page, size));
+    }
+    
+    @Override
+    public List<ChatSequence> findChatSequencesAfter(UUID afterId, int limit) {
+        return afterId == null
+            ? jpaChatRepository.findChatSequences(PageRequest.ofSize(limit))
+            : jpaChatRepository.findChatSequencesAfter(afterId, PageRequest.ofSize(limit));
+    }
+    
+    @Override
+    public List<Message> findRecentMessages(UUID chatId, int limit) {
+        List<Message> messages = ChatEntityMapper.toMessages(jpaChatRepository.findLatestMessages(chatId, PageRequest.ofSize(limit)));
+        Collections.reverse(messages);
+        return messages;
+    }
+    
+    @Override
+    public List<Message> findMessagesBefore(UUID chatId, UUID messageId, int limit) {
+        List<Message> messages = ChatEntityMapper.toMessages(jpaChatRepository.findMessagesBefore(chatId, messageId, PageRequest.ofSize(limit)));
+        Collections.reverse(messages);
+        return messages;
+    }
+    
+    @Override
+    public List<Message> findMessagesAfter(UUID chatId, UUID messageId, int limit) {
+        return ChatEntityMapper.toMessages(jpaChatRepository.findMessagesAfter(chatId, messageId, PageRequest.ofSize(limit)));
+    }
+    
+    @Override
+    public List<Message> findMessagesSince(UUID chatId, long sequence, int limit) {
+        return ChatEntityMapper.toMessages(jpaChatRepository.findMessagesAfterSequence(chatId, sequence, PageRequest.ofSize(limit)));
+    }
+    
+    @Override
+    public long lockLastSequence(UUID chatId) {
+        return jpaChatRepository.lockLastSequence(chatId)
+            .orElseThrow(() -> new IllegalArgumentException("Chat not found with id: " + chatId));
+    }
+    
+    @Override
+    public void appendMessage(UUID chatId, Message message) {
+        Objects.requireNonNull(message, "Message cannot be null");
+        
+        ChatEntity chatReference = jpaChatRepository.getReferenceById(chatId);
+        entityManager.persist(ChatEntityMapper.toEntity(message, chatReference, identityRegistry.resolve(message.getSender())));
+        jpaChatRepository.advanceLastSequence(chatId, message.getSequence());
+    }
+    
+    @Override
+    public void appendMessages(UUID chatId, List<Message> messages) {
+        Objects.requireNonNull(messages, "Messages cannot be null");
+        
+        // Inserts are grouped into JDBC batches by hibernate.jdbc.batch_size at flush time
+        ChatEntity chatReference = jpaChatRepository.getReferenceById(chatId);
+        Function<Participant, ParticipantIdentityEntity> senders =
+            identityRegistry.resolveAll(messages.stream().map(Message::getSender).toList());
+        messages.forEach(message -> entityManager.persist(
+            ChatEntityMapper.toEntity(message, chatReference, senders.apply(message.getSender()))));
+        messages.stream()
+            .mapToLong(Message::getSequence)
+            .max()
+            .ifPresent(lastSequence -> jpaChatRepository.advanceLastSequence(chatId, lastSequence));
+    }
+    
+    @Override
+    public boolean addParticipantIfAbsent(UUID chatId, Participant participant) {
+        Objects.requireNonNull(participant, "Participant cannot be null");
+        
+        if (jpaChatRepository.existsParticipant(chatId, participant.getEmail().value())) {
+            return false;
+        }
+        
+        ChatEntity chatReference = jpaChatRepository.getReferenceById(chatId);
+        entityManager.persist(ChatEntityMapper.toEntity(participant, chatReference));
+        return true;
     }
     
     @Override
@@ -54,64 +140,6 @@ public class ChatRepositoryImpl implements ChatRepository {
         ChatEntity chatEntity = jpaChatRepository.findById(chat.getId())
             .orElse(new ChatEntity(chat.getId(), chat.getName(), chat.getCreatedAt()));
         
-        chatEntity.setName(chat.getName());
-        chatEntity.setCreatedAt(chat.getCreatedAt());
-        
-        Set<ParticipantEntity> participantEntities = chat.getParticipants().stream()
-            .map(participant -> new ParticipantEntity(
-                participant.getName().value(),
-                participant.getEmail().value(),
-                chatEntity
-            ))
-            .collect(Collectors.toSet());
-        
-        chatEntity.getParticipants().clear();
-        chatEntity.getParticipants().addAll(participantEntities);
-        
-        Set<MessageEntity> messageEntities = chat.getMessages().stream()
-            .map(message -> new MessageEntity(
-                message.getId(),
-                message.getContent(),
-                message.getSender().getName().value(),
-                message.getSender().getEmail().value(),
-                message.getTimestamp(),
-                chatEntity
-            ))
-            .collect(Collectors.toSet());
-        
-        chatEntity.getMessages().clear();
-        chatEntity.getMessages().addAll(messageEntities);
-        
-        return chatEntity;
+        return ChatEntityMapper.merge(chat, chatEntity, identityRegistry::resolve);
     }
-    
-    private Chat toDomain(ChatEntity chatEntity) {
-        Set<Participant> participants = chatEntity.getParticipants().stream()
-            .map(participantEntity -> new Participant(
-                new ParticipantName(participantEntity.getName()),
-                new Email(participantEntity.getEmail())
-            ))
-            .collect(Collectors.toSet());
-        
-        List<Message> messages = chatEntity.getMessages().stream()
-            .map(messageEntity -> Message.reconstruct(
-                messageEntity.getId(),
-                messageEntity.getContent(),
-                new Participant(
-                    new ParticipantName(messageEntity.getSenderName()),
-                    new Email(messageEntity.getSenderEmail())
-                ),
-                messageEntity.getTimestamp()
-            ))
-            .sorted(Comparator.comparing(Message::getTimestamp))
-            .collect(Collectors.toList());
-        
-        return Chat.reconstruct(
-            chatEntity.getId(),
-            chatEntity.getName(),
-            participants,
-            messages,
-            chatEntity.getCreatedAt()
-        );
-    }
-}
\ No newline at end of file
+}
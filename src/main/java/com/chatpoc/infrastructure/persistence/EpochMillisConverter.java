@@ -0,0 +1,21 @@
+package com.chatpoc.infrastructure.persistence;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.Instant;
+
+// Stored as milliseconds since the epoch: no time zone involved, and an 8 byte integer column to index and compare
+@Converter
+public class EpochMillisConverter implements AttributeConverter<Instant, Long> {
+    
+    @Override
+    public Long convertToDatabaseColumn(Instant instant) {
+        return instant == null ? null : instant.toEpochMilli();
+    }
+    
+    @Override
+    public Instant convertToEntityAttribute(Long millis) {
+        return millis == null ? null : Instant.ofEpochMilli(millis);
+    }
+}
@@ -1,16 +1,86 @@
 package com.chatpoc.infrastructure.persistence;
 
+import com.chatpoc.domain.chat.repository.ChatSequence;
+import com.chatpoc.domain.chat.repository.ChatSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface JpaChatRepository extends JpaRepository<ChatEntity, UUID> {
     
-    @Query("SELECT c FROM ChatEntity c LEFT JOIN FETCH c.participants LEFT JOIN FETCH c.messages WHERE c.id = :id")
+    @Query("SELECT c FROM ChatEntity c LEFT JOIN FETCH c.participants LEFT JOIN FETCH c.messages m LEFT JOIN FETCH m.sender WHERE c.id = :id")
     Optional<ChatEntity> findByIdWithDetails(@Param("id") UUID id);
-}
\ No newline at end of file
+    
+    @Query("SELECT c FROM ChatEntity c LEFT JOIN FETCH c.participants WHERE c.id = :id")
+    Optional<ChatEntity> findByIdWithParticipants(@Param("id") UUID id);
+    
+    @Query("SELECT m FROM MessageEntity m JOIN FETCH m.sender WHERE m.chat.id = :chatId ORDER BY m.sequence DESC")
+    List<MessageEntity> findLatestMessages(@Param("chatId") UUID chatId, Pageable pageable);
+    
+    @Query("""
+        SELECT m FROM MessageEntity m JOIN FETCH m.sender, MessageEntity anchor
+        WHERE anchor.id = :cursorId AND anchor.chat.id = :chatId AND m.chat.id = :chatId
+          AND m.sequence < anchor.sequence
+        ORDER BY m.sequence DESC
+        """)
+    List<MessageEntity> findMessagesBefore(@Param("chatId") UUID chatId, @Param("cursorId") UUID cursorId, Pageable pageable);
+    
+    @Query("""
+        SELECT m FROM MessageEntity m JOIN FETCH m.sender, MessageEntity anchor
+        WHERE anchor.id = :cursorId AND anchor.chat.id = :chatId AND m.chat.id = :chatId
+          AND m.sequence > anchor.sequence
+        ORDER BY m.sequence
+        """)
+    List<MessageEntity> findMessagesAfter(@Param("chatId") UUID chatId, @Param("cursorId") UUID cursorId, Pageable pageable);
+    
+    @Query("SELECT m FROM MessageEntity m JOIN FETCH m.sender WHERE m.chat.id = :chatId AND m.sequence > :sequence ORDER BY m.sequence")
+    List<MessageEntity> findMessagesAfterSequence(@Param("chatId") UUID chatId, @Param("sequence") long sequence, Pageable pageable);
+    
+    @Query("""
+        SELECT new com.chatpoc.domain.chat.repository.ChatSequence(c.id, c.lastSequence)
+        FROM ChatEntity c WHERE c.lastSequence > 0 ORDER BY c.id
+        """)
+    List<ChatSequence> findChatSequences(Pageable pageable);
+    
+    @Query("""
+        SELECT new com.chatpoc.domain.chat.repository.ChatSequence(c.id, c.lastSequence)
+        FROM ChatEntity c WHERE c.id > :afterId AND c.lastSequence > 0 ORDER BY c.id
+        """)
+    List<ChatSequence> findChatSequencesAfter(@Param("afterId") UUID afterId, Pageable pageable);
+    
+    // Held until commit: writers of a chat commit in sequence order
+    @Query(value = "SELECT last_seq FROM chats WHERE id = :chatId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockLastSequence(@Param("chatId") UUID chatId);
+    
+    @Modifying
+    @Query("UPDATE ChatEntity c SET c.lastSequence = :sequence WHERE c.id = :chatId AND c.lastSequence < :sequence")
+    int advanceLastSequence(@Param("chatId") UUID chatId, @Param("sequence") long sequence);
+    
+    // Messages are never deleted and sequences are dense: the last sequence is the message count and
+    // designates the latest message through the (chat_id, seq) index
+    @Query("""
+        SELECT new com.chatpoc.domain.chat.repository.ChatSummary(
+            c.id,
+            c.name,
+            (SELECT COUNT(p) FROM ParticipantEntity p WHERE p.chat = c),
+            c.lastSequence,
+            SUBSTRING(last.content, 1, 100),
+            COALESCE(last.timestamp, c.createdAt)
+        )
+        FROM ChatEntity c
+        LEFT JOIN MessageEntity last ON last.chat = c AND last.sequence = c.lastSequence
+        ORDER BY COALESCE(last.timestamp, c.createdAt) DESC, c.id
+        """)
+    List<ChatSummary> findSummaries(Pageable pageable);
+    
+    @Query("SELECT COUNT(p) > 0 FROM ParticipantEntity p WHERE p.chat.id = :chatId AND p.email = :email")
+    boolean existsParticipant(@Param("chatId") UUID chatId, @Param("email") String email);
+}
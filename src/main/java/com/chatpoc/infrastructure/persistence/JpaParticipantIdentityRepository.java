@@ -0,0 +1,15 @@
+package com.chatpoc.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JpaParticipantIdentityRepository extends JpaRepository<ParticipantIdentityEntity, Long> {
+    
+    @Query("SELECT i.id FROM ParticipantIdentityEntity i WHERE i.email = :email AND i.name = :name")
+    Optional<Long> findIdByEmailAndName(@Param("email") String email, @Param("name") String name);
+}
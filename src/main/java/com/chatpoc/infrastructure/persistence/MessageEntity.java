@@ -1,11 +1,14 @@
 package com.chatpoc.infrastructure.persistence;
 
 import jakarta.persistence.*;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_chat_seq_desc", columnList = "chat_id, seq DESC"),
+    @Index(name = "uk_messages_chat_seq", columnList = "chat_id, seq", unique = true)
+})
 public class MessageEntity {
     
     @Id
@@ -15,14 +18,16 @@ public class MessageEntity {
     @Column(name = "content", nullable = false, length = 1000)
     private String content;
     
-    @Column(name = "sender_name", nullable = false, length = 50)
-    private String senderName;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sender_id", nullable = false)
+    private ParticipantIdentityEntity sender;
     
-    @Column(name = "sender_email", nullable = false, length = 255)
-    private String senderEmail;
+    @Convert(converter = EpochMillisConverter.class)
+    @Column(name = "sent_at_ms", nullable = false)
+    private Instant timestamp;
     
-    @Column(name = "timestamp", nullable = false)
-    private LocalDateTime timestamp;
+    @Column(name = "seq", nullable = false)
+    private long sequence;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "chat_id", nullable = false)
@@ -30,12 +35,13 @@ public class MessageEntity {
     
     protected MessageEntity() {}
     
-    public MessageEntity(UUID id, String content, String senderName, String senderEmail, LocalDateTime timestamp, ChatEntity chat) {
+    public MessageEntity(UUID id, String content, ParticipantIdentityEntity sender, Instant timestamp,
+                         long sequence, ChatEntity chat) {
         this.id = id;
         this.content = content;
-        this.senderName = senderName;
-        this.senderEmail = senderEmail;
+        this.sender = sender;
         this.timestamp = timestamp;
+        this.sequence = sequence;
         this.chat = chat;
     }
     
@@ -55,28 +61,28 @@ public class MessageEntity {
         this.content = content;
     }
     
-    public String getSenderName() {
-        return senderName;
+    public ParticipantIdentityEntity getSender() {
+        return sender;
     }
     
-    public void setSenderName(String senderName) {
-        this.senderName = senderName;
+    public void setSender(ParticipantIdentityEntity sender) {
+        this.sender = sender;
     }
     
-    public String getSenderEmail() {
-        return senderEmail;
+    public Instant getTimestamp() {
+        return timestamp;
     }
     
-    public void setSenderEmail(String senderEmail) {
-        this.senderEmail = senderEmail;
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
     }
     
-    public LocalDateTime getTimestamp() {
-        return timestamp;
+    public long getSequence() {
+        return sequence;
     }
     
-    public void setTimestamp(LocalDateTime timestamp) {
-        this.timestamp = timestamp;
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
     }
     
     public ChatEntity getChat() {
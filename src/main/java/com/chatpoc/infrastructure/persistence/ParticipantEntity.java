@@ -5,7 +5,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "participants", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"chat_id", "email"})
+    @UniqueConstraint(name = "uk_participants_chat_email", columnNames = {"chat_id", "email"})
 })
 public class ParticipantEntity {
     
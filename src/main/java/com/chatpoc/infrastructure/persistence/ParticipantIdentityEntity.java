@@ -0,0 +1,41 @@
+package com.chatpoc.infrastructure.persistence;
+
+import jakarta.persistence.*;
+
+// Immutable once inserted: rows are shared by every message of the same sender, across chats
+@Entity
+@Table(name = "participant_identities", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_participant_identities_email_name", columnNames = {"email", "name"})
+})
+public class ParticipantIdentityEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    @Column(name = "name", nullable = false, length = 50, updatable = false)
+    private String name;
+    
+    @Column(name = "email", nullable = false, length = 255, updatable = false)
+    private String email;
+    
+    protected ParticipantIdentityEntity() {}
+    
+    public ParticipantIdentityEntity(String name, String email) {
+        this.name = name;
+        this.email = email;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+}
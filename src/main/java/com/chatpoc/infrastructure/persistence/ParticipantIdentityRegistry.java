@@ -0,0 +1,152 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Participant;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// Resolves message senders to their participant_identities row. Identities are never updated nor deleted,
+// so their ids can be cached for the lifetime of the application
+@Component
+public class ParticipantIdentityRegistry {
+    
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final Comparator<IdentityKey> INSERT_ORDER =
+        Comparator.comparing(IdentityKey::email).thenComparing(IdentityKey::name);
+    
+    private final JpaParticipantIdentityRepository identityRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<IdentityKey, Long> idsByIdentity;
+    
+    public ParticipantIdentityRegistry(
+            JpaParticipantIdentityRepository identityRepository,
+            EntityManager entityManager,
+            JdbcTemplate jdbcTemplate,
+            @Value("${chat.persistence.sender-cache-size:10000}") int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Sender cache size must be positive");
+        }
+        
+        this.identityRepository = Objects.requireNonNull(identityRepository);
+        this.entityManager = Objects.requireNonNull(entityManager);
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+        this.idsByIdentity = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdentityKey, Long> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    // A reference usable as MessageEntity.sender, without loading the row
+    public ParticipantIdentityEntity resolve(Participant participant) {
+        Objects.requireNonNull(participant, "Participant cannot be null");
+        return resolve(IdentityKey.of(participant));
+    }
+    
+    // Each distinct sender is resolved once, missing identities are inserted in (email, name) order so that
+    // concurrent batches inserting the same new senders wait for each other instead of deadlocking
+    public Function<Participant, ParticipantIdentityEntity> resolveAll(Collection<Participant> participants) {
+        Map<IdentityKey, ParticipantIdentityEntity> resolved = new TreeMap<>(INSERT_ORDER);
+        participants.forEach(participant -> resolved.put(IdentityKey.of(participant), null));
+        resolved.replaceAll((key, unresolved) -> resolve(key));
+        return participant -> resolved.get(IdentityKey.of(participant));
+    }
+    
+    private ParticipantIdentityEntity resolve(IdentityKey key) {
+        Long id = cachedId(key);
+        if (id == null) {
+            id = identityRepository.findIdByEmailAndName(key.email(), key.name())
+                .orElseGet(() -> insert(key));
+            cacheAfterCommit(key, id);
+        }
+        return entityManager.getReference(ParticipantIdentityEntity.class, id);
+    }
+    
+    // On the connection of the caller's transaction, which already holds the chat's sequence lock: asking the
+    // pool for a second one stalls every sender once the pool is exhausted by senders waiting for theirs
+    private Long insert(IdentityKey key) {
+        Long inserted = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> insertIfAbsent(connection, key));
+        if (inserted != null) {
+            return inserted;
+        }
+        // Inserted concurrently by another transaction, which has committed it
+        return identityRepository.findIdByEmailAndName(key.email(), key.name())
+            .orElseThrow(() -> new IllegalStateException("Participant identity not found after a duplicate insert: " + key.email()));
+    }
+    
+    // Null on a duplicate: the savepoint undoes the failed insert only, the caller's transaction goes on
+    private static Long insertIfAbsent(Connection connection, IdentityKey key) throws SQLException {
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO participant_identities (name, email) VALUES (?, ?)", new String[]{"id"})) {
+            insert.setString(1, key.name());
+            insert.setString(2, key.email());
+            insert.executeUpdate();
+            try (ResultSet generatedKeys = insert.getGeneratedKeys()) {
+                generatedKeys.next();
+                long id = generatedKeys.getLong(1);
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return id;
+            }
+        } catch (SQLException e) {
+            if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw e;
+            }
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            return null;
+        }
+    }
+    
+    // An id inserted by a transaction that rolls back must not outlive it
+    private void cacheAfterCommit(IdentityKey key, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(key, id);
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(key, id);
+            }
+        });
+    }
+    
+    private synchronized Long cachedId(IdentityKey key) {
+        return idsByIdentity.get(key);
+    }
+    
+    private synchronized void cache(IdentityKey key, Long id) {
+        idsByIdentity.put(key, id);
+    }
+    
+    private record IdentityKey(String email, String name) {
+        
+        static IdentityKey of(Participant participant) {
+            return new IdentityKey(participant.getEmail().value(), participant.getName().value());
+        }
+    }
+}
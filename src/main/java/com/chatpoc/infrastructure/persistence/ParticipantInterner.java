@@ -0,0 +1,24 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.shared.Email;
+import com.chatpoc.domain.shared.ParticipantName;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Rows loaded together repeat the same few senders: each distinct (name, email) pair is validated and
+// instantiated once per load instead of once per row
+final class ParticipantInterner {
+    
+    private final Map<String, Participant> participantsByEmail = new HashMap<>();
+    
+    Participant intern(String name, String email) {
+        Participant participant = participantsByEmail.get(email);
+        if (participant == null || !participant.getName().value().equals(name)) {
+            participant = new Participant(new ParticipantName(name), new Email(email));
+            participantsByEmail.put(email, participant);
+        }
+        return participant;
+    }
+}
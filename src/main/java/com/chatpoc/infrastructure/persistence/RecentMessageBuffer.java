@@ -0,0 +1,86 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Message;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+final class RecentMessageBuffer {
+    
+    // Same order as the history queries; the timestamp only separates messages sent outside a chat (sequence 0)
+    private static final Comparator<Message> SEND_ORDER = Comparator
+        .comparingLong(Message::getSequence)
+        .thenComparing(Message::getTimestamp)
+        .thenComparing(Message::getId);
+    
+    private final Message[] slots;
+    private int oldest;
+    private int size;
+    
+    RecentMessageBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slots = new Message[capacity];
+    }
+    
+    boolean add(Message message) {
+        boolean overflow = size == slots.length;
+        if (overflow) {
+            if (SEND_ORDER.compare(message, get(0)) < 0) {
+                return true;
+            }
+            slots[oldest] = null;
+            oldest = (oldest + 1) % slots.length;
+            size--;
+        }
+        
+        int position = size;
+        while (position > 0 && SEND_ORDER.compare(get(position - 1), message) > 0) {
+            set(position, get(position - 1));
+            position--;
+        }
+        set(position, message);
+        size++;
+        
+        return overflow;
+    }
+    
+    List<Message> tail(int limit) {
+        int count = Math.min(limit, size);
+        List<Message> messages = new ArrayList<>(count);
+        for (int i = size - count; i < size; i++) {
+            messages.add(get(i));
+        }
+        return messages;
+    }
+    
+    // Messages numbered after the given sequence, in sequence order
+    List<Message> since(long sequence) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (get(i).getSequence() > sequence) {
+                messages.add(get(i));
+            }
+        }
+        messages.sort(Comparator.comparingLong(Message::getSequence));
+        return messages;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int capacity() {
+        return slots.length;
+    }
+    
+    private Message get(int index) {
+        return slots[(oldest + index) % slots.length];
+    }
+    
+    private void set(int index, Message message) {
+        slots[(oldest + index) % slots.length] = message;
+    }
+}
@@ -0,0 +1,80 @@
+package com.chatpoc.infrastructure.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+@Component
+@ConditionalOnProperty(name = "chat.schema.validate-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexValidator implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexValidator.class);
+    
+    static final Map<String, List<String>> REQUIRED_INDEXES = Map.of(
+        "messages", List.of("chat_id", "seq"),
+        "participants", List.of("chat_id", "email")
+    );
+    
+    private final DataSource dataSource;
+    
+    public SchemaIndexValidator(DataSource dataSource) {
+        this.dataSource = Objects.requireNonNull(dataSource);
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        validate();
+    }
+    
+    public void validate() throws SQLException {
+        List<String> missingIndexes = new ArrayList<>();
+        
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            
+            for (Map.Entry<String, List<String>> required : REQUIRED_INDEXES.entrySet()) {
+                if (!hasIndex(metaData, required.getKey(), required.getValue())) {
+                    missingIndexes.add(required.getKey() + required.getValue());
+                }
+            }
+        }
+        
+        if (!missingIndexes.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + missingIndexes +
+                " (apply the db/migration scripts or set chat.schema.validate-indexes=false)");
+        }
+        
+        logger.info("Index de schéma vérifiés : {}", REQUIRED_INDEXES.keySet());
+    }
+    
+    private boolean hasIndex(DatabaseMetaData metaData, String table, List<String> columns) throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Map<String, SortedMap<Short, String>> indexColumns = new HashMap<>();
+        
+        try (ResultSet indexInfo = metaData.getIndexInfo(null, null, tableName, false, true)) {
+            while (indexInfo.next()) {
+                String indexName = indexInfo.getString("INDEX_NAME");
+                String columnName = indexInfo.getString("COLUMN_NAME");
+                if (indexName == null || columnName == null) {
+                    continue;
+                }
+                indexColumns.computeIfAbsent(indexName, name -> new TreeMap<>())
+                    .put(indexInfo.getShort("ORDINAL_POSITION"), columnName.toLowerCase(Locale.ROOT));
+            }
+        }
+        
+        return indexColumns.values().stream()
+            .map(orderedColumns -> new ArrayList<>(orderedColumns.values()))
+            .anyMatch(indexed -> indexed.size() >= columns.size() && indexed.subList(0, columns.size()).equals(columns));
+    }
+}
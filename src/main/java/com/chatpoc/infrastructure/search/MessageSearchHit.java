@@ -0,0 +1,7 @@
+package com.chatpoc.infrastructure.search;
+
+import com.chatpoc.domain.chat.Message;
+
+import java.util.UUID;
+
+public record MessageSearchHit(UUID chatId, Message message) {}
@@ -0,0 +1,280 @@
+package com.chatpoc.infrastructure.search;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Lucene index of message contents, holding every field of the hits so that searches never read the database.
+// Writes go to an in-memory buffer flushed as segment files; a background thread makes them searchable every
+// refresh interval and durable every commit interval, and Lucene merges segments on its own threads
+@Component
+public class MessageSearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MessageSearchIndex.class);
+    
+    public static final int MAX_RESULTS = 100;
+    public static final int MAX_QUERY_LENGTH = 200;
+    
+    private static final String ID = "id";
+    private static final String CHAT_ID = "chat_id";
+    private static final String CONTENT = "content";
+    private static final String SENDER_NAME = "sender_name";
+    private static final String SENDER_EMAIL = "sender_email";
+    private static final String SENT_AT = "sent_at";
+    private static final String SEQUENCE = "seq";
+    
+    // Segments are kept in this order, a search stops after the first matches of each segment
+    private static final Sort NEWEST_FIRST = new Sort(new SortField(SENT_AT, SortField.Type.LONG, true));
+    
+    // Matching only, results are sorted by date: the postings keep document ids, without frequencies,
+    // positions or norms
+    private static final FieldType CONTENT_FIELD = contentField();
+    
+    private final Path path;
+    private final boolean temporary;
+    private final Analyzer analyzer = new MessageAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searchers;
+    private final ScheduledExecutorService maintenance;
+    
+    public MessageSearchIndex(
+            @Value("${chat.search.directory:}") String directory,
+            @Value("${chat.search.rebuild-on-start:true}") boolean rebuildOnStart,
+            @Value("${chat.search.refresh-interval:1s}") Duration refreshInterval,
+            @Value("${chat.search.commit-interval:30s}") Duration commitInterval,
+            @Value("${chat.search.ram-buffer-mb:64}") double ramBufferMb,
+            MeterRegistry meterRegistry) throws IOException {
+        if (refreshInterval.isNegative() || refreshInterval.isZero() || commitInterval.isNegative() || commitInterval.isZero()) {
+            throw new IllegalArgumentException("Search index refresh and commit intervals must be positive");
+        }
+        if (ramBufferMb <= 0) {
+            throw new IllegalArgumentException("Search index RAM buffer must be positive");
+        }
+        
+        // Without a directory the index lives as long as the application, like the in-memory database
+        this.temporary = directory.isBlank();
+        this.path = temporary ? Files.createTempDirectory("chatpoc-search-") : Path.of(directory);
+        this.directory = FSDirectory.open(path);
+        this.writer = new IndexWriter(this.directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(temporary || rebuildOnStart ? IndexWriterConfig.OpenMode.CREATE : IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+            .setIndexSort(NEWEST_FIRST)
+            .setRAMBufferSizeMB(ramBufferMb));
+        this.searchers = new SearcherManager(writer, null);
+        
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::refreshQuietly,
+            refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(this::commitQuietly,
+            commitInterval.toMillis(), commitInterval.toMillis(), TimeUnit.MILLISECONDS);
+        
+        Gauge.builder("chat.search.documents", writer, indexWriter -> indexWriter.getDocStats().numDocs)
+            .description("Messages présents dans l'index de recherche")
+            .register(meterRegistry);
+        logger.info("Index de recherche ouvert dans {}", path);
+    }
+    
+    // Keyed by message id: indexing a message again replaces it
+    public void index(UUID chatId, List<Message> messages) {
+        Objects.requireNonNull(chatId, "Chat id cannot be null");
+        try {
+            for (Message message : messages) {
+                writer.updateDocument(new Term(ID, bytes(message.getId())), document(chatId, message));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot index messages of chat " + chatId, e);
+        }
+    }
+    
+    // Messages containing every word of the text, newest first; in every chat when chatId is null
+    public List<MessageSearchHit> search(String text, UUID chatId, int limit) {
+        Objects.requireNonNull(text, "Search query cannot be null");
+        if (text.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit <= 0 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_RESULTS);
+        }
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(new TermQuery(new Term(CONTENT, term)), BooleanClause.Occur.FILTER);
+        }
+        if (chatId != null) {
+            query.add(new TermQuery(new Term(CHAT_ID, bytes(chatId))), BooleanClause.Occur.FILTER);
+        }
+        
+        try {
+            IndexSearcher searcher = searchers.acquire();
+            try {
+                TopDocs top = searcher.search(query.build(), limit, NEWEST_FIRST, false);
+                StoredFields storedFields = searcher.storedFields();
+                List<MessageSearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    hits.add(hit(storedFields.document(scoreDoc.doc)));
+                }
+                return hits;
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot search messages", e);
+        }
+    }
+    
+    public int getDocumentCount() {
+        return writer.getDocStats().numDocs;
+    }
+    
+    // Makes everything indexed so far visible to searches without waiting for the next refresh
+    public void refresh() throws IOException {
+        searchers.maybeRefreshBlocking();
+    }
+    
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        maintenance.shutdown();
+        maintenance.awaitTermination(10, TimeUnit.SECONDS);
+        searchers.close();
+        writer.close();
+        directory.close();
+        if (temporary) {
+            FileSystemUtils.deleteRecursively(path);
+        }
+    }
+    
+    private void refreshQuietly() {
+        try {
+            searchers.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Erreur lors du rafraîchissement de l'index de recherche: {}", e.getMessage(), e);
+        }
+    }
+    
+    private void commitQuietly() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Erreur lors de l'écriture de l'index de recherche: {}", e.getMessage(), e);
+        }
+    }
+    
+    private List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(CONTENT, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot analyze search query", e);
+        }
+        return terms;
+    }
+    
+    private static Document document(UUID chatId, Message message) {
+        long sentAt = message.getTimestamp().toEpochMilli();
+        Document document = new Document();
+        document.add(new StringField(ID, bytes(message.getId()), Field.Store.YES));
+        document.add(new StringField(CHAT_ID, bytes(chatId), Field.Store.YES));
+        document.add(new Field(CONTENT, message.getContent(), CONTENT_FIELD));
+        document.add(new StoredField(SENDER_NAME, message.getSender().getName().value()));
+        document.add(new StoredField(SENDER_EMAIL, message.getSender().getEmail().value()));
+        document.add(new NumericDocValuesField(SENT_AT, sentAt));
+        document.add(new StoredField(SENT_AT, sentAt));
+        document.add(new StoredField(SEQUENCE, message.getSequence()));
+        return document;
+    }
+    
+    private static MessageSearchHit hit(Document document) {
+        Message message = Message.reconstruct(
+            uuid(document.getBinaryValue(ID)),
+            document.get(CONTENT),
+            Participant.of(document.get(SENDER_NAME), document.get(SENDER_EMAIL)),
+            Instant.ofEpochMilli(document.getField(SENT_AT).numericValue().longValue()),
+            document.getField(SEQUENCE).numericValue().longValue()
+        );
+        return new MessageSearchHit(uuid(document.getBinaryValue(CHAT_ID)), message);
+    }
+    
+    private static BytesRef bytes(UUID id) {
+        return new BytesRef(ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array());
+    }
+    
+    private static UUID uuid(BytesRef bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+    
+    private static FieldType contentField() {
+        FieldType type = new FieldType();
+        type.setTokenized(true);
+        type.setStored(true);
+        type.setIndexOptions(IndexOptions.DOCS);
+        type.setOmitNorms(true);
+        type.freeze();
+        return type;
+    }
+}
@@ -0,0 +1,190 @@
+package com.chatpoc.infrastructure.search;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.chatpoc.domain.chat.repository.ChatRepository;
+import com.chatpoc.domain.chat.repository.ChatSequence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the search index up to date from the domain events, and rebuilds it from the database at startup.
+// In cluster mode a node only relays the events of its own outbox, so it also catches up periodically on the
+// messages written by the other nodes
+@Component
+public class MessageSearchIndexer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MessageSearchIndexer.class);
+    
+    static final int REBUILD_PAGE_SIZE = 1000;
+    
+    private final MessageSearchIndex index;
+    private final ChatRepository chatRepository;
+    private final boolean rebuildOnStart;
+    private final Duration catchUpInterval;
+    private final Counter failures;
+    // Per chat, the sequence up to which every message is indexed
+    private final Map<UUID, Long> indexedSequences = new ConcurrentHashMap<>();
+    private ScheduledExecutorService catchUp;
+    
+    public MessageSearchIndexer(
+            MessageSearchIndex index,
+            ChatRepository chatRepository,
+            MeterRegistry meterRegistry,
+            @Value("${chat.search.rebuild-on-start:true}") boolean rebuildOnStart,
+            @Value("${chat.cluster.enabled:false}") boolean clusterEnabled,
+            @Value("${chat.search.catch-up-interval:10s}") Duration catchUpInterval) {
+        this.index = Objects.requireNonNull(index);
+        this.chatRepository = Objects.requireNonNull(chatRepository);
+        this.rebuildOnStart = rebuildOnStart;
+        if (clusterEnabled && (catchUpInterval.isNegative() || catchUpInterval.isZero())) {
+            throw new IllegalArgumentException("Search catch-up interval must be positive");
+        }
+        this.catchUpInterval = clusterEnabled ? catchUpInterval : null;
+        this.failures = meterRegistry.counter("chat.search.indexing.failures");
+    }
+    
+    @EventListener
+    public void handleMessageSentEvent(MessageSentEvent event) {
+        Objects.requireNonNull(event, "MessageSentEvent cannot be null");
+        index(event.getChatId(), List.of(event.getMessage()));
+    }
+    
+    @EventListener
+    public void handleMessagesSentEvent(MessagesSentEvent event) {
+        Objects.requireNonNull(event, "MessagesSentEvent cannot be null");
+        index(event.getChatId(), event.getMessages());
+    }
+    
+    // In the background: searches miss older messages until it ends. Messages sent meanwhile are indexed by
+    // the listeners, and indexing a message twice only replaces it
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStart() {
+        if (catchUpInterval != null) {
+            startCatchUp();
+        }
+        if (!rebuildOnStart) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                long count = rebuild();
+                logger.info("Index de recherche reconstruit : {} messages en {} ms", count,
+                    (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                logger.error("Erreur lors de la reconstruction de l'index de recherche: {}", e.getMessage(), e);
+            }
+        }, "search-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    // Without a rebuild at startup, the first pass reads every message once
+    private synchronized void startCatchUp() {
+        if (catchUp != null) {
+            return;
+        }
+        catchUp = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-catch-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        catchUp.scheduleWithFixedDelay(() -> {
+            try {
+                long count = rebuild();
+                if (count > 0) {
+                    logger.debug("Rattrapage de l'index de recherche : {} messages", count);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Erreur lors du rattrapage de l'index de recherche: {}", e.getMessage(), e);
+            }
+        }, catchUpInterval.toMillis(), catchUpInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public synchronized void stop() {
+        if (catchUp != null) {
+            catchUp.shutdownNow();
+        }
+    }
+    
+    // Chats in id order and messages in sequence order, by pages: stable while new messages are sent.
+    // A page of chats is one query on chats, and only the chats whose last sequence is ahead of the indexed
+    // one are read, from that sequence: a pass after the rebuild only reads the new messages
+    long rebuild() {
+        long count = 0;
+        UUID afterChat = null;
+        List<ChatSequence> chats;
+        do {
+            chats = chatRepository.findChatSequencesAfter(afterChat, REBUILD_PAGE_SIZE);
+            for (ChatSequence chat : chats) {
+                if (chat.lastSequence() > indexedSequences.getOrDefault(chat.chatId(), 0L)) {
+                    count += rebuild(chat.chatId());
+                }
+            }
+            afterChat = chats.isEmpty() ? null : chats.get(chats.size() - 1).chatId();
+        } while (chats.size() == REBUILD_PAGE_SIZE);
+        return count;
+    }
+    
+    private long rebuild(UUID chatId) {
+        long count = 0;
+        long afterSequence = indexedSequences.getOrDefault(chatId, 0L);
+        List<Message> messages;
+        do {
+            messages = chatRepository.findMessagesSince(chatId, afterSequence, REBUILD_PAGE_SIZE);
+            if (messages.isEmpty()) {
+                break;
+            }
+            index.index(chatId, messages);
+            count += messages.size();
+            afterSequence = messages.get(messages.size() - 1).getSequence();
+            if (catchUpInterval != null) {
+                indexedSequences.merge(chatId, afterSequence, Math::max);
+            }
+        } while (messages.size() == REBUILD_PAGE_SIZE);
+        return count;
+    }
+    
+    private void index(UUID chatId, List<Message> messages) {
+        try {
+            index.index(chatId, messages);
+            advance(chatId, messages);
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.error("Erreur lors de l'indexation des messages du chat {}: {}", chatId, e.getMessage(), e);
+        }
+    }
+    
+    // Events only move the indexed sequence when they follow it: after a gap, the next catch-up reads the
+    // missing messages again from the database
+    private void advance(UUID chatId, List<Message> messages) {
+        if (catchUpInterval == null || messages.isEmpty()) {
+            return;
+        }
+        long first = messages.get(0).getSequence();
+        long last = messages.get(messages.size() - 1).getSequence();
+        indexedSequences.compute(chatId, (id, indexed) -> {
+            long current = indexed == null ? 0 : indexed;
+            return first == current + 1 && last > current ? Long.valueOf(last) : indexed;
+        });
+    }
+}
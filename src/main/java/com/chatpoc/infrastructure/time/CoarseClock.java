@@ -0,0 +1,108 @@
+package com.chatpoc.infrastructure.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Reading the time is a volatile read of the instant taken at the last tick, refreshed by a daemon thread:
+// readings lag behind the source by at most one tick plus the scheduling delay. Once closed, reads go to the source
+public final class CoarseClock extends Clock implements AutoCloseable {
+    
+    private final Clock source;
+    private final ScheduledExecutorService ticker;
+    private volatile Instant current;
+    
+    public CoarseClock(Clock source, Duration tick) {
+        this(source);
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Clock tick must be positive");
+        }
+        ticker.scheduleAtFixedRate(this::tick, tick.toNanos(), tick.toNanos(), TimeUnit.NANOSECONDS);
+    }
+    
+    // Ticks only when tick() is called
+    CoarseClock(Clock source) {
+        this.source = Objects.requireNonNull(source, "Clock source cannot be null");
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tick();
+    }
+    
+    void tick() {
+        long millis = source.millis();
+        Instant last = current;
+        // Keeps the same instance while the millisecond does not change, and never goes back
+        if (last == null || millis > last.toEpochMilli()) {
+            current = Instant.ofEpochMilli(millis);
+        }
+    }
+    
+    @Override
+    public Instant instant() {
+        Instant now = current;
+        return now != null ? now : source.instant();
+    }
+    
+    @Override
+    public long millis() {
+        return instant().toEpochMilli();
+    }
+    
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+    
+    @Override
+    public Clock withZone(ZoneId zone) {
+        Objects.requireNonNull(zone, "Zone cannot be null");
+        return ZoneOffset.UTC.equals(zone) ? this : new ZonedView(this, zone);
+    }
+    
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        current = null;
+    }
+    
+    // Same coarse readings, reported in another zone
+    private static final class ZonedView extends Clock {
+        
+        private final CoarseClock clock;
+        private final ZoneId zone;
+        
+        private ZonedView(CoarseClock clock, ZoneId zone) {
+            this.clock = clock;
+            this.zone = zone;
+        }
+        
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+        
+        @Override
+        public long millis() {
+            return clock.millis();
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return clock.withZone(zone);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.chatpoc.infrastructure.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Invalid input surfaces as IllegalArgumentException from the domain or the parameters, same body as ChatHandler
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException e, NativeWebRequest request) {
+        // Clients of the binary export or of the SSE stream may not accept JSON: the status alone then
+        if (!acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.badRequest().body(Map.of(
+            "message", String.valueOf(e.getMessage()),
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+    
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+    }
+}
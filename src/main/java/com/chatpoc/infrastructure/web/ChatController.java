@@ -1,12 +1,15 @@
 package com.chatpoc.infrastructure.web;
 
 import com.chatpoc.application.commands.CreateChatCommand;
+import com.chatpoc.application.commands.SendMessageBatchCommand;
 import com.chatpoc.application.commands.SendMessageCommand;
 import com.chatpoc.application.queries.GetChatQuery;
+import com.chatpoc.application.queries.GetChatSummariesQuery;
 import com.chatpoc.application.queries.GetRecentMessagesQuery;
 import com.chatpoc.application.services.ChatService;
 import com.chatpoc.domain.chat.Chat;
 import com.chatpoc.domain.chat.Message;
+import com.chatpoc.infrastructure.search.MessageSearchIndex;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,9 +18,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -26,14 +32,18 @@ import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/chats")
-@CrossOrigin(origins = "*")
+@CrossOrigin(originPatterns = "*")
 @Tag(name = "Chat Management", description = "API pour la gestion des chats et messages")
 public class ChatController {
     
     private final ChatService chatService;
+    private final ChatStreamService chatStreamService;
+    private final MessageSearchIndex messageSearchIndex;
     
-    public ChatController(ChatService chatService) {
+    public ChatController(ChatService chatService, ChatStreamService chatStreamService, MessageSearchIndex messageSearchIndex) {
         this.chatService = Objects.requireNonNull(chatService);
+        this.chatStreamService = Objects.requireNonNull(chatStreamService);
+        this.messageSearchIndex = Objects.requireNonNull(messageSearchIndex);
     }
     
     @PostMapping
@@ -61,7 +71,7 @@ public class ChatController {
                             }
                           ],
                           "messages": [],
-                          "createdAt": "2023-12-01T10:30:00"
+                          "createdAt": "2023-12-01T10:30:00Z"
                         }
                         """
                 )
@@ -145,24 +155,30 @@ public class ChatController {
     
     @GetMapping
     @Operation(
-        summary = "Lister tous les chats",
-        description = "Récupère la liste de tous les chats existants"
+        summary = "Lister les chats",
+        description = "Récupère une page de résumés de chats (nombre de participants et de messages, aperçu du dernier message), " +
+            "triés du plus récemment actif au plus ancien"
     )
     @ApiResponse(
         responseCode = "200",
-        description = "Liste des chats",
+        description = "Liste des résumés de chats",
         content = @Content(
             mediaType = "application/json",
-            schema = @Schema(implementation = ChatDTO.class, type = "array")
+            schema = @Schema(implementation = ChatSummaryDTO.class, type = "array")
         )
     )
-    public ResponseEntity<List<ChatDTO>> getAllChats() {
-        List<Chat> chats = chatService.getAllChats();
-        List<ChatDTO> chatDTOs = chats.stream()
-            .map(ChatDTO::fromDomain)
+    public ResponseEntity<List<ChatSummaryDTO>> getAllChats(
+            @Parameter(description = "Numéro de page (à partir de 0)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Nombre de chats par page (" + ChatService.MAX_PAGE_SIZE + " maximum)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        GetChatSummariesQuery query = new GetChatSummariesQuery(page, size);
+        
+        List<ChatSummaryDTO> summaryDTOs = chatService.getChatSummaries(query).stream()
+            .map(ChatSummaryDTO::fromDomain)
             .toList();
         
-        return ResponseEntity.ok(chatDTOs);
+        return ResponseEntity.ok(summaryDTOs);
     }
     
     @PostMapping("/{chatId}/messages")
@@ -185,7 +201,7 @@ public class ChatController {
                           "content": "Bonjour tout le monde !",
                           "senderName": "Jane Smith",
                           "senderEmail": "jane@example.com",
-                          "timestamp": "2023-12-01T10:35:00"
+                          "timestamp": "2023-12-01T10:35:00Z"
                         }
                         """
                 )
@@ -229,10 +245,111 @@ public class ChatController {
         return ResponseEntity.status(HttpStatus.CREATED).body(messageDTO);
     }
     
+    @PostMapping("/{chatId}/messages:batch")
+    @Operation(
+        summary = "Envoyer un lot de messages",
+        description = "Envoie jusqu'à 5000 messages dans un chat en une seule transaction. Le lot est validé en entier avant " +
+            "toute écriture ; un seul événement est publié pour le chat, les abonnés WebSocket reçoivent chaque message."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Messages envoyés avec succès, dans l'ordre du lot",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageDTO.class, type = "array")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Chat non trouvé ou données invalides"
+        )
+    })
+    public ResponseEntity<List<MessageDTO>> sendMessageBatch(
+            @Parameter(description = "ID du chat", example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable UUID chatId,
+            @Valid @RequestBody
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Messages à envoyer",
+                content = @Content(
+                    examples = @ExampleObject(
+                        name = "Envoi lot",
+                        value = """
+                            {
+                              "messages": [
+                                {
+                                  "content": "Bonjour tout le monde !",
+                                  "senderName": "Jane Smith",
+                                  "senderEmail": "jane@example.com"
+                                },
+                                {
+                                  "content": "Import terminé",
+                                  "senderName": "Import Bot",
+                                  "senderEmail": "bot@example.com"
+                                }
+                              ]
+                            }
+                            """
+                    )
+                )
+            ) SendMessageBatchRequest request) {
+        
+        SendMessageBatchCommand command = new SendMessageBatchCommand(
+            request.messages().stream()
+                .map(message -> new SendMessageCommand(
+                    chatId,
+                    message.content(),
+                    message.senderName(),
+                    message.senderEmail()
+                ))
+                .toList()
+        );
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(toMessageDTOs(chatService.sendMessages(command)));
+    }
+    
+    @PostMapping("/messages:batch")
+    @Operation(
+        summary = "Envoyer un lot de messages dans plusieurs chats",
+        description = "Variante multi-chats de l'envoi par lot : chaque message désigne son chat. Tout le lot est validé " +
+            "puis écrit dans une seule transaction, avec un événement publié par chat."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Messages envoyés avec succès, dans l'ordre du lot",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageDTO.class, type = "array")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Chat non trouvé ou données invalides"
+        )
+    })
+    public ResponseEntity<List<MessageDTO>> sendMultiChatMessageBatch(
+            @Valid @RequestBody ChatMessageBatchRequest request) {
+        
+        SendMessageBatchCommand command = new SendMessageBatchCommand(
+            request.messages().stream()
+                .map(message -> new SendMessageCommand(
+                    message.chatId(),
+                    message.content(),
+                    message.senderName(),
+                    message.senderEmail()
+                ))
+                .toList()
+        );
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(toMessageDTOs(chatService.sendMessages(command)));
+    }
+    
     @GetMapping("/{chatId}/messages")
     @Operation(
         summary = "Récupérer les messages récents",
-        description = "Récupère les N derniers messages d'un chat, triés par ordre chronologique"
+        description = "Récupère les N derniers messages d'un chat, triés par ordre chronologique. " +
+            "Les paramètres before/after prennent l'ID d'un message déjà reçu pour paginer dans l'historique."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -245,16 +362,20 @@ public class ChatController {
         ),
         @ApiResponse(
             responseCode = "400",
-            description = "Chat non trouvé"
+            description = "Chat non trouvé ou limite invalide"
         )
     })
     public ResponseEntity<List<MessageDTO>> getRecentMessages(
             @Parameter(description = "ID du chat", example = "123e4567-e89b-12d3-a456-426614174000")
             @PathVariable UUID chatId,
-            @Parameter(description = "Nombre maximum de messages à récupérer", example = "50")
-            @RequestParam(defaultValue = "50") int limit) {
+            @Parameter(description = "Nombre maximum de messages à récupérer (" + ChatService.MAX_PAGE_SIZE + " maximum)", example = "50")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "ID du message à partir duquel récupérer les messages plus anciens")
+            @RequestParam(required = false) UUID before,
+            @Parameter(description = "ID du message à partir duquel récupérer les messages plus récents")
+            @RequestParam(required = false) UUID after) {
         
-        GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, limit);
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, limit, before, after);
         
         List<Message> messages = chatService.getRecentMessages(query);
         List<MessageDTO> messageDTOs = messages.stream()
@@ -263,4 +384,166 @@ public class ChatController {
         
         return ResponseEntity.ok(messageDTOs);
     }
+    
+    @GetMapping("/search")
+    @Operation(
+        summary = "Rechercher dans les messages de tous les chats",
+        description = "Renvoie les messages contenant tous les mots recherchés, du plus récent au plus ancien. " +
+            "La casse, les accents et les élisions (l', d', qu'...) sont ignorés ; les mots doivent être complets. " +
+            "La recherche lit un index plein texte tenu à jour à l'envoi : un message y apparaît après environ une seconde."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Messages trouvés",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageSearchResultDTO.class, type = "array")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Recherche vide, trop longue ou limite invalide"
+        )
+    })
+    public ResponseEntity<List<MessageSearchResultDTO>> searchMessages(
+            @Parameter(description = "Mots recherchés (" + MessageSearchIndex.MAX_QUERY_LENGTH + " caractères maximum)", example = "réunion demain")
+            @RequestParam("q") String query,
+            @Parameter(description = "Nombre maximum de résultats (" + MessageSearchIndex.MAX_RESULTS + " maximum)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        List<MessageSearchResultDTO> results = messageSearchIndex.search(query, null, limit).stream()
+            .map(MessageSearchResultDTO::fromHit)
+            .toList();
+        
+        return ResponseEntity.ok(results);
+    }
+    
+    @GetMapping("/{chatId}/messages:search")
+    @Operation(
+        summary = "Rechercher dans les messages d'un chat",
+        description = "Comme la recherche globale, limitée aux messages d'un chat. Un chat inconnu ne renvoie aucun message."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Messages trouvés",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageDTO.class, type = "array")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Recherche vide, trop longue ou limite invalide"
+        )
+    })
+    public ResponseEntity<List<MessageDTO>> searchChatMessages(
+            @Parameter(description = "ID du chat", example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable UUID chatId,
+            @Parameter(description = "Mots recherchés (" + MessageSearchIndex.MAX_QUERY_LENGTH + " caractères maximum)", example = "réunion demain")
+            @RequestParam("q") String query,
+            @Parameter(description = "Nombre maximum de résultats (" + MessageSearchIndex.MAX_RESULTS + " maximum)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        List<MessageDTO> messages = messageSearchIndex.search(query, chatId, limit).stream()
+            .map(hit -> MessageDTO.fromDomain(hit.message()))
+            .toList();
+        
+        return ResponseEntity.ok(messages);
+    }
+    
+    @GetMapping(value = "/{chatId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Suivre les messages en continu (SSE)",
+        description = "Flux Server-Sent Events des messages du chat : un événement \"" + ChatStreamService.EVENT_NAME + "\" par " +
+            "message, dont l'id est le numéro de séquence. Avec l'en-tête Last-Event-ID, les messages manqués sont renvoyés " +
+            "avant les nouveaux. Un commentaire keep-alive est envoyé quand le flux reste inactif ; un client trop lent est " +
+            "déconnecté ou perd les événements les plus anciens selon la configuration. Indisponible en cluster : utiliser STOMP."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Flux ouvert",
+            content = @Content(
+                mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                examples = @ExampleObject(
+                    name = "Événement message",
+                    value = """
+                        id:42
+                        event:message
+                        data:{"id":"456e7890-e89b-12d3-a456-426614174000","content":"Bonjour tout le monde !","senderName":"Jane Smith","senderEmail":"jane@example.com","timestamp":"2023-12-01T10:35:00Z","sequence":42}
+                        """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Chat non trouvé"
+        ),
+        @ApiResponse(
+            responseCode = "501",
+            description = "Flux indisponible avec chat.cluster.enabled=true"
+        )
+    })
+    public ResponseEntity<SseEmitter> streamMessages(
+            @Parameter(description = "ID du chat", example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable UUID chatId,
+            @Parameter(description = "Séquence du dernier message reçu, pour reprendre le flux après une reconnexion")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        
+        if (!chatStreamService.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        }
+        
+        return chatStreamService.subscribe(chatId, lastEventId)
+            .map(emitter -> ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Asks reverse proxies such as nginx not to buffer the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter))
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping(value = "/{chatId}/messages:export", produces = MessageBinaryCodec.MESSAGES_MEDIA_TYPE_VALUE)
+    @Operation(
+        summary = "Exporter l'historique au format binaire",
+        description = "Renvoie les messages dans le format binaire compact " + MessageBinaryCodec.MESSAGES_MEDIA_TYPE_VALUE +
+            " (identifiant sur 16 octets, horodatage en millisecondes, chaînes UTF-8 préfixées par leur longueur). " +
+            "Mêmes paramètres de pagination que la récupération JSON, jusqu'à " + ChatService.MAX_EXPORT_SIZE + " messages par appel."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Messages exportés",
+            content = @Content(mediaType = MessageBinaryCodec.MESSAGES_MEDIA_TYPE_VALUE)
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Chat non trouvé ou limite invalide"
+        )
+    })
+    public ResponseEntity<byte[]> exportMessages(
+            @Parameter(description = "ID du chat", example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable UUID chatId,
+            @Parameter(description = "Nombre maximum de messages à exporter", example = "1000")
+            @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "ID du message à partir duquel exporter les messages plus anciens")
+            @RequestParam(required = false) UUID before,
+            @Parameter(description = "ID du message à partir duquel exporter les messages plus récents")
+            @RequestParam(required = false) UUID after) {
+        
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, limit, before, after);
+        byte[] body = MessageBinaryCodec.encodeAll(toMessageDTOs(chatService.exportMessages(query)));
+        
+        return ResponseEntity.ok()
+            .contentType(MessageBinaryCodec.MESSAGES_MEDIA_TYPE)
+            .body(body);
+    }
+    
+    private static List<MessageDTO> toMessageDTOs(List<Message> messages) {
+        return messages.stream()
+            .map(MessageDTO::fromDomain)
+            .toList();
+    }
 }
\ No newline at end of file
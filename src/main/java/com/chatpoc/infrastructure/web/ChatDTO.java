@@ -4,7 +4,7 @@ import com.chatpoc.domain.chat.Chat;
 import com.chatpoc.domain.chat.Participant;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
@@ -22,8 +22,8 @@ public record ChatDTO(
     @Schema(description = "Liste des messages du chat")
     List<MessageDTO> messages,
     
-    @Schema(description = "Date et heure de création du chat", example = "2023-12-01T10:30:00")
-    LocalDateTime createdAt
+    @Schema(description = "Date et heure de création du chat", example = "2023-12-01T10:30:00Z")
+    Instant createdAt
 ) {
     public static ChatDTO fromDomain(Chat chat) {
         Set<ParticipantDTO> participantDTOs = chat.getParticipants().stream()
@@ -0,0 +1,268 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.application.queries.GetChatQuery;
+import com.chatpoc.application.services.ChatService;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.chatpoc.infrastructure.broker.SlowConsumerPolicy;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ChatStreamService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChatStreamService.class);
+    
+    static final String EVENT_NAME = "message";
+    
+    private static final SseSubscriber.Event CONNECTED = new SseSubscriber.Event(0, SseEmitter.event().comment("connected").build());
+    private static final SseSubscriber.Event HEARTBEAT = new SseSubscriber.Event(0, SseEmitter.event().comment("keep-alive").build());
+    
+    private final ChatService chatService;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<UUID, Set<SseSubscriber>> subscribersByChat = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeats;
+    private final long timeoutMillis;
+    private final long heartbeatIntervalNanos;
+    private final int bufferSize;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final int replayMaxMessages;
+    private final boolean available;
+    
+    private final Counter eventsDropped;
+    private final Counter slowConsumersDisconnected;
+    
+    public ChatStreamService(
+            ChatService chatService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${chat.sse.timeout:30m}") Duration timeout,
+            @Value("${chat.sse.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${chat.sse.client-buffer-size:256}") int bufferSize,
+            @Value("${chat.sse.slow-consumer-policy:DISCONNECT}") SlowConsumerPolicy slowConsumerPolicy,
+            @Value("${chat.sse.writer-threads:0}") int writerThreads,
+            @Value("${chat.sse.replay.max-messages:500}") int replayMaxMessages,
+            @Value("${chat.cluster.enabled:false}") boolean clusterEnabled) {
+        if (bufferSize <= 0 || writerThreads < 0 || replayMaxMessages <= 0) {
+            throw new IllegalArgumentException("Stream sizes must be positive");
+        }
+        if (replayMaxMessages > ChatService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Stream replay cannot exceed " + ChatService.MAX_PAGE_SIZE + " messages");
+        }
+        if (timeout.isNegative() || timeout.isZero() || heartbeatInterval.isNegative() || heartbeatInterval.isZero()) {
+            throw new IllegalArgumentException("Stream timeout and heartbeat interval must be positive");
+        }
+        
+        this.chatService = Objects.requireNonNull(chatService);
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+        this.bufferSize = bufferSize;
+        this.slowConsumerPolicy = Objects.requireNonNull(slowConsumerPolicy);
+        this.replayMaxMessages = replayMaxMessages;
+        // Fed by the local events only: ClusterRelay delivers the broadcasts of peers to STOMP subscribers, so a
+        // stream on one node would silently miss the messages sent through the others
+        this.available = !clusterEnabled;
+        
+        AtomicInteger writerIndex = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(
+            writerThreads == 0 ? Runtime.getRuntime().availableProcessors() : writerThreads,
+            runnable -> {
+                Thread thread = new Thread(runnable, "sse-writer-" + writerIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats,
+            heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        
+        this.eventsDropped = meterRegistry.counter("chat.sse.events.dropped");
+        this.slowConsumersDisconnected = meterRegistry.counter("chat.sse.slow.disconnected");
+        Gauge.builder("chat.sse.clients", subscriberCount, AtomicInteger::get)
+            .description("Clients SSE abonnés à un chat")
+            .register(meterRegistry);
+    }
+    
+    // False in cluster mode, where clients must use STOMP
+    public boolean isAvailable() {
+        return available;
+    }
+    
+    // Empty when the chat does not exist; with a Last-Event-ID the messages numbered after it are sent first
+    public Optional<SseEmitter> subscribe(UUID chatId, Long lastEventId) {
+        Objects.requireNonNull(chatId, "Chat id cannot be null");
+        if (!available) {
+            throw new IllegalStateException("SSE stream is not available with chat.cluster.enabled=true");
+        }
+        if (lastEventId != null && lastEventId < 0) {
+            throw new IllegalArgumentException("Last-Event-ID cannot be negative");
+        }
+        
+        if (!chatService.chatExists(new GetChatQuery(chatId))) {
+            return Optional.empty();
+        }
+        
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        SseSubscriber subscriber = new SseSubscriber(emitter, bufferSize, slowConsumerPolicy, writers, lastEventId != null);
+        emitter.onCompletion(() -> unregister(chatId, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unregister(chatId, subscriber));
+        
+        // Registered before loading the replay so that nothing published meanwhile is missed
+        register(chatId, subscriber);
+        subscriber.offer(CONNECTED);
+        if (lastEventId != null) {
+            try {
+                // No more than the client buffer can hold
+                int replayLimit = Math.min(replayMaxMessages, bufferSize);
+                int dropped = subscriber.resume(lastEventId,
+                    ChatTopicReplay.missedMessages(chatService, chatId, lastEventId, replayLimit).stream()
+                        .map(this::event)
+                        .filter(Objects::nonNull)
+                        .toList());
+                eventsDropped.increment(dropped);
+            } catch (RuntimeException e) {
+                unregister(chatId, subscriber);
+                throw e;
+            }
+        }
+        
+        logger.debug("Client SSE abonné au chat {} (Last-Event-ID: {})", chatId, lastEventId);
+        return Optional.of(emitter);
+    }
+    
+    public int getSubscriberCount(UUID chatId) {
+        Set<SseSubscriber> subscribers = subscribersByChat.get(chatId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+    
+    @EventListener
+    public void handleMessageSentEvent(MessageSentEvent event) {
+        Objects.requireNonNull(event, "MessageSentEvent cannot be null");
+        publish(event.getChatId(), List.of(event.getMessage()));
+    }
+    
+    @EventListener
+    public void handleMessagesSentEvent(MessagesSentEvent event) {
+        Objects.requireNonNull(event, "MessagesSentEvent cannot be null");
+        publish(event.getChatId(), event.getMessages());
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribersByChat.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        }));
+        writers.shutdown();
+    }
+    
+    private void publish(UUID chatId, List<Message> messages) {
+        Set<SseSubscriber> subscribers = subscribersByChat.get(chatId);
+        if (subscribers == null) {
+            return;
+        }
+        
+        for (Message message : messages) {
+            // Rendered once, every subscriber writes the same lines
+            SseSubscriber.Event event = event(message);
+            if (event == null) {
+                continue;
+            }
+            for (SseSubscriber subscriber : subscribers) {
+                offer(chatId, subscriber, event);
+            }
+        }
+    }
+    
+    private void sendHeartbeats() {
+        long now = System.nanoTime();
+        subscribersByChat.forEach((chatId, subscribers) -> {
+            for (SseSubscriber subscriber : subscribers) {
+                if (now - subscriber.getLastWriteNanos() >= heartbeatIntervalNanos) {
+                    offer(chatId, subscriber, HEARTBEAT);
+                }
+            }
+        });
+    }
+    
+    private void offer(UUID chatId, SseSubscriber subscriber, SseSubscriber.Event event) {
+        switch (subscriber.offer(event)) {
+            case DROPPED -> eventsDropped.increment();
+            case FULL -> {
+                slowConsumersDisconnected.increment();
+                unregister(chatId, subscriber);
+                // Completing waits for a write in progress, never on the publishing thread
+                writers.execute(subscriber.getEmitter()::complete);
+                logger.warn("Client SSE trop lent déconnecté du chat {}", chatId);
+            }
+            default -> {
+            }
+        }
+    }
+    
+    private SseSubscriber.Event event(Message message) {
+        try {
+            String json = objectMapper.writeValueAsString(MessageDTO.fromDomain(message));
+            return new SseSubscriber.Event(message.getSequence(), SseEmitter.event()
+                .id(Long.toString(message.getSequence()))
+                .name(EVENT_NAME)
+                .data(json)
+                .build());
+        } catch (JsonProcessingException e) {
+            logger.error("Erreur lors de la sérialisation du message {}: {}", message.getId(), e.getMessage(), e);
+            return null;
+        }
+    }
+    
+    private void register(UUID chatId, SseSubscriber subscriber) {
+        subscribersByChat.compute(chatId, (id, subscribers) -> {
+            Set<SseSubscriber> registered = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            if (registered.add(subscriber)) {
+                subscriberCount.incrementAndGet();
+            }
+            return registered;
+        });
+    }
+    
+    private void unregister(UUID chatId, SseSubscriber subscriber) {
+        subscriber.close();
+        subscribersByChat.computeIfPresent(chatId, (id, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
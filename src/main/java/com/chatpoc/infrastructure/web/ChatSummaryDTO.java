@@ -0,0 +1,38 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.domain.chat.repository.ChatSummary;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Résumé d'un chat pour l'affichage en liste")
+public record ChatSummaryDTO(
+    @Schema(description = "Identifiant unique du chat", example = "123e4567-e89b-12d3-a456-426614174000")
+    String id,
+    
+    @Schema(description = "Nom du chat", example = "Mon Premier Chat")
+    String name,
+    
+    @Schema(description = "Nombre de participants du chat", example = "3")
+    long participantCount,
+    
+    @Schema(description = "Nombre de messages du chat", example = "42")
+    long messageCount,
+    
+    @Schema(description = "Début du dernier message envoyé (100 caractères maximum)", example = "Bonjour tout le monde !")
+    String lastMessagePreview,
+    
+    @Schema(description = "Date du dernier message, ou de création si le chat est vide", example = "2023-12-01T10:35:00Z")
+    Instant lastActivityAt
+) {
+    public static ChatSummaryDTO fromDomain(ChatSummary summary) {
+        return new ChatSummaryDTO(
+            summary.id().toString(),
+            summary.name(),
+            summary.participantCount(),
+            summary.messageCount(),
+            summary.lastMessagePreview(),
+            summary.lastActivityAt()
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.application.queries.GetMessagesSinceQuery;
+import com.chatpoc.application.queries.GetRecentMessagesQuery;
+import com.chatpoc.application.services.ChatService;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.infrastructure.broker.TopicBroker;
+import com.chatpoc.infrastructure.broker.TopicPayload;
+import com.chatpoc.infrastructure.broker.TopicReplay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "chat.broker.enabled", havingValue = "true", matchIfMissing = true)
+public class ChatTopicReplay implements TopicReplay {
+    
+    private final TopicBroker topicBroker;
+    private final ChatService chatService;
+    private final ObjectMapper objectMapper;
+    private final int maxMessages;
+    
+    public ChatTopicReplay(TopicBroker topicBroker, ChatService chatService, ObjectMapper objectMapper,
+                           @Value("${chat.broker.replay.max-messages:500}") int maxMessages) {
+        if (maxMessages <= 0 || maxMessages > ChatService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Replay size must be between 1 and " + ChatService.MAX_PAGE_SIZE);
+        }
+        
+        this.topicBroker = Objects.requireNonNull(topicBroker);
+        this.chatService = Objects.requireNonNull(chatService);
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+        this.maxMessages = maxMessages;
+    }
+    
+    @PostConstruct
+    void register() {
+        topicBroker.setReplay(this);
+    }
+    
+    @Override
+    public List<TopicPayload> replay(String destination, long sinceSequence) {
+        UUID chatId = chatId(destination);
+        if (chatId == null) {
+            return List.of();
+        }
+        
+        return missedMessages(chatService, chatId, sinceSequence, maxMessages).stream()
+            .map(message -> (TopicPayload) MessageTopicPayload.of(MessageDTO.fromDomain(message), objectMapper))
+            .toList();
+    }
+    
+    // Oldest first; too far behind, only the latest messages are returned and the client sees the gap and pages
+    // through the history
+    static List<Message> missedMessages(ChatService chatService, UUID chatId, long sinceSequence, int maxMessages) {
+        List<Message> missed = chatService.getMessagesSince(new GetMessagesSinceQuery(chatId, sinceSequence, maxMessages + 1));
+        if (missed.size() <= maxMessages) {
+            return missed;
+        }
+        return chatService.getRecentMessages(new GetRecentMessagesQuery(chatId, maxMessages)).stream()
+            .filter(message -> message.getSequence() > sinceSequence)
+            .sorted(Comparator.comparingLong(Message::getSequence))
+            .toList();
+    }
+    
+    private static UUID chatId(String destination) {
+        if (!destination.startsWith(WebSocketService.CHAT_TOPIC_PREFIX)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(destination.substring(WebSocketService.CHAT_TOPIC_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
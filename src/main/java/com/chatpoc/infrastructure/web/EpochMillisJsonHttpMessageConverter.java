@@ -0,0 +1,42 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.infrastructure.broker.WireFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Registered ahead of the default JSON converter, it only writes responses whose negotiated type is
+// application/json;timestamps=epoch-millis: the same documents, with dates as epoch milliseconds
+public class EpochMillisJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    public EpochMillisJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper.copy()
+            .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS));
+        setSupportedMediaTypes(List.of(MediaType.APPLICATION_JSON));
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return WireFormat.isEpochMillisJson(mediaType) && super.canWrite(clazz, mediaType);
+    }
+    
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return WireFormat.isEpochMillisJson(mediaType) && super.canWrite(type, clazz, mediaType);
+    }
+}
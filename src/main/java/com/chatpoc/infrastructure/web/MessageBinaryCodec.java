@@ -0,0 +1,210 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.infrastructure.broker.WireFormat;
+import org.springframework.http.MediaType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Message: version byte, 16-byte id, epoch-millisecond timestamp, varint sequence, then sender name, sender
+// email and content as varint length-prefixed UTF-8. A history export is the magic "CHM", the version, a varint
+// count and the messages without their version byte.
+public final class MessageBinaryCodec {
+    
+    public static final MediaType MESSAGE_MEDIA_TYPE = new MediaType(WireFormat.BINARY_MESSAGE_TYPE);
+    public static final String MESSAGES_MEDIA_TYPE_VALUE = "application/vnd.chatpoc.messages.v1";
+    public static final MediaType MESSAGES_MEDIA_TYPE = MediaType.valueOf(MESSAGES_MEDIA_TYPE_VALUE);
+    
+    private static final byte VERSION = 1;
+    private static final byte[] MAGIC = {'C', 'H', 'M'};
+    private static final int FIXED_BYTES = 16 + 8;
+    
+    private MessageBinaryCodec() {
+    }
+    
+    public static byte[] encode(MessageDTO message) {
+        EncodedMessage encoded = EncodedMessage.of(message);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + encoded.size());
+        buffer.put(VERSION);
+        encoded.writeTo(buffer);
+        return buffer.array();
+    }
+    
+    public static byte[] encodeAll(List<MessageDTO> messages) {
+        List<EncodedMessage> encoded = new ArrayList<>(messages.size());
+        int size = MAGIC.length + 1 + varintSize(messages.size());
+        for (MessageDTO message : messages) {
+            EncodedMessage encodedMessage = EncodedMessage.of(message);
+            encoded.add(encodedMessage);
+            size += encodedMessage.size();
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC).put(VERSION);
+        putVarint(buffer, messages.size());
+        encoded.forEach(message -> message.writeTo(buffer));
+        return buffer.array();
+    }
+    
+    public static MessageDTO decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            checkVersion(buffer.get());
+            MessageDTO message = readMessage(buffer);
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after binary message");
+            }
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary message", e);
+        }
+    }
+    
+    public static List<MessageDTO> decodeAll(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            for (byte expected : MAGIC) {
+                if (buffer.get() != expected) {
+                    throw new IllegalArgumentException("Not a binary message export");
+                }
+            }
+            checkVersion(buffer.get());
+            int count = getVarint(buffer);
+            List<MessageDTO> messages = new ArrayList<>(Math.min(count, 10_000));
+            for (int i = 0; i < count; i++) {
+                messages.add(readMessage(buffer));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after binary message export");
+            }
+            return messages;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary message export", e);
+        }
+    }
+    
+    private static MessageDTO readMessage(ByteBuffer buffer) {
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        Instant timestamp = Instant.ofEpochMilli(buffer.getLong());
+        long sequence = getVarlong(buffer);
+        String senderName = getString(buffer);
+        String senderEmail = getString(buffer);
+        String content = getString(buffer);
+        return new MessageDTO(id.toString(), content, senderName, senderEmail, timestamp, sequence);
+    }
+    
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary message version: " + version);
+        }
+    }
+    
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarint(buffer);
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated binary message");
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+    
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed length in binary message");
+    }
+    
+    private static void putVarlong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    private static long getVarlong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed sequence in binary message");
+    }
+    
+    private static int varlongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+    
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+    
+    private record EncodedMessage(UUID id, long epochMillis, long sequence, byte[] senderName, byte[] senderEmail,
+                                  byte[] content) {
+        
+        static EncodedMessage of(MessageDTO message) {
+            return new EncodedMessage(
+                UUID.fromString(message.id()),
+                message.timestamp().toEpochMilli(),
+                message.sequence(),
+                message.senderName().getBytes(StandardCharsets.UTF_8),
+                message.senderEmail().getBytes(StandardCharsets.UTF_8),
+                message.content().getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        
+        int size() {
+            return FIXED_BYTES + varlongSize(sequence)
+                + varintSize(senderName.length) + senderName.length
+                + varintSize(senderEmail.length) + senderEmail.length
+                + varintSize(content.length) + content.length;
+        }
+        
+        void writeTo(ByteBuffer buffer) {
+            buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).putLong(epochMillis);
+            putVarlong(buffer, sequence);
+            putVarint(buffer, senderName.length);
+            buffer.put(senderName);
+            putVarint(buffer, senderEmail.length);
+            buffer.put(senderEmail);
+            putVarint(buffer, content.length);
+            buffer.put(content);
+        }
+    }
+}
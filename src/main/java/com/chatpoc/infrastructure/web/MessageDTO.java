@@ -3,7 +3,7 @@ package com.chatpoc.infrastructure.web;
 import com.chatpoc.domain.chat.Message;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 
 @Schema(description = "Représentation d'un message dans un chat")
 public record MessageDTO(
@@ -19,8 +19,11 @@ public record MessageDTO(
     @Schema(description = "Email de l'expéditeur", example = "jane@example.com")
     String senderEmail,
     
-    @Schema(description = "Date et heure d'envoi du message", example = "2023-12-01T10:35:00")
-    LocalDateTime timestamp
+    @Schema(description = "Date et heure d'envoi du message (UTC), en millisecondes depuis l'epoch avec le paramètre timestamps=epoch-millis", example = "2023-12-01T10:35:00Z")
+    Instant timestamp,
+    
+    @Schema(description = "Numéro du message dans le chat, croissant à partir de 1 ; à renvoyer dans l'en-tête since-seq pour reprendre", example = "42")
+    long sequence
 ) {
     public static MessageDTO fromDomain(Message message) {
         return new MessageDTO(
@@ -28,7 +31,8 @@ public record MessageDTO(
             message.getContent(),
             message.getSender().getName().value(),
             message.getSender().getEmail().value(),
-            message.getTimestamp()
+            message.getTimestamp(),
+            message.getSequence()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.infrastructure.search.MessageSearchHit;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Message trouvé par la recherche, avec le chat qui le contient")
+public record MessageSearchResultDTO(
+    @Schema(description = "Identifiant du chat du message", example = "123e4567-e89b-12d3-a456-426614174000")
+    String chatId,
+    
+    @Schema(description = "Message trouvé")
+    MessageDTO message
+) {
+    public static MessageSearchResultDTO fromHit(MessageSearchHit hit) {
+        return new MessageSearchResultDTO(hit.chatId().toString(), MessageDTO.fromDomain(hit.message()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.infrastructure.broker.TopicPayload;
+import com.chatpoc.infrastructure.broker.WireFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+
+// Encodings are computed on first use only, a broadcast without binary subscribers never builds the binary form
+public final class MessageTopicPayload implements TopicPayload {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private final ObjectMapper objectMapper;
+    private MessageDTO message;
+    private byte[] json;
+    private byte[] binary;
+    private byte[] epochMillisJson;
+    private boolean unreadable;
+    
+    private MessageTopicPayload(ObjectMapper objectMapper, MessageDTO message, byte[] json) {
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+        this.message = message;
+        this.json = json;
+    }
+    
+    public static MessageTopicPayload of(MessageDTO message, ObjectMapper objectMapper) {
+        return new MessageTopicPayload(objectMapper, Objects.requireNonNull(message, "MessageDTO cannot be null"), null);
+    }
+    
+    // Wraps a JSON message relayed by another node
+    public static TopicPayload fromJson(byte[] json, MimeType contentType, ObjectMapper objectMapper) {
+        if (contentType == null || !MimeTypeUtils.APPLICATION_JSON.equalsTypeAndSubtype(contentType)) {
+            return TopicPayload.of(json, contentType);
+        }
+        return new MessageTopicPayload(objectMapper, null, Objects.requireNonNull(json));
+    }
+    
+    @Override
+    public byte[] encode(WireFormat format) {
+        return switch (format) {
+            case BINARY -> binary();
+            case JSON_EPOCH_MILLIS -> epochMillisJson();
+            case DEFAULT -> json();
+        };
+    }
+    
+    @Override
+    public MimeType contentType(WireFormat format) {
+        return switch (format) {
+            case BINARY -> WireFormat.BINARY_MESSAGE_TYPE;
+            case JSON_EPOCH_MILLIS -> WireFormat.EPOCH_MILLIS_JSON_TYPE;
+            case DEFAULT -> MimeTypeUtils.APPLICATION_JSON;
+        };
+    }
+    
+    private byte[] json() {
+        if (json == null) {
+            try {
+                json = objectMapper.writeValueAsBytes(message);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize message " + message.id(), e);
+            }
+        }
+        return json;
+    }
+    
+    @Override
+    public long sequence() {
+        MessageDTO parsed = message();
+        return parsed == null ? 0 : parsed.sequence();
+    }
+    
+    private MessageDTO message() {
+        if (message == null && !unreadable) {
+            try {
+                message = objectMapper.readValue(json, MessageDTO.class);
+            } catch (IOException e) {
+                unreadable = true;
+            }
+        }
+        return message;
+    }
+    
+    private byte[] epochMillisJson() {
+        if (epochMillisJson == null && message() != null) {
+            epochMillisJson = writeEpochMillisJson(message);
+        }
+        return epochMillisJson;
+    }
+    
+    // Streams the fields in MessageDTO order without going through data binding or date formatting
+    static byte[] writeEpochMillisJson(MessageDTO message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128 + message.content().length());
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("id", message.id());
+            generator.writeStringField("content", message.content());
+            generator.writeStringField("senderName", message.senderName());
+            generator.writeStringField("senderEmail", message.senderEmail());
+            generator.writeNumberField("timestamp", message.timestamp().toEpochMilli());
+            generator.writeNumberField("sequence", message.sequence());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize message " + message.id(), e);
+        }
+        return out.toByteArray();
+    }
+    
+    private byte[] binary() {
+        if (binary == null && message() != null) {
+            try {
+                binary = MessageBinaryCodec.encode(message);
+            } catch (RuntimeException e) {
+                unreadable = true;
+            }
+        }
+        return binary;
+    }
+}
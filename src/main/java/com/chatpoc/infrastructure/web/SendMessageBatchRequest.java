@@ -0,0 +1,18 @@
+package com.chatpoc.infrastructure.web;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Requête pour envoyer un lot de messages dans un chat")
+public record SendMessageBatchRequest(
+    @ArraySchema(schema = @Schema(implementation = SendMessageRequest.class), maxItems = 5000,
+        arraySchema = @Schema(description = "Messages à envoyer, dans l'ordre d'envoi"))
+    @NotEmpty(message = "Messages are required")
+    @Size(max = 5000, message = "Batch cannot exceed 5000 messages")
+    List<@Valid SendMessageRequest> messages
+) {}
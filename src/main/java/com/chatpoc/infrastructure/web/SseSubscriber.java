@@ -0,0 +1,139 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.infrastructure.broker.SlowConsumerPolicy;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+// One SSE client: events are queued up to the buffer size and written by a shared writer pool,
+// so a slow reader never blocks the thread publishing the chat's events
+final class SseSubscriber {
+    
+    enum Offer {
+        QUEUED,
+        DROPPED,
+        FULL,
+        CLOSED,
+        // Already sent by the replay of a resuming client
+        REPLAYED
+    }
+    
+    // An event already rendered to SSE lines, shared by every subscriber of the chat
+    record Event(long sequence, Set<DataWithMediaType> lines) {}
+    
+    private final SseEmitter emitter;
+    private final int bufferSize;
+    private final SlowConsumerPolicy policy;
+    private final Executor writer;
+    private final ArrayDeque<Event> pending = new ArrayDeque<>();
+    private boolean resuming;
+    private long lastReplayed;
+    private boolean scheduled;
+    private boolean closed;
+    private volatile long lastWriteNanos = System.nanoTime();
+    
+    SseSubscriber(SseEmitter emitter, int bufferSize, SlowConsumerPolicy policy, Executor writer, boolean resuming) {
+        this.emitter = emitter;
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+        this.writer = writer;
+        this.resuming = resuming;
+    }
+    
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+    
+    long getLastWriteNanos() {
+        return lastWriteNanos;
+    }
+    
+    synchronized Offer offer(Event event) {
+        if (closed) {
+            return Offer.CLOSED;
+        }
+        // The outbox relay may publish a message after the replay read it
+        if (event.sequence() > 0 && event.sequence() <= lastReplayed) {
+            return Offer.REPLAYED;
+        }
+        
+        Offer offer = Offer.QUEUED;
+        if (pending.size() >= bufferSize) {
+            if (policy == SlowConsumerPolicy.DISCONNECT) {
+                closed = true;
+                pending.clear();
+                return Offer.FULL;
+            }
+            pending.poll();
+            offer = Offer.DROPPED;
+        }
+        pending.add(event);
+        schedule();
+        return offer;
+    }
+    
+    // Missed events go first, live events received meanwhile are kept only if the replay did not cover them.
+    // The buffer stays bounded: beyond its size the oldest missed events are left out, their count is returned
+    synchronized int resume(long lastEventId, List<Event> missed) {
+        if (closed) {
+            return 0;
+        }
+        
+        lastReplayed = missed.isEmpty() ? lastEventId : Math.max(lastEventId, missed.get(missed.size() - 1).sequence());
+        ArrayDeque<Event> live = new ArrayDeque<>(pending);
+        pending.clear();
+        pending.addAll(missed);
+        for (Event event : live) {
+            if (event.sequence() <= 0 || event.sequence() > lastReplayed) {
+                pending.add(event);
+            }
+        }
+        int dropped = 0;
+        while (pending.size() > bufferSize) {
+            pending.poll();
+            dropped++;
+        }
+        resuming = false;
+        schedule();
+        return dropped;
+    }
+    
+    synchronized void close() {
+        closed = true;
+        pending.clear();
+    }
+    
+    private void schedule() {
+        if (!resuming && !scheduled && !pending.isEmpty()) {
+            scheduled = true;
+            writer.execute(this::drain);
+        }
+    }
+    
+    private void drain() {
+        while (true) {
+            Event event;
+            synchronized (this) {
+                event = closed ? null : pending.poll();
+                if (event == null) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            try {
+                emitter.send(event.lines());
+                lastWriteNanos = System.nanoTime();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, the emitter's completion callback unregisters it
+                close();
+                emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package com.chatpoc.infrastructure.web;
 
+import com.chatpoc.infrastructure.broker.OutboundDispatcher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.Objects;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
+    private final OutboundDispatcher outboundDispatcher;
+    private final boolean topicBrokerEnabled;
+    
+    public WebSocketConfig(OutboundDispatcher outboundDispatcher,
+                           @Value("${chat.broker.enabled:true}") boolean topicBrokerEnabled) {
+        this.outboundDispatcher = Objects.requireNonNull(outboundDispatcher);
+        this.topicBrokerEnabled = topicBrokerEnabled;
+    }
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple in-memory broker for /topic destinations
-        config.enableSimpleBroker("/topic", "/queue");
+        // /topic destinations are served by TopicBroker unless disabled, the simple broker keeps /queue
+        if (topicBrokerEnabled) {
+            config.enableSimpleBroker("/queue");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         
         // Prefix for messages that are bound for @MessageMapping methods
         config.setApplicationDestinationPrefixes("/app");
@@ -22,6 +40,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setUserDestinationPrefix("/user");
     }
     
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Exposes every WebSocket session to the broker's outbound dispatcher
+        registration.addDecoratorFactory(outboundDispatcher::decorate);
+    }
+    
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Register the "/ws" endpoint with SockJS support
@@ -1,23 +1,36 @@
 package com.chatpoc.infrastructure.web;
 
+import com.chatpoc.domain.chat.Message;
 import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.chatpoc.infrastructure.broker.TopicBroker;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.Objects;
+import java.util.UUID;
 
 @Service
 public class WebSocketService {
     
+    static final String CHAT_TOPIC_PREFIX = "/topic/chat/";
+    
     private static final Logger logger = LoggerFactory.getLogger(WebSocketService.class);
     
     private final SimpMessagingTemplate messagingTemplate;
+    private final TopicBroker topicBroker;
+    private final ObjectMapper objectMapper;
     
-    public WebSocketService(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketService(SimpMessagingTemplate messagingTemplate, ObjectProvider<TopicBroker> topicBroker,
+                            ObjectMapper objectMapper) {
         this.messagingTemplate = Objects.requireNonNull(messagingTemplate);
+        this.topicBroker = topicBroker.getIfAvailable();
+        this.objectMapper = Objects.requireNonNull(objectMapper);
     }
     
     @EventListener
@@ -25,16 +38,8 @@ public class WebSocketService {
         Objects.requireNonNull(event, "MessageSentEvent cannot be null");
         
         try {
-            MessageDTO messageDTO = new MessageDTO(
-                event.getMessage().getId().toString(),
-                event.getMessage().getContent(),
-                event.getMessage().getSender().getName().value(),
-                event.getMessage().getSender().getEmail().value(),
-                event.getMessage().getTimestamp()
-            );
-            
-            String destination = "/topic/chat/" + event.getChatId();
-            messagingTemplate.convertAndSend(destination, messageDTO);
+            String destination = destination(event.getChatId());
+            broadcast(destination, event.getMessage());
             
             logger.info("Message WebSocket envoyé vers {} pour le message {}", 
                 destination, event.getMessage().getId());
@@ -44,4 +49,36 @@ public class WebSocketService {
                 event.getMessage().getId(), e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+    
+    @EventListener
+    public void handleMessagesSentEvent(MessagesSentEvent event) {
+        Objects.requireNonNull(event, "MessagesSentEvent cannot be null");
+        
+        String destination = destination(event.getChatId());
+        for (Message message : event.getMessages()) {
+            try {
+                broadcast(destination, message);
+            } catch (Exception e) {
+                logger.error("Erreur lors de l'envoi du message WebSocket pour le message {}: {}", 
+                    message.getId(), e.getMessage(), e);
+            }
+        }
+        
+        logger.info("Lot de {} messages WebSocket envoyé vers {}", event.getMessages().size(), destination);
+    }
+    
+    private void broadcast(String destination, Message message) {
+        MessageDTO messageDTO = MessageDTO.fromDomain(message);
+        if (topicBroker == null) {
+            messagingTemplate.convertAndSend(destination, messageDTO);
+            return;
+        }
+        
+        // Serialized at most once per wire format, the broker shares each resulting frame with every subscriber
+        topicBroker.broadcast(destination, MessageTopicPayload.of(messageDTO, objectMapper));
+    }
+    
+    private static String destination(UUID chatId) {
+        return CHAT_TOPIC_PREFIX + chatId;
+    }
+}
@@ -0,0 +1,68 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Chat creation and message times stored as epoch milliseconds (BIGINT) instead of TIMESTAMP(6).
+// The old columns hold LocalDateTime.now() of the server that wrote them, without a zone: they are
+// converted in Java with the zone of the JVM running the migration, which SQL alone cannot do portably.
+public class V8__store_timestamps_as_epoch_millis extends BaseJavaMigration {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        ZoneId zone = ZoneId.systemDefault();
+        
+        execute(connection,
+            "ALTER TABLE chats ADD COLUMN created_at_ms BIGINT",
+            "ALTER TABLE messages ADD COLUMN sent_at_ms BIGINT");
+        convert(connection, "chats", "created_at", "created_at_ms", zone);
+        convert(connection, "messages", "timestamp", "sent_at_ms", zone);
+        execute(connection,
+            "ALTER TABLE chats ALTER COLUMN created_at_ms SET NOT NULL",
+            "ALTER TABLE messages ALTER COLUMN sent_at_ms SET NOT NULL",
+            "ALTER TABLE chats DROP COLUMN created_at",
+            "ALTER TABLE messages DROP COLUMN timestamp");
+    }
+    
+    private static void convert(Connection connection, String table, String source, String target, ZoneId zone)
+            throws SQLException {
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, " + source + " FROM " + table);
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE " + table + " SET " + target + " = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                LocalDateTime written = rows.getObject(2, LocalDateTime.class);
+                update.setLong(1, written.atZone(zone).toInstant().toEpochMilli());
+                update.setObject(2, rows.getObject(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+    
+    private static void execute(Connection connection, String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- =============================================================================
+-- Chat tables (schema previously generated by Hibernate ddl-auto)
+-- =============================================================================
+
+CREATE TABLE chats (
+    id UUID NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_chats PRIMARY KEY (id)
+);
+
+CREATE TABLE participants (
+    id UUID NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    chat_id UUID NOT NULL,
+    CONSTRAINT pk_participants PRIMARY KEY (id),
+    CONSTRAINT fk_participants_chat FOREIGN KEY (chat_id) REFERENCES chats (id),
+    CONSTRAINT uk_participants_chat_email UNIQUE (chat_id, email)
+);
+
+CREATE TABLE messages (
+    id UUID NOT NULL,
+    content VARCHAR(1000) NOT NULL,
+    sender_name VARCHAR(50) NOT NULL,
+    sender_email VARCHAR(255) NOT NULL,
+    timestamp TIMESTAMP(6) NOT NULL,
+    chat_id UUID NOT NULL,
+    CONSTRAINT pk_messages PRIMARY KEY (id),
+    CONSTRAINT fk_messages_chat FOREIGN KEY (chat_id) REFERENCES chats (id)
+);
@@ -0,0 +1,12 @@
+-- =============================================================================
+-- Indexes for chat history lookups
+-- =============================================================================
+
+-- Messages of a chat, newest first: recent history, keyset pagination and
+-- last-message lookups for the chat summaries. The descending key lets H2 read
+-- the index in order (it cannot scan an index backwards), PostgreSQL uses it
+-- in both directions. Queries list chat_id first in ORDER BY so that the
+-- index order is recognised.
+CREATE INDEX idx_messages_chat_timestamp_id ON messages (chat_id, timestamp DESC, id DESC);
+
+-- participants(chat_id, email) is already indexed by uk_participants_chat_email.
@@ -0,0 +1,16 @@
+-- =============================================================================
+-- Transactional outbox
+-- =============================================================================
+
+-- Domain events are written in the same transaction as the chat changes and
+-- relayed to the WebSocket and email listeners after commit. The identity
+-- column gives the relay order; rows are deleted once dispatched.
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id UUID NOT NULL,
+    chat_id UUID NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL
+);
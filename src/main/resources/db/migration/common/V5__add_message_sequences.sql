@@ -0,0 +1,24 @@
+-- =============================================================================
+-- Per-chat message sequence numbers, used to replay missed messages on resume
+-- =============================================================================
+
+ALTER TABLE chats ADD COLUMN last_seq BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE messages ADD COLUMN seq BIGINT DEFAULT 0 NOT NULL;
+
+-- Existing messages are numbered in history order (timestamp, id), in one
+-- pass over the table (MERGE: H2, PostgreSQL 15+)
+MERGE INTO messages
+USING (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY chat_id ORDER BY timestamp, id) AS seq
+    FROM messages
+) numbered ON messages.id = numbered.id
+WHEN MATCHED THEN UPDATE SET seq = numbered.seq;
+
+MERGE INTO chats
+USING (
+    SELECT chat_id, COUNT(*) AS last_seq FROM messages GROUP BY chat_id
+) counted ON chats.id = counted.chat_id
+WHEN MATCHED THEN UPDATE SET last_seq = counted.last_seq;
+
+-- Also serves the range lookups of messages sent after a given sequence
+CREATE UNIQUE INDEX uk_messages_chat_seq ON messages (chat_id, seq);
@@ -0,0 +1,31 @@
+-- =============================================================================
+-- Message senders interned in a shared identity table
+-- =============================================================================
+
+-- Every message used to repeat the sender's name and email. They now point to
+-- one row per distinct (email, name) pair through a BIGINT surrogate key; the
+-- pair keeps the name a message was sent with, even if the participant of the
+-- chat was registered under another one.
+CREATE TABLE participant_identities (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_participant_identities_email_name UNIQUE (email, name)
+);
+
+INSERT INTO participant_identities (name, email)
+SELECT DISTINCT sender_name, sender_email FROM messages;
+
+ALTER TABLE messages ADD COLUMN sender_id BIGINT;
+
+UPDATE messages SET sender_id = (
+    SELECT identity.id FROM participant_identities identity
+    WHERE identity.email = messages.sender_email AND identity.name = messages.sender_name
+);
+
+ALTER TABLE messages ALTER COLUMN sender_id SET NOT NULL;
+ALTER TABLE messages DROP COLUMN sender_name;
+ALTER TABLE messages DROP COLUMN sender_email;
+
+ALTER TABLE messages ADD CONSTRAINT fk_messages_sender
+    FOREIGN KEY (sender_id) REFERENCES participant_identities (id);
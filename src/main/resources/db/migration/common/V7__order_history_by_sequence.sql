@@ -0,0 +1,13 @@
+-- =============================================================================
+-- Chat history ordered by message sequence
+-- =============================================================================
+
+-- Recent history, keyset pagination and last-message lookups now sort on the
+-- per-chat sequence, which is the send order of every row (V5 numbered the
+-- messages written before it), instead of (timestamp, id). The narrower key
+-- replaces idx_messages_chat_timestamp_id. uk_messages_chat_seq serves the
+-- ascending reads; the descending copy is for H2, which cannot scan an index
+-- backwards.
+DROP INDEX idx_messages_chat_timestamp_id;
+
+CREATE INDEX idx_messages_chat_seq_desc ON messages (chat_id, seq DESC);
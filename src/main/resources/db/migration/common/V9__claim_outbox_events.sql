@@ -0,0 +1,20 @@
+-- =============================================================================
+-- Outbox rows claimed by a relay
+-- =============================================================================
+
+-- Every node runs an OutboxRelay against the same table. A relay claims the
+-- rows it is about to dispatch until claimed_until, so that other relays skip
+-- them; a relay that dies leaves rows that are claimed again once the claim
+-- expires. Claims are taken one relay at a time under the lock of the single
+-- outbox_claim_lock row, and a row is only claimable when no earlier event of
+-- its chat is claimed: the events of a chat are never split between relays.
+ALTER TABLE outbox_events ADD COLUMN claimed_by VARCHAR(64);
+ALTER TABLE outbox_events ADD COLUMN claimed_until TIMESTAMP;
+
+CREATE INDEX idx_outbox_events_chat_id ON outbox_events (chat_id, id);
+
+CREATE TABLE outbox_claim_lock (
+    id INT PRIMARY KEY
+);
+
+INSERT INTO outbox_claim_lock (id) VALUES (1);
@@ -0,0 +1,93 @@
+package com.chatpoc.application.services;
+
+import com.chatpoc.application.commands.SendMessageCommand;
+import com.chatpoc.application.queries.GetRecentMessagesQuery;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.repository.ReactiveChatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveChatServiceTest {
+    
+    @Mock
+    private ChatService chatService;
+    
+    @Mock
+    private ReactiveChatRepository chatRepository;
+    
+    private ReactiveChatService reactiveChatService;
+    
+    private final Participant sender = Participant.of("John Doe", "john@example.com");
+    
+    @BeforeEach
+    void setUp() {
+        reactiveChatService = new ReactiveChatService(chatService, chatRepository, Schedulers.immediate());
+    }
+    
+    @Test
+    void shouldDelegateCommandsToChatServiceOnlyOnSubscription() {
+        SendMessageCommand command = new SendMessageCommand(UUID.randomUUID(), "Hello!", "John Doe", "john@example.com");
+        Message message = Message.create("Hello!", sender);
+        when(chatService.sendMessage(command)).thenReturn(message);
+        
+        Mono<Message> result = reactiveChatService.sendMessage(command);
+        verifyNoInteractions(chatService);
+        
+        StepVerifier.create(result)
+            .expectNext(message)
+            .verifyComplete();
+    }
+    
+    @Test
+    void shouldReadRecentMessagesFromReactiveRepository() {
+        UUID chatId = UUID.randomUUID();
+        Message message = Message.create("Hello!", sender);
+        when(chatRepository.existsById(chatId)).thenReturn(Mono.just(true));
+        when(chatRepository.findRecentMessages(chatId, 20)).thenReturn(Flux.just(message));
+        
+        StepVerifier.create(reactiveChatService.getRecentMessages(new GetRecentMessagesQuery(chatId, 20)))
+            .expectNext(message)
+            .verifyComplete();
+        
+        verifyNoInteractions(chatService);
+    }
+    
+    @Test
+    void shouldFailWhenChatDoesNotExist() {
+        UUID chatId = UUID.randomUUID();
+        when(chatRepository.existsById(chatId)).thenReturn(Mono.just(false));
+        
+        StepVerifier.create(reactiveChatService.getRecentMessages(new GetRecentMessagesQuery(chatId, 20)))
+            .expectErrorMessage("Chat not found with id: " + chatId)
+            .verify();
+        
+        verify(chatRepository, never()).findRecentMessages(any(), anyInt());
+    }
+    
+    @Test
+    void shouldRejectCombinedCursorsWithoutQueryingRepository() {
+        UUID chatId = UUID.randomUUID();
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, 20, UUID.randomUUID(), UUID.randomUUID());
+        
+        StepVerifier.create(reactiveChatService.getRecentMessages(query))
+            .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                && error.getMessage().equals("Cannot combine before and after cursors"))
+            .verify();
+        
+        verifyNoInteractions(chatRepository);
+    }
+}
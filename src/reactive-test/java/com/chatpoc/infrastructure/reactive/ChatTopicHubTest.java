@@ -0,0 +1,69 @@
+package com.chatpoc.infrastructure.reactive;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatTopicHubTest {
+    
+    private final ChatTopicHub hub = new ChatTopicHub(new ObjectMapper().findAndRegisterModules());
+    private final Participant sender = Participant.of("John Doe", "john@example.com");
+    
+    @Test
+    void shouldStreamMessagesOfTheSubscribedChatOnly() {
+        UUID chatId = UUID.randomUUID();
+        UUID otherChatId = UUID.randomUUID();
+        
+        StepVerifier.create(hub.stream(chatId).take(2))
+            .then(() -> {
+                hub.handleMessageSentEvent(new MessageSentEvent(otherChatId, Message.create("Ignored", sender)));
+                hub.handleMessagesSentEvent(new MessagesSentEvent(chatId, List.of(
+                    Message.create("First", sender),
+                    Message.create("Second", sender)
+                )));
+            })
+            .assertNext(json -> assertTrue(json.contains("\"content\":\"First\"")))
+            .assertNext(json -> assertTrue(json.contains("\"content\":\"Second\"")))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+    
+    @Test
+    void shouldShareSerializedPayloadAndReleaseTopicWhenLastSubscriberLeaves() {
+        UUID chatId = UUID.randomUUID();
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+        
+        Disposable firstSubscription = hub.stream(chatId).subscribe(first::add);
+        Disposable secondSubscription = hub.stream(chatId).subscribe(second::add);
+        assertEquals(2, hub.getSubscriberCount(chatId));
+        
+        hub.handleMessageSentEvent(new MessageSentEvent(chatId, Message.create("Hello", sender)));
+        
+        assertEquals(1, first.size());
+        assertSame(first.get(0), second.get(0));
+        
+        firstSubscription.dispose();
+        assertEquals(1, hub.getSubscriberCount(chatId));
+        secondSubscription.dispose();
+        assertEquals(0, hub.getSubscriberCount(chatId));
+    }
+    
+    @Test
+    void shouldIgnoreMessagesForChatsWithoutSubscribers() {
+        assertDoesNotThrow(() -> hub.handleMessageSentEvent(
+            new MessageSentEvent(UUID.randomUUID(), Message.create("Nobody listens", sender))));
+    }
+}
@@ -0,0 +1,37 @@
+package com.chatpoc;
+
+import com.chatpoc.config.ClusterConfig;
+import com.chatpoc.config.VirtualThreadConfig;
+import com.chatpoc.config.WebConfig;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+// Same domain, application layer and persistence as ChatApplication; the servlet web layer, the STOMP
+// broker and the cluster relay are replaced by WebFlux routes and a reactive WebSocket handler.
+// Transactions stay on JPA: ChatService writes through JDBC, R2DBC only reads.
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = R2dbcTransactionManagerAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ComponentScan(excludeFilters = {
+    @ComponentScan.Filter(type = FilterType.CUSTOM, classes = {TypeExcludeFilter.class, AutoConfigurationExcludeFilter.class}),
+    @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.chatpoc\\.infrastructure\\.(web|broker|cluster)\\..*"),
+    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+        classes = {ChatApplication.class, WebConfig.class, ClusterConfig.class, VirtualThreadConfig.class})
+})
+public class ReactiveChatApplication {
+    
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveChatApplication.class)
+            .web(WebApplicationType.REACTIVE)
+            .profiles("reactive")
+            .run(args);
+    }
+}
@@ -0,0 +1,117 @@
+package com.chatpoc.application.services;
+
+import com.chatpoc.application.commands.CreateChatCommand;
+import com.chatpoc.application.commands.SendMessageBatchCommand;
+import com.chatpoc.application.commands.SendMessageCommand;
+import com.chatpoc.application.queries.GetChatQuery;
+import com.chatpoc.application.queries.GetChatSummariesQuery;
+import com.chatpoc.application.queries.GetRecentMessagesQuery;
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.repository.ChatSummary;
+import com.chatpoc.domain.chat.repository.ReactiveChatRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+// Commands keep the transactional ChatService (domain rules, sequence lock, outbox) off the event loop,
+// queries are served by the non-blocking repository with the same validation
+public class ReactiveChatService {
+    
+    private final ChatService chatService;
+    private final ReactiveChatRepository chatRepository;
+    private final Scheduler blockingScheduler;
+    
+    public ReactiveChatService(ChatService chatService, ReactiveChatRepository chatRepository, Scheduler blockingScheduler) {
+        this.chatService = Objects.requireNonNull(chatService);
+        this.chatRepository = Objects.requireNonNull(chatRepository);
+        this.blockingScheduler = Objects.requireNonNull(blockingScheduler);
+    }
+    
+    public Mono<Chat> createChat(CreateChatCommand command) {
+        return offload(() -> chatService.createChat(command));
+    }
+    
+    public Mono<Message> sendMessage(SendMessageCommand command) {
+        return offload(() -> chatService.sendMessage(command));
+    }
+    
+    public Mono<List<Message>> sendMessages(SendMessageBatchCommand command) {
+        return offload(() -> chatService.sendMessages(command));
+    }
+    
+    public Mono<Chat> getChat(GetChatQuery query) {
+        Objects.requireNonNull(query, "GetChatQuery cannot be null");
+        return chatRepository.findById(query.chatId());
+    }
+    
+    public Flux<Message> getRecentMessages(GetRecentMessagesQuery query) {
+        Objects.requireNonNull(query, "GetRecentMessagesQuery cannot be null");
+        
+        if (query.limit() > ChatService.MAX_PAGE_SIZE) {
+            return Flux.error(new IllegalArgumentException("Limit cannot exceed " + ChatService.MAX_PAGE_SIZE));
+        }
+        
+        return findMessages(query);
+    }
+    
+    public Flux<Message> exportMessages(GetRecentMessagesQuery query) {
+        Objects.requireNonNull(query, "GetRecentMessagesQuery cannot be null");
+        
+        if (query.limit() > ChatService.MAX_EXPORT_SIZE) {
+            return Flux.error(new IllegalArgumentException("Export limit cannot exceed " + ChatService.MAX_EXPORT_SIZE));
+        }
+        
+        return findMessages(query);
+    }
+    
+    private Flux<Message> findMessages(GetRecentMessagesQuery query) {
+        if (query.limit() <= 0) {
+            return Flux.error(new IllegalArgumentException("Limit must be positive"));
+        }
+        
+        if (query.before() != null && query.after() != null) {
+            return Flux.error(new IllegalArgumentException("Cannot combine before and after cursors"));
+        }
+        
+        return chatRepository.existsById(query.chatId())
+            .flatMapMany(exists -> {
+                if (!exists) {
+                    return Flux.error(new IllegalArgumentException("Chat not found with id: " + query.chatId()));
+                }
+                if (query.before() != null) {
+                    return chatRepository.findMessagesBefore(query.chatId(), query.before(), query.limit());
+                }
+                if (query.after() != null) {
+                    return chatRepository.findMessagesAfter(query.chatId(), query.after(), query.limit());
+                }
+                return chatRepository.findRecentMessages(query.chatId(), query.limit());
+            });
+    }
+    
+    public Flux<ChatSummary> getChatSummaries(GetChatSummariesQuery query) {
+        Objects.requireNonNull(query, "GetChatSummariesQuery cannot be null");
+        
+        if (query.page() < 0) {
+            return Flux.error(new IllegalArgumentException("Page cannot be negative"));
+        }
+        
+        if (query.size() <= 0) {
+            return Flux.error(new IllegalArgumentException("Size must be positive"));
+        }
+        
+        if (query.size() > ChatService.MAX_PAGE_SIZE) {
+            return Flux.error(new IllegalArgumentException("Size cannot exceed " + ChatService.MAX_PAGE_SIZE));
+        }
+        
+        return chatRepository.findSummaries(query.page(), query.size());
+    }
+    
+    private <T> Mono<T> offload(Callable<T> command) {
+        return Mono.fromCallable(command).subscribeOn(blockingScheduler);
+    }
+}
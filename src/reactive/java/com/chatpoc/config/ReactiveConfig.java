@@ -0,0 +1,110 @@
+package com.chatpoc.config;
+
+import com.chatpoc.application.services.ChatService;
+import com.chatpoc.application.services.ReactiveChatService;
+import com.chatpoc.domain.chat.repository.ReactiveChatRepository;
+import com.chatpoc.infrastructure.broker.SlowConsumerPolicy;
+import com.chatpoc.infrastructure.persistence.R2dbcChatRepository;
+import com.chatpoc.infrastructure.reactive.ChatHandler;
+import com.chatpoc.infrastructure.reactive.ChatTopicHub;
+import com.chatpoc.infrastructure.reactive.ChatTopicWebSocketHandler;
+import com.chatpoc.infrastructure.search.MessageSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+    
+    // DataSourceAutoConfiguration backs off as soon as an R2DBC ConnectionFactory exists, JPA and Flyway still need it
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    // Tomcat stays on the classpath for the servlet variant, connections are served by Netty here
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+    
+    @Bean
+    public ReactiveChatRepository reactiveChatRepository(DatabaseClient databaseClient) {
+        return new R2dbcChatRepository(databaseClient);
+    }
+    
+    @Bean
+    public ReactiveChatService reactiveChatService(ChatService chatService, ReactiveChatRepository reactiveChatRepository) {
+        return new ReactiveChatService(chatService, reactiveChatRepository, Schedulers.boundedElastic());
+    }
+    
+    @Bean
+    public ChatTopicHub chatTopicHub(ObjectMapper objectMapper) {
+        return new ChatTopicHub(objectMapper);
+    }
+    
+    @Bean
+    public ChatHandler chatHandler(ReactiveChatService reactiveChatService, MessageSearchIndex messageSearchIndex, Validator validator) {
+        return new ChatHandler(reactiveChatService, messageSearchIndex, validator);
+    }
+    
+    @Bean
+    public RouterFunction<ServerResponse> chatRoutes(ChatHandler handler) {
+        return RouterFunctions.route()
+            .path("/api/chats", chats -> chats
+                .POST("/messages:batch", handler::sendMultiChatMessageBatch)
+                .GET("/search", handler::searchMessages)
+                .GET("/{chatId}/messages:search", handler::searchChatMessages)
+                .GET("/{chatId}/messages:export", accept(MediaType.ALL), handler::exportMessages)
+                .POST("/{chatId}/messages:batch", handler::sendMessageBatch)
+                .GET("/{chatId}/messages", handler::getRecentMessages)
+                .POST("/{chatId}/messages", handler::sendMessage)
+                .GET("/{chatId}", handler::getChat)
+                .GET("", handler::getAllChats)
+                .POST("", handler::createChat))
+            .build();
+    }
+    
+    @Bean
+    public SimpleUrlHandlerMapping chatTopicWebSocketMapping(
+            ChatTopicHub chatTopicHub,
+            MeterRegistry meterRegistry,
+            @Value("${chat.reactive.websocket.buffer-size:256}") int bufferSize,
+            @Value("${chat.reactive.websocket.slow-consumer-policy:DISCONNECT}") SlowConsumerPolicy slowConsumerPolicy) {
+        ChatTopicWebSocketHandler handler = new ChatTopicWebSocketHandler(chatTopicHub, bufferSize, slowConsumerPolicy, meterRegistry);
+        return new SimpleUrlHandlerMapping(Map.of(ChatTopicWebSocketHandler.PATH_PREFIX + "*", handler), Ordered.HIGHEST_PRECEDENCE);
+    }
+    
+    @Bean
+    public WebSocketHandlerAdapter webSocketHandlerAdapter() {
+        // tomcat-websocket stays on the classpath for the servlet variant and would win the upgrade strategy detection
+        return new WebSocketHandlerAdapter(new HandshakeWebSocketService(new ReactorNettyRequestUpgradeStrategy()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.chatpoc.domain.chat.repository;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// Non-blocking read side of ChatRepository, writes keep going through ChatService
+public interface ReactiveChatRepository {
+    
+    Mono<Chat> findById(UUID id);
+    
+    Mono<Boolean> existsById(UUID id);
+    
+    Flux<ChatSummary> findSummaries(int page, int size);
+    
+    // Messages are emitted oldest first, as ChatRepository returns them
+    Flux<Message> findRecentMessages(UUID chatId, int limit);
+    
+    Flux<Message> findMessagesBefore(UUID chatId, UUID messageId, int limit);
+    
+    Flux<Message> findMessagesAfter(UUID chatId, UUID messageId, int limit);
+}
@@ -0,0 +1,195 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.repository.ChatSummary;
+import com.chatpoc.domain.chat.repository.ReactiveChatRepository;
+import com.chatpoc.domain.shared.Email;
+import com.chatpoc.domain.shared.ParticipantName;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+public class R2dbcChatRepository implements ReactiveChatRepository {
+    
+    private static final String MESSAGE_COLUMNS =
+        "m.id, m.content, sender.name AS sender_name, sender.email AS sender_email, m.sent_at_ms, m.seq";
+    private static final String SENDER_JOIN = "JOIN participant_identities sender ON sender.id = m.sender_id";
+    
+    private final DatabaseClient databaseClient;
+    
+    public R2dbcChatRepository(DatabaseClient databaseClient) {
+        this.databaseClient = Objects.requireNonNull(databaseClient);
+    }
+    
+    @Override
+    public Mono<Chat> findById(UUID id) {
+        Objects.requireNonNull(id, "Chat id cannot be null");
+        
+        Mono<List<Participant>> participants = databaseClient
+            .sql("SELECT name, email FROM participants WHERE chat_id = :chatId")
+            .bind("chatId", id)
+            .map(row -> participant(row, "name", "email"))
+            .all()
+            .collectList();
+        // Rows of one query are mapped one after the other, messages of the same sender share one Participant
+        ParticipantInterner senders = new ParticipantInterner();
+        Mono<List<Message>> messages = databaseClient
+            .sql("SELECT " + MESSAGE_COLUMNS + " FROM messages m " + SENDER_JOIN +
+                " WHERE m.chat_id = :chatId ORDER BY m.seq")
+            .bind("chatId", id)
+            .map(row -> message(row, senders))
+            .all()
+            .collectList();
+        
+        return databaseClient.sql("SELECT id, name, created_at_ms, last_seq FROM chats WHERE id = :id")
+            .bind("id", id)
+            .map(row -> new ChatRow(
+                row.get("id", UUID.class),
+                row.get("name", String.class),
+                Instant.ofEpochMilli(row.get("created_at_ms", Long.class)),
+                row.get("last_seq", Long.class)
+            ))
+            .one()
+            .flatMap(chat -> Mono.zip(participants, messages, (chatParticipants, chatMessages) -> Chat.reconstruct(
+                chat.id(),
+                chat.name(),
+                new LinkedHashSet<>(chatParticipants),
+                chatMessages,
+                chat.createdAt(),
+                chat.lastSequence()
+            )));
+    }
+    
+    @Override
+    public Mono<Boolean> existsById(UUID id) {
+        Objects.requireNonNull(id, "Chat id cannot be null");
+        return databaseClient.sql("SELECT 1 FROM chats WHERE id = :id")
+            .bind("id", id)
+            .map(row -> Boolean.TRUE)
+            .first()
+            .hasElement();
+    }
+    
+    @Override
+    public Flux<ChatSummary> findSummaries(int page, int size) {
+        return databaseClient.sql("""
+                SELECT c.id, c.name,
+                    (SELECT COUNT(*) FROM participants p WHERE p.chat_id = c.id) AS participant_count,
+                    c.last_seq AS message_count,
+                    SUBSTRING(latest.content, 1, 100) AS last_message_preview,
+                    COALESCE(latest.sent_at_ms, c.created_at_ms) AS last_activity_at
+                FROM chats c
+                LEFT JOIN messages latest ON latest.chat_id = c.id AND latest.seq = c.last_seq
+                ORDER BY last_activity_at DESC, c.id
+                LIMIT :size OFFSET :offset
+                """)
+            .bind("size", size)
+            .bind("offset", (long) page * size)
+            .map(row -> new ChatSummary(
+                row.get("id", UUID.class),
+                row.get("name", String.class),
+                row.get("participant_count", Long.class),
+                row.get("message_count", Long.class),
+                row.get("last_message_preview", String.class),
+                Instant.ofEpochMilli(row.get("last_activity_at", Long.class))
+            ))
+            .all();
+    }
+    
+    @Override
+    public Flux<Message> findRecentMessages(UUID chatId, int limit) {
+        Objects.requireNonNull(chatId, "Chat id cannot be null");
+        ParticipantInterner senders = new ParticipantInterner();
+        return oldestFirst(databaseClient
+            .sql("SELECT " + MESSAGE_COLUMNS + " FROM messages m " + SENDER_JOIN + " WHERE m.chat_id = :chatId " +
+                "ORDER BY m.seq DESC LIMIT :limit")
+            .bind("chatId", chatId)
+            .bind("limit", limit)
+            .map(row -> message(row, senders))
+            .all());
+    }
+    
+    @Override
+    public Flux<Message> findMessagesBefore(UUID chatId, UUID messageId, int limit) {
+        Objects.requireNonNull(chatId, "Chat id cannot be null");
+        Objects.requireNonNull(messageId, "Message id cannot be null");
+        ParticipantInterner senders = new ParticipantInterner();
+        return oldestFirst(databaseClient
+            .sql("""
+                SELECT %s FROM messages m
+                %s
+                JOIN messages anchor ON anchor.id = :cursorId AND anchor.chat_id = :chatId
+                WHERE m.chat_id = :chatId
+                  AND m.seq < anchor.seq
+                ORDER BY m.seq DESC
+                LIMIT :limit
+                """.formatted(MESSAGE_COLUMNS, SENDER_JOIN))
+            .bind("chatId", chatId)
+            .bind("cursorId", messageId)
+            .bind("limit", limit)
+            .map(row -> message(row, senders))
+            .all());
+    }
+    
+    @Override
+    public Flux<Message> findMessagesAfter(UUID chatId, UUID messageId, int limit) {
+        Objects.requireNonNull(chatId, "Chat id cannot be null");
+        Objects.requireNonNull(messageId, "Message id cannot be null");
+        ParticipantInterner senders = new ParticipantInterner();
+        return databaseClient
+            .sql("""
+                SELECT %s FROM messages m
+                %s
+                JOIN messages anchor ON anchor.id = :cursorId AND anchor.chat_id = :chatId
+                WHERE m.chat_id = :chatId
+                  AND m.seq > anchor.seq
+                ORDER BY m.seq
+                LIMIT :limit
+                """.formatted(MESSAGE_COLUMNS, SENDER_JOIN))
+            .bind("chatId", chatId)
+            .bind("cursorId", messageId)
+            .bind("limit", limit)
+            .map(row -> message(row, senders))
+            .all();
+    }
+    
+    // Newest-first pages are bounded by their limit, reversing them in memory is cheap
+    private static Flux<Message> oldestFirst(Flux<Message> newestFirst) {
+        return newestFirst.collectList()
+            .flatMapIterable(messages -> {
+                List<Message> reversed = new ArrayList<>(messages);
+                Collections.reverse(reversed);
+                return reversed;
+            });
+    }
+    
+    private static Message message(Readable row, ParticipantInterner senders) {
+        return Message.reconstruct(
+            row.get("id", UUID.class),
+            row.get("content", String.class),
+            senders.intern(row.get("sender_name", String.class), row.get("sender_email", String.class)),
+            Instant.ofEpochMilli(row.get("sent_at_ms", Long.class)),
+            row.get("seq", Long.class)
+        );
+    }
+    
+    private static Participant participant(Readable row, String nameColumn, String emailColumn) {
+        return new Participant(
+            new ParticipantName(row.get(nameColumn, String.class)),
+            new Email(row.get(emailColumn, String.class))
+        );
+    }
+    
+    private record ChatRow(UUID id, String name, Instant createdAt, long lastSequence) {}
+}
@@ -0,0 +1,201 @@
+package com.chatpoc.infrastructure.reactive;
+
+import com.chatpoc.application.commands.CreateChatCommand;
+import com.chatpoc.application.commands.SendMessageBatchCommand;
+import com.chatpoc.application.commands.SendMessageCommand;
+import com.chatpoc.application.queries.GetChatQuery;
+import com.chatpoc.application.queries.GetChatSummariesQuery;
+import com.chatpoc.application.queries.GetRecentMessagesQuery;
+import com.chatpoc.application.services.ReactiveChatService;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.infrastructure.search.MessageSearchHit;
+import com.chatpoc.infrastructure.search.MessageSearchIndex;
+import com.chatpoc.infrastructure.web.ChatDTO;
+import com.chatpoc.infrastructure.web.ChatMessageBatchRequest;
+import com.chatpoc.infrastructure.web.ChatSummaryDTO;
+import com.chatpoc.infrastructure.web.CreateChatRequest;
+import com.chatpoc.infrastructure.web.MessageBinaryCodec;
+import com.chatpoc.infrastructure.web.MessageDTO;
+import com.chatpoc.infrastructure.web.MessageSearchResultDTO;
+import com.chatpoc.infrastructure.web.SendMessageBatchRequest;
+import com.chatpoc.infrastructure.web.SendMessageRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+// Functional mirror of ChatController, same paths, payloads and status codes
+public class ChatHandler {
+    
+    private final ReactiveChatService chatService;
+    private final MessageSearchIndex messageSearchIndex;
+    private final Validator validator;
+    
+    public ChatHandler(ReactiveChatService chatService, MessageSearchIndex messageSearchIndex, Validator validator) {
+        this.chatService = Objects.requireNonNull(chatService);
+        this.messageSearchIndex = Objects.requireNonNull(messageSearchIndex);
+        this.validator = Objects.requireNonNull(validator);
+    }
+    
+    public Mono<ServerResponse> createChat(ServerRequest request) {
+        return handle(request.bodyToMono(CreateChatRequest.class)
+            .map(this::validate)
+            .flatMap(body -> chatService.createChat(new CreateChatCommand(
+                body.chatName(),
+                body.creatorName(),
+                body.creatorEmail()
+            )))
+            .flatMap(chat -> ServerResponse.status(HttpStatus.CREATED).bodyValue(ChatDTO.fromDomain(chat))));
+    }
+    
+    public Mono<ServerResponse> getChat(ServerRequest request) {
+        return handle(Mono.fromCallable(() -> new GetChatQuery(chatId(request)))
+            .flatMap(chatService::getChat)
+            .flatMap(chat -> ServerResponse.ok().bodyValue(ChatDTO.fromDomain(chat)))
+            .switchIfEmpty(ServerResponse.notFound().build()));
+    }
+    
+    public Mono<ServerResponse> getAllChats(ServerRequest request) {
+        return handle(Mono.fromCallable(() -> new GetChatSummariesQuery(
+                intParam(request, "page", 0),
+                intParam(request, "size", 20)))
+            .flatMap(query -> chatService.getChatSummaries(query).map(ChatSummaryDTO::fromDomain).collectList())
+            .flatMap(summaries -> ServerResponse.ok().bodyValue(summaries)));
+    }
+    
+    public Mono<ServerResponse> sendMessage(ServerRequest request) {
+        return handle(request.bodyToMono(SendMessageRequest.class)
+            .map(this::validate)
+            .flatMap(body -> chatService.sendMessage(new SendMessageCommand(
+                chatId(request),
+                body.content(),
+                body.senderName(),
+                body.senderEmail()
+            )))
+            .flatMap(message -> ServerResponse.status(HttpStatus.CREATED).bodyValue(MessageDTO.fromDomain(message))));
+    }
+    
+    public Mono<ServerResponse> sendMessageBatch(ServerRequest request) {
+        return handle(request.bodyToMono(SendMessageBatchRequest.class)
+            .map(this::validate)
+            .map(body -> {
+                UUID chatId = chatId(request);
+                return new SendMessageBatchCommand(body.messages().stream()
+                    .map(message -> new SendMessageCommand(
+                        chatId,
+                        message.content(),
+                        message.senderName(),
+                        message.senderEmail()
+                    ))
+                    .toList());
+            })
+            .flatMap(chatService::sendMessages)
+            .flatMap(messages -> ServerResponse.status(HttpStatus.CREATED).bodyValue(toMessageDTOs(messages))));
+    }
+    
+    public Mono<ServerResponse> sendMultiChatMessageBatch(ServerRequest request) {
+        return handle(request.bodyToMono(ChatMessageBatchRequest.class)
+            .map(this::validate)
+            .map(body -> new SendMessageBatchCommand(body.messages().stream()
+                .map(message -> new SendMessageCommand(
+                    message.chatId(),
+                    message.content(),
+                    message.senderName(),
+                    message.senderEmail()
+                ))
+                .toList()))
+            .flatMap(chatService::sendMessages)
+            .flatMap(messages -> ServerResponse.status(HttpStatus.CREATED).bodyValue(toMessageDTOs(messages))));
+    }
+    
+    public Mono<ServerResponse> getRecentMessages(ServerRequest request) {
+        return handle(Mono.fromCallable(() -> recentMessagesQuery(request, 50))
+            .flatMap(query -> chatService.getRecentMessages(query).map(MessageDTO::fromDomain).collectList())
+            .flatMap(messages -> ServerResponse.ok().bodyValue(messages)));
+    }
+    
+    public Mono<ServerResponse> exportMessages(ServerRequest request) {
+        return handle(Mono.fromCallable(() -> recentMessagesQuery(request, 1000))
+            .flatMap(query -> chatService.exportMessages(query).map(MessageDTO::fromDomain).collectList())
+            .flatMap(messages -> ServerResponse.ok()
+                .contentType(MessageBinaryCodec.MESSAGES_MEDIA_TYPE)
+                .bodyValue(MessageBinaryCodec.encodeAll(messages))));
+    }
+    
+    public Mono<ServerResponse> searchMessages(ServerRequest request) {
+        return handle(search(request, null)
+            .map(hits -> hits.stream().map(MessageSearchResultDTO::fromHit).toList())
+            .flatMap(results -> ServerResponse.ok().bodyValue(results)));
+    }
+    
+    public Mono<ServerResponse> searchChatMessages(ServerRequest request) {
+        return handle(Mono.fromCallable(() -> chatId(request))
+            .flatMap(chatId -> search(request, chatId))
+            .map(hits -> hits.stream().map(hit -> MessageDTO.fromDomain(hit.message())).toList())
+            .flatMap(messages -> ServerResponse.ok().bodyValue(messages)));
+    }
+    
+    // Index reads may hit the disk, kept off the event loop like the repository calls
+    private Mono<List<MessageSearchHit>> search(ServerRequest request, UUID chatId) {
+        return Mono.fromCallable(() -> messageSearchIndex.search(
+                request.queryParam("q").orElseThrow(() -> new IllegalArgumentException("Query parameter q is required")),
+                chatId,
+                intParam(request, "limit", 20)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    private static GetRecentMessagesQuery recentMessagesQuery(ServerRequest request, int defaultLimit) {
+        return new GetRecentMessagesQuery(
+            chatId(request),
+            intParam(request, "limit", defaultLimit),
+            uuidParam(request, "before"),
+            uuidParam(request, "after")
+        );
+    }
+    
+    private <T> T validate(T body) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        return body;
+    }
+    
+    // Invalid input surfaces as IllegalArgumentException from the domain or the parameters
+    private static Mono<ServerResponse> handle(Mono<ServerResponse> response) {
+        return response
+            .switchIfEmpty(Mono.defer(() -> Mono.error(new IllegalArgumentException("Request body is required"))))
+            .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().bodyValue(Map.of(
+                "message", String.valueOf(e.getMessage()),
+                "timestamp", LocalDateTime.now()
+            )));
+    }
+    
+    private static UUID chatId(ServerRequest request) {
+        return UUID.fromString(request.pathVariable("chatId"));
+    }
+    
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+    
+    private static UUID uuidParam(ServerRequest request, String name) {
+        return request.queryParam(name).map(UUID::fromString).orElse(null);
+    }
+    
+    private static List<MessageDTO> toMessageDTOs(List<Message> messages) {
+        return messages.stream()
+            .map(MessageDTO::fromDomain)
+            .toList();
+    }
+}
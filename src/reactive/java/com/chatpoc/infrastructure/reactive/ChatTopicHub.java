@@ -0,0 +1,97 @@
+package com.chatpoc.infrastructure.reactive;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.chatpoc.infrastructure.web.MessageDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reactive counterpart of the /topic/chat/{chatId} broadcast: one hot stream per chat with subscribers
+public class ChatTopicHub {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChatTopicHub.class);
+    
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, Topic> topics = new ConcurrentHashMap<>();
+    
+    public ChatTopicHub(ObjectMapper objectMapper) {
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+    }
+    
+    // Emits each message of the chat as JSON, serialized once for all subscribers; a subscriber without
+    // demand misses messages instead of slowing the others down
+    public Flux<String> stream(UUID chatId) {
+        Objects.requireNonNull(chatId, "Chat id cannot be null");
+        return Flux.defer(() -> {
+            Topic topic = topics.compute(chatId, (id, current) -> (current == null ? new Topic() : current).retain());
+            return topic.sink.asFlux().doFinally(signal -> release(chatId, topic));
+        });
+    }
+    
+    public int getSubscriberCount(UUID chatId) {
+        Topic topic = topics.get(chatId);
+        return topic == null ? 0 : topic.subscribers;
+    }
+    
+    @EventListener
+    public void handleMessageSentEvent(MessageSentEvent event) {
+        Objects.requireNonNull(event, "MessageSentEvent cannot be null");
+        publish(event.getChatId(), event.getMessage());
+    }
+    
+    @EventListener
+    public void handleMessagesSentEvent(MessagesSentEvent event) {
+        Objects.requireNonNull(event, "MessagesSentEvent cannot be null");
+        event.getMessages().forEach(message -> publish(event.getChatId(), message));
+    }
+    
+    void publish(UUID chatId, Message message) {
+        Topic topic = topics.get(chatId);
+        if (topic == null) {
+            return;
+        }
+        
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(MessageDTO.fromDomain(message));
+        } catch (JsonProcessingException e) {
+            logger.error("Erreur lors de la sérialisation du message {}: {}", message.getId(), e.getMessage(), e);
+            return;
+        }
+        // Sinks reject concurrent emissions, writers of the same chat take turns
+        synchronized (topic) {
+            topic.sink.tryEmitNext(json);
+        }
+    }
+    
+    private void release(UUID chatId, Topic topic) {
+        topics.computeIfPresent(chatId, (id, current) -> current != topic || current.release() > 0 ? current : null);
+    }
+    
+    private static final class Topic {
+        
+        private final Sinks.Many<String> sink = Sinks.many().multicast().directBestEffort();
+        // Guarded by the topics map: only updated inside compute
+        private volatile int subscribers;
+        
+        private Topic retain() {
+            subscribers++;
+            return this;
+        }
+        
+        private int release() {
+            return --subscribers;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.chatpoc.infrastructure.reactive;
+
+import com.chatpoc.infrastructure.broker.SlowConsumerPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Streams /ws/topic/chat/{chatId} as plain JSON text frames, at the pace the connection can absorb
+public class ChatTopicWebSocketHandler implements WebSocketHandler {
+    
+    public static final String PATH_PREFIX = "/ws/topic/chat/";
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChatTopicWebSocketHandler.class);
+    private static final CloseStatus SLOW_CONSUMER = CloseStatus.POLICY_VIOLATION.withReason("Slow consumer");
+    
+    private final ChatTopicHub hub;
+    private final int bufferSize;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final Counter dropped;
+    private final Counter disconnected;
+    
+    public ChatTopicWebSocketHandler(ChatTopicHub hub, int bufferSize, SlowConsumerPolicy slowConsumerPolicy,
+                                     MeterRegistry meterRegistry) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.hub = Objects.requireNonNull(hub);
+        this.bufferSize = bufferSize;
+        this.slowConsumerPolicy = Objects.requireNonNull(slowConsumerPolicy);
+        Gauge.builder("chat.reactive.websocket.sessions", sessions, AtomicInteger::get)
+            .description("Sessions WebSocket réactives ouvertes")
+            .register(meterRegistry);
+        this.dropped = meterRegistry.counter("chat.reactive.websocket.dropped");
+        this.disconnected = meterRegistry.counter("chat.reactive.websocket.slow.disconnected");
+    }
+    
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        UUID chatId;
+        try {
+            chatId = chatId(session.getHandshakeInfo().getUri().getPath());
+        } catch (IllegalArgumentException e) {
+            return session.close(CloseStatus.BAD_DATA.withReason(e.getMessage()));
+        }
+        
+        // Bursts are absorbed by a bounded per-session buffer, beyond it the slow-consumer policy applies
+        Flux<String> messages = slowConsumerPolicy == SlowConsumerPolicy.DROP
+            ? hub.stream(chatId).onBackpressureBuffer(bufferSize, message -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+            : hub.stream(chatId).onBackpressureBuffer(bufferSize);
+        
+        Mono<Void> outbound = session.send(messages.map(session::textMessage))
+            .onErrorResume(Exceptions::isOverflow, e -> {
+                disconnected.increment();
+                logger.warn("Session {} fermée : abonné trop lent sur le chat {}", session.getId(), chatId);
+                return session.close(SLOW_CONSUMER);
+            });
+        // Inbound frames are ignored, reading them only tracks the end of the connection
+        Mono<Void> inbound = session.receive().then();
+        
+        return Mono.firstWithSignal(outbound, inbound)
+            .doFirst(sessions::incrementAndGet)
+            .doFinally(signal -> sessions.decrementAndGet());
+    }
+    
+    static UUID chatId(String path) {
+        if (path == null || !path.startsWith(PATH_PREFIX)) {
+            throw new IllegalArgumentException("WebSocket path must start with " + PATH_PREFIX);
+        }
+        return UUID.fromString(path.substring(PATH_PREFIX.length()));
+    }
+}
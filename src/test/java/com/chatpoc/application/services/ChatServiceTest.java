@@ -1,19 +1,27 @@
 package com.chatpoc.application.services;
 
 import com.chatpoc.application.commands.CreateChatCommand;
+import com.chatpoc.application.commands.SendMessageBatchCommand;
 import com.chatpoc.application.commands.SendMessageCommand;
 import com.chatpoc.application.queries.GetChatQuery;
+import com.chatpoc.application.queries.GetChatSummariesQuery;
+import com.chatpoc.application.queries.GetMessagesSinceQuery;
 import com.chatpoc.application.queries.GetRecentMessagesQuery;
 import com.chatpoc.domain.chat.Chat;
 import com.chatpoc.domain.chat.Message;
 import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
 import com.chatpoc.domain.chat.repository.ChatRepository;
+import com.chatpoc.domain.chat.repository.ChatSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -71,8 +79,7 @@ class ChatServiceTest {
         SendMessageCommand command = new SendMessageCommand(chatId, "Hello!", "John Doe", "john@example.com");
         Chat existingChat = Chat.create("Test Chat", Participant.of("Jane Smith", "jane@example.com"));
         
-        when(chatRepository.findById(chatId)).thenReturn(Optional.of(existingChat));
-        when(chatRepository.save(any(Chat.class))).thenReturn(existingChat);
+        when(chatRepository.findByIdWithParticipants(chatId)).thenReturn(Optional.of(existingChat));
         
         Message result = chatService.sendMessage(command);
         
@@ -81,17 +88,34 @@ class ChatServiceTest {
         assertEquals("John Doe", result.getSender().getName().value());
         assertEquals("john@example.com", result.getSender().getEmail().value());
         
-        verify(chatRepository).findById(chatId);
-        verify(chatRepository).save(existingChat);
+        verify(chatRepository).findByIdWithParticipants(chatId);
+        verify(chatRepository).addParticipantIfAbsent(existingChat.getId(), result.getSender());
+        verify(chatRepository).appendMessage(existingChat.getId(), result);
+        verify(chatRepository, never()).save(any(Chat.class));
         verify(eventPublisher, atLeastOnce()).publish(any());
     }
     
+    @Test
+    void shouldOnlyAppendMessageWhenSenderIsAlreadyParticipant() {
+        UUID chatId = UUID.randomUUID();
+        SendMessageCommand command = new SendMessageCommand(chatId, "Hello!", "Jane Smith", "jane@example.com");
+        Chat existingChat = Chat.create("Test Chat", Participant.of("Jane Smith", "jane@example.com"));
+        
+        when(chatRepository.findByIdWithParticipants(chatId)).thenReturn(Optional.of(existingChat));
+        
+        Message result = chatService.sendMessage(command);
+        
+        verify(chatRepository).appendMessage(existingChat.getId(), result);
+        verify(chatRepository, never()).addParticipantIfAbsent(any(), any());
+        verify(chatRepository, never()).save(any(Chat.class));
+    }
+    
     @Test
     void shouldThrowExceptionWhenChatNotFoundForSendMessage() {
         UUID chatId = UUID.randomUUID();
         SendMessageCommand command = new SendMessageCommand(chatId, "Hello!", "John Doe", "john@example.com");
         
-        when(chatRepository.findById(chatId)).thenReturn(Optional.empty());
+        when(chatRepository.findByIdWithParticipants(chatId)).thenReturn(Optional.empty());
         
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -99,7 +123,7 @@ class ChatServiceTest {
         );
         
         assertEquals("Chat not found with id: " + chatId, exception.getMessage());
-        verify(chatRepository).findById(chatId);
+        verify(chatRepository).findByIdWithParticipants(chatId);
         verifyNoMoreInteractions(chatRepository);
         verifyNoInteractions(eventPublisher);
     }
@@ -114,6 +138,113 @@ class ChatServiceTest {
         assertEquals("SendMessageCommand cannot be null", exception.getMessage());
     }
     
+    @Test
+    void shouldSendMessageBatchAcrossChatsWithOneEventPerChat() {
+        Chat firstChat = Chat.create("First Chat", Participant.of("Jane Smith", "jane@example.com"));
+        Chat secondChat = Chat.create("Second Chat", Participant.of("Jane Smith", "jane@example.com"));
+        firstChat.clearDomainEvents();
+        secondChat.clearDomainEvents();
+        SendMessageBatchCommand command = new SendMessageBatchCommand(List.of(
+            new SendMessageCommand(firstChat.getId(), "First 1", "Jane Smith", "jane@example.com"),
+            new SendMessageCommand(secondChat.getId(), "Second 1", "John Doe", "john@example.com"),
+            new SendMessageCommand(firstChat.getId(), "First 2", "John Doe", "john@example.com")
+        ));
+        
+        when(chatRepository.findByIdWithParticipants(firstChat.getId())).thenReturn(Optional.of(firstChat));
+        when(chatRepository.findByIdWithParticipants(secondChat.getId())).thenReturn(Optional.of(secondChat));
+        
+        List<Message> result = chatService.sendMessages(command);
+        
+        assertEquals(List.of("First 1", "Second 1", "First 2"), result.stream().map(Message::getContent).toList());
+        verify(chatRepository).appendMessages(firstChat.getId(), List.of(result.get(0), result.get(2)));
+        verify(chatRepository).appendMessages(secondChat.getId(), List.of(result.get(1)));
+        verify(chatRepository).addParticipantIfAbsent(firstChat.getId(), Participant.of("John Doe", "john@example.com"));
+        verify(chatRepository).addParticipantIfAbsent(secondChat.getId(), Participant.of("John Doe", "john@example.com"));
+        verify(chatRepository, never()).appendMessage(any(), any());
+        verify(eventPublisher, times(2)).publish(any(MessagesSentEvent.class));
+    }
+    
+    @Test
+    void shouldNotWriteAnythingWhenOneChatOfBatchIsMissing() {
+        Chat existingChat = Chat.create("Test Chat", Participant.of("Jane Smith", "jane@example.com"));
+        UUID missingChatId = UUID.randomUUID();
+        SendMessageBatchCommand command = new SendMessageBatchCommand(List.of(
+            new SendMessageCommand(existingChat.getId(), "Hello!", "Jane Smith", "jane@example.com"),
+            new SendMessageCommand(missingChatId, "Hello!", "Jane Smith", "jane@example.com")
+        ));
+        
+        when(chatRepository.findByIdWithParticipants(existingChat.getId())).thenReturn(Optional.of(existingChat));
+        when(chatRepository.findByIdWithParticipants(missingChatId)).thenReturn(Optional.empty());
+        
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> chatService.sendMessages(command)
+        );
+        
+        assertEquals("Chat not found with id: " + missingChatId, exception.getMessage());
+        verify(chatRepository, never()).appendMessages(any(), any());
+        verify(chatRepository, never()).addParticipantIfAbsent(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+    
+    @Test
+    void shouldNumberMessageAfterLockedSequence() {
+        UUID chatId = UUID.randomUUID();
+        Chat existingChat = Chat.create("Test Chat", Participant.of("Jane Smith", "jane@example.com"));
+        
+        when(chatRepository.findByIdWithParticipants(chatId)).thenReturn(Optional.of(existingChat));
+        when(chatRepository.lockLastSequence(existingChat.getId())).thenReturn(41L);
+        
+        Message message = chatService.sendMessage(new SendMessageCommand(chatId, "Hello!", "Jane Smith", "jane@example.com"));
+        
+        assertEquals(42, message.getSequence());
+        InOrder inOrder = inOrder(chatRepository);
+        inOrder.verify(chatRepository).lockLastSequence(existingChat.getId());
+        inOrder.verify(chatRepository).appendMessage(existingChat.getId(), message);
+    }
+    
+    @Test
+    void shouldLockSequencesOfBatchInChatIdOrder() {
+        Chat firstChat = Chat.create("First Chat", Participant.of("Jane Smith", "jane@example.com"));
+        Chat secondChat = Chat.create("Second Chat", Participant.of("Jane Smith", "jane@example.com"));
+        SendMessageBatchCommand command = new SendMessageBatchCommand(List.of(
+            new SendMessageCommand(firstChat.getId(), "First", "Jane Smith", "jane@example.com"),
+            new SendMessageCommand(secondChat.getId(), "Second", "Jane Smith", "jane@example.com")
+        ));
+        
+        when(chatRepository.findByIdWithParticipants(firstChat.getId())).thenReturn(Optional.of(firstChat));
+        when(chatRepository.findByIdWithParticipants(secondChat.getId())).thenReturn(Optional.of(secondChat));
+        when(chatRepository.lockLastSequence(firstChat.getId())).thenReturn(7L);
+        when(chatRepository.lockLastSequence(secondChat.getId())).thenReturn(0L);
+        
+        List<Message> result = chatService.sendMessages(command);
+        
+        assertEquals(List.of(8L, 1L), result.stream().map(Message::getSequence).toList());
+        List<UUID> lockOrder = firstChat.getId().compareTo(secondChat.getId()) < 0
+            ? List.of(firstChat.getId(), secondChat.getId())
+            : List.of(secondChat.getId(), firstChat.getId());
+        InOrder inOrder = inOrder(chatRepository);
+        lockOrder.forEach(chatId -> inOrder.verify(chatRepository).lockLastSequence(chatId));
+    }
+    
+    @Test
+    void shouldRejectEmptyOrOversizedMessageBatch() {
+        SendMessageCommand message = new SendMessageCommand(UUID.randomUUID(), "Hello!", "John Doe", "john@example.com");
+        
+        IllegalArgumentException empty = assertThrows(
+            IllegalArgumentException.class,
+            () -> chatService.sendMessages(new SendMessageBatchCommand(List.of()))
+        );
+        IllegalArgumentException oversized = assertThrows(
+            IllegalArgumentException.class,
+            () -> chatService.sendMessages(new SendMessageBatchCommand(Collections.nCopies(ChatService.MAX_BATCH_SIZE + 1, message)))
+        );
+        
+        assertEquals("Messages cannot be empty", empty.getMessage());
+        assertEquals("Batch cannot exceed 5000 messages", oversized.getMessage());
+        verifyNoInteractions(chatRepository, eventPublisher);
+    }
+    
     @Test
     void shouldGetChatSuccessfully() {
         UUID chatId = UUID.randomUUID();
@@ -144,6 +275,17 @@ class ChatServiceTest {
         verify(chatRepository).findById(chatId);
     }
     
+    @Test
+    void shouldCheckChatExistenceWithoutLoadingIt() {
+        UUID chatId = UUID.randomUUID();
+        
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        
+        assertTrue(chatService.chatExists(new GetChatQuery(chatId)));
+        
+        verify(chatRepository, never()).findById(any());
+    }
+    
     @Test
     void shouldThrowExceptionForNullGetChatQuery() {
         NullPointerException exception = assertThrows(
@@ -158,11 +300,14 @@ class ChatServiceTest {
     void shouldGetRecentMessagesSuccessfully() {
         UUID chatId = UUID.randomUUID();
         GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, 10);
-        Chat existingChat = Chat.create("Test Chat", Participant.of("John Doe", "john@example.com"));
-        existingChat.sendMessage("Message 1", Participant.of("John Doe", "john@example.com"));
-        existingChat.sendMessage("Message 2", Participant.of("John Doe", "john@example.com"));
+        Participant sender = Participant.of("John Doe", "john@example.com");
+        List<Message> recentMessages = List.of(
+            Message.create("Message 1", sender),
+            Message.create("Message 2", sender)
+        );
         
-        when(chatRepository.findById(chatId)).thenReturn(Optional.of(existingChat));
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        when(chatRepository.findRecentMessages(chatId, 10)).thenReturn(recentMessages);
         
         List<Message> result = chatService.getRecentMessages(query);
         
@@ -170,7 +315,99 @@ class ChatServiceTest {
         assertEquals("Message 1", result.get(0).getContent());
         assertEquals("Message 2", result.get(1).getContent());
         
-        verify(chatRepository).findById(chatId);
+        verify(chatRepository).findRecentMessages(chatId, 10);
+        verify(chatRepository, never()).findById(any());
+    }
+    
+    @Test
+    void shouldGetMessagesBeforeCursor() {
+        UUID chatId = UUID.randomUUID();
+        UUID cursorId = UUID.randomUUID();
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, 20, cursorId, null);
+        
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        when(chatRepository.findMessagesBefore(chatId, cursorId, 20)).thenReturn(List.of());
+        
+        List<Message> result = chatService.getRecentMessages(query);
+        
+        assertTrue(result.isEmpty());
+        verify(chatRepository).findMessagesBefore(chatId, cursorId, 20);
+    }
+    
+    @Test
+    void shouldGetMessagesAfterCursor() {
+        UUID chatId = UUID.randomUUID();
+        UUID cursorId = UUID.randomUUID();
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, 20, null, cursorId);
+        
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        when(chatRepository.findMessagesAfter(chatId, cursorId, 20)).thenReturn(List.of());
+        
+        List<Message> result = chatService.getRecentMessages(query);
+        
+        assertTrue(result.isEmpty());
+        verify(chatRepository).findMessagesAfter(chatId, cursorId, 20);
+    }
+    
+    @Test
+    void shouldGetMessagesSinceSequence() {
+        UUID chatId = UUID.randomUUID();
+        
+        when(chatRepository.findMessagesSince(chatId, 12, 100)).thenReturn(List.of());
+        
+        assertTrue(chatService.getMessagesSince(new GetMessagesSinceQuery(chatId, 12, 100)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> chatService.getMessagesSince(new GetMessagesSinceQuery(chatId, -1, 100)));
+        assertThrows(IllegalArgumentException.class, () -> chatService.getMessagesSince(new GetMessagesSinceQuery(chatId, 12, 0)));
+    }
+    
+    @Test
+    void shouldRejectCombinedCursorsForGetRecentMessages() {
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(UUID.randomUUID(), 20, UUID.randomUUID(), UUID.randomUUID());
+        
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> chatService.getRecentMessages(query)
+        );
+        
+        assertEquals("Cannot combine before and after cursors", exception.getMessage());
+        verifyNoInteractions(chatRepository);
+    }
+    
+    @Test
+    void shouldRejectNonPositiveLimitForGetRecentMessages() {
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(UUID.randomUUID(), 0);
+        
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> chatService.getRecentMessages(query)
+        );
+        
+        assertEquals("Limit must be positive", exception.getMessage());
+        verifyNoInteractions(chatRepository);
+    }
+    
+    @Test
+    void shouldRejectLimitAbovePageSizeForGetRecentMessages() {
+        GetRecentMessagesQuery query = new GetRecentMessagesQuery(UUID.randomUUID(), ChatService.MAX_PAGE_SIZE + 1);
+        
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> chatService.getRecentMessages(query)
+        );
+        
+        assertEquals("Limit cannot exceed " + ChatService.MAX_PAGE_SIZE, exception.getMessage());
+        verifyNoInteractions(chatRepository);
+    }
+    
+    @Test
+    void shouldExportMoreMessagesThanAPageUpToTheExportLimit() {
+        UUID chatId = UUID.randomUUID();
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        when(chatRepository.findRecentMessages(chatId, ChatService.MAX_EXPORT_SIZE)).thenReturn(List.of());
+        
+        assertEquals(List.of(), chatService.exportMessages(new GetRecentMessagesQuery(chatId, ChatService.MAX_EXPORT_SIZE)));
+        assertThrows(IllegalArgumentException.class,
+            () -> chatService.exportMessages(new GetRecentMessagesQuery(chatId, ChatService.MAX_EXPORT_SIZE + 1)));
     }
     
     @Test
@@ -178,7 +415,7 @@ class ChatServiceTest {
         UUID chatId = UUID.randomUUID();
         GetRecentMessagesQuery query = new GetRecentMessagesQuery(chatId, 10);
         
-        when(chatRepository.findById(chatId)).thenReturn(Optional.empty());
+        when(chatRepository.existsById(chatId)).thenReturn(false);
         
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -186,7 +423,8 @@ class ChatServiceTest {
         );
         
         assertEquals("Chat not found with id: " + chatId, exception.getMessage());
-        verify(chatRepository).findById(chatId);
+        verify(chatRepository).existsById(chatId);
+        verifyNoMoreInteractions(chatRepository);
     }
     
     @Test
@@ -200,17 +438,27 @@ class ChatServiceTest {
     }
     
     @Test
-    void shouldGetAllChatsSuccessfully() {
-        List<Chat> expectedChats = List.of(
-            Chat.create("Chat 1", Participant.of("User 1", "user1@example.com")),
-            Chat.create("Chat 2", Participant.of("User 2", "user2@example.com"))
+    void shouldGetChatSummariesSuccessfully() {
+        GetChatSummariesQuery query = new GetChatSummariesQuery(1, 20);
+        List<ChatSummary> expectedSummaries = List.of(
+            new ChatSummary(UUID.randomUUID(), "Chat 1", 2, 10, "Hello", Instant.now())
         );
         
-        when(chatRepository.findAll()).thenReturn(expectedChats);
+        when(chatRepository.findSummaries(1, 20)).thenReturn(expectedSummaries);
+        
+        List<ChatSummary> result = chatService.getChatSummaries(query);
         
-        List<Chat> result = chatService.getAllChats();
+        assertEquals(expectedSummaries, result);
+        verify(chatRepository).findSummaries(1, 20);
+    }
+    
+    @Test
+    void shouldRejectInvalidPaginationForChatSummaries() {
+        assertThrows(IllegalArgumentException.class, () -> chatService.getChatSummaries(new GetChatSummariesQuery(-1, 20)));
+        assertThrows(IllegalArgumentException.class, () -> chatService.getChatSummaries(new GetChatSummariesQuery(0, 0)));
+        assertThrows(IllegalArgumentException.class,
+            () -> chatService.getChatSummaries(new GetChatSummariesQuery(0, ChatService.MAX_PAGE_SIZE + 1)));
         
-        assertEquals(expectedChats, result);
-        verify(chatRepository).findAll();
+        verifyNoInteractions(chatRepository);
     }
 }
\ No newline at end of file
@@ -2,12 +2,13 @@ package com.chatpoc.domain.chat;
 
 import com.chatpoc.domain.chat.events.ChatCreatedEvent;
 import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,7 +30,7 @@ class ChatTest {
         assertEquals(1, chat.getParticipants().size());
         assertTrue(chat.getMessages().isEmpty());
         assertNotNull(chat.getCreatedAt());
-        assertTrue(chat.getCreatedAt().isBefore(LocalDateTime.now().plusSeconds(1)));
+        assertTrue(chat.getCreatedAt().isBefore(Instant.now().plusSeconds(1)));
     }
     
     @Test
@@ -54,7 +55,7 @@ class ChatTest {
         String name = "Test Chat";
         Set<Participant> participants = Set.of(creator, otherParticipant);
         List<Message> messages = List.of(Message.create("Hello", creator));
-        LocalDateTime createdAt = LocalDateTime.now();
+        Instant createdAt = Instant.now();
         
         Chat chat = Chat.reconstruct(id, name, participants, messages, createdAt);
         
@@ -111,6 +112,135 @@ class ChatTest {
         assertEquals(message, event.getMessage());
     }
     
+    @Test
+    void shouldNumberMessagesInSendOrder() {
+        Chat chat = Chat.create("Test Chat", creator);
+        
+        Message first = chat.sendMessage("Message 1", creator);
+        List<Message> batch = chat.sendMessages(List.of(
+            new MessageDraft("Message 2", otherParticipant),
+            new MessageDraft("Message 3", creator)
+        ));
+        Message last = chat.sendMessage("Message 4", otherParticipant);
+        
+        assertEquals(1, first.getSequence());
+        assertEquals(List.of(2L, 3L), batch.stream().map(Message::getSequence).toList());
+        assertEquals(4, last.getSequence());
+        assertEquals(4, chat.getLastSequence());
+    }
+    
+    @Test
+    void shouldContinueNumberingAfterPersistedSequence() {
+        Chat chat = Chat.reconstruct(UUID.randomUUID(), "Test Chat", Set.of(creator), List.of(), Instant.now(), 41);
+        
+        chat.resumeSequenceAfter(57);
+        
+        assertEquals(58, chat.sendMessage("Hello", creator).getSequence());
+        assertThrows(IllegalArgumentException.class, () -> chat.resumeSequenceAfter(12));
+    }
+    
+    @Test
+    void shouldNotConsumeSequenceWhenBatchIsRejected() {
+        Chat chat = Chat.create("Test Chat", creator);
+        
+        assertThrows(IllegalArgumentException.class, () -> chat.sendMessages(List.of(
+            new MessageDraft("Valid", creator),
+            new MessageDraft(" ", creator)
+        )));
+        
+        assertEquals(0, chat.getLastSequence());
+        assertEquals(1, chat.sendMessage("Hello", creator).getSequence());
+    }
+    
+    @Test
+    void shouldAssignTimeOrderedIdsInSendOrder() {
+        Chat chat = Chat.create("Test Chat", creator);
+        
+        Message first = chat.sendMessage("Hello", creator);
+        List<Message> batch = chat.sendMessages(List.of(
+            new MessageDraft("Message 1", creator),
+            new MessageDraft("Message 2", otherParticipant)
+        ));
+        Message last = chat.sendMessage("Bye", otherParticipant);
+        
+        assertEquals(7, chat.getId().version());
+        List<UUID> ids = chat.getMessages().stream().map(Message::getId).toList();
+        assertEquals(List.of(first.getId(), batch.get(0).getId(), batch.get(1).getId(), last.getId()), ids);
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+    
+    @Test
+    void shouldSendMessageBatchWithSingleCoalescedEvent() {
+        Chat chat = Chat.create("Test Chat", creator);
+        chat.clearDomainEvents();
+        
+        List<Message> sent = chat.sendMessages(List.of(
+            new MessageDraft("Message 1", creator),
+            new MessageDraft("Message 2", otherParticipant),
+            new MessageDraft("Message 3", creator)
+        ));
+        
+        assertEquals(3, sent.size());
+        assertEquals(List.of("Message 1", "Message 2", "Message 3"), sent.stream().map(Message::getContent).toList());
+        assertTrue(sent.get(0).getTimestamp().isBefore(sent.get(1).getTimestamp()));
+        assertTrue(sent.get(1).getTimestamp().isBefore(sent.get(2).getTimestamp()));
+        assertEquals(sent, chat.getMessages());
+        assertTrue(chat.hasParticipant(otherParticipant));
+        
+        List<Object> domainEvents = chat.getDomainEvents();
+        assertEquals(1, domainEvents.size());
+        MessagesSentEvent event = (MessagesSentEvent) domainEvents.get(0);
+        assertEquals(chat.getId(), event.getChatId());
+        assertEquals(sent, event.getMessages());
+    }
+    
+    @Test
+    void shouldRejectWholeBatchWhenOneMessageIsInvalid() {
+        Chat chat = Chat.create("Test Chat", creator);
+        chat.clearDomainEvents();
+        
+        List<MessageDraft> drafts = List.of(
+            new MessageDraft("Valid message", otherParticipant),
+            new MessageDraft("   ", creator)
+        );
+        
+        assertThrows(IllegalArgumentException.class, () -> chat.sendMessages(drafts));
+        assertTrue(chat.getMessages().isEmpty());
+        assertFalse(chat.hasParticipant(otherParticipant));
+        assertTrue(chat.getDomainEvents().isEmpty());
+    }
+    
+    @Test
+    void shouldRejectBatchThatWouldExceedFiftyParticipants() {
+        Chat chat = Chat.create("Test Chat", creator);
+        for (int i = 1; i < 49; i++) {
+            chat.addParticipant(Participant.of("User" + i, "user" + i + "@example.com"));
+        }
+        
+        List<MessageDraft> drafts = List.of(
+            new MessageDraft("Hello", Participant.of("User49", "user49@example.com")),
+            new MessageDraft("Hello", Participant.of("User50", "user50@example.com"))
+        );
+        
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> chat.sendMessages(drafts));
+        
+        assertEquals("Chat cannot have more than 50 participants", exception.getMessage());
+        assertEquals(49, chat.getParticipants().size());
+        assertTrue(chat.getMessages().isEmpty());
+    }
+    
+    @Test
+    void shouldThrowExceptionForEmptyMessageBatch() {
+        Chat chat = Chat.create("Test Chat", creator);
+        
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> chat.sendMessages(List.of())
+        );
+        
+        assertEquals("Messages cannot be empty", exception.getMessage());
+    }
+    
     @Test
     void shouldAddParticipantToChat() {
         Chat chat = Chat.create("Test Chat", creator);
@@ -174,6 +304,48 @@ class ChatTest {
         assertEquals(2, recentMessages.size());
     }
     
+    @Test
+    void shouldKeepRecentMessagesViewUnchangedByLaterSends() {
+        Chat chat = Chat.create("Test Chat", creator);
+        chat.sendMessage("Message 1", creator);
+        chat.sendMessage("Message 2", creator);
+        
+        List<Message> recentMessages = chat.getRecentMessages(2);
+        List<Message> allMessages = chat.getMessages();
+        for (int i = 3; i <= 20; i++) {
+            chat.sendMessage("Message " + i, creator);
+        }
+        
+        assertEquals(List.of("Message 1", "Message 2"), recentMessages.stream().map(Message::getContent).toList());
+        assertEquals(2, allMessages.size());
+        assertEquals(20, chat.getMessages().size());
+        assertThrows(UnsupportedOperationException.class, () -> recentMessages.add(Message.create("Intrus", creator)));
+    }
+    
+    @Test
+    void shouldOrderReconstructedMessagesBySequence() {
+        Instant now = Instant.now();
+        Message first = Message.reconstruct(UUID.randomUUID(), "First", creator, now, 1);
+        Message second = Message.reconstruct(UUID.randomUUID(), "Second", creator, now.minusSeconds(1), 2);
+        Message third = Message.reconstruct(UUID.randomUUID(), "Third", creator, now, 3);
+        
+        Chat chat = Chat.reconstruct(UUID.randomUUID(), "Test Chat", Set.of(creator), List.of(third, first, second), now);
+        
+        assertEquals(List.of(first, second, third), chat.getMessages());
+        assertEquals(3, chat.getLastSequence());
+        assertEquals(4, chat.sendMessage("Fourth", creator).getSequence());
+    }
+    
+    @Test
+    void shouldRejectReconstructionWithoutParticipants() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> Chat.reconstruct(UUID.randomUUID(), "Test Chat", Set.of(), List.of(), Instant.now())
+        );
+        
+        assertEquals("Chat must have at least one participant", exception.getMessage());
+    }
+    
     @Test
     void shouldThrowExceptionForNonPositiveLimit() {
         Chat chat = Chat.create("Test Chat", creator);
@@ -264,7 +436,7 @@ class ChatTest {
     @Test
     void shouldImplementEqualityBasedOnId() {
         UUID id = UUID.randomUUID();
-        LocalDateTime createdAt = LocalDateTime.now();
+        Instant createdAt = Instant.now();
         
         Chat chat1 = Chat.reconstruct(id, "Chat 1", Set.of(creator), List.of(), createdAt);
         Chat chat2 = Chat.reconstruct(id, "Chat 2", Set.of(otherParticipant), List.of(), createdAt);
@@ -277,7 +449,7 @@ class ChatTest {
     void shouldNotBeEqualIfIdsDiffer() {
         UUID id1 = UUID.randomUUID();
         UUID id2 = UUID.randomUUID();
-        LocalDateTime createdAt = LocalDateTime.now();
+        Instant createdAt = Instant.now();
         
         Chat chat1 = Chat.reconstruct(id1, "Chat", Set.of(creator), List.of(), createdAt);
         Chat chat2 = Chat.reconstruct(id2, "Chat", Set.of(creator), List.of(), createdAt);
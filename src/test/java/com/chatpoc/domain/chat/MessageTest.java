@@ -5,7 +5,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,14 +24,14 @@ class MessageTest {
         assertEquals(content, message.getContent());
         assertEquals(sender, message.getSender());
         assertNotNull(message.getTimestamp());
-        assertTrue(message.getTimestamp().isBefore(LocalDateTime.now().plusSeconds(1)));
+        assertTrue(message.getTimestamp().isBefore(Instant.now().plusSeconds(1)));
     }
     
     @Test
     void shouldReconstructMessageWithAllFields() {
         UUID id = UUID.randomUUID();
         String content = "Hello, world!";
-        LocalDateTime timestamp = LocalDateTime.now();
+        Instant timestamp = Instant.now();
         
         Message message = Message.reconstruct(id, content, sender, timestamp);
         
@@ -97,7 +97,7 @@ class MessageTest {
     void shouldThrowExceptionForNullId() {
         NullPointerException exception = assertThrows(
             NullPointerException.class,
-            () -> Message.reconstruct(null, "Hello", sender, LocalDateTime.now())
+            () -> Message.reconstruct(null, "Hello", sender, Instant.now())
         );
         
         assertEquals("Message id cannot be null", exception.getMessage());
@@ -116,8 +116,8 @@ class MessageTest {
     @Test
     void shouldImplementEqualityBasedOnId() {
         UUID id = UUID.randomUUID();
-        Message message1 = Message.reconstruct(id, "Hello", sender, LocalDateTime.now());
-        Message message2 = Message.reconstruct(id, "Different content", sender, LocalDateTime.now());
+        Message message1 = Message.reconstruct(id, "Hello", sender, Instant.now());
+        Message message2 = Message.reconstruct(id, "Different content", sender, Instant.now());
         
         assertEquals(message1, message2);
         assertEquals(message1.hashCode(), message2.hashCode());
@@ -127,7 +127,7 @@ class MessageTest {
     void shouldNotBeEqualIfIdsDiffer() {
         UUID id1 = UUID.randomUUID();
         UUID id2 = UUID.randomUUID();
-        LocalDateTime timestamp = LocalDateTime.now();
+        Instant timestamp = Instant.now();
         
         Message message1 = Message.reconstruct(id1, "Hello", sender, timestamp);
         Message message2 = Message.reconstruct(id2, "Hello", sender, timestamp);
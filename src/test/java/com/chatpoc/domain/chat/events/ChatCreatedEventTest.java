@@ -3,7 +3,7 @@ package com.chatpoc.domain.chat.events;
 import com.chatpoc.domain.chat.Participant;
 import org.junit.jupiter.api.Test;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,7 +23,7 @@ class ChatCreatedEventTest {
         assertEquals(chatName, event.getChatName());
         assertEquals(creator, event.getCreator());
         assertNotNull(event.getOccurredAt());
-        assertTrue(event.getOccurredAt().isBefore(LocalDateTime.now().plusSeconds(1)));
+        assertTrue(event.getOccurredAt().isBefore(Instant.now().plusSeconds(1)));
     }
     
     @Test
@@ -0,0 +1,51 @@
+package com.chatpoc.domain.chat.events;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessagesSentEventTest {
+    
+    private final Participant sender = Participant.of("John Doe", "john@example.com");
+    private final UUID chatId = UUID.randomUUID();
+    
+    @Test
+    void shouldCreateEventWithImmutableCopyOfMessages() {
+        List<Message> messages = new ArrayList<>(List.of(Message.create("Hello", sender), Message.create("World", sender)));
+        
+        MessagesSentEvent event = new MessagesSentEvent(chatId, messages);
+        messages.clear();
+        
+        assertNotNull(event.getEventId());
+        assertEquals(chatId, event.getChatId());
+        assertEquals(2, event.getMessages().size());
+        assertNotNull(event.getOccurredAt());
+        assertThrows(UnsupportedOperationException.class, () -> event.getMessages().clear());
+    }
+    
+    @Test
+    void shouldThrowExceptionForNullChatId() {
+        NullPointerException exception = assertThrows(
+            NullPointerException.class,
+            () -> new MessagesSentEvent(null, List.of(Message.create("Hello", sender)))
+        );
+        
+        assertEquals("Chat id cannot be null", exception.getMessage());
+    }
+    
+    @Test
+    void shouldThrowExceptionForEmptyMessages() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new MessagesSentEvent(chatId, List.of())
+        );
+        
+        assertEquals("Messages cannot be empty", exception.getMessage());
+    }
+}
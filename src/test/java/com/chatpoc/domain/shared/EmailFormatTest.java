@@ -0,0 +1,80 @@
+package com.chatpoc.domain.shared;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailFormatTest {
+    
+    // Former implementation of Email, kept as the reference for the hand-written validator
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+        "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$"
+    );
+    
+    private static final String ALPHABET = "abcXYZ09._%+-@@..  \t\néÉKİß!#";
+    
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "john@example.com",
+        "  Jean.Dupont+chat@Sous-Domaine.Example.FR  ",
+        "a@b.co",
+        "a@..com",
+        "a@-.io",
+        "test..test@example.com",
+        "Kelvin@example.com",
+        "a@b.c",
+        "a@.com",
+        "a@b.c0m",
+        "a@@b.com",
+        "@b.com",
+        "a b@c.com",
+        "été@example.com"
+    })
+    void shouldMatchRegexOnKnownCases(String value) {
+        assertEquals(reference(value), EmailFormat.normalize(value), value);
+    }
+    
+    @Test
+    void shouldMatchRegexOnRandomInputs() {
+        Random random = new Random(20240101L);
+        StringBuilder builder = new StringBuilder();
+        
+        for (int i = 0; i < 200_000; i++) {
+            builder.setLength(0);
+            int length = random.nextInt(16);
+            for (int j = 0; j < length; j++) {
+                builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            // Bias towards almost-valid addresses, where the regex and the scanner are most likely to disagree
+            if (random.nextBoolean()) {
+                builder.append(random.nextBoolean() ? "@ex.fr" : ".com");
+            }
+            
+            String value = builder.toString();
+            if (!EmailFormat.isBlank(value)) {
+                assertEquals(reference(value), EmailFormat.normalize(value), () -> "Divergence pour \"" + value + "\"");
+            }
+            assertEquals(value.trim().isEmpty(), EmailFormat.isBlank(value));
+        }
+    }
+    
+    @Test
+    void shouldNotCopyAlreadyNormalizedAddress() {
+        String value = "jean.dupont@example.com";
+        
+        assertSame(value, EmailFormat.normalize(value));
+    }
+    
+    /**
+     * Résultat de l'ancienne validation : adresse normalisée, ou null si elle est refusée.
+     */
+    private static String reference(String value) {
+        String normalized = value.trim().toLowerCase();
+        return EMAIL_PATTERN.matcher(normalized).matches() ? normalized : null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.chatpoc.domain.shared;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+    
+    private static final long NOW = 1_704_103_200_000L;
+    
+    @Test
+    void shouldGenerateVersion7IdsCarryingTheCreationTime() {
+        UUID id = new TimeOrderedIdGenerator(() -> NOW).nextId();
+        
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+    }
+    
+    @Test
+    void shouldIncreaseWithinTheSameMillisecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> NOW);
+        
+        // Beyond the 4096 ids of the counter, the next millisecond is borrowed
+        UUID previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+        assertEquals(NOW + 2, previous.getMostSignificantBits() >>> 16);
+    }
+    
+    @Test
+    void shouldKeepIncreasingWhenTheClockStepsBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+        
+        UUID before = generator.nextId();
+        clock.set(NOW - 1_000);
+        UUID after = generator.nextId();
+        
+        assertTrue(after.compareTo(before) > 0);
+    }
+    
+    @Test
+    void shouldSortByCreationTime() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+        
+        UUID first = generator.nextId();
+        clock.addAndGet(5);
+        UUID second = generator.nextId();
+        clock.addAndGet(60_000);
+        UUID third = generator.nextId();
+        
+        List<UUID> shuffled = new ArrayList<>(List.of(third, first, second));
+        shuffled.sort(null);
+        assertEquals(List.of(first, second, third), shuffled);
+    }
+    
+    @Test
+    void shouldGenerateUniqueIncreasingIdsAcrossThreads() throws InterruptedException {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        int threads = 8;
+        int idsPerThread = 50_000;
+        ConcurrentLinkedQueue<List<UUID>> generated = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                List<UUID> ids = new ArrayList<>(idsPerThread);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids.add(generator.nextId());
+                }
+                generated.add(ids);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        Set<UUID> unique = new HashSet<>();
+        for (List<UUID> ids : generated) {
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(ids.get(i).compareTo(ids.get(i - 1)) > 0);
+            }
+            unique.addAll(ids);
+        }
+        assertEquals(threads * idsPerThread, unique.size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.chatpoc.infrastructure.broker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundDispatcherTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private OutboundDispatcher dispatcher;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dispatcher.shutdown();
+    }
+    
+    @Test
+    void shouldWriteFramesOfSessionInOrder() throws Exception {
+        dispatcher = new OutboundDispatcher(meterRegistry, 1, 16, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+            Duration.ofMillis(20), 64);
+        WebSocketSession session = session("alice");
+        BrokerSession brokerSession = dispatcher.register(session);
+        
+        IntStream.range(0, 10).forEach(i -> dispatcher.enqueue(brokerSession, frame("m" + i)));
+        
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(2000).times(10)).sendMessage(captor.capture());
+        List<String> payloads = captor.getAllValues().stream().map(TextMessage::getPayload).toList();
+        assertEquals(IntStream.range(0, 10).mapToObj(i -> "P:m" + i).toList(), payloads);
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertEquals(10.0, meterRegistry.counter("chat.broker.frames.sent").count());
+            assertEquals(40.0, meterRegistry.counter("chat.broker.bytes.written").count());
+        });
+    }
+    
+    @Test
+    void shouldDropFramesOfSlowConsumerWithoutBlockingOthers() throws Exception {
+        dispatcher = new OutboundDispatcher(meterRegistry, 2, 4, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+            Duration.ofMillis(20), 64);
+        WebSocketSession slow = blockingSession("slow");
+        BrokerSession slowSession = dispatcher.register(slow);
+        // A blocked write only holds back its own shard
+        String fastId = IntStream.range(0, 100).mapToObj(i -> "fast-" + i)
+            .filter(id -> Math.floorMod(id.hashCode(), 2) != slowSession.shard())
+            .findFirst().orElseThrow();
+        WebSocketSession fast = session(fastId);
+        BrokerSession fastSession = dispatcher.register(fast);
+        
+        dispatcher.enqueue(slowSession, frame("first"));
+        verify(slow, timeout(2000)).sendMessage(any());
+        boolean[] accepted = new boolean[6];
+        for (int i = 0; i < accepted.length; i++) {
+            accepted[i] = dispatcher.enqueue(slowSession, frame("next" + i));
+        }
+        dispatcher.enqueue(fastSession, frame("hello"));
+        
+        verify(fast, timeout(2000)).sendMessage(any());
+        assertArrayEquals(new boolean[]{true, true, true, true, false, false}, accepted);
+        assertEquals(2.0, meterRegistry.counter("chat.broker.frames.dropped").count());
+        verify(slow, never()).close(any());
+    }
+    
+    @Test
+    void shouldDisconnectSlowConsumer() throws Exception {
+        dispatcher = dispatcher(SlowConsumerPolicy.DISCONNECT);
+        WebSocketSession slow = blockingSession("slow");
+        BrokerSession slowSession = dispatcher.register(slow);
+        
+        dispatcher.enqueue(slowSession, frame("first"));
+        verify(slow, timeout(2000)).sendMessage(any());
+        IntStream.range(0, 5).forEach(i -> dispatcher.enqueue(slowSession, frame("next" + i)));
+        release.countDown();
+        
+        verify(slow, timeout(2000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        await().atMost(2, TimeUnit.SECONDS).until(() -> dispatcher.getSessionCount() == 0);
+        assertEquals(1.0, meterRegistry.counter("chat.broker.slow.disconnected").count());
+        assertFalse(dispatcher.enqueue(slowSession, frame("late")));
+    }
+    
+    @Test
+    void shouldCoalesceFramesOfBatchingSessionIntoOneWrite() throws Exception {
+        dispatcher = new OutboundDispatcher(meterRegistry, 1, 16, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+            Duration.ofMillis(50), 64);
+        WebSocketSession batching = session("batching");
+        WebSocketSession plain = session("plain");
+        BrokerSession batchingSession = dispatcher.register(batching);
+        BrokerSession plainSession = dispatcher.register(plain);
+        dispatcher.enableBatching(batchingSession, Duration.ofMillis(20));
+        
+        IntStream.range(0, 5).forEach(i -> {
+            dispatcher.enqueue(batchingSession, frame("m" + i));
+            dispatcher.enqueue(plainSession, frame("m" + i));
+        });
+        
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(batching, timeout(2000)).sendMessage(captor.capture());
+        assertEquals("P:m0P:m1P:m2P:m3P:m4", captor.getValue().getPayload());
+        verify(plain, timeout(2000).times(5)).sendMessage(any());
+        verify(batching, after(200).times(1)).sendMessage(any());
+        assertEquals(1.0, meterRegistry.counter("chat.broker.batches.sent").count());
+        assertEquals(10.0, meterRegistry.counter("chat.broker.frames.sent").count());
+    }
+    
+    @Test
+    void shouldFlushFullBatchBeforeEndOfWindow() throws Exception {
+        dispatcher = new OutboundDispatcher(meterRegistry, 1, 16, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+            Duration.ofSeconds(30), 4);
+        WebSocketSession session = session("alice");
+        BrokerSession brokerSession = dispatcher.register(session);
+        dispatcher.enableBatching(brokerSession, Duration.ofSeconds(30));
+        
+        IntStream.range(0, 4).forEach(i -> dispatcher.enqueue(brokerSession, frame("m" + i)));
+        
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(2000)).sendMessage(captor.capture());
+        assertEquals("P:m0P:m1P:m2P:m3", captor.getValue().getPayload());
+    }
+    
+    @Test
+    void shouldIgnoreBatchingWhenDisabled() {
+        dispatcher = new OutboundDispatcher(meterRegistry, 1, 16, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+            Duration.ZERO, 64);
+        BrokerSession brokerSession = dispatcher.register(session("alice"));
+        
+        dispatcher.enableBatching(brokerSession, Duration.ofMillis(10));
+        
+        assertEquals(0, brokerSession.getBatchWindowNanos());
+    }
+    
+    @Test
+    void shouldRejectNonPositiveBufferSize() {
+        dispatcher = dispatcher(SlowConsumerPolicy.DROP);
+        assertThrows(IllegalArgumentException.class,
+            () -> new OutboundDispatcher(meterRegistry, 1, 0, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+                Duration.ofMillis(20), 64));
+    }
+    
+    private OutboundDispatcher dispatcher(SlowConsumerPolicy policy) {
+        return new OutboundDispatcher(meterRegistry, 1, 4, Duration.ofSeconds(1), policy, Duration.ofMillis(20), 64);
+    }
+    
+    private static OutboundFrame frame(String content) {
+        return new OutboundFrame(buffer("P:"), buffer(content));
+    }
+    
+    private static ByteBuffer buffer(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+    
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        return session;
+    }
+    
+    private WebSocketSession blockingSession(String id) throws Exception {
+        WebSocketSession session = session(id);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(session).sendMessage(any());
+        return session;
+    }
+}
@@ -0,0 +1,382 @@
+package com.chatpoc.infrastructure.broker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TopicBrokerTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+    private final SubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    private final OutboundDispatcher dispatcher =
+        new OutboundDispatcher(meterRegistry, 2, 16, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+            Duration.ofMillis(20), 64);
+    private final TopicBroker broker = new TopicBroker(clientInboundChannel, brokerChannel, dispatcher, meterRegistry);
+    
+    @AfterEach
+    void tearDown() {
+        broker.stop();
+        dispatcher.shutdown();
+    }
+    
+    @Test
+    void shouldDeliverOnlyToSubscribersOfExactDestination() throws Exception {
+        broker.start();
+        WebSocketSession alice = connect("alice");
+        WebSocketSession bob = connect("bob");
+        WebSocketSession carol = connect("carol");
+        
+        clientInboundChannel.send(subscribe("alice", "sub-0", "/topic/chat/a"));
+        clientInboundChannel.send(subscribe("bob", "sub-7", "/topic/chat/a"));
+        clientInboundChannel.send(subscribe("carol", "sub-0", "/topic/chat/b"));
+        brokerChannel.send(broadcast("/topic/chat/a", "{\"content\":\"Hello\"}"));
+        
+        String aliceFrame = received(alice);
+        String bobFrame = received(bob);
+        assertTrue(aliceFrame.startsWith("MESSAGE\nsubscription:sub-0\n"));
+        assertTrue(bobFrame.startsWith("MESSAGE\nsubscription:sub-7\n"));
+        assertTrue(aliceFrame.contains("destination:/topic/chat/a\n"));
+        assertTrue(aliceFrame.contains("content-type:application/json\n"));
+        assertTrue(aliceFrame.endsWith("\n\n{\"content\":\"Hello\"}\0"));
+        verify(carol, after(200).never()).sendMessage(any());
+        assertEquals(2, broker.getSubscriberCount("/topic/chat/a"));
+    }
+    
+    @Test
+    void shouldStopDeliveringAfterUnsubscribeAndDisconnect() throws Exception {
+        broker.start();
+        WebSocketSession alice = connect("alice");
+        connect("bob");
+        
+        clientInboundChannel.send(subscribe("alice", "sub-0", "/topic/chat/a"));
+        clientInboundChannel.send(subscribe("bob", "sub-0", "/topic/chat/a"));
+        clientInboundChannel.send(subscribe("bob", "sub-1", "/topic/chat/b"));
+        
+        clientInboundChannel.send(simpMessage(SimpMessageType.UNSUBSCRIBE, "alice", "sub-0", null));
+        clientInboundChannel.send(simpMessage(SimpMessageType.DISCONNECT, "bob", null, null));
+        brokerChannel.send(broadcast("/topic/chat/a", "ignored"));
+        
+        verify(alice, after(200).never()).sendMessage(any());
+        assertEquals(0, broker.getSubscriberCount("/topic/chat/a"));
+        assertEquals(0, broker.getSubscriberCount("/topic/chat/b"));
+        assertEquals(0.0, meterRegistry.get("chat.broker.subscriptions").gauge().value());
+    }
+    
+    @Test
+    void shouldIgnoreNonTopicDestinations() throws Exception {
+        broker.start();
+        WebSocketSession alice = connect("alice");
+        
+        clientInboundChannel.send(subscribe("alice", "sub-0", "/queue/errors"));
+        brokerChannel.send(broadcast("/queue/errors", "ignored"));
+        
+        verify(alice, after(200).never()).sendMessage(any());
+        assertEquals(0, broker.getSubscriberCount("/queue/errors"));
+    }
+    
+    @Test
+    void shouldShareEncodedFrameAcrossNativeSessions() throws Exception {
+        broker.start();
+        List<StandardWebSocketSession> sessions = IntStream.range(0, 3)
+            .mapToObj(i -> connectNative("native-" + i))
+            .toList();
+        sessions.forEach(session -> clientInboundChannel.send(subscribe(session.getId(), "sub-" + session.getId(), "/topic/chat/a")));
+        
+        int subscribers = broker.broadcast("/topic/chat/a", "{\"content\":\"Salut\"}".getBytes(StandardCharsets.UTF_8),
+            MimeTypeUtils.APPLICATION_JSON);
+        
+        assertEquals(3, subscribers);
+        double frameBytes = meterRegistry.counter("chat.broker.bytes.encoded").count();
+        long prefixBytes = 0;
+        for (StandardWebSocketSession session : sessions) {
+            ArgumentCaptor<BinaryMessage> captor = ArgumentCaptor.forClass(BinaryMessage.class);
+            verify(session, timeout(2000).times(2)).sendMessage(captor.capture());
+            BinaryMessage prefix = captor.getAllValues().get(0);
+            BinaryMessage shared = captor.getAllValues().get(1);
+            assertFalse(prefix.isLast());
+            assertTrue(shared.isLast());
+            assertTrue(shared.getPayload().isReadOnly());
+            assertEquals("MESSAGE\nsubscription:sub-" + session.getId() + "\n",
+                StandardCharsets.UTF_8.decode(prefix.getPayload()).toString());
+            assertTrue(StandardCharsets.UTF_8.decode(shared.getPayload()).toString().endsWith("{\"content\":\"Salut\"}\0"));
+            prefixBytes += ("MESSAGE\nsubscription:sub-" + session.getId() + "\n").length();
+        }
+        
+        double expectedBytes = 3 * frameBytes + prefixBytes;
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() ->
+            assertEquals(expectedBytes, meterRegistry.counter("chat.broker.bytes.written").count()));
+        assertEquals(1.0, meterRegistry.counter("chat.broker.broadcasts").count());
+    }
+    
+    @Test
+    void shouldEncodeOnceInEachNegotiatedFormat() throws Exception {
+        broker.start();
+        StandardWebSocketSession binary = connectNative("binary");
+        StandardWebSocketSession json = connectNative("json");
+        WebSocketSession sockJs = connect("sockjs");
+        
+        clientInboundChannel.send(withContentType(subscribe("binary", "sub-0", "/topic/chat/a"), WireFormat.BINARY_MESSAGE_TYPE));
+        clientInboundChannel.send(subscribe("json", "sub-0", "/topic/chat/a"));
+        clientInboundChannel.send(withContentType(subscribe("sockjs", "sub-0", "/topic/chat/a"), WireFormat.BINARY_MESSAGE_TYPE));
+        
+        CountingPayload payload = new CountingPayload();
+        assertEquals(3, broker.broadcast("/topic/chat/a", payload));
+        
+        assertTrue(sharedFrame(binary).contains("content-type:application/vnd.chatpoc.message.v1\n"));
+        assertTrue(sharedFrame(binary).endsWith("\n\nBIN\0"));
+        assertTrue(sharedFrame(json).endsWith("\n\n{}\0"));
+        assertTrue(received(sockJs).endsWith("\n\n{}\0"));
+        assertEquals(1, payload.binaryEncodings);
+        assertEquals(1, payload.defaultEncodings);
+    }
+    
+    @Test
+    void shouldNegotiateEpochMillisJsonPerSubscription() throws Exception {
+        broker.start();
+        StandardWebSocketSession epochMillis = connectNative("epoch");
+        StandardWebSocketSession json = connectNative("json");
+        
+        clientInboundChannel.send(withContentType(subscribe("epoch", "sub-0", "/topic/chat/a"),
+            MimeType.valueOf("application/json;timestamps=epoch-millis")));
+        clientInboundChannel.send(subscribe("json", "sub-0", "/topic/chat/a"));
+        
+        CountingPayload payload = new CountingPayload();
+        assertEquals(2, broker.broadcast("/topic/chat/a", payload));
+        
+        assertTrue(sharedFrame(epochMillis).contains("content-type:application/json;timestamps=epoch-millis\n"));
+        assertTrue(sharedFrame(epochMillis).endsWith("\n\n{\"timestamp\":0}\0"));
+        assertTrue(sharedFrame(json).endsWith("\n\n{}\0"));
+        assertEquals(1, payload.epochMillisEncodings);
+        assertEquals(1, payload.defaultEncodings);
+    }
+    
+    @Test
+    void shouldFallBackToDefaultFormatWhenPayloadHasNoBinaryEncoding() throws Exception {
+        broker.start();
+        StandardWebSocketSession binary = connectNative("binary");
+        
+        clientInboundChannel.send(withContentType(simpMessage(SimpMessageType.CONNECT, "binary", null, null), WireFormat.BINARY_MESSAGE_TYPE));
+        clientInboundChannel.send(subscribe("binary", "sub-0", "/topic/chat/a"));
+        broker.broadcast("/topic/chat/a", "{\"content\":\"Salut\"}".getBytes(StandardCharsets.UTF_8), MimeTypeUtils.APPLICATION_JSON);
+        
+        String frame = sharedFrame(binary);
+        assertTrue(frame.contains("content-type:application/json\n"));
+        assertTrue(frame.endsWith("{\"content\":\"Salut\"}\0"));
+    }
+    
+    @Test
+    void shouldEnableBatchingRequestedOnConnect() {
+        broker.start();
+        connect("batching");
+        connect("greedy");
+        connect("plain");
+        
+        clientInboundChannel.send(withBatchWindow(simpMessage(SimpMessageType.CONNECT, "batching", null, null), "5"));
+        clientInboundChannel.send(withBatchWindow(simpMessage(SimpMessageType.CONNECT, "greedy", null, null), "1000"));
+        clientInboundChannel.send(simpMessage(SimpMessageType.CONNECT, "plain", null, null));
+        
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), dispatcher.session("batching").getBatchWindowNanos());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), dispatcher.session("greedy").getBatchWindowNanos());
+        assertEquals(0, dispatcher.session("plain").getBatchWindowNanos());
+    }
+    
+    @Test
+    void shouldReplayMissedPayloadsBeforeLiveOnesWithoutDuplicates() throws Exception {
+        broker.setReplay((destination, sinceSequence) -> {
+            // Broadcast while the history is being read: 3 is also replayed, 4 is not
+            broker.broadcast(destination, new SequencedPayload("live-3", 3));
+            broker.broadcast(destination, new SequencedPayload("live-4", 4));
+            return List.of(new SequencedPayload("replayed-2", 2), new SequencedPayload("replayed-3", 3));
+        });
+        broker.start();
+        WebSocketSession alice = connect("alice");
+        
+        clientInboundChannel.send(withSinceSequence(subscribe("alice", "sub-0", "/topic/chat/a"), "1"));
+        
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(alice, timeout(2000).times(3)).sendMessage(captor.capture());
+        List<String> bodies = captor.getAllValues().stream()
+            .map(TextMessage::getPayload)
+            .map(frame -> frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1))
+            .toList();
+        assertEquals(List.of("replayed-2", "replayed-3", "live-4"), bodies);
+        assertEquals(2.0, meterRegistry.counter("chat.broker.replayed").count());
+        verify(alice, after(200).times(3)).sendMessage(any());
+    }
+    
+    @Test
+    void shouldDropReplayedSequencesBroadcastAfterTheReplay() throws Exception {
+        // 3 was committed before the replay read it, its broadcast only comes once the replay is over
+        broker.setReplay((destination, sinceSequence) ->
+            List.of(new SequencedPayload("replayed-2", 2), new SequencedPayload("replayed-3", 3)));
+        broker.start();
+        WebSocketSession alice = connect("alice");
+        
+        clientInboundChannel.send(withSinceSequence(subscribe("alice", "sub-0", "/topic/chat/a"), "1"));
+        broker.broadcast("/topic/chat/a", new SequencedPayload("live-3", 3));
+        broker.broadcast("/topic/chat/a", new SequencedPayload("live-4", 4));
+        broker.broadcast("/topic/chat/a", TopicPayload.of("unsequenced".getBytes(StandardCharsets.UTF_8),
+            MimeTypeUtils.APPLICATION_JSON));
+        
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(alice, timeout(2000).times(4)).sendMessage(captor.capture());
+        List<String> bodies = captor.getAllValues().stream()
+            .map(TextMessage::getPayload)
+            .map(frame -> frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1))
+            .toList();
+        assertEquals(List.of("replayed-2", "replayed-3", "live-4", "unsequenced"), bodies);
+        verify(alice, after(200).times(4)).sendMessage(any());
+    }
+    
+    @Test
+    void shouldNotReplayWithoutSinceSequenceHeader() throws Exception {
+        TopicReplay replay = mock(TopicReplay.class);
+        broker.setReplay(replay);
+        broker.start();
+        connect("alice");
+        
+        clientInboundChannel.send(subscribe("alice", "sub-0", "/topic/chat/a"));
+        clientInboundChannel.send(withSinceSequence(subscribe("alice", "sub-1", "/topic/chat/b"), "not-a-number"));
+        
+        verifyNoInteractions(replay);
+        assertEquals(1, broker.getSubscriberCount("/topic/chat/b"));
+    }
+    
+    @Test
+    void shouldEscapeHeaderValues() {
+        assertEquals("a\\cb\\nc\\\\d", StompFrames.escape("a:b\nc\\d"));
+        assertSame("plain", StompFrames.escape("plain"));
+    }
+    
+    private WebSocketSession connect(String sessionId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        dispatcher.register(session);
+        return session;
+    }
+    
+    private StandardWebSocketSession connectNative(String sessionId) {
+        StandardWebSocketSession session = mock(StandardWebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        dispatcher.register(session);
+        return session;
+    }
+    
+    private String received(WebSocketSession session) throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(2000)).sendMessage(captor.capture());
+        List<TextMessage> messages = captor.getAllValues();
+        return messages.get(0).getPayload();
+    }
+    
+    private String sharedFrame(StandardWebSocketSession session) throws Exception {
+        ArgumentCaptor<BinaryMessage> captor = ArgumentCaptor.forClass(BinaryMessage.class);
+        verify(session, timeout(2000).times(2)).sendMessage(captor.capture());
+        return StandardCharsets.UTF_8.decode(captor.getAllValues().get(1).getPayload().duplicate()).toString();
+    }
+    
+    private static Message<byte[]> withBatchWindow(Message<byte[]> message, String windowMillis) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(TopicBroker.BATCH_WINDOW_HEADER, windowMillis);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+    
+    private static Message<byte[]> withSinceSequence(Message<byte[]> message, String sequence) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(TopicBroker.SINCE_SEQUENCE_HEADER, sequence);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+    
+    private static Message<byte[]> withContentType(Message<byte[]> message, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(contentType);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+    
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        return simpMessage(SimpMessageType.SUBSCRIBE, sessionId, subscriptionId, destination);
+    }
+    
+    private static Message<byte[]> broadcast(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+    
+    private static Message<byte[]> simpMessage(SimpMessageType type, String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+    
+    private static final class CountingPayload implements TopicPayload {
+        
+        private int defaultEncodings;
+        private int binaryEncodings;
+        private int epochMillisEncodings;
+        
+        @Override
+        public byte[] encode(WireFormat format) {
+            if (format == WireFormat.BINARY) {
+                binaryEncodings++;
+                return "BIN".getBytes(StandardCharsets.UTF_8);
+            }
+            if (format == WireFormat.JSON_EPOCH_MILLIS) {
+                epochMillisEncodings++;
+                return "{\"timestamp\":0}".getBytes(StandardCharsets.UTF_8);
+            }
+            defaultEncodings++;
+            return "{}".getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public MimeType contentType(WireFormat format) {
+            return switch (format) {
+                case BINARY -> WireFormat.BINARY_MESSAGE_TYPE;
+                case JSON_EPOCH_MILLIS -> WireFormat.EPOCH_MILLIS_JSON_TYPE;
+                case DEFAULT -> MimeTypeUtils.APPLICATION_JSON;
+            };
+        }
+    }
+    
+    private record SequencedPayload(String body, long sequence) implements TopicPayload {
+        
+        @Override
+        public byte[] encode(WireFormat format) {
+            return format == WireFormat.DEFAULT ? body.getBytes(StandardCharsets.UTF_8) : null;
+        }
+        
+        @Override
+        public MimeType contentType(WireFormat format) {
+            return MimeTypeUtils.TEXT_PLAIN;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.chatpoc.infrastructure.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClusterRelayTest {
+    
+    private static final String CHAT_A = "/topic/chat/a";
+    private static final String CHAT_B = "/topic/chat/b";
+    
+    private final LoopbackClusterTransport.Network network = new LoopbackClusterTransport.Network();
+    private final LoopbackClusterTransport transportA = new LoopbackClusterTransport(network);
+    private final LoopbackClusterTransport transportB = new LoopbackClusterTransport(network);
+    private final LoopbackClusterTransport transportC = new LoopbackClusterTransport(network);
+    private final ClusterTestNode nodeA = new ClusterTestNode("node-a", transportA);
+    private final ClusterTestNode nodeB = new ClusterTestNode("node-b", transportB);
+    private final ClusterTestNode nodeC = new ClusterTestNode("node-c", transportC);
+    
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+        nodeC.close();
+    }
+    
+    @Test
+    void shouldDeliverBroadcastToSubscribersOnOtherNodes() throws Exception {
+        WebSocketSession alice = nodeA.subscribe("alice", CHAT_A);
+        
+        nodeB.publish(CHAT_A, "{\"content\":\"Hello\"}");
+        
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(alice, timeout(2000)).sendMessage(captor.capture());
+        assertTrue(captor.getValue().getPayload().endsWith("{\"content\":\"Hello\"}\0"));
+        assertEquals(1.0, nodeB.counter("chat.cluster.forwarded"));
+        assertEquals(1.0, nodeA.counter("chat.cluster.received"));
+    }
+    
+    @Test
+    void shouldForwardOnlyToPeersWithSubscribers() throws Exception {
+        nodeA.subscribe("alice", CHAT_A);
+        nodeC.subscribe("carol", CHAT_B);
+        
+        nodeB.publish(CHAT_A, "{}");
+        
+        assertEquals(Set.of("node-a"), nodeB.relay.getInterestedPeers(CHAT_A));
+        assertEquals(1, transportB.sentPackets(ClusterPacket.Type.PUBLISH).size());
+        assertEquals(0.0, nodeC.counter("chat.cluster.received"));
+    }
+    
+    @Test
+    void shouldStopForwardingWhenLastSubscriberLeaves() throws Exception {
+        nodeA.subscribe("alice", CHAT_A);
+        nodeA.subscribe("bob", CHAT_A);
+        
+        nodeA.disconnect("alice");
+        assertEquals(Set.of("node-a"), nodeB.relay.getInterestedPeers(CHAT_A));
+        nodeA.disconnect("bob");
+        nodeB.publish(CHAT_A, "{}");
+        
+        assertTrue(nodeB.relay.getInterestedPeers(CHAT_A).isEmpty());
+        assertTrue(transportB.sentPackets(ClusterPacket.Type.PUBLISH).isEmpty());
+        assertEquals(1.0, nodeB.counter("chat.cluster.skipped"));
+    }
+    
+    @Test
+    void shouldNotRelayMessagesReceivedFromPeers() throws Exception {
+        WebSocketSession alice = nodeA.subscribe("alice", CHAT_A);
+        nodeC.subscribe("carol", CHAT_A);
+        
+        nodeB.publish(CHAT_A, "{}");
+        
+        verify(alice, timeout(2000)).sendMessage(any());
+        assertTrue(transportA.sentPackets(ClusterPacket.Type.PUBLISH).isEmpty());
+        assertTrue(transportC.sentPackets(ClusterPacket.Type.PUBLISH).isEmpty());
+        assertEquals(2, transportB.sentPackets(ClusterPacket.Type.PUBLISH).size());
+    }
+    
+    @Test
+    void shouldShareExistingSubscriptionsWithJoiningNode() throws Exception {
+        nodeA.subscribe("alice", CHAT_A);
+        LoopbackClusterTransport transportD = new LoopbackClusterTransport(network);
+        
+        try (ClusterTestNode nodeD = new ClusterTestNode("node-d", transportD)) {
+            assertEquals(Set.of("node-a"), nodeD.relay.getInterestedPeers(CHAT_A));
+            assertEquals(Set.of("node-a", "node-b", "node-c"), nodeD.relay.getPeers());
+        }
+        
+        nodeA.close();
+        assertTrue(nodeB.relay.getInterestedPeers(CHAT_A).isEmpty());
+    }
+}
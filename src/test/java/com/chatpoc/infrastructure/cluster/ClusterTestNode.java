@@ -0,0 +1,75 @@
+package com.chatpoc.infrastructure.cluster;
+
+import com.chatpoc.infrastructure.broker.OutboundDispatcher;
+import com.chatpoc.infrastructure.broker.SlowConsumerPolicy;
+import com.chatpoc.infrastructure.broker.TopicBroker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un nœud applicatif réduit à sa diffusion WebSocket : broker {@code /topic}, dispatcher et relais de cluster.
+ */
+class ClusterTestNode implements AutoCloseable {
+    
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+    final OutboundDispatcher dispatcher =
+        new OutboundDispatcher(meterRegistry, 1, 64, Duration.ofSeconds(1), SlowConsumerPolicy.DROP,
+            Duration.ofMillis(20), 64);
+    final TopicBroker broker =
+        new TopicBroker(clientInboundChannel, new ExecutorSubscribableChannel(), dispatcher, meterRegistry);
+    final ClusterRelay relay;
+    
+    ClusterTestNode(String nodeId, ClusterTransport transport) {
+        this.relay = new ClusterRelay(nodeId, broker, transport, meterRegistry);
+        broker.start();
+        relay.start();
+    }
+    
+    WebSocketSession subscribe(String sessionId, String destination) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        dispatcher.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+        clientInboundChannel.send(simpMessage(SimpMessageType.SUBSCRIBE, sessionId, destination));
+        return session;
+    }
+    
+    void disconnect(String sessionId) {
+        clientInboundChannel.send(simpMessage(SimpMessageType.DISCONNECT, sessionId, null));
+    }
+    
+    int publish(String destination, String json) {
+        return broker.broadcast(destination, json.getBytes(StandardCharsets.UTF_8), MimeTypeUtils.APPLICATION_JSON);
+    }
+    
+    double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+    
+    @Override
+    public void close() {
+        relay.stop();
+        broker.stop();
+        dispatcher.shutdown();
+    }
+    
+    private static org.springframework.messaging.Message<byte[]> simpMessage(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,72 @@
+package com.chatpoc.infrastructure.cluster;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Transport en mémoire : les nœuds d'un même {@link Network} se voient tous et les paquets sont livrés
+ * de façon synchrone, ce qui rend les tests multi-nœuds déterministes.
+ */
+class LoopbackClusterTransport implements ClusterTransport {
+    
+    private final Network network;
+    private final List<ClusterPacket> sent = new CopyOnWriteArrayList<>();
+    private String nodeId;
+    
+    LoopbackClusterTransport(Network network) {
+        this.network = network;
+    }
+    
+    @Override
+    public void start(String nodeId, ClusterListener listener) {
+        this.nodeId = nodeId;
+        network.join(nodeId, listener);
+    }
+    
+    @Override
+    public boolean send(String peerId, ClusterPacket packet) {
+        sent.add(packet);
+        return network.deliver(nodeId, peerId, packet);
+    }
+    
+    @Override
+    public void stop() {
+        network.leave(nodeId);
+    }
+    
+    List<ClusterPacket> sentPackets(ClusterPacket.Type type) {
+        return sent.stream().filter(packet -> packet.type() == type).toList();
+    }
+    
+    static final class Network {
+        
+        private final Map<String, ClusterListener> nodes = new ConcurrentHashMap<>();
+        
+        synchronized void join(String nodeId, ClusterListener listener) {
+            nodes.put(nodeId, listener);
+            nodes.forEach((peerId, peer) -> {
+                if (!peerId.equals(nodeId)) {
+                    peer.peerConnected(nodeId);
+                    listener.peerConnected(peerId);
+                }
+            });
+        }
+        
+        synchronized void leave(String nodeId) {
+            if (nodes.remove(nodeId) != null) {
+                nodes.values().forEach(peer -> peer.peerDisconnected(nodeId));
+            }
+        }
+        
+        boolean deliver(String from, String to, ClusterPacket packet) {
+            ClusterListener target = nodes.get(to);
+            if (target == null) {
+                return false;
+            }
+            target.packetReceived(from, packet);
+            return true;
+        }
+    }
+}
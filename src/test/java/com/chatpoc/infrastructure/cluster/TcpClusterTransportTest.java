@@ -0,0 +1,91 @@
+package com.chatpoc.infrastructure.cluster;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TcpClusterTransportTest {
+    
+    private static final String CHAT = "/topic/chat/a";
+    
+    private final List<ClusterTestNode> nodes = new ArrayList<>();
+    
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ClusterTestNode::close);
+    }
+    
+    @Test
+    void shouldFanOutAcrossNodesOverLocalhost() throws Exception {
+        TcpClusterTransport seedTransport = transport(List.of());
+        ClusterTestNode seed = node("seed", seedTransport);
+        InetSocketAddress seedAddress = new InetSocketAddress("localhost", seedTransport.getLocalPort());
+        ClusterTestNode second = node("second", transport(List.of(seedAddress)));
+        ClusterTestNode third = node("third", transport(List.of(seedAddress)));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> seed.relay.getPeers().size() == 2);
+        
+        WebSocketSession alice = second.subscribe("alice", CHAT);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> seed.relay.getInterestedPeers(CHAT).equals(Set.of("second")));
+        
+        seed.publish(CHAT, "{\"content\":\"Bonjour\"}");
+        
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(alice, timeout(5000)).sendMessage(captor.capture());
+        assertTrue(captor.getValue().getPayload().endsWith("{\"content\":\"Bonjour\"}\0"));
+        assertEquals(1.0, seed.counter("chat.cluster.forwarded"));
+        assertEquals(0.0, third.counter("chat.cluster.received"));
+    }
+    
+    @Test
+    void shouldForgetInterestsOfStoppedNode() throws Exception {
+        TcpClusterTransport seedTransport = transport(List.of());
+        ClusterTestNode seed = node("seed", seedTransport);
+        ClusterTestNode other = node("other", transport(List.of(new InetSocketAddress("localhost", seedTransport.getLocalPort()))));
+        other.subscribe("alice", CHAT);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> seed.relay.getInterestedPeers(CHAT).equals(Set.of("other")));
+        
+        other.close();
+        
+        await().atMost(5, TimeUnit.SECONDS).until(() -> seed.relay.getPeers().isEmpty());
+        assertTrue(seed.relay.getInterestedPeers(CHAT).isEmpty());
+    }
+    
+    @Test
+    void shouldRoundTripPacketEncoding() throws Exception {
+        ClusterPacket packet = ClusterPacket.publish(CHAT, "application/json", "{\"a\":1}".getBytes());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TcpClusterTransport.write(new DataOutputStream(bytes), packet);
+        
+        ClusterPacket decoded = TcpClusterTransport.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        
+        assertEquals(ClusterPacket.Type.PUBLISH, decoded.type());
+        assertEquals(CHAT, decoded.destination());
+        assertEquals("application/json", decoded.contentType());
+        assertArrayEquals(packet.payload(), decoded.payload());
+    }
+    
+    private TcpClusterTransport transport(List<InetSocketAddress> peers) {
+        return new TcpClusterTransport(0, peers, Duration.ofMillis(200), 100, new SimpleMeterRegistry());
+    }
+    
+    private ClusterTestNode node(String nodeId, ClusterTransport transport) {
+        ClusterTestNode node = new ClusterTestNode(nodeId, transport);
+        nodes.add(node);
+        return node;
+    }
+}
@@ -0,0 +1,124 @@
+package com.chatpoc.infrastructure.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailNotificationPipelineTest {
+    
+    @Mock
+    private JavaMailSender mailSender;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmailNotificationPipeline pipeline;
+    
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+    
+    @Test
+    void shouldSendFirstNotificationImmediatelyAndDigestFollowingOnes() {
+        pipeline = pipeline(100, Duration.ofMillis(300), 1);
+        
+        pipeline.enqueue(notification("john@example.com", "Message 1"));
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(1.0, count("chat.email.sent")));
+        
+        pipeline.enqueue(notification("john@example.com", "Message 2"));
+        pipeline.enqueue(notification("john@example.com", "Message 3"));
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(2.0, count("chat.email.sent")));
+        
+        ArgumentCaptor<SimpleMailMessage[]> captor = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+        verify(mailSender, times(2)).send(captor.capture());
+        SimpleMailMessage digest = captor.getAllValues().get(1)[0];
+        assertArrayEquals(new String[]{"john@example.com"}, digest.getTo());
+        assertTrue(digest.getText().contains("Message 2"));
+        assertTrue(digest.getText().contains("Message 3"));
+        assertEquals(1.0, count("chat.email.coalesced"));
+        assertEquals(0, pipeline.getPendingNotifications());
+    }
+    
+    @Test
+    void shouldDropNotificationsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+        pipeline = pipeline(2, Duration.ofSeconds(30), 1);
+        
+        pipeline.enqueue(notification("blocked@example.com", "Stuck in SMTP"));
+        assertTrue(sending.await(2, TimeUnit.SECONDS));
+        
+        assertTrue(pipeline.enqueue(notification("first@example.com", "Queued")));
+        assertTrue(pipeline.enqueue(notification("second@example.com", "Queued")));
+        assertFalse(pipeline.enqueue(notification("third@example.com", "Dropped")));
+        
+        assertEquals(2, pipeline.getPendingNotifications());
+        assertEquals(1.0, count("chat.email.dropped"));
+        assertEquals(2.0, meterRegistry.get("chat.email.queue.depth").gauge().value());
+        release.countDown();
+    }
+    
+    @Test
+    void shouldRetryFailedSendsBeforeGivingUp() {
+        doThrow(new MailSendException("SMTP indisponible"))
+            .doNothing()
+            .when(mailSender).send(any(SimpleMailMessage[].class));
+        pipeline = pipeline(100, Duration.ofSeconds(30), 3);
+        
+        pipeline.enqueue(notification("john@example.com", "Message 1"));
+        
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(1.0, count("chat.email.sent")));
+        assertEquals(1.0, count("chat.email.retries"));
+        assertEquals(0.0, count("chat.email.failed"));
+    }
+    
+    @Test
+    void shouldCountFailureAfterLastAttempt() {
+        doThrow(new MailSendException("SMTP indisponible")).when(mailSender).send(any(SimpleMailMessage[].class));
+        pipeline = pipeline(100, Duration.ofSeconds(30), 2);
+        
+        pipeline.enqueue(notification("john@example.com", "Message 1"));
+        
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(1.0, count("chat.email.failed")));
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        assertEquals(0.0, count("chat.email.sent"));
+    }
+    
+    private EmailNotificationPipeline pipeline(int capacity, Duration digestInterval, int maxAttempts) {
+        return new EmailNotificationPipeline(mailSender, meterRegistry, capacity, 1, digestInterval, 10, maxAttempts, Duration.ofMillis(10));
+    }
+    
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+    
+    private EmailNotification notification(String email, String content) {
+        return new EmailNotification(UUID.randomUUID(), UUID.randomUUID(), "John Doe", email, content, Instant.now());
+    }
+}
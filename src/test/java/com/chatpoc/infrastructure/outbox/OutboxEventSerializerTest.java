@@ -0,0 +1,95 @@
+package com.chatpoc.infrastructure.outbox;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.MessageDraft;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.events.ChatCreatedEvent;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxEventSerializerTest {
+    
+    private final OutboxEventSerializer serializer = new OutboxEventSerializer(new ObjectMapper().findAndRegisterModules());
+    private final Participant john = Participant.of("John Doe", "john@example.com");
+    
+    @Test
+    void shouldRoundTripMessageSentEvent() {
+        UUID chatId = UUID.randomUUID();
+        Message message = Message.create("Hello", john);
+        MessageSentEvent event = new MessageSentEvent(chatId, message);
+        
+        MessageSentEvent restored = (MessageSentEvent) serializer.deserialize(stored(serializer.serialize(event)));
+        
+        assertEquals(event.getEventId(), restored.getEventId());
+        assertEquals(chatId, restored.getChatId());
+        assertEquals(event.getOccurredAt(), restored.getOccurredAt());
+        assertEquals(message, restored.getMessage());
+        assertEquals("Hello", restored.getMessage().getContent());
+        assertEquals(message.getTimestamp(), restored.getMessage().getTimestamp());
+        assertEquals(john, restored.getMessage().getSender());
+    }
+    
+    @Test
+    void shouldRoundTripMessagesSentEventPreservingOrder() {
+        UUID chatId = UUID.randomUUID();
+        List<Message> messages = List.of(Message.create("First", john), Message.create("Second", john));
+        MessagesSentEvent event = new MessagesSentEvent(chatId, messages);
+        
+        MessagesSentEvent restored = (MessagesSentEvent) serializer.deserialize(stored(serializer.serialize(event)));
+        
+        assertEquals(event.getEventId(), restored.getEventId());
+        assertEquals(messages, restored.getMessages());
+        assertEquals("Second", restored.getMessages().get(1).getContent());
+    }
+    
+    @Test
+    void shouldRoundTripChatCreatedEvent() {
+        ChatCreatedEvent event = new ChatCreatedEvent(UUID.randomUUID(), "Team Chat", john);
+        
+        ChatCreatedEvent restored = (ChatCreatedEvent) serializer.deserialize(stored(serializer.serialize(event)));
+        
+        assertEquals(event.getEventId(), restored.getEventId());
+        assertEquals(event.getChatId(), restored.getChatId());
+        assertEquals("Team Chat", restored.getChatName());
+        assertEquals(john, restored.getCreator());
+    }
+    
+    @Test
+    void shouldReadMessageTimestampsWrittenAsLocalDateTime() {
+        UUID chatId = UUID.randomUUID();
+        String legacy = "{\"message\":{\"id\":\"" + UUID.randomUUID() + "\",\"content\":\"Hello\"," +
+            "\"senderName\":\"John Doe\",\"senderEmail\":\"john@example.com\"," +
+            "\"timestamp\":\"2024-01-01T10:00:00.123\",\"sequence\":1}}";
+        
+        MessageSentEvent restored = (MessageSentEvent) serializer.deserialize(new OutboxRecord(1L, UUID.randomUUID(),
+            chatId, OutboxEventSerializer.MESSAGE_SENT, legacy, Instant.now(), 0));
+        
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_000_000).atZone(ZoneId.systemDefault()).toInstant(),
+            restored.getMessage().getTimestamp());
+    }
+    
+    @Test
+    void shouldRejectUnsupportedEvents() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> serializer.serialize(new MessageDraft("Hello", john))
+        );
+        
+        assertTrue(exception.getMessage().contains("Unsupported event type"));
+    }
+    
+    private OutboxRecord stored(OutboxEventSerializer.SerializedEvent serialized) {
+        return new OutboxRecord(1L, serialized.eventId(), serialized.chatId(), serialized.type(),
+            serialized.payload(), serialized.occurredAt(), 0);
+    }
+}
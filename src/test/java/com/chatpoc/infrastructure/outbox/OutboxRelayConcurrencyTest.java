@@ -0,0 +1,99 @@
+package com.chatpoc.infrastructure.outbox;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRelayConcurrencyTest {
+    
+    private static final int CHATS = 8;
+    private static final int EVENTS_PER_CHAT = 150;
+    
+    private final OutboxEventSerializer serializer = new OutboxEventSerializer(new ObjectMapper().findAndRegisterModules());
+    private final Participant john = Participant.of("John Doe", "john@example.com");
+    
+    @Test
+    void shouldDispatchEachEventOnceAndInChatOrderWithTwoRelaysOnOneDatabase() throws Exception {
+        String url = "jdbc:h2:mem:outbox-relays-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+        Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration/common").load().migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        
+        List<UUID> chatIds = new ArrayList<>();
+        OutboxRepository writer = repository(dataSource);
+        for (int chat = 0; chat < CHATS; chat++) {
+            chatIds.add(UUID.randomUUID());
+        }
+        for (int n = 0; n < EVENTS_PER_CHAT; n++) {
+            for (UUID chatId : chatIds) {
+                OutboxEventSerializer.SerializedEvent event =
+                    serializer.serialize(new MessageSentEvent(chatId, Message.create(String.valueOf(n), john)));
+                writer.append(event.eventId(), chatId, event.type(), event.payload(), event.occurredAt());
+            }
+        }
+        
+        // Dispatch order of every chat, both nodes together
+        Map<UUID, List<Integer>> dispatched = new ConcurrentHashMap<>();
+        ApplicationEventPublisher recorder = event -> {
+            MessageSentEvent sent = (MessageSentEvent) event;
+            dispatched.computeIfAbsent(sent.getChatId(), chatId -> Collections.synchronizedList(new ArrayList<>()))
+                .add(Integer.parseInt(sent.getMessage().getContent()));
+        };
+        OutboxRelay first = relay(repository(dataSource), recorder);
+        OutboxRelay second = relay(repository(dataSource), recorder);
+        
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> relayed = List.of(
+                nodes.submit(() -> drain(first, writer, start)),
+                nodes.submit(() -> drain(second, writer, start)));
+            start.countDown();
+            
+            assertEquals(CHATS * EVENTS_PER_CHAT, relayed.get(0).get(30, TimeUnit.SECONDS) + relayed.get(1).get(30, TimeUnit.SECONDS));
+            assertTrue(relayed.get(0).get() > 0 && relayed.get(1).get() > 0, "both relays should take part");
+        } finally {
+            nodes.shutdownNow();
+        }
+        
+        List<Integer> expected = new ArrayList<>();
+        for (int n = 0; n < EVENTS_PER_CHAT; n++) {
+            expected.add(n);
+        }
+        for (UUID chatId : chatIds) {
+            assertEquals(expected, dispatched.get(chatId));
+        }
+    }
+    
+    private static int drain(OutboxRelay relay, OutboxRepository repository, CountDownLatch start) throws InterruptedException {
+        start.await();
+        int relayed = 0;
+        while (repository.count() > 0) {
+            relayed += relay.relayPending();
+        }
+        return relayed;
+    }
+    
+    private OutboxRelay relay(OutboxRepository repository, ApplicationEventPublisher publisher) {
+        // Small batches so that the relays alternate on the same chats
+        return new OutboxRelay(repository, serializer, publisher, new SimpleMeterRegistry(),
+            20, Duration.ofMillis(100), 3, Duration.ofSeconds(30));
+    }
+    
+    private static OutboxRepository repository(DriverManagerDataSource dataSource) {
+        return new OutboxRepository(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+    }
+}
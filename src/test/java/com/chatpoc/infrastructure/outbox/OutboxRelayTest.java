@@ -0,0 +1,114 @@
+package com.chatpoc.infrastructure.outbox;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    
+    @Mock
+    private OutboxRepository outboxRepository;
+    
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxEventSerializer serializer = new OutboxEventSerializer(new ObjectMapper().findAndRegisterModules());
+    private final Participant john = Participant.of("John Doe", "john@example.com");
+    
+    @Test
+    void shouldDispatchEventsInOrderAndDeleteThem() {
+        UUID chatId = UUID.randomUUID();
+        OutboxRecord first = record(1L, chatId, "First", 0);
+        OutboxRecord second = record(2L, chatId, "Second", 0);
+        when(outboxRepository.claimOldest(anyString(), eq(200), any(), any())).thenReturn(List.of(first, second));
+        
+        int relayed = relay(10).relayPending();
+        
+        assertEquals(2, relayed);
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals("First", ((MessageSentEvent) captor.getAllValues().get(0)).getMessage().getContent());
+        assertEquals("Second", ((MessageSentEvent) captor.getAllValues().get(1)).getMessage().getContent());
+        verify(outboxRepository).deleteAll(List.of(1L, 2L));
+        verify(outboxRepository, never()).releaseAll(anyString(), any());
+        assertEquals(2.0, meterRegistry.counter("chat.outbox.relayed").count());
+    }
+    
+    @Test
+    void shouldHoldBackLaterEventsOfFailingChatOnly() {
+        UUID failingChat = UUID.randomUUID();
+        UUID healthyChat = UUID.randomUUID();
+        when(outboxRepository.claimOldest(anyString(), eq(200), any(), any())).thenReturn(List.of(
+            record(1L, failingChat, "Boom", 0),
+            record(2L, healthyChat, "Fine", 0),
+            record(3L, failingChat, "Later", 0)
+        ));
+        doThrow(new IllegalStateException("Broker down"))
+            .when(applicationEventPublisher).publishEvent(argThat((Object event) -> isContent(event, "Boom")));
+        
+        int relayed = relay(10).relayPending();
+        
+        assertEquals(1, relayed);
+        verify(outboxRepository).incrementAttempts(1L);
+        verify(outboxRepository).deleteAll(List.of(2L));
+        verify(outboxRepository).releaseAll(anyString(), eq(List.of(1L, 3L)));
+        verify(applicationEventPublisher, never()).publishEvent(argThat((Object event) -> isContent(event, "Later")));
+        assertEquals(1.0, meterRegistry.counter("chat.outbox.failures").count());
+    }
+    
+    @Test
+    void shouldDropPoisonEventAfterMaxAttempts() {
+        UUID chatId = UUID.randomUUID();
+        when(outboxRepository.claimOldest(anyString(), eq(200), any(), any())).thenReturn(List.of(record(1L, chatId, "Poison", 2)));
+        doThrow(new IllegalStateException("Always fails")).when(applicationEventPublisher).publishEvent(any(Object.class));
+        
+        relay(3).relayPending();
+        
+        verify(outboxRepository, never()).incrementAttempts(anyLong());
+        verify(outboxRepository).deleteAll(List.of(1L));
+        assertEquals(1.0, meterRegistry.counter("chat.outbox.dead").count());
+    }
+    
+    @Test
+    void shouldRejectNonPositiveSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new OutboxRelay(outboxRepository, serializer,
+            applicationEventPublisher, meterRegistry, 0, Duration.ofMillis(100), 3, Duration.ofSeconds(30)));
+    }
+    
+    private OutboxRelay relay(int maxAttempts) {
+        return new OutboxRelay(outboxRepository, serializer, applicationEventPublisher, meterRegistry,
+            200, Duration.ofMillis(100), maxAttempts, Duration.ofSeconds(30));
+    }
+    
+    private OutboxRecord record(long id, UUID chatId, String content, int attempts) {
+        OutboxEventSerializer.SerializedEvent serialized =
+            serializer.serialize(new MessageSentEvent(chatId, Message.create(content, john)));
+        return new OutboxRecord(id, serialized.eventId(), chatId, serialized.type(), serialized.payload(),
+            serialized.occurredAt(), attempts);
+    }
+    
+    private static boolean isContent(Object event, String content) {
+        return event instanceof MessageSentEvent sent && sent.getMessage().getContent().equals(content);
+    }
+}
@@ -0,0 +1,92 @@
+package com.chatpoc.infrastructure.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(OutboxRepository.class)
+@ActiveProfiles("test")
+class OutboxRepositoryIntegrationTest {
+    
+    @Autowired
+    private OutboxRepository outboxRepository;
+    
+    @Test
+    void shouldReturnEventsInInsertionOrder() {
+        UUID chatId = UUID.randomUUID();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        outboxRepository.append(UUID.randomUUID(), chatId, "MessageSent", "{\"n\":1}", now);
+        outboxRepository.append(UUID.randomUUID(), chatId, "MessageSent", "{\"n\":2}", now.minusSeconds(1));
+        outboxRepository.append(UUID.randomUUID(), chatId, "MessageSent", "{\"n\":3}", now);
+        
+        List<OutboxRecord> records = claim("relay-1", 2);
+        
+        assertEquals(2, records.size());
+        assertEquals("{\"n\":1}", records.get(0).payload());
+        assertEquals("{\"n\":2}", records.get(1).payload());
+        assertEquals(chatId, records.get(0).chatId());
+        assertEquals(0, records.get(0).attempts());
+        assertEquals(now, outboxRepository.findOldestCreatedAt().orElseThrow());
+    }
+    
+    @Test
+    void shouldDeleteDispatchedEventsAndCountAttempts() {
+        UUID eventId = UUID.randomUUID();
+        outboxRepository.append(eventId, UUID.randomUUID(), "MessageSent", "{}", Instant.now());
+        outboxRepository.append(UUID.randomUUID(), UUID.randomUUID(), "MessageSent", "{}", Instant.now());
+        List<OutboxRecord> records = claim("relay-1", 10);
+        
+        outboxRepository.incrementAttempts(records.get(0).id());
+        outboxRepository.deleteAll(List.of(records.get(1).id()));
+        outboxRepository.releaseAll("relay-1", List.of(records.get(0).id()));
+        
+        List<OutboxRecord> remaining = claim("relay-1", 10);
+        assertEquals(1, remaining.size());
+        assertEquals(eventId, remaining.get(0).eventId());
+        assertEquals(1, remaining.get(0).attempts());
+        assertEquals(1, outboxRepository.count());
+    }
+    
+    @Test
+    void shouldSkipClaimedRowsAndLaterEventsOfTheirChat() {
+        UUID busyChat = UUID.randomUUID();
+        UUID otherChat = UUID.randomUUID();
+        outboxRepository.append(UUID.randomUUID(), busyChat, "MessageSent", "{\"n\":1}", Instant.now());
+        claim("relay-1", 1);
+        outboxRepository.append(UUID.randomUUID(), busyChat, "MessageSent", "{\"n\":2}", Instant.now());
+        outboxRepository.append(UUID.randomUUID(), otherChat, "MessageSent", "{\"n\":3}", Instant.now());
+        
+        List<OutboxRecord> claimed = claim("relay-2", 10);
+        
+        assertEquals(List.of("{\"n\":3}"), claimed.stream().map(OutboxRecord::payload).toList());
+        assertTrue(claim("relay-2", 10).isEmpty());
+    }
+    
+    @Test
+    void shouldClaimAgainRowsWhoseClaimExpired() {
+        outboxRepository.append(UUID.randomUUID(), UUID.randomUUID(), "MessageSent", "{}", Instant.now());
+        Instant now = Instant.now();
+        outboxRepository.claimOldest("relay-1", 10, now, now.plusSeconds(30));
+        
+        List<OutboxRecord> reclaimed = outboxRepository.claimOldest("relay-2", 10, now.plusSeconds(31), now.plusSeconds(61));
+        outboxRepository.releaseAll("relay-1", reclaimed.stream().map(OutboxRecord::id).toList());
+        
+        assertEquals(1, reclaimed.size());
+        assertTrue(outboxRepository.claimOldest("relay-3", 10, now.plusSeconds(32), now.plusSeconds(62)).isEmpty());
+    }
+    
+    private List<OutboxRecord> claim(String owner, int limit) {
+        Instant now = Instant.now();
+        return outboxRepository.claimOldest(owner, limit, now, now.plusSeconds(30));
+    }
+}
@@ -0,0 +1,210 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.repository.ChatRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingChatRepositoryTest {
+    
+    @Mock
+    private ChatRepository delegate;
+    
+    private final Participant creator = Participant.of("John Doe", "john@example.com");
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CachingChatRepository cachingChatRepository;
+    
+    @BeforeEach
+    void setUp() {
+        cachingChatRepository = new CachingChatRepository(
+            delegate, 2, 3, Duration.ofMinutes(10), meterRegistry, nanoTime::get);
+    }
+    
+    @Test
+    void shouldServeRecentMessagesFromMemoryAfterFirstLoad() {
+        Chat chat = givenPersistedChat(List.of(message("Message 1", 1), message("Message 2", 2)));
+        
+        List<Message> first = cachingChatRepository.findRecentMessages(chat.getId(), 2);
+        List<Message> second = cachingChatRepository.findRecentMessages(chat.getId(), 2);
+        
+        assertEquals(first, second);
+        assertEquals(1, cachingChatRepository.getMissCount());
+        assertEquals(1, cachingChatRepository.getHitCount());
+        verify(delegate, times(1)).findRecentMessages(chat.getId(), 3);
+        assertEquals(1.0, meterRegistry.get("chat.cache.hits").functionCounter().count());
+    }
+    
+    @Test
+    void shouldServeParticipantsAndExistenceFromMemory() {
+        Chat chat = givenPersistedChat(List.of());
+        
+        Chat loaded = cachingChatRepository.findByIdWithParticipants(chat.getId()).orElseThrow();
+        
+        assertTrue(loaded.hasParticipant(creator));
+        assertTrue(cachingChatRepository.existsById(chat.getId()));
+        assertTrue(cachingChatRepository.findByIdWithParticipants(chat.getId()).isPresent());
+        verify(delegate, times(1)).findByIdWithParticipants(chat.getId());
+        verify(delegate, never()).existsById(chat.getId());
+    }
+    
+    @Test
+    void shouldWriteThroughAppendedMessagesAndParticipants() {
+        Chat chat = givenPersistedChat(List.of(message("Message 1", 1)));
+        cachingChatRepository.findRecentMessages(chat.getId(), 3);
+        
+        Participant newUser = Participant.of("Jane Smith", "jane@example.com");
+        Message appended = Message.reconstruct(UUID.randomUUID(), "Message 2", newUser, Instant.parse("2024-01-01T10:00:02Z"));
+        cachingChatRepository.addParticipantIfAbsent(chat.getId(), newUser);
+        cachingChatRepository.appendMessage(chat.getId(), appended);
+        
+        List<Message> recent = cachingChatRepository.findRecentMessages(chat.getId(), 3);
+        
+        assertEquals(2, recent.size());
+        assertEquals(appended, recent.get(1));
+        assertTrue(cachingChatRepository.findByIdWithParticipants(chat.getId()).orElseThrow().hasParticipant(newUser));
+        verify(delegate).appendMessage(chat.getId(), appended);
+        verify(delegate).addParticipantIfAbsent(chat.getId(), newUser);
+    }
+    
+    @Test
+    void shouldWriteThroughAppendedMessageBatches() {
+        Chat chat = givenPersistedChat(List.of(message("Message 1", 1)));
+        cachingChatRepository.findRecentMessages(chat.getId(), 3);
+        
+        List<Message> batch = List.of(message("Message 2", 2), message("Message 3", 3), message("Message 4", 4));
+        cachingChatRepository.appendMessages(chat.getId(), batch);
+        
+        assertEquals(batch, cachingChatRepository.findRecentMessages(chat.getId(), 3));
+        verify(delegate).appendMessages(chat.getId(), batch);
+        verify(delegate, times(1)).findRecentMessages(eq(chat.getId()), anyInt());
+    }
+    
+    @Test
+    void shouldFallBackToDelegateWhenLimitExceedsBufferedHistory() {
+        List<Message> history = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            history.add(message("Message " + i, i));
+        }
+        Chat chat = givenPersistedChat(history);
+        cachingChatRepository.findRecentMessages(chat.getId(), 3);
+        
+        cachingChatRepository.findRecentMessages(chat.getId(), 2);
+        cachingChatRepository.findRecentMessages(chat.getId(), 10);
+        
+        verify(delegate).findRecentMessages(chat.getId(), 10);
+        assertEquals(1, cachingChatRepository.getHitCount());
+    }
+    
+    @Test
+    void shouldReplayMissedMessagesFromMemoryWhenWindowCoversThem() {
+        Chat chat = givenPersistedChat(List.of(numbered("Message 1", 1), numbered("Message 2", 2)));
+        cachingChatRepository.findRecentMessages(chat.getId(), 3);
+        Message appended = numbered("Message 3", 3);
+        cachingChatRepository.appendMessage(chat.getId(), appended);
+        
+        List<Message> missed = cachingChatRepository.findMessagesSince(chat.getId(), 1, 10);
+        
+        assertEquals(List.of(2L, 3L), missed.stream().map(Message::getSequence).toList());
+        assertEquals(List.of(appended), cachingChatRepository.findMessagesSince(chat.getId(), 2, 1));
+        assertTrue(cachingChatRepository.findMessagesSince(chat.getId(), 3, 10).isEmpty());
+        verify(delegate, never()).findMessagesSince(any(), anyLong(), anyInt());
+    }
+    
+    @Test
+    void shouldReadMissedMessagesFromDelegateWhenTheyLeftTheWindow() {
+        Chat chat = givenPersistedChat(List.of(numbered("Message 1", 1), numbered("Message 2", 2), numbered("Message 3", 3)));
+        cachingChatRepository.findRecentMessages(chat.getId(), 3);
+        cachingChatRepository.appendMessage(chat.getId(), numbered("Message 4", 4));
+        when(delegate.findMessagesSince(chat.getId(), 0, 10)).thenReturn(List.of());
+        
+        cachingChatRepository.findMessagesSince(chat.getId(), 0, 10);
+        cachingChatRepository.findMessagesSince(chat.getId(), 1, 10);
+        
+        verify(delegate).findMessagesSince(chat.getId(), 0, 10);
+        verify(delegate, never()).findMessagesSince(chat.getId(), 1, 10);
+    }
+    
+    @Test
+    void shouldEvictLeastRecentlyUsedChatWhenFull() {
+        Chat first = givenPersistedChat(List.of());
+        Chat second = givenPersistedChat(List.of());
+        Chat third = givenPersistedChat(List.of());
+        
+        cachingChatRepository.findRecentMessages(first.getId(), 1);
+        cachingChatRepository.findRecentMessages(second.getId(), 1);
+        cachingChatRepository.findRecentMessages(first.getId(), 1);
+        cachingChatRepository.findRecentMessages(third.getId(), 1);
+        
+        assertEquals(2, cachingChatRepository.size());
+        assertEquals(1, cachingChatRepository.getEvictionCount());
+        
+        cachingChatRepository.findRecentMessages(second.getId(), 1);
+        verify(delegate, times(2)).findByIdWithParticipants(second.getId());
+        verify(delegate, times(1)).findByIdWithParticipants(first.getId());
+    }
+    
+    @Test
+    void shouldExpireChatsNotAccessedRecently() {
+        Chat chat = givenPersistedChat(List.of());
+        cachingChatRepository.findRecentMessages(chat.getId(), 1);
+        
+        nanoTime.addAndGet(Duration.ofMinutes(11).toNanos());
+        cachingChatRepository.findRecentMessages(chat.getId(), 1);
+        
+        assertEquals(1, cachingChatRepository.getEvictionCount());
+        verify(delegate, times(2)).findByIdWithParticipants(chat.getId());
+    }
+    
+    @Test
+    void shouldInvalidateChatOnSave() {
+        Chat chat = givenPersistedChat(List.of());
+        cachingChatRepository.findRecentMessages(chat.getId(), 1);
+        when(delegate.save(chat)).thenReturn(chat);
+        
+        cachingChatRepository.save(chat);
+        
+        assertEquals(0, cachingChatRepository.size());
+    }
+    
+    private Chat givenPersistedChat(List<Message> history) {
+        Chat chat = Chat.create("Test Chat", creator);
+        lenient().when(delegate.findByIdWithParticipants(chat.getId())).thenAnswer(invocation -> Optional.of(
+            Chat.reconstruct(chat.getId(), chat.getName(), chat.getParticipants(), List.of(), chat.getCreatedAt())));
+        lenient().when(delegate.findRecentMessages(eq(chat.getId()), anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(1);
+            return new ArrayList<>(history.subList(Math.max(0, history.size() - limit), history.size()));
+        });
+        return chat;
+    }
+    
+    private Message numbered(String content, int sequence) {
+        return Message.reconstruct(UUID.randomUUID(), content, creator, Instant.parse("2024-01-01T10:00:00Z").plusSeconds(sequence), sequence);
+    }
+    
+    private Message message(String content, int second) {
+        return Message.reconstruct(UUID.randomUUID(), content, creator, Instant.parse("2024-01-01T10:00:00Z").plusSeconds(second));
+    }
+}
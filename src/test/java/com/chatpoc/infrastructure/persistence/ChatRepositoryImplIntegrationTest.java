@@ -2,8 +2,11 @@ package com.chatpoc.infrastructure.persistence;
 
 import com.chatpoc.domain.chat.Chat;
 import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.MessageDraft;
 import com.chatpoc.domain.chat.Participant;
 import com.chatpoc.domain.chat.repository.ChatRepository;
+import com.chatpoc.domain.chat.repository.ChatSequence;
+import com.chatpoc.domain.chat.repository.ChatSummary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -11,6 +14,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,7 +23,7 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
-@Import(ChatRepositoryImpl.class)
+@Import({ChatRepositoryImpl.class, ParticipantIdentityRegistry.class})
 @ActiveProfiles("test")
 class ChatRepositoryImplIntegrationTest {
     
@@ -125,11 +130,11 @@ class ChatRepositoryImplIntegrationTest {
         chatRepository.save(chat2);
         entityManager.flush();
         
-        List<Chat> allChats = chatRepository.findAll();
+        List<ChatSummary> allChats = chatRepository.findSummaries(0, 10);
         
         assertEquals(2, allChats.size());
-        assertTrue(allChats.stream().anyMatch(c -> c.getName().equals("Chat 1")));
-        assertTrue(allChats.stream().anyMatch(c -> c.getName().equals("Chat 2")));
+        assertTrue(allChats.stream().anyMatch(c -> c.name().equals("Chat 1")));
+        assertTrue(allChats.stream().anyMatch(c -> c.name().equals("Chat 2")));
     }
     
     @Test
@@ -161,4 +166,257 @@ class ChatRepositoryImplIntegrationTest {
         assertTrue(chatRepository.existsById(savedChat.getId()));
         assertFalse(chatRepository.existsById(UUID.randomUUID()));
     }
+    
+    @Test
+    void shouldAppendMessageToExistingChat() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Chat chat = Chat.create("Test Chat", creator);
+        
+        chatRepository.save(chat);
+        entityManager.flush();
+        entityManager.clear();
+        
+        Message message = Message.create("Appended message", creator);
+        chatRepository.appendMessage(chat.getId(), message);
+        entityManager.flush();
+        entityManager.clear();
+        
+        Chat retrieved = chatRepository.findById(chat.getId()).orElseThrow();
+        assertEquals(1, retrieved.getMessages().size());
+        assertEquals(message.getId(), retrieved.getMessages().get(0).getId());
+        assertEquals("Appended message", retrieved.getMessages().get(0).getContent());
+    }
+    
+    @Test
+    void shouldAppendMessageBatchToExistingChat() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Chat chat = Chat.create("Test Chat", creator);
+        chatRepository.save(chat);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<Message> batch = chat.sendMessages(List.of(
+            new MessageDraft("Message 1", creator),
+            new MessageDraft("Message 2", creator),
+            new MessageDraft("Message 3", creator)
+        ));
+        chatRepository.appendMessages(chat.getId(), batch);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<Message> recent = chatRepository.findRecentMessages(chat.getId(), 10);
+        assertEquals(batch.stream().map(Message::getId).toList(), recent.stream().map(Message::getId).toList());
+    }
+    
+    @Test
+    void shouldAddParticipantOnlyWhenAbsent() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Participant newUser = Participant.of("Jane Smith", "jane@example.com");
+        Chat chat = Chat.create("Test Chat", creator);
+        
+        chatRepository.save(chat);
+        entityManager.flush();
+        entityManager.clear();
+        
+        assertFalse(chatRepository.addParticipantIfAbsent(chat.getId(), creator));
+        assertTrue(chatRepository.addParticipantIfAbsent(chat.getId(), newUser));
+        entityManager.flush();
+        assertFalse(chatRepository.addParticipantIfAbsent(chat.getId(), newUser));
+        entityManager.flush();
+        entityManager.clear();
+        
+        Chat retrieved = chatRepository.findById(chat.getId()).orElseThrow();
+        assertEquals(2, retrieved.getParticipants().size());
+        assertTrue(retrieved.hasParticipant(newUser));
+    }
+    
+    @Test
+    void shouldFindChatWithParticipantsWithoutLoadingMessages() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Chat chat = Chat.create("Test Chat", creator);
+        chat.sendMessage("Hello everyone!", creator);
+        
+        chatRepository.save(chat);
+        entityManager.flush();
+        entityManager.clear();
+        
+        Optional<Chat> retrievedChat = chatRepository.findByIdWithParticipants(chat.getId());
+        
+        assertTrue(retrievedChat.isPresent());
+        assertTrue(retrievedChat.get().hasParticipant(creator));
+        assertTrue(retrievedChat.get().getMessages().isEmpty());
+    }
+    
+    @Test
+    void shouldFindRecentMessagesInChronologicalOrder() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Chat chat = Chat.create("Test Chat", creator);
+        chatRepository.save(chat);
+        
+        List<Message> sent = appendMessages(chat, creator, 5);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<Message> recent = chatRepository.findRecentMessages(chat.getId(), 3);
+        
+        assertEquals(sent.subList(2, 5), recent);
+    }
+    
+    @Test
+    void shouldPageThroughMessagesWithKeysetCursors() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Chat chat = Chat.create("Test Chat", creator);
+        Chat otherChat = Chat.create("Other Chat", creator);
+        chatRepository.save(chat);
+        chatRepository.save(otherChat);
+        
+        List<Message> sent = appendMessages(chat, creator, 6);
+        appendMessages(otherChat, creator, 3);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<Message> before = chatRepository.findMessagesBefore(chat.getId(), sent.get(4).getId(), 2);
+        List<Message> after = chatRepository.findMessagesAfter(chat.getId(), sent.get(1).getId(), 2);
+        List<Message> foreignCursor = chatRepository.findMessagesBefore(otherChat.getId(), sent.get(4).getId(), 2);
+        
+        assertEquals(sent.subList(2, 4), before);
+        assertEquals(sent.subList(2, 4), after);
+        assertTrue(foreignCursor.isEmpty());
+    }
+    
+    @Test
+    void shouldFindMessagesSinceSequenceAndAdvanceLastSequence() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Chat chat = Chat.create("Test Chat", creator);
+        chatRepository.save(chat);
+        
+        List<Message> sent = appendMessages(chat, creator, 5);
+        entityManager.flush();
+        entityManager.clear();
+        
+        assertEquals(5, chatRepository.lockLastSequence(chat.getId()));
+        assertEquals(sent.subList(2, 4), chatRepository.findMessagesSince(chat.getId(), 2, 2));
+        assertTrue(chatRepository.findMessagesSince(chat.getId(), 5, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> chatRepository.lockLastSequence(UUID.randomUUID()));
+    }
+    
+    @Test
+    void shouldPageThroughLastSequencesOfChatsWithMessagesInIdOrder() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        List<UUID> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Chat chat = chatRepository.save(Chat.create("Chat " + i, creator));
+            appendMessages(chat, creator, i + 1);
+            saved.add(chat.getId());
+        }
+        Chat empty = chatRepository.save(Chat.create("Empty Chat", creator));
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<ChatSequence> first = chatRepository.findChatSequencesAfter(null, 2);
+        List<ChatSequence> second = chatRepository.findChatSequencesAfter(first.get(1).chatId(), 2);
+        List<ChatSequence> last = chatRepository.findChatSequencesAfter(second.get(1).chatId(), 2);
+        
+        List<ChatSequence> all = new ArrayList<>(first);
+        all.addAll(second);
+        all.addAll(last);
+        assertEquals(List.of(2, 2, 1), List.of(first.size(), second.size(), last.size()));
+        assertEquals(chatRepository.findChatSequencesAfter(null, 10), all);
+        assertEquals(saved.stream().sorted().toList(), all.stream().map(ChatSequence::chatId).toList());
+        assertFalse(all.stream().anyMatch(chat -> chat.chatId().equals(empty.getId())));
+        for (ChatSequence chat : all) {
+            assertEquals(saved.indexOf(chat.chatId()) + 1, chat.lastSequence());
+        }
+        assertTrue(chatRepository.findChatSequencesAfter(last.get(0).chatId(), 2).isEmpty());
+    }
+    
+    @Test
+    void shouldListChatSummariesByLastActivity() {
+        Participant creator = Participant.of("John Doe", "john@example.com");
+        Participant otherUser = Participant.of("Jane Smith", "jane@example.com");
+        Chat quietChat = Chat.create("Quiet Chat", creator);
+        Chat busyChat = Chat.create("Busy Chat", creator);
+        chatRepository.save(quietChat);
+        chatRepository.save(busyChat);
+        chatRepository.addParticipantIfAbsent(busyChat.getId(), otherUser);
+        
+        List<Message> sent = appendMessages(busyChat, otherUser, 3);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<ChatSummary> summaries = chatRepository.findSummaries(0, 10);
+        
+        assertEquals(2, summaries.size());
+        ChatSummary busy = summaries.stream().filter(s -> s.id().equals(busyChat.getId())).findFirst().orElseThrow();
+        assertEquals("Busy Chat", busy.name());
+        assertEquals(2, busy.participantCount());
+        assertEquals(3, busy.messageCount());
+        assertEquals("Message 2", busy.lastMessagePreview());
+        assertEquals(sent.get(2).getTimestamp(), busy.lastActivityAt());
+        
+        ChatSummary quiet = summaries.stream().filter(s -> s.id().equals(quietChat.getId())).findFirst().orElseThrow();
+        assertEquals(1, quiet.participantCount());
+        assertEquals(0, quiet.messageCount());
+        assertNull(quiet.lastMessagePreview());
+        
+        assertEquals(1, chatRepository.findSummaries(1, 1).size());
+        assertTrue(chatRepository.findSummaries(1, 10).isEmpty());
+    }
+    
+    @Test
+    void shouldShareOneSenderIdentityAcrossMessagesAndChats() {
+        Participant sender = Participant.of("Shared Sender", "shared.sender@example.com");
+        Chat firstChat = Chat.create("First Chat", sender);
+        Chat secondChat = Chat.create("Second Chat", sender);
+        firstChat.sendMessage("Hello", sender);
+        firstChat.sendMessage("Again", sender);
+        chatRepository.save(firstChat);
+        chatRepository.save(secondChat);
+        appendMessages(secondChat, sender, 2);
+        entityManager.flush();
+        entityManager.clear();
+        
+        Long identities = entityManager.getEntityManager()
+            .createQuery("SELECT COUNT(i) FROM ParticipantIdentityEntity i WHERE i.email = :email", Long.class)
+            .setParameter("email", "shared.sender@example.com")
+            .getSingleResult();
+        assertEquals(1, identities);
+        
+        List<Message> messages = chatRepository.findById(firstChat.getId()).orElseThrow().getMessages();
+        assertEquals(2, messages.size());
+        assertSame(messages.get(0).getSender(), messages.get(1).getSender());
+        
+        List<Message> recent = chatRepository.findRecentMessages(secondChat.getId(), 10);
+        assertSame(recent.get(0).getSender(), recent.get(1).getSender());
+        assertEquals("Shared Sender", recent.get(0).getSender().getName().value());
+    }
+    
+    @Test
+    void shouldKeepTheNameEachMessageWasSentWith() {
+        Participant original = Participant.of("Original Name", "renamed.sender@example.com");
+        Participant renamed = Participant.of("New Name", "renamed.sender@example.com");
+        Chat chat = Chat.create("Test Chat", original);
+        chatRepository.save(chat);
+        appendMessages(chat, original, 1);
+        chatRepository.appendMessage(chat.getId(),
+            Message.reconstruct(UUID.randomUUID(), "Renamed", renamed, Instant.parse("2024-01-01T11:00:00Z"), 2));
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<Message> messages = chatRepository.findRecentMessages(chat.getId(), 10);
+        
+        assertEquals("Original Name", messages.get(0).getSender().getName().value());
+        assertEquals("New Name", messages.get(1).getSender().getName().value());
+    }
+    
+    private List<Message> appendMessages(Chat chat, Participant sender, int count) {
+        Instant start = Instant.parse("2024-01-01T10:00:00Z");
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Message message = Message.reconstruct(UUID.randomUUID(), "Message " + i, sender, start.plusSeconds(i), i + 1);
+            chatRepository.appendMessage(chat.getId(), message);
+            messages.add(message);
+        }
+        return messages;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.chatpoc.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpochMillisMigrationTest {
+    
+    @Test
+    void shouldConvertExistingTimestampsInServerZone() throws SQLException {
+        String url = "jdbc:h2:mem:epoch-millis-migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        migrate(url, "7");
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO chats (id, name, created_at, last_seq) " +
+                "VALUES ('00000000-0000-0000-0000-000000000001', 'Chat', TIMESTAMP '2024-01-01 10:00:00', 1)");
+            statement.execute("INSERT INTO participant_identities (name, email) VALUES ('John Doe', 'john@example.com')");
+            statement.execute("INSERT INTO messages (id, content, sender_id, timestamp, chat_id, seq) " +
+                "SELECT '00000000-0000-0000-0000-000000000011', 'Un', id, TIMESTAMP '2024-01-01 10:00:01.234', " +
+                "'00000000-0000-0000-0000-000000000001', 1 FROM participant_identities");
+        }
+        
+        migrate(url, "8");
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            try (ResultSet chat = statement.executeQuery("SELECT created_at_ms FROM chats")) {
+                assertTrue(chat.next());
+                assertEquals(epochMillis(LocalDateTime.of(2024, 1, 1, 10, 0)), chat.getLong(1));
+            }
+            try (ResultSet message = statement.executeQuery("SELECT sent_at_ms FROM messages")) {
+                assertTrue(message.next());
+                assertEquals(epochMillis(LocalDateTime.of(2024, 1, 1, 10, 0, 1, 234_000_000)), message.getLong(1));
+            }
+            assertThrows(SQLException.class, () -> statement.executeQuery("SELECT timestamp FROM messages"));
+            assertThrows(SQLException.class, () -> statement.executeQuery("SELECT created_at FROM chats"));
+        }
+    }
+    
+    private static long epochMillis(LocalDateTime written) {
+        return written.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static void migrate(String url, String targetVersion) {
+        Flyway.configure()
+            .dataSource(url, "sa", "")
+            .locations("classpath:db/migration/common")
+            .target(targetVersion)
+            .load()
+            .migrate();
+    }
+}
@@ -0,0 +1,152 @@
+package com.chatpoc.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare la requête d'historique avec et sans les index (chat_id, seq) : uk_messages_chat_seq et
+ * idx_messages_chat_seq_desc.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.chatpoc.infrastructure.persistence.MessageIndexBenchmark \
+ *   -Dexec.args="jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1 sa '' 10000000 10000"
+ * </pre>
+ *
+ * Arguments : URL JDBC, utilisateur, mot de passe, nombre de messages, nombre de chats.
+ * Fonctionne sur H2 (mode natif ou PostgreSQL) comme sur une vraie base PostgreSQL vide.
+ */
+public final class MessageIndexBenchmark {
+    
+    private static final String HISTORY_QUERY =
+        "SELECT id, content, sent_at_ms FROM messages WHERE chat_id = ? ORDER BY seq DESC LIMIT 50";
+    private static final int BATCH_SIZE = 5_000;
+    private static final int QUERIES = 200;
+    
+    private MessageIndexBenchmark() {}
+    
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+        String user = args.length > 1 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+        long messageCount = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000L;
+        int chatCount = args.length > 4 ? Integer.parseInt(args[4]) : 1_000;
+        
+        Flyway.configure()
+            .dataSource(url, user, password)
+            .locations("classpath:db/migration/common")
+            .load()
+            .migrate();
+        
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            
+            List<UUID> chatIds = seed(connection, messageCount, chatCount);
+            
+            double indexedMillis = measure(connection, chatIds);
+            
+            execute(connection, "DROP INDEX idx_messages_chat_seq_desc");
+            execute(connection, "DROP INDEX uk_messages_chat_seq");
+            double scanMillis = measure(connection, chatIds);
+            execute(connection, "CREATE UNIQUE INDEX uk_messages_chat_seq ON messages (chat_id, seq)");
+            execute(connection, "CREATE INDEX idx_messages_chat_seq_desc ON messages (chat_id, seq DESC)");
+            
+            System.out.printf("%s - %,d messages / %,d chats%n", url, messageCount, chatCount);
+            System.out.printf("  avec index : %.3f ms/requête%n", indexedMillis);
+            System.out.printf("  sans index : %.3f ms/requête%n", scanMillis);
+            System.out.printf("  gain       : x%.1f%n", scanMillis / indexedMillis);
+        }
+    }
+    
+    private static List<UUID> seed(Connection connection, long messageCount, int chatCount) throws SQLException {
+        List<UUID> chatIds = new ArrayList<>(chatCount);
+        long start = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365);
+        
+        try (PreparedStatement insertChat = connection.prepareStatement(
+                "INSERT INTO chats (id, name, created_at_ms) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < chatCount; i++) {
+                UUID chatId = UUID.randomUUID();
+                chatIds.add(chatId);
+                insertChat.setObject(1, chatId);
+                insertChat.setString(2, "Chat " + i);
+                insertChat.setLong(3, start);
+                insertChat.addBatch();
+            }
+            insertChat.executeBatch();
+        }
+        
+        long senderId;
+        try (PreparedStatement insertSender = connection.prepareStatement(
+                "INSERT INTO participant_identities (name, email) VALUES (?, ?)", new String[] {"id"})) {
+            insertSender.setString(1, "Bench User");
+            insertSender.setString(2, "bench@example.com");
+            insertSender.executeUpdate();
+            try (ResultSet keys = insertSender.getGeneratedKeys()) {
+                keys.next();
+                senderId = keys.getLong(1);
+            }
+        }
+        
+        try (PreparedStatement insertMessage = connection.prepareStatement(
+                "INSERT INTO messages (id, content, sender_id, sent_at_ms, chat_id, seq) VALUES (?, ?, ?, ?, ?, ?)")) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (long i = 0; i < messageCount; i++) {
+                insertMessage.setObject(1, UUID.randomUUID());
+                insertMessage.setString(2, "Message " + i);
+                insertMessage.setLong(3, senderId);
+                insertMessage.setLong(4, start + i);
+                insertMessage.setObject(5, chatIds.get(random.nextInt(chatCount)));
+                insertMessage.setLong(6, i + 1);
+                insertMessage.addBatch();
+                
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insertMessage.executeBatch();
+                    connection.commit();
+                }
+            }
+            insertMessage.executeBatch();
+            connection.commit();
+        }
+        
+        execute(connection, "ANALYZE");
+        return chatIds;
+    }
+    
+    private static double measure(Connection connection, List<UUID> chatIds) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        try (PreparedStatement history = connection.prepareStatement(HISTORY_QUERY)) {
+            for (int i = 0; i < QUERIES / 10; i++) {
+                runHistory(history, chatIds.get(random.nextInt(chatIds.size())));
+            }
+            
+            long started = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                runHistory(history, chatIds.get(random.nextInt(chatIds.size())));
+            }
+            return (System.nanoTime() - started) / 1_000_000.0 / QUERIES;
+        }
+    }
+    
+    private static void runHistory(PreparedStatement history, UUID chatId) throws SQLException {
+        history.setObject(1, chatId);
+        try (ResultSet rows = history.executeQuery()) {
+            while (rows.next()) {
+                rows.getString(2);
+            }
+        }
+    }
+    
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+        connection.commit();
+    }
+}
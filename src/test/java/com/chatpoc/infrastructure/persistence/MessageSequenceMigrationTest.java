@@ -0,0 +1,70 @@
+package com.chatpoc.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageSequenceMigrationTest {
+    
+    @Test
+    void shouldNumberExistingMessagesPerChatInHistoryOrder() throws SQLException {
+        String url = "jdbc:h2:mem:sequence-migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        migrate(url, "4");
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO chats (id, name, created_at) VALUES " +
+                "('00000000-0000-0000-0000-000000000001', 'Chat', TIMESTAMP '2024-01-01 10:00:00'), " +
+                "('00000000-0000-0000-0000-000000000002', 'Other', TIMESTAMP '2024-01-01 10:00:00'), " +
+                "('00000000-0000-0000-0000-000000000003', 'Empty', TIMESTAMP '2024-01-01 10:00:00')");
+            // Same timestamp for 12 and 13: the id breaks the tie
+            statement.execute("INSERT INTO messages (id, content, sender_name, sender_email, timestamp, chat_id) VALUES " +
+                "('00000000-0000-0000-0000-000000000013', 'Trois', 'John Doe', 'john@example.com', TIMESTAMP '2024-01-01 10:00:02', '00000000-0000-0000-0000-000000000001'), " +
+                "('00000000-0000-0000-0000-000000000011', 'Un', 'John Doe', 'john@example.com', TIMESTAMP '2024-01-01 10:00:01', '00000000-0000-0000-0000-000000000001'), " +
+                "('00000000-0000-0000-0000-000000000012', 'Deux', 'John Doe', 'john@example.com', TIMESTAMP '2024-01-01 10:00:02', '00000000-0000-0000-0000-000000000001'), " +
+                "('00000000-0000-0000-0000-000000000021', 'Autre', 'Jane Smith', 'jane@example.com', TIMESTAMP '2024-01-01 09:00:00', '00000000-0000-0000-0000-000000000002')");
+        }
+        
+        migrate(url, "5");
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            try (ResultSet messages = statement.executeQuery("SELECT content, seq FROM messages ORDER BY chat_id, seq")) {
+                assertSequence(messages, "Un", 1);
+                assertSequence(messages, "Deux", 2);
+                assertSequence(messages, "Trois", 3);
+                assertSequence(messages, "Autre", 1);
+                assertFalse(messages.next());
+            }
+            try (ResultSet chats = statement.executeQuery("SELECT name, last_seq FROM chats ORDER BY id")) {
+                assertSequence(chats, "Chat", 3);
+                assertSequence(chats, "Other", 1);
+                assertSequence(chats, "Empty", 0);
+                assertFalse(chats.next());
+            }
+        }
+    }
+    
+    private static void assertSequence(ResultSet rows, String label, long sequence) throws SQLException {
+        assertTrue(rows.next());
+        assertEquals(label, rows.getString(1));
+        assertEquals(sequence, rows.getLong(2));
+    }
+    
+    private static void migrate(String url, String targetVersion) {
+        Flyway.configure()
+            .dataSource(url, "sa", "")
+            .locations("classpath:db/migration/common")
+            .target(targetVersion)
+            .load()
+            .migrate();
+    }
+}
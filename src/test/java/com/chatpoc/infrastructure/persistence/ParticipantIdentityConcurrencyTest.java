@@ -0,0 +1,88 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.application.commands.CreateChatCommand;
+import com.chatpoc.application.commands.SendMessageCommand;
+import com.chatpoc.application.services.ChatService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// More first-time senders than pool connections: each send must complete on the single connection it holds
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:identity-concurrency;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=4",
+    "spring.datasource.hikari.connection-timeout=2000",
+    "chat.search.rebuild-on-start=false"
+})
+@ActiveProfiles("test")
+class ParticipantIdentityConcurrencyTest {
+    
+    private static final int SENDERS = 16;
+    
+    @Autowired
+    private ChatService chatService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void shouldInsertNewSendersOfOneChatWithoutASecondConnection() throws Exception {
+        UUID chatId = chatService.createChat(new CreateChatCommand("Busy chat", "John Doe", "john@example.com")).getId();
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        
+        sendConcurrently(sender -> new SendMessageCommand(chatId, "Bonjour", "Sender " + sender,
+            prefix + "-" + sender + "@example.com"));
+        
+        assertEquals(SENDERS, countIdentities(prefix + "-%"));
+    }
+    
+    @Test
+    void shouldShareOneIdentityForTheSameNewSenderInConcurrentChats() throws Exception {
+        String email = UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        List<UUID> chatIds = new ArrayList<>();
+        for (int chat = 0; chat < SENDERS; chat++) {
+            chatIds.add(chatService.createChat(new CreateChatCommand("Chat " + chat, "John Doe", "john@example.com")).getId());
+        }
+        
+        sendConcurrently(sender -> new SendMessageCommand(chatIds.get(sender), "Bonjour", "Jane Smith", email));
+        
+        assertEquals(1, countIdentities(email));
+    }
+    
+    private void sendConcurrently(IntFunction<SendMessageCommand> commands) throws Exception {
+        ExecutorService senders = Executors.newFixedThreadPool(SENDERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> sends = new ArrayList<>();
+            for (int sender = 0; sender < SENDERS; sender++) {
+                SendMessageCommand command = commands.apply(sender);
+                sends.add(senders.submit(() -> {
+                    start.await();
+                    return chatService.sendMessage(command);
+                }));
+            }
+            start.countDown();
+            for (Future<?> send : sends) {
+                send.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+    
+    private long countIdentities(String emailPattern) {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM participant_identities WHERE email LIKE ?", Long.class, emailPattern);
+        return count == null ? 0 : count;
+    }
+}
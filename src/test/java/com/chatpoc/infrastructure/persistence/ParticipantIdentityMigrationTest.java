@@ -0,0 +1,66 @@
+package com.chatpoc.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantIdentityMigrationTest {
+    
+    @Test
+    void shouldMoveExistingSendersToIdentityTable() throws SQLException {
+        String url = "jdbc:h2:mem:identity-migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        migrate(url, "5");
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO chats (id, name, created_at, last_seq) " +
+                "VALUES ('00000000-0000-0000-0000-000000000001', 'Chat', TIMESTAMP '2024-01-01 10:00:00', 3)");
+            statement.execute("INSERT INTO messages (id, content, sender_name, sender_email, timestamp, chat_id, seq) VALUES " +
+                "('00000000-0000-0000-0000-000000000011', 'Un', 'John Doe', 'john@example.com', TIMESTAMP '2024-01-01 10:00:01', '00000000-0000-0000-0000-000000000001', 1), " +
+                "('00000000-0000-0000-0000-000000000012', 'Deux', 'John Doe', 'john@example.com', TIMESTAMP '2024-01-01 10:00:02', '00000000-0000-0000-0000-000000000001', 2), " +
+                "('00000000-0000-0000-0000-000000000013', 'Trois', 'Jane Smith', 'jane@example.com', TIMESTAMP '2024-01-01 10:00:03', '00000000-0000-0000-0000-000000000001', 3)");
+        }
+        
+        migrate(url, "6");
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            try (ResultSet identities = statement.executeQuery("SELECT COUNT(*) FROM participant_identities")) {
+                identities.next();
+                assertEquals(2, identities.getLong(1));
+            }
+            try (ResultSet senders = statement.executeQuery(
+                    "SELECT m.content, i.name, i.email FROM messages m " +
+                    "JOIN participant_identities i ON i.id = m.sender_id ORDER BY m.seq")) {
+                assertSender(senders, "Un", "John Doe", "john@example.com");
+                assertSender(senders, "Deux", "John Doe", "john@example.com");
+                assertSender(senders, "Trois", "Jane Smith", "jane@example.com");
+                assertFalse(senders.next());
+            }
+        }
+    }
+    
+    private static void assertSender(ResultSet senders, String content, String name, String email) throws SQLException {
+        assertTrue(senders.next());
+        assertEquals(content, senders.getString(1));
+        assertEquals(name, senders.getString(2));
+        assertEquals(email, senders.getString(3));
+    }
+    
+    private static void migrate(String url, String targetVersion) {
+        Flyway.configure()
+            .dataSource(url, "sa", "")
+            .locations("classpath:db/migration/common")
+            .target(targetVersion)
+            .load()
+            .migrate();
+    }
+}
@@ -0,0 +1,39 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Participant;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantInternerTest {
+    
+    @Test
+    void shouldReuseParticipantForRepeatedSender() {
+        ParticipantInterner interner = new ParticipantInterner();
+        
+        Participant first = interner.intern("John Doe", "john@example.com");
+        Participant second = interner.intern("John Doe", "john@example.com");
+        
+        assertSame(first, second);
+        assertEquals(Participant.of("John Doe", "john@example.com"), first);
+    }
+    
+    @Test
+    void shouldCreateNewParticipantWhenNameChangesForSameEmail() {
+        ParticipantInterner interner = new ParticipantInterner();
+        
+        Participant before = interner.intern("John Doe", "john@example.com");
+        Participant renamed = interner.intern("Johnny", "john@example.com");
+        
+        assertNotSame(before, renamed);
+        assertEquals("Johnny", renamed.getName().value());
+        assertSame(renamed, interner.intern("Johnny", "john@example.com"));
+    }
+    
+    @Test
+    void shouldStillRejectInvalidStoredValues() {
+        ParticipantInterner interner = new ParticipantInterner();
+        
+        assertThrows(IllegalArgumentException.class, () -> interner.intern("John Doe", "not-an-email"));
+    }
+}
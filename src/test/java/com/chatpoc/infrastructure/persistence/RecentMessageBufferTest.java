@@ -0,0 +1,89 @@
+package com.chatpoc.infrastructure.persistence;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentMessageBufferTest {
+    
+    private final Participant sender = Participant.of("John Doe", "john@example.com");
+    
+    @Test
+    void shouldKeepOnlyLatestMessagesWhenFull() {
+        RecentMessageBuffer buffer = new RecentMessageBuffer(3);
+        Message first = message(1);
+        Message second = message(2);
+        Message third = message(3);
+        Message fourth = message(4);
+        
+        assertFalse(buffer.add(first));
+        buffer.add(second);
+        buffer.add(third);
+        assertTrue(buffer.add(fourth));
+        
+        assertEquals(3, buffer.size());
+        assertEquals(List.of(second, third, fourth), buffer.tail(10));
+        assertEquals(List.of(third, fourth), buffer.tail(2));
+    }
+    
+    @Test
+    void shouldKeepSendOrderForLateArrivals() {
+        RecentMessageBuffer buffer = new RecentMessageBuffer(3);
+        Message first = message(1);
+        Message second = message(2);
+        Message third = message(3);
+        
+        buffer.add(first);
+        buffer.add(third);
+        buffer.add(second);
+        
+        assertEquals(List.of(first, second, third), buffer.tail(3));
+    }
+    
+    @Test
+    void shouldDropMessagesOlderThanBufferedWindow() {
+        RecentMessageBuffer buffer = new RecentMessageBuffer(2);
+        Message first = message(1);
+        Message second = message(2);
+        Message third = message(3);
+        
+        buffer.add(second);
+        buffer.add(third);
+        buffer.add(first);
+        
+        assertEquals(List.of(second, third), buffer.tail(2));
+    }
+    
+    @Test
+    void shouldListMessagesAfterSequenceInSequenceOrder() {
+        RecentMessageBuffer buffer = new RecentMessageBuffer(3);
+        Message first = numbered(1, 5);
+        Message second = numbered(2, 7);
+        Message third = numbered(3, 6);
+        buffer.add(first);
+        buffer.add(second);
+        buffer.add(third);
+        
+        assertEquals(List.of(third, second), buffer.since(5));
+        assertEquals(List.of(), buffer.since(7));
+    }
+    
+    @Test
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RecentMessageBuffer(0));
+    }
+    
+    private Message numbered(int second, long sequence) {
+        return Message.reconstruct(UUID.randomUUID(), "Message " + second, sender, Instant.parse("2024-01-01T10:00:00Z").plusSeconds(second), sequence);
+    }
+    
+    private Message message(int second) {
+        return Message.reconstruct(UUID.randomUUID(), "Message " + second, sender, Instant.parse("2024-01-01T10:00:00Z").plusSeconds(second));
+    }
+}
@@ -0,0 +1,45 @@
+package com.chatpoc.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SchemaIndexValidator.class)
+@ActiveProfiles("test")
+class SchemaIndexValidatorIntegrationTest {
+    
+    @Autowired
+    private SchemaIndexValidator schemaIndexValidator;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void shouldAcceptMigratedSchema() {
+        assertDoesNotThrow(() -> schemaIndexValidator.validate());
+    }
+    
+    @Test
+    void shouldFailWhenHistoryIndexIsMissing() {
+        jdbcTemplate.execute("DROP INDEX idx_messages_chat_seq_desc");
+        jdbcTemplate.execute("DROP INDEX uk_messages_chat_seq");
+        
+        try {
+            IllegalStateException exception = assertThrows(
+                IllegalStateException.class,
+                () -> schemaIndexValidator.validate()
+            );
+            
+            assertTrue(exception.getMessage().contains("messages[chat_id, seq]"));
+        } finally {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX uk_messages_chat_seq ON messages (chat_id, seq)");
+            jdbcTemplate.execute("CREATE INDEX idx_messages_chat_seq_desc ON messages (chat_id, seq DESC)");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.chatpoc.infrastructure.search;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageSearchIndexTest {
+    
+    @TempDir
+    Path directory;
+    
+    private final Participant sender = Participant.of("Jean Dupont", "jean@example.com");
+    private final UUID chatId = UUID.randomUUID();
+    private MessageSearchIndex index;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        index = open(true);
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+    
+    @Test
+    void shouldIgnoreAccentsCaseAndElisions() throws IOException {
+        Message message = message("L'été à l'École", 1);
+        index.index(chatId, List.of(message));
+        index.refresh();
+        
+        List<MessageSearchHit> hits = index.search("ETE ecole", null, 10);
+        
+        assertEquals(1, hits.size());
+        assertEquals(chatId, hits.get(0).chatId());
+        assertEquals(message.getId(), hits.get(0).message().getId());
+        assertEquals("L'été à l'École", hits.get(0).message().getContent());
+        assertEquals(sender, hits.get(0).message().getSender());
+        assertEquals(message.getTimestamp(), hits.get(0).message().getTimestamp());
+        assertEquals(1, hits.get(0).message().getSequence());
+    }
+    
+    @Test
+    void shouldRequireEveryWord() throws IOException {
+        index.index(chatId, List.of(message("Réunion demain matin", 1), message("Réunion annulée", 2)));
+        index.refresh();
+        
+        List<MessageSearchHit> hits = index.search("réunion demain", null, 10);
+        
+        assertEquals(1, hits.size());
+        assertEquals("Réunion demain matin", hits.get(0).message().getContent());
+    }
+    
+    @Test
+    void shouldReturnNewestFirstUpToLimit() throws IOException {
+        index.index(chatId, List.of(message("point 1", 1), message("point 3", 3), message("point 2", 2)));
+        index.refresh();
+        
+        List<MessageSearchHit> hits = index.search("point", null, 2);
+        
+        assertEquals(List.of("point 3", "point 2"), hits.stream().map(hit -> hit.message().getContent()).toList());
+    }
+    
+    @Test
+    void shouldFilterByChat() throws IOException {
+        UUID otherChatId = UUID.randomUUID();
+        index.index(chatId, List.of(message("bonjour", 1)));
+        index.index(otherChatId, List.of(message("bonjour", 1)));
+        index.refresh();
+        
+        assertEquals(2, index.search("bonjour", null, 10).size());
+        List<MessageSearchHit> hits = index.search("bonjour", otherChatId, 10);
+        assertEquals(1, hits.size());
+        assertEquals(otherChatId, hits.get(0).chatId());
+        assertTrue(index.search("bonjour", UUID.randomUUID(), 10).isEmpty());
+    }
+    
+    @Test
+    void shouldReplaceMessageIndexedAgain() throws IOException {
+        Message message = message("bonjour", 1);
+        index.index(chatId, List.of(message));
+        index.index(chatId, List.of(message));
+        index.refresh();
+        
+        assertEquals(1, index.getDocumentCount());
+        assertEquals(1, index.search("bonjour", chatId, 10).size());
+    }
+    
+    @Test
+    void shouldOnlySeeIndexedMessagesAfterRefresh() throws IOException {
+        index.index(chatId, List.of(message("bonjour", 1)));
+        
+        assertTrue(index.search("bonjour", null, 10).isEmpty());
+        index.refresh();
+        assertEquals(1, index.search("bonjour", null, 10).size());
+    }
+    
+    @Test
+    void shouldRejectInvalidQueries() {
+        assertThrows(NullPointerException.class, () -> index.search(null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("  ", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("'!?", null, 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> index.search("a".repeat(MessageSearchIndex.MAX_QUERY_LENGTH + 1), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("bonjour", null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> index.search("bonjour", null, MessageSearchIndex.MAX_RESULTS + 1));
+    }
+    
+    @Test
+    void shouldKeepIndexAcrossRestartWithoutRebuild() throws Exception {
+        index.index(chatId, List.of(message("bonjour", 1)));
+        index.close();
+        
+        index = open(false);
+        assertEquals(1, index.search("bonjour", null, 10).size());
+        
+        index.close();
+        index = open(true);
+        assertTrue(index.search("bonjour", null, 10).isEmpty());
+    }
+    
+    private MessageSearchIndex open(boolean rebuildOnStart) throws IOException {
+        return new MessageSearchIndex(directory.toString(), rebuildOnStart, Duration.ofHours(1), Duration.ofHours(1), 16,
+            new SimpleMeterRegistry());
+    }
+    
+    private Message message(String content, long sequence) {
+        return Message.reconstruct(UUID.randomUUID(), content, sender,
+            Instant.parse("2024-01-01T10:00:00Z").plusSeconds(sequence), sequence);
+    }
+}
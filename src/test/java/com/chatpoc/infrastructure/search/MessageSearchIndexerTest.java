@@ -0,0 +1,144 @@
+package com.chatpoc.infrastructure.search;
+
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.events.MessageSentEvent;
+import com.chatpoc.domain.chat.events.MessagesSentEvent;
+import com.chatpoc.domain.chat.repository.ChatRepository;
+import com.chatpoc.domain.chat.repository.ChatSequence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageSearchIndexerTest {
+    
+    @Mock
+    private MessageSearchIndex index;
+    
+    @Mock
+    private ChatRepository chatRepository;
+    
+    private final Participant sender = Participant.of("Jean Dupont", "jean@example.com");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MessageSearchIndexer indexer;
+    
+    @BeforeEach
+    void setUp() {
+        indexer = new MessageSearchIndexer(index, chatRepository, meterRegistry, true, false, Duration.ofSeconds(10));
+    }
+    
+    @Test
+    void shouldIndexSentMessages() {
+        UUID chatId = UUID.randomUUID();
+        Message message = message(1);
+        List<Message> batch = List.of(message(2), message(3));
+        
+        indexer.handleMessageSentEvent(new MessageSentEvent(chatId, message));
+        indexer.handleMessagesSentEvent(new MessagesSentEvent(chatId, batch));
+        
+        verify(index).index(chatId, List.of(message));
+        verify(index).index(chatId, batch);
+    }
+    
+    @Test
+    void shouldCountIndexingFailuresWithoutPropagatingThem() {
+        doThrow(new IllegalStateException("disk full")).when(index).index(any(), any());
+        
+        assertDoesNotThrow(() -> indexer.handleMessageSentEvent(new MessageSentEvent(UUID.randomUUID(), message(1))));
+        
+        assertEquals(1.0, meterRegistry.counter("chat.search.indexing.failures").count());
+    }
+    
+    @Test
+    void shouldRebuildEveryChatPageByPage() {
+        int pageSize = MessageSearchIndexer.REBUILD_PAGE_SIZE;
+        List<ChatSequence> firstChats = IntStream.range(0, pageSize)
+            .mapToObj(i -> new ChatSequence(UUID.randomUUID(), 1))
+            .toList();
+        UUID lastChat = UUID.randomUUID();
+        List<Message> fullPage = IntStream.rangeClosed(1, pageSize).mapToObj(this::message).toList();
+        List<Message> lastPage = List.of(message(pageSize + 1));
+        
+        when(chatRepository.findChatSequencesAfter(null, pageSize)).thenReturn(firstChats);
+        when(chatRepository.findChatSequencesAfter(firstChats.get(pageSize - 1).chatId(), pageSize))
+            .thenReturn(List.of(new ChatSequence(lastChat, pageSize + 1)));
+        when(chatRepository.findMessagesSince(any(), eq(0L), eq(pageSize))).thenReturn(List.of());
+        when(chatRepository.findMessagesSince(lastChat, 0L, pageSize)).thenReturn(fullPage);
+        when(chatRepository.findMessagesSince(lastChat, (long) pageSize, pageSize)).thenReturn(lastPage);
+        
+        assertEquals(pageSize + 1, indexer.rebuild());
+        
+        verify(index).index(lastChat, fullPage);
+        verify(index).index(lastChat, lastPage);
+        verify(chatRepository, times(pageSize + 2)).findMessagesSince(any(), anyLong(), eq(pageSize));
+    }
+    
+    @Test
+    void shouldCatchUpOnlyOnChatsAheadOfTheIndexInClusterMode() {
+        MessageSearchIndexer clustered = new MessageSearchIndexer(index, chatRepository, meterRegistry, true, true,
+            Duration.ofSeconds(10));
+        UUID local = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+        List<Message> remoteMessages = List.of(message(1));
+        when(chatRepository.findChatSequencesAfter(null, MessageSearchIndexer.REBUILD_PAGE_SIZE))
+            .thenReturn(List.of(new ChatSequence(local, 2), new ChatSequence(remote, 1)));
+        when(chatRepository.findMessagesSince(remote, 0L, MessageSearchIndexer.REBUILD_PAGE_SIZE)).thenReturn(remoteMessages);
+        
+        // Sent through this node: already indexed, its messages are not read
+        clustered.handleMessagesSentEvent(new MessagesSentEvent(local, List.of(message(1), message(2))));
+        
+        assertEquals(1, clustered.rebuild());
+        verify(index).index(remote, remoteMessages);
+        
+        // Nothing new: the pass only reads the chats
+        assertEquals(0, clustered.rebuild());
+        verify(chatRepository, times(1)).findMessagesSince(any(), anyLong(), anyInt());
+        verify(chatRepository, never()).findMessagesSince(eq(local), anyLong(), anyInt());
+    }
+    
+    @Test
+    void shouldReadAgainTheMessagesMissedBeforeAnEventInClusterMode() {
+        MessageSearchIndexer clustered = new MessageSearchIndexer(index, chatRepository, meterRegistry, true, true,
+            Duration.ofSeconds(10));
+        UUID chatId = UUID.randomUUID();
+        List<Message> missed = List.of(message(1), message(2), message(3));
+        when(chatRepository.findChatSequencesAfter(null, MessageSearchIndexer.REBUILD_PAGE_SIZE))
+            .thenReturn(List.of(new ChatSequence(chatId, 3)));
+        when(chatRepository.findMessagesSince(chatId, 0L, MessageSearchIndexer.REBUILD_PAGE_SIZE)).thenReturn(missed);
+        
+        // Sequences 1 and 2 were written by another node
+        clustered.handleMessageSentEvent(new MessageSentEvent(chatId, message(3)));
+        
+        assertEquals(3, clustered.rebuild());
+        verify(index).index(chatId, missed);
+        assertEquals(0.0, meterRegistry.counter("chat.search.indexing.failures").count());
+    }
+    
+    @Test
+    void shouldRejectNonPositiveCatchUpIntervalInClusterMode() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new MessageSearchIndexer(index, chatRepository, meterRegistry, true, true, Duration.ZERO));
+    }
+    
+    private Message message(long sequence) {
+        return Message.reconstruct(UUID.randomUUID(), "Message " + sequence, sender,
+            Instant.parse("2024-01-01T10:00:00Z").plusSeconds(sequence), sequence);
+    }
+}
@@ -0,0 +1,111 @@
+package com.chatpoc.infrastructure.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoarseClockTest {
+    
+    private final ManualClock source = new ManualClock(1_700_000_000_000L);
+    
+    @Test
+    void shouldReturnTimeOfLastTickUntilNextOne() {
+        try (CoarseClock clock = new CoarseClock(source)) {
+            Instant first = clock.instant();
+            source.millis.addAndGet(5);
+            
+            assertSame(first, clock.instant());
+            assertEquals(1_700_000_000_000L, clock.millis());
+            
+            clock.tick();
+            assertEquals(Instant.ofEpochMilli(1_700_000_000_005L), clock.instant());
+        }
+    }
+    
+    @Test
+    void shouldNeverGoBackWhenSourceDoes() {
+        try (CoarseClock clock = new CoarseClock(source)) {
+            source.millis.addAndGet(-1_000);
+            clock.tick();
+            
+            assertEquals(1_700_000_000_000L, clock.millis());
+        }
+    }
+    
+    @Test
+    void shouldReadSourceOnceClosed() {
+        CoarseClock clock = new CoarseClock(source);
+        clock.close();
+        source.millis.addAndGet(42);
+        
+        assertEquals(1_700_000_000_042L, clock.millis());
+    }
+    
+    @Test
+    void shouldAdvanceOnBackgroundTicks() throws InterruptedException {
+        try (CoarseClock clock = new CoarseClock(source, Duration.ofMillis(1))) {
+            source.millis.addAndGet(10);
+            
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (clock.millis() != 1_700_000_000_010L && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(1_700_000_000_010L, clock.millis());
+        }
+    }
+    
+    @Test
+    void shouldRejectNonPositiveTick() {
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(source, Duration.ZERO));
+    }
+    
+    @Test
+    void shouldReportTheRequestedZoneWithTheCoarseReadings() {
+        try (CoarseClock clock = new CoarseClock(source)) {
+            ZoneId paris = ZoneId.of("Europe/Paris");
+            Clock zoned = clock.withZone(paris);
+            
+            assertSame(clock, clock.withZone(ZoneOffset.UTC));
+            assertEquals(paris, zoned.getZone());
+            assertEquals(clock.instant(), zoned.instant());
+            assertEquals(ZonedDateTime.ofInstant(clock.instant(), paris), ZonedDateTime.now(zoned));
+            
+            source.millis.addAndGet(5);
+            clock.tick();
+            assertEquals(clock.millis(), zoned.millis());
+            assertSame(clock, zoned.withZone(ZoneOffset.UTC));
+        }
+    }
+    
+    private static final class ManualClock extends Clock {
+        
+        private final AtomicLong millis;
+        
+        private ManualClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+        
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.chatpoc.infrastructure.web;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -14,8 +14,9 @@ import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
-@AutoConfigureWebMvc
+// Each test rolls back: the hot-chat cache, which only applies writes after commit, would serve stale reads
+@SpringBootTest(properties = "chat.cache.enabled=false")
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
 class ChatControllerIntegrationTest {
@@ -0,0 +1,334 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.application.services.ChatService;
+import com.chatpoc.application.services.DomainEventPublisher;
+import com.chatpoc.domain.chat.Chat;
+import com.chatpoc.domain.chat.Message;
+import com.chatpoc.domain.chat.Participant;
+import com.chatpoc.domain.chat.repository.ChatRepository;
+import com.chatpoc.domain.chat.repository.ChatSummary;
+import com.chatpoc.infrastructure.search.MessageSearchHit;
+import com.chatpoc.infrastructure.search.MessageSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Parameter parsing, validation and error mapping of the REST endpoints, on the real ChatService over a mocked repository
+@WebMvcTest(ChatController.class)
+@Import(ChatService.class)
+class ChatControllerTest {
+    
+    private final UUID chatId = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private final UUID cursor = UUID.fromString("456e7890-e89b-12d3-a456-426614174000");
+    private final Participant john = Participant.of("John Doe", "john@example.com");
+    private final Participant jane = Participant.of("Jane Smith", "jane@example.com");
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private ChatRepository chatRepository;
+    
+    @MockBean
+    private DomainEventPublisher eventPublisher;
+    
+    @MockBean
+    private ChatStreamService chatStreamService;
+    
+    @MockBean
+    private MessageSearchIndex messageSearchIndex;
+    
+    @Test
+    void shouldListChatSummariesOfTheRequestedPage() throws Exception {
+        when(chatRepository.findSummaries(2, 5)).thenReturn(List.of(
+            new ChatSummary(chatId, "Mon Premier Chat", 2, 42, "Bonjour", Instant.parse("2024-01-01T10:00:00Z"))));
+        
+        mockMvc.perform(get("/api/chats").param("page", "2").param("size", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(chatId.toString()))
+            .andExpect(jsonPath("$[0].messageCount").value(42))
+            .andExpect(jsonPath("$[0].lastMessagePreview").value("Bonjour"));
+    }
+    
+    @Test
+    void shouldReturnBadRequestForInvalidSummaryPages() throws Exception {
+        mockMvc.perform(get("/api/chats").param("page", "-1"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Page cannot be negative"));
+        mockMvc.perform(get("/api/chats").param("size", String.valueOf(Integer.MAX_VALUE)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Size cannot exceed " + ChatService.MAX_PAGE_SIZE));
+        mockMvc.perform(get("/api/chats").param("size", "beaucoup"))
+            .andExpect(status().isBadRequest());
+        
+        verify(chatRepository, never()).findSummaries(anyInt(), anyInt());
+    }
+    
+    @Test
+    void shouldReturnRecentMessagesWithTheRequestedLimit() throws Exception {
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        when(chatRepository.findRecentMessages(chatId, 20)).thenReturn(List.of(message(1, "Bonjour")));
+        
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chatId).param("limit", "20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].content").value("Bonjour"))
+            .andExpect(jsonPath("$[0].sequence").value(1));
+    }
+    
+    @Test
+    void shouldPageThroughMessagesWithBeforeAndAfterCursors() throws Exception {
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        when(chatRepository.findMessagesBefore(chatId, cursor, 10)).thenReturn(List.of(message(1, "Avant")));
+        when(chatRepository.findMessagesAfter(chatId, cursor, 10)).thenReturn(List.of(message(3, "Après")));
+        
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chatId).param("limit", "10").param("before", cursor.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].content").value("Avant"));
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chatId).param("limit", "10").param("after", cursor.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].content").value("Après"));
+    }
+    
+    @Test
+    void shouldReturnBadRequestForInvalidMessagePages() throws Exception {
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chatId)
+                .param("before", cursor.toString())
+                .param("after", cursor.toString()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Cannot combine before and after cursors"));
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chatId).param("limit", String.valueOf(Integer.MAX_VALUE)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Limit cannot exceed " + ChatService.MAX_PAGE_SIZE));
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chatId).param("before", "pas-un-uuid"))
+            .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(chatRepository);
+    }
+    
+    @Test
+    void shouldReturnBadRequestForMessagesOfUnknownChat() throws Exception {
+        mockMvc.perform(get("/api/chats/{chatId}/messages", chatId))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Chat not found with id: " + chatId));
+    }
+    
+    @Test
+    void shouldSendMessageBatchInOrder() throws Exception {
+        when(chatRepository.findByIdWithParticipants(chatId)).thenReturn(Optional.of(chat()));
+        
+        mockMvc.perform(post("/api/chats/{chatId}/messages:batch", chatId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"messages": [
+                      {"content": "Un", "senderName": "John Doe", "senderEmail": "john@example.com"},
+                      {"content": "Deux", "senderName": "Jane Smith", "senderEmail": "jane@example.com"}
+                    ]}
+                    """))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$[*].content", contains("Un", "Deux")))
+            .andExpect(jsonPath("$[*].sequence", contains(1, 2)));
+        
+        verify(chatRepository).addParticipantIfAbsent(chatId, jane);
+        verify(chatRepository).appendMessages(eq(chatId), argThat(messages -> messages.size() == 2));
+    }
+    
+    @Test
+    void shouldSendMultiChatMessageBatch() throws Exception {
+        when(chatRepository.findByIdWithParticipants(chatId)).thenReturn(Optional.of(chat()));
+        
+        mockMvc.perform(post("/api/chats/messages:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"messages": [
+                      {"chatId": "%s", "content": "Bonjour", "senderName": "John Doe", "senderEmail": "john@example.com"}
+                    ]}
+                    """.formatted(chatId)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].content").value("Bonjour"));
+    }
+    
+    @Test
+    void shouldReturnBadRequestForInvalidMessageBatches() throws Exception {
+        mockMvc.perform(post("/api/chats/{chatId}/messages:batch", chatId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"messages\": []}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/chats/{chatId}/messages:batch", chatId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"messages\": [{\"content\": \"\", \"senderName\": \"John Doe\", \"senderEmail\": \"john@example.com\"}]}"))
+            .andExpect(status().isBadRequest());
+        // The multi-chat variant requires a chat per message
+        mockMvc.perform(post("/api/chats/messages:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"messages\": [{\"content\": \"Bonjour\", \"senderName\": \"John Doe\", \"senderEmail\": \"john@example.com\"}]}"))
+            .andExpect(status().isBadRequest());
+        
+        String oversized = IntStream.rangeClosed(0, ChatService.MAX_BATCH_SIZE)
+            .mapToObj(i -> "{\"content\": \"M\", \"senderName\": \"John Doe\", \"senderEmail\": \"john@example.com\"}")
+            .collect(Collectors.joining(",", "{\"messages\": [", "]}"));
+        mockMvc.perform(post("/api/chats/{chatId}/messages:batch", chatId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(oversized))
+            .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(chatRepository);
+    }
+    
+    @Test
+    void shouldReturnBadRequestForBatchToUnknownChat() throws Exception {
+        mockMvc.perform(post("/api/chats/{chatId}/messages:batch", chatId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"messages\": [{\"content\": \"Bonjour\", \"senderName\": \"John Doe\", \"senderEmail\": \"john@example.com\"}]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Chat not found with id: " + chatId));
+        
+        verify(chatRepository, never()).appendMessages(any(), any());
+    }
+    
+    @Test
+    void shouldExportMessagesInBinaryWhenAccepted() throws Exception {
+        when(chatRepository.existsById(chatId)).thenReturn(true);
+        when(chatRepository.findMessagesAfter(chatId, cursor, ChatService.MAX_EXPORT_SIZE))
+            .thenReturn(List.of(message(1, "Un"), message(2, "Deux")));
+        
+        byte[] body = mockMvc.perform(get("/api/chats/{chatId}/messages:export", chatId)
+                .accept(MessageBinaryCodec.MESSAGES_MEDIA_TYPE)
+                .param("limit", String.valueOf(ChatService.MAX_EXPORT_SIZE))
+                .param("after", cursor.toString()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MessageBinaryCodec.MESSAGES_MEDIA_TYPE))
+            .andReturn().getResponse().getContentAsByteArray();
+        
+        List<MessageDTO> exported = MessageBinaryCodec.decodeAll(body);
+        assertEquals(List.of("Un", "Deux"), exported.stream().map(MessageDTO::content).toList());
+        assertEquals(2, exported.get(1).sequence());
+    }
+    
+    @Test
+    void shouldRefuseExportInAnotherFormatOrAboveItsLimit() throws Exception {
+        mockMvc.perform(get("/api/chats/{chatId}/messages:export", chatId).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get("/api/chats/{chatId}/messages:export", chatId)
+                .accept(MessageBinaryCodec.MESSAGES_MEDIA_TYPE)
+                .param("limit", String.valueOf(ChatService.MAX_EXPORT_SIZE + 1)))
+            .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(chatRepository);
+    }
+    
+    @Test
+    void shouldSearchMessagesOfEveryChatOrOfOneChat() throws Exception {
+        Message found = message(7, "Réunion demain");
+        when(messageSearchIndex.search("réunion", null, 20)).thenReturn(List.of(new MessageSearchHit(chatId, found)));
+        when(messageSearchIndex.search("réunion", chatId, 5)).thenReturn(List.of(new MessageSearchHit(chatId, found)));
+        
+        mockMvc.perform(get("/api/chats/search").param("q", "réunion"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].chatId").value(chatId.toString()))
+            .andExpect(jsonPath("$[0].message.content").value("Réunion demain"));
+        mockMvc.perform(get("/api/chats/{chatId}/messages:search", chatId).param("q", "réunion").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].content").value("Réunion demain"))
+            .andExpect(jsonPath("$[0].sequence").value(7));
+    }
+    
+    @Test
+    void shouldReturnBadRequestForInvalidSearches() throws Exception {
+        when(messageSearchIndex.search(eq(" "), any(), anyInt()))
+            .thenThrow(new IllegalArgumentException("Search query must contain at least one word"));
+        
+        mockMvc.perform(get("/api/chats/search").param("q", " "))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Search query must contain at least one word"));
+        mockMvc.perform(get("/api/chats/{chatId}/messages:search", chatId).param("q", " "))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/chats/search"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/chats/search").param("q", "réunion").param("limit", "vingt"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void shouldOpenStreamFromTheLastEventId() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(chatStreamService.isAvailable()).thenReturn(true);
+        when(chatStreamService.subscribe(chatId, 42L)).thenReturn(Optional.of(emitter));
+        
+        MvcResult result = mockMvc.perform(get("/api/chats/{chatId}/stream", chatId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "42"))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        // Streaming headers are written with the first event, the service always sends one on subscription
+        emitter.send(SseEmitter.event().name(ChatStreamService.EVENT_NAME).id("43").data("Bonjour"));
+        
+        assertEquals("no-store", result.getResponse().getHeader("Cache-Control"));
+        assertEquals("no", result.getResponse().getHeader("X-Accel-Buffering"));
+        assertTrue(result.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        assertTrue(result.getResponse().getContentAsString().contains("id:43"));
+        verify(chatStreamService).subscribe(chatId, 42L);
+    }
+    
+    @Test
+    void shouldRefuseStreamOfUnknownChatOrWithInvalidLastEventId() throws Exception {
+        when(chatStreamService.isAvailable()).thenReturn(true);
+        when(chatStreamService.subscribe(chatId, null)).thenReturn(Optional.empty());
+        when(chatStreamService.subscribe(chatId, -1L)).thenThrow(new IllegalArgumentException("Last-Event-ID cannot be negative"));
+        
+        mockMvc.perform(get("/api/chats/{chatId}/stream", chatId).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/chats/{chatId}/stream", chatId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "-1"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/chats/{chatId}/stream", chatId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "abc"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void shouldRefuseStreamInClusterMode() throws Exception {
+        when(chatStreamService.isAvailable()).thenReturn(false);
+        
+        mockMvc.perform(get("/api/chats/{chatId}/stream", chatId).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isNotImplemented());
+        verify(chatStreamService, never()).subscribe(any(), any());
+    }
+    
+    private Chat chat() {
+        return Chat.reconstruct(chatId, "Mon Premier Chat", Set.of(john), List.of(), Instant.parse("2024-01-01T09:00:00Z"));
+    }
+    
+    private Message message(long sequence, String content) {
+        return Message.reconstruct(UUID.randomUUID(), content, jane, Instant.parse("2024-01-01T10:00:00Z").plusSeconds(sequence), sequence);
+    }
+}
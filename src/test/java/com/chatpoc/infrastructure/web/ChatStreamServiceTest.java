@@ -0,0 +1,101 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.application.queries.GetChatQuery;
+import com.chatpoc.application.queries.GetMessagesSinceQuery;
+import com.chatpoc.application.services.ChatService;
+import com.chatpoc.infrastructure.broker.SlowConsumerPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatStreamServiceTest {
+    
+    @Mock
+    private ChatService chatService;
+    
+    private ChatStreamService chatStreamService;
+    
+    @BeforeEach
+    void setUp() {
+        chatStreamService = new ChatStreamService(chatService, new ObjectMapper().findAndRegisterModules(),
+            new SimpleMeterRegistry(), Duration.ofMinutes(1), Duration.ofSeconds(15), 16,
+            SlowConsumerPolicy.DISCONNECT, 1, 100, false);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        chatStreamService.shutdown();
+    }
+    
+    @Test
+    void shouldNotOpenStreamForUnknownChat() {
+        UUID chatId = UUID.randomUUID();
+        when(chatService.chatExists(new GetChatQuery(chatId))).thenReturn(false);
+        
+        assertTrue(chatStreamService.subscribe(chatId, null).isEmpty());
+        assertEquals(0, chatStreamService.getSubscriberCount(chatId));
+    }
+    
+    @Test
+    void shouldRegisterSubscriberWithoutReplayWhenNoLastEventId() {
+        UUID chatId = UUID.randomUUID();
+        when(chatService.chatExists(new GetChatQuery(chatId))).thenReturn(true);
+        
+        assertTrue(chatStreamService.subscribe(chatId, null).isPresent());
+        
+        assertEquals(1, chatStreamService.getSubscriberCount(chatId));
+        verify(chatService, never()).getMessagesSince(any());
+    }
+    
+    @Test
+    void shouldLoadMissedMessagesAfterLastEventIdUpToClientBufferSize() {
+        UUID chatId = UUID.randomUUID();
+        when(chatService.chatExists(new GetChatQuery(chatId))).thenReturn(true);
+        when(chatService.getMessagesSince(new GetMessagesSinceQuery(chatId, 41, 17))).thenReturn(List.of());
+        
+        assertTrue(chatStreamService.subscribe(chatId, 41L).isPresent());
+        
+        verify(chatService).getMessagesSince(new GetMessagesSinceQuery(chatId, 41, 17));
+    }
+    
+    @Test
+    void shouldRefuseSubscriptionsInClusterMode() {
+        ChatStreamService clustered = new ChatStreamService(chatService, new ObjectMapper(), new SimpleMeterRegistry(),
+            Duration.ofMinutes(1), Duration.ofSeconds(15), 16, SlowConsumerPolicy.DISCONNECT, 1, 100, true);
+        try {
+            UUID chatId = UUID.randomUUID();
+            
+            assertFalse(clustered.isAvailable());
+            assertThrows(IllegalStateException.class, () -> clustered.subscribe(chatId, null));
+            assertEquals(0, clustered.getSubscriberCount(chatId));
+            verifyNoInteractions(chatService);
+        } finally {
+            clustered.shutdown();
+        }
+    }
+    
+    @Test
+    void shouldRejectNegativeLastEventId() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> chatStreamService.subscribe(UUID.randomUUID(), -1L)
+        );
+        
+        assertEquals("Last-Event-ID cannot be negative", exception.getMessage());
+        verifyNoInteractions(chatService);
+    }
+}
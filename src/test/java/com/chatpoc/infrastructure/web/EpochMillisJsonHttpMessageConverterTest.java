@@ -0,0 +1,43 @@
+package com.chatpoc.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpochMillisJsonHttpMessageConverterTest {
+    
+    private static final MediaType EPOCH_MILLIS = MediaType.parseMediaType("application/json;timestamps=epoch-millis");
+    
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final EpochMillisJsonHttpMessageConverter converter = new EpochMillisJsonHttpMessageConverter(objectMapper);
+    
+    @Test
+    void shouldOnlyWriteWhenClientOptsIn() {
+        assertTrue(converter.canWrite(MessageDTO.class, EPOCH_MILLIS));
+        assertFalse(converter.canWrite(MessageDTO.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(MessageDTO.class, null));
+        assertFalse(converter.canRead(MessageDTO.class, EPOCH_MILLIS));
+    }
+    
+    @Test
+    void shouldWriteDatesAsEpochMillisWithoutChangingSharedMapper() throws Exception {
+        Instant sentAt = Instant.parse("2024-01-01T10:00:00.123Z");
+        MessageDTO message = new MessageDTO("id", "Bonjour", "Jane Smith", "jane@example.com", sentAt, 1);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        
+        converter.write(List.of(message), EPOCH_MILLIS, output);
+        
+        assertEquals(sentAt.toEpochMilli(), objectMapper.readTree(output.getBodyAsBytes()).get(0).get("timestamp").longValue());
+        assertTrue(objectMapper.writeValueAsString(message).contains("\"2024-01-01T10:00:00.123Z\""));
+    }
+}
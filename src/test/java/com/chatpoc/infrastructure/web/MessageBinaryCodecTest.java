@@ -0,0 +1,122 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.infrastructure.broker.WireFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageBinaryCodecTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    
+    @Test
+    void shouldRoundTripMessageWithMillisecondPrecision() {
+        MessageDTO message = message("Salut à tous, ça va ? 👋");
+        
+        MessageDTO decoded = MessageBinaryCodec.decode(MessageBinaryCodec.encode(message));
+        
+        assertEquals(message.id(), decoded.id());
+        assertEquals(message.content(), decoded.content());
+        assertEquals(message.senderName(), decoded.senderName());
+        assertEquals(message.senderEmail(), decoded.senderEmail());
+        assertEquals(message.timestamp().truncatedTo(ChronoUnit.MILLIS), decoded.timestamp());
+        assertEquals(message.sequence(), decoded.sequence());
+    }
+    
+    @Test
+    void shouldBeAtLeastTwiceSmallerThanJsonForShortMessages() throws Exception {
+        MessageDTO message = message("ok");
+        
+        int jsonSize = objectMapper.writeValueAsBytes(message).length;
+        int binarySize = MessageBinaryCodec.encode(message).length;
+        
+        assertTrue(binarySize * 2 <= jsonSize, "binary=" + binarySize + " json=" + jsonSize);
+    }
+    
+    @Test
+    void shouldRoundTripHistoryExport() {
+        List<MessageDTO> messages = List.of(message("Premier"), message("x".repeat(300)), message(""));
+        
+        List<MessageDTO> decoded = MessageBinaryCodec.decodeAll(MessageBinaryCodec.encodeAll(messages));
+        
+        assertEquals(messages.stream().map(MessageDTO::content).toList(), decoded.stream().map(MessageDTO::content).toList());
+        assertEquals(List.of(), MessageBinaryCodec.decodeAll(MessageBinaryCodec.encodeAll(List.of())));
+    }
+    
+    @Test
+    void shouldRejectTruncatedOrUnknownPayloads() {
+        byte[] encoded = MessageBinaryCodec.encode(message("Bonjour"));
+        byte[] truncated = new byte[encoded.length - 3];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        encoded[0] = 9;
+        
+        assertThrows(IllegalArgumentException.class, () -> MessageBinaryCodec.decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> MessageBinaryCodec.decode(encoded));
+        assertThrows(IllegalArgumentException.class, () -> MessageBinaryCodec.decodeAll("{}".getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @Test
+    void shouldRejectTrailingBytesAfterHistoryExport() {
+        byte[] encoded = MessageBinaryCodec.encodeAll(List.of(message("Premier"), message("Second")));
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> MessageBinaryCodec.decodeAll(trailing));
+        assertEquals("Trailing bytes after binary message export", exception.getMessage());
+    }
+    
+    @Test
+    void shouldReencodeRelayedJsonOnlyWhenBinaryIsRequested() throws Exception {
+        MessageDTO message = message("Relayé");
+        byte[] json = objectMapper.writeValueAsBytes(message);
+        
+        var payload = MessageTopicPayload.fromJson(json, MimeTypeUtils.APPLICATION_JSON, objectMapper);
+        
+        assertSame(json, payload.encode(WireFormat.DEFAULT));
+        assertEquals(message.content(), MessageBinaryCodec.decode(payload.encode(WireFormat.BINARY)).content());
+        assertNull(MessageTopicPayload.fromJson("{".getBytes(StandardCharsets.UTF_8), MimeTypeUtils.APPLICATION_JSON, objectMapper)
+            .encode(WireFormat.BINARY));
+    }
+    
+    @Test
+    void shouldWriteEpochMillisJsonLikeTheMapperWithNumericDates() throws Exception {
+        MessageDTO message = message("Horodaté \"en\" millisecondes");
+        ObjectMapper epochMillisMapper = objectMapper.copy()
+            .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+        
+        byte[] written = MessageTopicPayload.of(message, objectMapper).encode(WireFormat.JSON_EPOCH_MILLIS);
+        
+        assertEquals(epochMillisMapper.readTree(epochMillisMapper.writeValueAsBytes(message)), objectMapper.readTree(written));
+        assertEquals(message.timestamp().toEpochMilli(), objectMapper.readTree(written).get("timestamp").longValue());
+    }
+    
+    @Test
+    void shouldLabelEpochMillisJsonWithItsParameter() throws Exception {
+        MessageDTO message = message("Relayé");
+        var payload = MessageTopicPayload.fromJson(objectMapper.writeValueAsBytes(message), MimeTypeUtils.APPLICATION_JSON, objectMapper);
+        
+        assertEquals(WireFormat.EPOCH_MILLIS_JSON_TYPE, payload.contentType(WireFormat.JSON_EPOCH_MILLIS));
+        assertEquals(message.timestamp().toEpochMilli(),
+            objectMapper.readTree(payload.encode(WireFormat.JSON_EPOCH_MILLIS)).get("timestamp").longValue());
+    }
+    
+    private static MessageDTO message(String content) {
+        return new MessageDTO(UUID.randomUUID().toString(), content, "Alice Martin", "alice@example.com", Instant.now(),
+            ThreadLocalRandom.current().nextLong(1, 1L << 40));
+    }
+}
@@ -0,0 +1,146 @@
+package com.chatpoc.infrastructure.web;
+
+import com.chatpoc.infrastructure.broker.SlowConsumerPolicy;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SseSubscriberTest {
+    
+    private final SseEmitter emitter = mock(SseEmitter.class);
+    private final List<Runnable> scheduledDrains = new ArrayList<>();
+    private final Executor manualWriter = scheduledDrains::add;
+    
+    @Test
+    void shouldWriteQueuedEventsInOrderWithASingleDrain() throws Exception {
+        SseSubscriber subscriber = new SseSubscriber(emitter, 8, SlowConsumerPolicy.DISCONNECT, manualWriter, false);
+        SseSubscriber.Event first = event(1);
+        SseSubscriber.Event second = event(2);
+        
+        assertEquals(SseSubscriber.Offer.QUEUED, subscriber.offer(first));
+        assertEquals(SseSubscriber.Offer.QUEUED, subscriber.offer(second));
+        assertEquals(1, scheduledDrains.size());
+        
+        scheduledDrains.get(0).run();
+        
+        InOrder inOrder = inOrder(emitter);
+        inOrder.verify(emitter).send(first.lines());
+        inOrder.verify(emitter).send(second.lines());
+    }
+    
+    @Test
+    void shouldSendReplayBeforeLiveEventsWithoutDuplicates() throws Exception {
+        SseSubscriber subscriber = new SseSubscriber(emitter, 8, SlowConsumerPolicy.DISCONNECT, Runnable::run, true);
+        SseSubscriber.Event alreadyReplayed = event(3);
+        SseSubscriber.Event live = event(4);
+        
+        subscriber.offer(alreadyReplayed);
+        subscriber.offer(live);
+        verify(emitter, never()).send(anySet());
+        
+        SseSubscriber.Event missed = event(2);
+        SseSubscriber.Event replayed = event(3);
+        subscriber.resume(1, List.of(missed, replayed));
+        
+        InOrder inOrder = inOrder(emitter);
+        inOrder.verify(emitter).send(missed.lines());
+        inOrder.verify(emitter).send(replayed.lines());
+        inOrder.verify(emitter).send(live.lines());
+        verify(emitter, never()).send(alreadyReplayed.lines());
+    }
+    
+    @Test
+    void shouldSkipReplayedSequencesPublishedAfterResume() throws Exception {
+        SseSubscriber subscriber = new SseSubscriber(emitter, 8, SlowConsumerPolicy.DISCONNECT, Runnable::run, true);
+        subscriber.resume(1, List.of(event(2), event(3)));
+        
+        // 3 was committed before the replay read it, the relay publishes it afterwards
+        SseSubscriber.Event relayedLate = event(3);
+        SseSubscriber.Event next = event(4);
+        
+        assertEquals(SseSubscriber.Offer.REPLAYED, subscriber.offer(relayedLate));
+        assertEquals(SseSubscriber.Offer.REPLAYED, subscriber.offer(event(1)));
+        assertEquals(SseSubscriber.Offer.QUEUED, subscriber.offer(next));
+        
+        verify(emitter, never()).send(relayedLate.lines());
+        verify(emitter).send(next.lines());
+    }
+    
+    @Test
+    void shouldKeepTheBufferBoundedWhenTheReplayIsLarger() throws Exception {
+        SseSubscriber subscriber = new SseSubscriber(emitter, 3, SlowConsumerPolicy.DISCONNECT, manualWriter, true);
+        SseSubscriber.Event live = event(6);
+        SseSubscriber.Event fourth = event(4);
+        SseSubscriber.Event fifth = event(5);
+        subscriber.offer(live);
+        
+        int dropped = subscriber.resume(0, List.of(event(1), event(2), event(3), fourth, fifth));
+        scheduledDrains.get(0).run();
+        
+        assertEquals(3, dropped);
+        InOrder inOrder = inOrder(emitter);
+        inOrder.verify(emitter).send(fourth.lines());
+        inOrder.verify(emitter).send(fifth.lines());
+        inOrder.verify(emitter).send(live.lines());
+        verify(emitter, times(3)).send(anySet());
+    }
+    
+    @Test
+    void shouldReportFullBufferWhenDisconnectPolicyApplies() {
+        SseSubscriber subscriber = new SseSubscriber(emitter, 2, SlowConsumerPolicy.DISCONNECT, manualWriter, false);
+        
+        subscriber.offer(event(1));
+        subscriber.offer(event(2));
+        
+        assertEquals(SseSubscriber.Offer.FULL, subscriber.offer(event(3)));
+        assertEquals(SseSubscriber.Offer.CLOSED, subscriber.offer(event(4)));
+    }
+    
+    @Test
+    void shouldDropOldestEventsWhenDropPolicyApplies() throws Exception {
+        SseSubscriber subscriber = new SseSubscriber(emitter, 2, SlowConsumerPolicy.DROP, manualWriter, false);
+        SseSubscriber.Event oldest = event(1);
+        SseSubscriber.Event second = event(2);
+        SseSubscriber.Event newest = event(3);
+        
+        subscriber.offer(oldest);
+        subscriber.offer(second);
+        assertEquals(SseSubscriber.Offer.DROPPED, subscriber.offer(newest));
+        
+        scheduledDrains.get(0).run();
+        
+        verify(emitter, never()).send(oldest.lines());
+        verify(emitter).send(second.lines());
+        verify(emitter).send(newest.lines());
+    }
+    
+    @Test
+    void shouldStopWritingWhenClientIsGone() throws Exception {
+        SseSubscriber subscriber = new SseSubscriber(emitter, 8, SlowConsumerPolicy.DISCONNECT, manualWriter, false);
+        doThrow(new IOException("Broken pipe")).when(emitter).send(anySet());
+        
+        subscriber.offer(event(1));
+        subscriber.offer(event(2));
+        scheduledDrains.get(0).run();
+        
+        verify(emitter, times(1)).send(anySet());
+        verify(emitter).completeWithError(any());
+        assertEquals(SseSubscriber.Offer.CLOSED, subscriber.offer(event(3)));
+    }
+    
+    private static SseSubscriber.Event event(long sequence) {
+        return new SseSubscriber.Event(sequence, SseEmitter.event()
+            .id(Long.toString(sequence))
+            .data("{\"sequence\":" + sequence + "}")
+            .build());
+    }
+}
@@ -0,0 +1,201 @@
+package com.chatpoc.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compare les modes d'exécution ({@code chat.execution.mode}) sous un grand nombre de requêtes bloquantes
+ * simultanées : {@code loadtest.concurrency} lectures d'historique restent en vol en permanence jusqu'à
+ * {@code loadtest.requests} requêtes. Le cache des chats actifs doit être désactivé pour que chaque lecture
+ * passe par JPA.
+ *
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--chat.cache.enabled=false --server.tomcat.max-connections=20000"
+ * mvn -Pjava21 spring-boot:run \
+ *   -Dspring-boot.run.arguments="--chat.execution.mode=virtual --chat.cache.enabled=false --server.tomcat.max-connections=20000"
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.chatpoc.loadtest.BlockingRequestBenchmark \
+ *   -Dloadtest.label=virtual -Dloadtest.concurrency=10000 -Dloadtest.requests=200000
+ * </pre>
+ *
+ * Affiche le débit, les erreurs par cause, les percentiles de latence et le pic de threads du serveur
+ * ({@code jvm.threads.peak}) ; l'histogramme est écrit dans {@code target/loadtest/blocking-<label>.hgrm}.
+ */
+public final class BlockingRequestBenchmark {
+    
+    private static final int HISTORY_MESSAGES = 50;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    
+    private final String baseUrl;
+    private final String label;
+    private final int concurrency;
+    private final long requests;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    
+    private final Histogram latency = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicLong completed = new AtomicLong();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    
+    private BlockingRequestBenchmark() {
+        this.baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+        this.label = System.getProperty("loadtest.label", "run");
+        this.concurrency = Integer.getInteger("loadtest.concurrency", 10_000);
+        this.requests = Long.getLong("loadtest.requests", 100_000);
+        this.requestTimeout = Duration.ofSeconds(Long.getLong("loadtest.timeoutSeconds", 60));
+        if (concurrency <= 0 || requests <= 0) {
+            throw new IllegalArgumentException("Concurrency and request count must be positive");
+        }
+        this.httpClient = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2))
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        try {
+            new BlockingRequestBenchmark().run();
+        } finally {
+            System.exit(0);
+        }
+    }
+    
+    private void run() throws Exception {
+        String chatId = createChatWithHistory();
+        URI historyUri = URI.create(baseUrl + "/api/chats/" + chatId + "/messages?limit=" + HISTORY_MESSAGES);
+        System.out.printf("[%s] %d requêtes, %d simultanées, serveur : %d threads actifs%n",
+            label, requests, concurrency, serverMetric("jvm.threads.live"));
+        
+        Semaphore inFlight = new Semaphore(concurrency);
+        long startNanos = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            inFlight.acquire();
+            long requestStartNanos = System.nanoTime();
+            httpClient.sendAsync(HttpRequest.newBuilder(historyUri).timeout(requestTimeout).GET().build(),
+                    HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    if (error != null) {
+                        countError(rootCause(error).getClass().getSimpleName());
+                    } else if (response.statusCode() != 200) {
+                        countError("HTTP " + response.statusCode());
+                    } else {
+                        record(System.nanoTime() - requestStartNanos);
+                    }
+                });
+        }
+        inFlight.acquire(concurrency);
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        
+        printSummary(seconds);
+    }
+    
+    private String createChatWithHistory() throws IOException, InterruptedException {
+        HttpResponse<String> created = post("/api/chats", Map.of(
+            "chatName", "Blocking benchmark",
+            "creatorName", "Load Creator",
+            "creatorEmail", "creator@loadtest.local"
+        ));
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("Chat creation failed with status " + created.statusCode() + ": " + created.body());
+        }
+        String chatId = objectMapper.readTree(created.body()).get("id").asText();
+        for (int i = 0; i < HISTORY_MESSAGES; i++) {
+            HttpResponse<String> sent = post("/api/chats/" + chatId + "/messages", Map.of(
+                "content", "History message " + i,
+                "senderName", "Load Creator",
+                "senderEmail", "creator@loadtest.local"
+            ));
+            if (sent.statusCode() != 201) {
+                throw new IllegalStateException("Message creation failed with status " + sent.statusCode() + ": " + sent.body());
+            }
+        }
+        return chatId;
+    }
+    
+    private HttpResponse<String> post(String path, Map<String, String> body) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private long serverMetric(String name) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            return objectMapper.readTree(response.body()).path("measurements").path(0).path("value").asLong(-1);
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+    
+    private synchronized void record(long nanos) {
+        latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        completed.incrementAndGet();
+    }
+    
+    private void countError(String cause) {
+        errors.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+    
+    private void printSummary(double seconds) throws IOException {
+        long failed = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        
+        System.out.println();
+        System.out.printf("Débit     : %.1f requêtes/s (%d réussies en %.1f s)%n", completed.get() / seconds, completed.get(), seconds);
+        System.out.printf("Erreurs   : %d (%.2f%%) %s%n", failed, failed * 100.0 / requests, errors);
+        synchronized (this) {
+            if (latency.getTotalCount() > 0) {
+                System.out.printf("Latence   : p50 %8.2f ms  p90 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(90) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+            }
+            System.out.printf("Serveur   : pic de %d threads JVM%n", serverMetric("jvm.threads.peak"));
+            
+            Path directory = Path.of("target", "loadtest");
+            Files.createDirectories(directory);
+            Path histogram = directory.resolve("blocking-" + label + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(histogram))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+            System.out.println("Histogramme écrit dans " + histogram.toAbsolutePath());
+        }
+    }
+    
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
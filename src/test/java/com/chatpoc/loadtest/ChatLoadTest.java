@@ -0,0 +1,408 @@
+package com.chatpoc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur de charge REST + STOMP contre une instance locale de {@code ChatApplication}.
+ *
+ * <pre>
+ * mvn spring-boot:run
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.chatpoc.loadtest.ChatLoadTest \
+ *   -Dloadtest.scenario=HOT_CHAT -Dloadtest.subscribers=2000 -Dloadtest.senders=20 -Dloadtest.rate=10
+ * </pre>
+ *
+ * Scénarios : {@code HOT_CHAT} (tous les abonnés et émetteurs sur un seul chat), {@code COLD_CHATS}
+ * (abonnés et envois répartis sur {@code loadtest.chats} chats), {@code MIXED} (comme COLD_CHATS, une
+ * proportion {@code loadtest.readRatio} des opérations lit l'historique au lieu d'envoyer).
+ * La latence publication → livraison est mesurée sur chaque abonné à partir de l'horodatage inscrit dans
+ * le contenu du message ; les histogrammes complets sont écrits dans {@code target/loadtest}.
+ * {@code loadtest.batchWindowMillis} demande au serveur de regrouper les trames de chaque abonné.
+ */
+public final class ChatLoadTest {
+    
+    private static final String CONTENT_PREFIX = "load ";
+    private static final int MAX_SENDERS_PER_CHAT = 49;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient httpClient;
+    private final Semaphore inFlight;
+    
+    private final Recorder deliveryLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder postLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder readLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram totalDelivery = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram totalPost = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram totalRead = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong expectedDeliveries = new AtomicLong();
+    private final AtomicLong postErrors = new AtomicLong();
+    private final AtomicLong readErrors = new AtomicLong();
+    private final AtomicLong stompErrors = new AtomicLong();
+    private final AtomicLong saturated = new AtomicLong();
+    
+    private final Map<String, AtomicInteger> subscribersPerChat = new ConcurrentHashMap<>();
+    private volatile long measureStartNanos = Long.MAX_VALUE;
+    private volatile long measureEndNanos = Long.MAX_VALUE;
+    private long lastReportNanos;
+    
+    private ChatLoadTest(LoadTestSettings settings) {
+        this.settings = Objects.requireNonNull(settings);
+        this.httpClient = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2))
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        this.inFlight = new Semaphore(settings.maxInFlightRequests());
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try {
+            new ChatLoadTest(settings).run();
+        } finally {
+            System.exit(0);
+        }
+    }
+    
+    private void run() throws Exception {
+        System.out.printf("Scénario %s : %d chats, %d abonnés, %d émetteurs à %.1f op/s, lecture %.0f%%%n",
+            settings.scenario(), settings.chats(), settings.subscribers(), settings.senders(),
+            settings.messagesPerSecondPerSender(), settings.readRatio() * 100);
+        
+        List<String> chatIds = createChats();
+        List<StompSession> sessions = connectSubscribers(chatIds);
+        Thread.sleep(1_000);
+        
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            Math.min(settings.senders(), Runtime.getRuntime().availableProcessors()));
+        startSenders(scheduler, chatIds);
+        
+        long startNanos = System.nanoTime();
+        lastReportNanos = startNanos;
+        measureStartNanos = startNanos + settings.warmup().toNanos();
+        measureEndNanos = measureStartNanos + settings.duration().toNanos();
+        
+        long reportNanos = settings.reportInterval().toNanos();
+        long nextReport = startNanos + reportNanos;
+        while (System.nanoTime() < measureEndNanos) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, Math.min(nextReport, measureEndNanos) - System.nanoTime()));
+            if (System.nanoTime() >= nextReport) {
+                reportInterval(startNanos);
+                nextReport += reportNanos;
+            }
+        }
+        
+        scheduler.shutdownNow();
+        inFlight.tryAcquire(settings.maxInFlightRequests(), 10, TimeUnit.SECONDS);
+        Thread.sleep(2_000);
+        reportInterval(startNanos);
+        
+        sessions.forEach(StompSession::disconnect);
+        printSummary();
+    }
+    
+    private List<String> createChats() throws IOException, InterruptedException {
+        List<String> chatIds = new ArrayList<>(settings.chats());
+        for (int i = 0; i < settings.chats(); i++) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                "chatName", "Load test " + i,
+                "creatorName", "Load Creator",
+                "creatorEmail", "creator@loadtest.local"
+            ));
+            HttpResponse<String> response = httpClient.send(
+                jsonRequest(settings.baseUrl() + "/api/chats").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Chat creation failed with status " + response.statusCode() + ": " + response.body());
+            }
+            chatIds.add(objectMapper.readTree(response.body()).get("id").asText());
+        }
+        return chatIds;
+    }
+    
+    private List<StompSession> connectSubscribers(List<String> chatIds) throws InterruptedException {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient.setMessageConverter(converter);
+        
+        List<StompSession> sessions = Collections.synchronizedList(new ArrayList<>());
+        Semaphore handshakes = new Semaphore(200);
+        AtomicLong connectFailures = new AtomicLong();
+        CountDownLatch connected = new CountDownLatch(settings.subscribers());
+        StompHeaders connectHeaders = new StompHeaders();
+        if (settings.batchWindowMillis() > 0) {
+            connectHeaders.set("x-batch-window", String.valueOf(settings.batchWindowMillis()));
+        }
+        
+        for (int i = 0; i < settings.subscribers(); i++) {
+            String chatId = chatIds.get(i % chatIds.size());
+            handshakes.acquire();
+            stompClient.connectAsync(settings.webSocketUrl(), new WebSocketHttpHeaders(), connectHeaders,
+                    new SubscriberHandler(chatId))
+                .whenComplete((session, error) -> {
+                    handshakes.release();
+                    if (error != null) {
+                        connectFailures.incrementAndGet();
+                    } else {
+                        sessions.add(session);
+                    }
+                    connected.countDown();
+                });
+        }
+        
+        connected.await(2, TimeUnit.MINUTES);
+        System.out.printf("%d abonnés connectés, %d échecs de connexion%n", sessions.size(), connectFailures.get());
+        return sessions;
+    }
+    
+    private void startSenders(ScheduledExecutorService scheduler, List<String> chatIds) {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.messagesPerSecondPerSender());
+        AtomicLong sequence = new AtomicLong();
+        
+        for (int i = 0; i < settings.senders(); i++) {
+            // A chat holds at most 50 participants, creator included: senders reuse 49 identities
+            int identity = i % MAX_SENDERS_PER_CHAT;
+            long initialDelay = ThreadLocalRandom.current().nextLong(periodNanos);
+            scheduler.scheduleAtFixedRate(() -> {
+                String chatId = chatIds.get(ThreadLocalRandom.current().nextInt(chatIds.size()));
+                if (ThreadLocalRandom.current().nextDouble() < settings.readRatio()) {
+                    readHistory(chatId);
+                } else {
+                    sendMessage(chatId, identity, sequence.incrementAndGet());
+                }
+            }, initialDelay, periodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private void sendMessage(String chatId, int identity, long sequence) {
+        if (!inFlight.tryAcquire()) {
+            saturated.incrementAndGet();
+            return;
+        }
+        
+        long startNanos = System.nanoTime();
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(Map.of(
+                "content", CONTENT_PREFIX + startNanos + " " + sequence,
+                "senderName", "Sender " + identity,
+                "senderEmail", "sender" + identity + "@loadtest.local"
+            ));
+        } catch (IOException e) {
+            inFlight.release();
+            throw new IllegalStateException(e);
+        }
+        
+        httpClient.sendAsync(
+                jsonRequest(settings.baseUrl() + "/api/chats/" + chatId + "/messages")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                inFlight.release();
+                if (!isMeasured(startNanos)) {
+                    return;
+                }
+                if (error != null || response.statusCode() != 201) {
+                    postErrors.incrementAndGet();
+                    return;
+                }
+                postLatency.recordValue(micros(System.nanoTime() - startNanos));
+                messagesSent.incrementAndGet();
+                expectedDeliveries.addAndGet(subscriberCount(chatId));
+            });
+    }
+    
+    private void readHistory(String chatId) {
+        if (!inFlight.tryAcquire()) {
+            saturated.incrementAndGet();
+            return;
+        }
+        
+        long startNanos = System.nanoTime();
+        httpClient.sendAsync(
+                jsonRequest(settings.baseUrl() + "/api/chats/" + chatId + "/messages?limit=50").GET().build(),
+                HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                inFlight.release();
+                if (!isMeasured(startNanos)) {
+                    return;
+                }
+                if (error != null || response.statusCode() != 200) {
+                    readErrors.incrementAndGet();
+                    return;
+                }
+                readLatency.recordValue(micros(System.nanoTime() - startNanos));
+                reads.incrementAndGet();
+            });
+    }
+    
+    private void onDelivery(JsonNode payload) {
+        long receivedNanos = System.nanoTime();
+        String content = payload.path("content").asText("");
+        if (!content.startsWith(CONTENT_PREFIX)) {
+            return;
+        }
+        
+        long sentNanos = Long.parseLong(content.substring(CONTENT_PREFIX.length(), content.indexOf(' ', CONTENT_PREFIX.length())));
+        if (isMeasured(sentNanos)) {
+            deliveryLatency.recordValue(micros(receivedNanos - sentNanos));
+            deliveries.incrementAndGet();
+        }
+    }
+    
+    private boolean isMeasured(long startNanos) {
+        return startNanos >= measureStartNanos && startNanos < measureEndNanos;
+    }
+    
+    private int subscriberCount(String chatId) {
+        AtomicInteger count = subscribersPerChat.get(chatId);
+        return count == null ? 0 : count.get();
+    }
+    
+    private synchronized void reportInterval(long startNanos) {
+        Histogram delivery = deliveryLatency.getIntervalHistogram();
+        Histogram post = postLatency.getIntervalHistogram();
+        Histogram read = readLatency.getIntervalHistogram();
+        totalDelivery.add(delivery);
+        totalPost.add(post);
+        totalRead.add(read);
+        
+        long now = System.nanoTime();
+        double seconds = (now - lastReportNanos) / 1e9;
+        lastReportNanos = now;
+        System.out.printf("[%4ds] envois %7.1f/s  lectures %7.1f/s  livraisons %9.1f/s  p99 livraison %8.2f ms  p99 POST %8.2f ms  p99 GET %8.2f ms%n",
+            TimeUnit.NANOSECONDS.toSeconds(now - startNanos),
+            post.getTotalCount() / seconds,
+            read.getTotalCount() / seconds,
+            delivery.getTotalCount() / seconds,
+            delivery.getValueAtPercentile(99) / 1000.0,
+            post.getValueAtPercentile(99) / 1000.0,
+            read.getValueAtPercentile(99) / 1000.0);
+    }
+    
+    private void printSummary() throws IOException {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        long postAttempts = messagesSent.get() + postErrors.get();
+        long readAttempts = reads.get() + readErrors.get();
+        
+        System.out.println();
+        System.out.printf("Débit     : %.1f envois/s, %.1f lectures/s, %.1f livraisons/s%n",
+            messagesSent.get() / seconds, reads.get() / seconds, deliveries.get() / seconds);
+        System.out.printf("Erreurs   : POST %d (%.2f%%), GET %d (%.2f%%), STOMP %d, saturation client %d%n",
+            postErrors.get(), ratio(postErrors.get(), postAttempts),
+            readErrors.get(), ratio(readErrors.get(), readAttempts),
+            stompErrors.get(), saturated.get());
+        System.out.printf("Livraison : %d / %d attendues (%.2f%% perdues)%n",
+            deliveries.get(), expectedDeliveries.get(),
+            ratio(Math.max(0, expectedDeliveries.get() - deliveries.get()), expectedDeliveries.get()));
+        
+        printPercentiles("livraison", totalDelivery);
+        printPercentiles("POST", totalPost);
+        printPercentiles("GET", totalRead);
+        
+        Path directory = Path.of("target", "loadtest");
+        Files.createDirectories(directory);
+        writeHistogram(directory.resolve(settings.scenario().name().toLowerCase() + "-delivery.hgrm"), totalDelivery);
+        writeHistogram(directory.resolve(settings.scenario().name().toLowerCase() + "-post.hgrm"), totalPost);
+        writeHistogram(directory.resolve(settings.scenario().name().toLowerCase() + "-get.hgrm"), totalRead);
+        System.out.println("Histogrammes écrits dans " + directory.toAbsolutePath());
+    }
+    
+    private static void printPercentiles(String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        System.out.printf("%-10s p50 %8.2f ms  p90 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+            label,
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(90) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMaxValue() / 1000.0);
+    }
+    
+    private static void writeHistogram(Path path, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+    
+    private static double ratio(long part, long total) {
+        return total == 0 ? 0.0 : part * 100.0 / total;
+    }
+    
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+    
+    private static HttpRequest.Builder jsonRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json");
+    }
+    
+    private final class SubscriberHandler extends StompSessionHandlerAdapter {
+        
+        private final String chatId;
+        
+        private SubscriberHandler(String chatId) {
+            this.chatId = chatId;
+        }
+        
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            session.subscribe("/topic/chat/" + chatId, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return JsonNode.class;
+                }
+                
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    onDelivery((JsonNode) payload);
+                }
+            });
+            subscribersPerChat.computeIfAbsent(chatId, id -> new AtomicInteger()).incrementAndGet();
+        }
+        
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            stompErrors.incrementAndGet();
+        }
+        
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            stompErrors.incrementAndGet();
+        }
+    }
+}
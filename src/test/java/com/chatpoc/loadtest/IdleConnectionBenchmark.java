@@ -0,0 +1,275 @@
+package com.chatpoc.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compare le coût des connexions WebSocket inactives entre {@code ChatApplication} (STOMP sur {@code /ws})
+ * et {@code ReactiveChatApplication} (JSON brut sur {@code /ws/topic/chat/{chatId}}) : ouvre
+ * {@code loadtest.connections} abonnements sur un même chat, relève le tas et les threads du serveur avant
+ * et après, puis publie {@code loadtest.messages} messages et mesure la latence de livraison.
+ *
+ * <pre>
+ * mvn spring-boot:run
+ * mvn -Preactive spring-boot:run
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.chatpoc.loadtest.IdleConnectionBenchmark \
+ *   -Dloadtest.mode=reactive -Dloadtest.connections=50000 -Dloadtest.hosts=127.0.0.1,127.0.0.2
+ * </pre>
+ *
+ * Au-delà d'environ 28 000 connexions, les ports éphémères d'une seule adresse de destination sont épuisés :
+ * {@code loadtest.hosts} répartit les connexions sur plusieurs adresses de loopback du serveur (et
+ * {@code ulimit -n} doit être relevé des deux côtés). Le tas mesuré inclut les déchets non collectés, la
+ * valeur par connexion est une estimation haute. L'histogramme est écrit dans
+ * {@code target/loadtest/idle-<mode>.hgrm}.
+ */
+public final class IdleConnectionBenchmark {
+    
+    private static final String CONTENT_PREFIX = "idle ";
+    private static final Pattern CONTENT = Pattern.compile("\"content\":\"" + CONTENT_PREFIX + "(\\d+)\"");
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    
+    private final String baseUrl;
+    private final Mode mode;
+    private final int connections;
+    private final List<String> hosts;
+    private final int messages;
+    private final Duration settleTime;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    
+    private final Histogram latency = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+    
+    private enum Mode { STOMP, REACTIVE }
+    
+    private IdleConnectionBenchmark() {
+        this.baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+        this.mode = Mode.valueOf(System.getProperty("loadtest.mode", "stomp").toUpperCase());
+        this.connections = Integer.getInteger("loadtest.connections", 10_000);
+        this.hosts = Arrays.asList(System.getProperty("loadtest.hosts", "127.0.0.1").split(","));
+        this.messages = Integer.getInteger("loadtest.messages", 20);
+        this.settleTime = Duration.ofSeconds(Long.getLong("loadtest.settleSeconds", 10));
+        if (connections <= 0 || messages <= 0) {
+            throw new IllegalArgumentException("Connection and message counts must be positive");
+        }
+        this.httpClient = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2))
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        try {
+            new IdleConnectionBenchmark().run();
+        } finally {
+            System.exit(0);
+        }
+    }
+    
+    private void run() throws Exception {
+        String chatId = createChat();
+        long heapBefore = serverMetric("jvm.memory.used?tag=area:heap");
+        long threadsBefore = serverMetric("jvm.threads.live");
+        
+        List<WebSocket> sockets = connect(chatId);
+        System.out.printf("[%s] %d connexions ouvertes, %d échecs ; attente de %d s%n",
+            mode, sockets.size(), connectFailures.get(), settleTime.toSeconds());
+        Thread.sleep(settleTime.toMillis());
+        
+        long heapAfter = serverMetric("jvm.memory.used?tag=area:heap");
+        long threadsAfter = serverMetric("jvm.threads.live");
+        
+        for (int i = 0; i < messages; i++) {
+            post("/api/chats/" + chatId + "/messages", Map.of(
+                "content", CONTENT_PREFIX + System.nanoTime(),
+                "senderName", "Idle Creator",
+                "senderEmail", "creator@loadtest.local"
+            ));
+            Thread.sleep(1000);
+        }
+        Thread.sleep(settleTime.toMillis());
+        
+        printSummary(sockets.size(), heapAfter - heapBefore, threadsAfter - threadsBefore);
+    }
+    
+    private String createChat() throws IOException, InterruptedException {
+        HttpResponse<String> created = post("/api/chats", Map.of(
+            "chatName", "Idle benchmark",
+            "creatorName", "Idle Creator",
+            "creatorEmail", "creator@loadtest.local"
+        ));
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("Chat creation failed with status " + created.statusCode() + ": " + created.body());
+        }
+        return objectMapper.readTree(created.body()).get("id").asText();
+    }
+    
+    private List<WebSocket> connect(String chatId) throws InterruptedException {
+        List<WebSocket> sockets = Collections.synchronizedList(new ArrayList<>());
+        Semaphore handshakes = new Semaphore(500);
+        CountDownLatch done = new CountDownLatch(connections);
+        
+        for (int i = 0; i < connections; i++) {
+            String host = hosts.get(i % hosts.size());
+            URI uri = URI.create(mode == Mode.STOMP
+                ? "ws://" + host + ":" + port() + "/ws"
+                : "ws://" + host + ":" + port() + "/ws/topic/chat/" + chatId);
+            handshakes.acquire();
+            httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .buildAsync(uri, new Subscriber(chatId))
+                .whenComplete((socket, error) -> {
+                    handshakes.release();
+                    if (error != null) {
+                        connectFailures.incrementAndGet();
+                    } else {
+                        sockets.add(socket);
+                    }
+                    done.countDown();
+                });
+        }
+        
+        done.await(5, TimeUnit.MINUTES);
+        return sockets;
+    }
+    
+    private int port() {
+        int port = URI.create(baseUrl).getPort();
+        return port == -1 ? 80 : port;
+    }
+    
+    private HttpResponse<String> post(String path, Map<String, String> body) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private long serverMetric(String name) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            return objectMapper.readTree(response.body()).path("measurements").path(0).path("value").asLong(-1);
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+    
+    private synchronized void record(long sentNanos) {
+        latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentNanos)));
+        delivered.incrementAndGet();
+    }
+    
+    private void printSummary(int opened, long heapDelta, long threadDelta) throws IOException {
+        long expected = (long) opened * messages;
+        
+        System.out.println();
+        System.out.printf("Mémoire   : %+.1f Mo de tas serveur, %.1f Ko par connexion%n",
+            heapDelta / (1024.0 * 1024.0), opened == 0 ? 0.0 : heapDelta / 1024.0 / opened);
+        System.out.printf("Threads   : %+d threads serveur%n", threadDelta);
+        System.out.printf("Livraison : %d / %d messages (%.2f%%)%n",
+            delivered.get(), expected, expected == 0 ? 0.0 : delivered.get() * 100.0 / expected);
+        synchronized (this) {
+            if (latency.getTotalCount() > 0) {
+                System.out.printf("Latence   : p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+            }
+            
+            Path directory = Path.of("target", "loadtest");
+            Files.createDirectories(directory);
+            Path histogram = directory.resolve("idle-" + mode.name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(histogram))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+            System.out.println("Histogramme écrit dans " + histogram.toAbsolutePath());
+        }
+    }
+    
+    private final class Subscriber implements WebSocket.Listener {
+        
+        private final String chatId;
+        private final StringBuilder frame = new StringBuilder();
+        
+        private Subscriber(String chatId) {
+            this.chatId = chatId;
+        }
+        
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            if (mode == Mode.STOMP) {
+                // No heart-beat header: the connection stays silent between messages
+                webSocket.sendText("CONNECT\naccept-version:1.2\nhost:localhost\n\n\0", true);
+            }
+            webSocket.request(1);
+        }
+        
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            frame.append(data);
+            return onFragment(webSocket, last);
+        }
+        
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            // TopicBroker writes its shared frames as binary WebSocket messages
+            frame.append(StandardCharsets.UTF_8.decode(data));
+            return onFragment(webSocket, last);
+        }
+        
+        private CompletionStage<?> onFragment(WebSocket webSocket, boolean last) {
+            if (last) {
+                String text = frame.toString();
+                frame.setLength(0);
+                if (mode == Mode.STOMP && text.startsWith("CONNECTED")) {
+                    webSocket.sendText("SUBSCRIBE\nid:sub-0\ndestination:/topic/chat/" + chatId + "\n\n\0", true);
+                } else {
+                    Matcher matcher = CONTENT.matcher(text);
+                    while (matcher.find()) {
+                        record(Long.parseLong(matcher.group(1)));
+                    }
+                }
+            }
+            webSocket.request(1);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.chatpoc.loadtest;
+
+public enum LoadTestScenario {
+    
+    HOT_CHAT,
+    COLD_CHATS,
+    MIXED;
+    
+    public int chatCount(int requested) {
+        return this == HOT_CHAT ? 1 : Math.max(1, requested);
+    }
+    
+    public double readRatio(double requested) {
+        return this == MIXED ? requested : 0.0;
+    }
+}
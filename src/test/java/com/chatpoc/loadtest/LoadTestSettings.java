@@ -0,0 +1,55 @@
+package com.chatpoc.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+
+public record LoadTestSettings(
+    String baseUrl,
+    LoadTestScenario scenario,
+    int chats,
+    int subscribers,
+    int senders,
+    double messagesPerSecondPerSender,
+    double readRatio,
+    Duration warmup,
+    Duration duration,
+    Duration reportInterval,
+    int maxInFlightRequests,
+    int batchWindowMillis
+) {
+    public LoadTestSettings {
+        if (subscribers < 0 || senders <= 0) {
+            throw new IllegalArgumentException("Senders must be positive and subscribers cannot be negative");
+        }
+        if (messagesPerSecondPerSender <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (readRatio < 0 || readRatio > 1) {
+            throw new IllegalArgumentException("Read ratio must be between 0 and 1");
+        }
+    }
+    
+    public static LoadTestSettings fromSystemProperties() {
+        LoadTestScenario scenario = LoadTestScenario.valueOf(
+            System.getProperty("loadtest.scenario", "HOT_CHAT").toUpperCase(Locale.ROOT));
+        
+        return new LoadTestSettings(
+            System.getProperty("loadtest.baseUrl", "http://localhost:8080"),
+            scenario,
+            scenario.chatCount(Integer.getInteger("loadtest.chats", 100)),
+            Integer.getInteger("loadtest.subscribers", 1000),
+            Integer.getInteger("loadtest.senders", 20),
+            Double.parseDouble(System.getProperty("loadtest.rate", "10")),
+            scenario.readRatio(Double.parseDouble(System.getProperty("loadtest.readRatio", "0.8"))),
+            Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+            Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60)),
+            Duration.ofSeconds(Long.getLong("loadtest.reportSeconds", 5)),
+            Integer.getInteger("loadtest.maxInFlight", 500),
+            Integer.getInteger("loadtest.batchWindowMillis", 0)
+        );
+    }
+    
+    public String webSocketUrl() {
+        return baseUrl.replaceFirst("^http", "ws") + "/ws";
+    }
+}